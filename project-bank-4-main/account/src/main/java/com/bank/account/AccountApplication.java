@@ -3,7 +3,9 @@ package com.bank.account;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
 @EnableEurekaClient
 @SpringBootApplication(scanBasePackages = {"com.bank.account", "com.bank.common"})
 public class AccountApplication {
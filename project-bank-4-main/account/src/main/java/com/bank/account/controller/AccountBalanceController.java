@@ -0,0 +1,82 @@
+package com.bank.account.controller;
+
+import com.bank.account.entity.AccountDetailsEntity;
+import com.bank.account.service.AccountBalanceService;
+import com.bank.common.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+/**
+ * Контроллер баланса {@link AccountDetailsEntity}
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/balance")
+public class AccountBalanceController {
+
+    private final AccountBalanceService service;
+
+    /**
+     * @param id технический идентификатор {@link AccountDetailsEntity}
+     * @return {@link ResponseEntity} с балансом счёта
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Money> read(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(service.findBalance(id));
+    }
+
+    /**
+     * @param id технический идентификатор {@link AccountDetailsEntity}
+     * @param at момент времени, без него - текущий баланс
+     * @return {@link ResponseEntity} с балансом счёта по журналу изменений
+     */
+    @GetMapping("/{id}/ledger")
+    public ResponseEntity<Money> readLedger(
+            @PathVariable("id") Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(service.findLedgerBalance(id, at));
+    }
+
+    /**
+     * @param id     технический идентификатор {@link AccountDetailsEntity}
+     * @param amount сумма списания
+     * @return {@link ResponseEntity} без тела
+     */
+    @PostMapping("/{id}/debit")
+    public ResponseEntity<Void> debit(@PathVariable("id") Long id, @RequestParam Money amount) {
+        service.debit(id, amount);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * @param id     технический идентификатор {@link AccountDetailsEntity}
+     * @param amount сумма зачисления
+     * @return {@link ResponseEntity} без тела
+     */
+    @PostMapping("/{id}/credit")
+    public ResponseEntity<Void> credit(@PathVariable("id") Long id, @RequestParam Money amount) {
+        service.credit(id, amount);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * @param id    технический идентификатор {@link AccountDetailsEntity}
+     * @param count количество слотов баланса, 0 - обычный счёт
+     * @return {@link ResponseEntity} без тела
+     */
+    @PutMapping("/{id}/slots")
+    public ResponseEntity<Void> configureSlots(@PathVariable("id") Long id, @RequestParam int count) {
+        service.configureSlots(id, count);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -63,4 +63,40 @@ public class AccountDetailsController {
     public ResponseEntity<List<AccountDetailsDto>> readAll(@RequestParam List<Long> ids) {
         return ResponseEntity.ok(service.findAllById(ids));
     }
+
+    /**
+     * @param accountNumber номер счёта
+     * @return {@link ResponseEntity<AccountDetailsDto>}
+     */
+    @GetMapping("/number/{accountNumber}")
+    public ResponseEntity<AccountDetailsDto> readByAccountNumber(@PathVariable Long accountNumber) {
+        return ResponseEntity.ok(service.findByAccountNumber(accountNumber));
+    }
+
+    /**
+     * @param accountNumber номер счёта
+     * @return {@link ResponseEntity} с техническим идентификатором {@link AccountDetailsEntity}
+     */
+    @GetMapping("/number/{accountNumber}/id")
+    public ResponseEntity<Long> readIdByAccountNumber(@PathVariable Long accountNumber) {
+        return ResponseEntity.ok(service.findIdByAccountNumber(accountNumber));
+    }
+
+    /**
+     * @param profileId технический идентификатор профиля
+     * @return {@link ResponseEntity} c {@link List<AccountDetailsDto>}
+     */
+    @GetMapping("/profile/{profileId}")
+    public ResponseEntity<List<AccountDetailsDto>> readAllByProfileId(@PathVariable Long profileId) {
+        return ResponseEntity.ok(service.findAllByProfileId(profileId));
+    }
+
+    /**
+     * @param passportId технический идентификатор паспорта
+     * @return {@link ResponseEntity} c {@link List<AccountDetailsDto>}
+     */
+    @GetMapping("/passport/{passportId}")
+    public ResponseEntity<List<AccountDetailsDto>> readAllByPassportId(@PathVariable Long passportId) {
+        return ResponseEntity.ok(service.findAllByPassportId(passportId));
+    }
 }
@@ -0,0 +1,28 @@
+package com.bank.account.dto;
+
+import com.bank.account.entity.AccountDetailsEntity;
+import com.bank.common.money.Money;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+
+/**
+ * Баланс {@link AccountDetailsEntity}
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AccountBalanceDto implements Serializable {
+    Long accountDetailsId;
+    Money money;
+    Boolean negativeBalance;
+}
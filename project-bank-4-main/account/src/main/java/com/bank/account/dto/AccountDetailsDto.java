@@ -1,6 +1,7 @@
 package com.bank.account.dto;
 
 import com.bank.account.entity.AccountDetailsEntity;
+import com.bank.common.money.Money;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -10,7 +11,6 @@ import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 
 import java.io.Serializable;
-import java.math.BigDecimal;
 
 /**
  * DTO сущности  {@link AccountDetailsEntity}
@@ -26,7 +26,7 @@ public class AccountDetailsDto implements Serializable {
     Long passportId;
     Long accountNumber;
     Long bankDetailsId;
-    BigDecimal money;
+    Money money;
     Boolean negativeBalance;
     Long profileId;
 }
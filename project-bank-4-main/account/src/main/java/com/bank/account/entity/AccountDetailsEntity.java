@@ -1,5 +1,7 @@
 package com.bank.account.entity;
 
+import com.bank.common.money.Money;
+import com.bank.common.money.MoneyConverter;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -7,13 +9,14 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.FieldDefaults;
 
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.Table;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Column;
-import java.math.BigDecimal;
+import javax.persistence.Version;
 import java.util.Objects;
 
 /**
@@ -43,7 +46,8 @@ public class AccountDetailsEntity {
     Long bankDetailsId;
 
     @Column(name = "money")
-    BigDecimal money;
+    @Convert(converter = MoneyConverter.class)
+    Money money;
 
     @Column(name = "negative_balance")
     Boolean negativeBalance;
@@ -51,6 +55,10 @@ public class AccountDetailsEntity {
     @Column(name = "profile_id")
     Long profileId;
 
+    @Version
+    @Column(name = "version")
+    Long version;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
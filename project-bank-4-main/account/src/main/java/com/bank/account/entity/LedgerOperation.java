@@ -0,0 +1,36 @@
+package com.bank.account.entity;
+
+/**
+ * Тип записи журнала изменений баланса account.ledger_entry
+ */
+public enum LedgerOperation {
+
+    /**
+     * Баланс счёта при открытии или на момент появления журнала.
+     */
+    OPENING,
+
+    /**
+     * Баланс изменён напрямую через обновление счёта.
+     */
+    ADJUSTMENT,
+
+    DEBIT,
+
+    CREDIT,
+
+    /**
+     * Сумма изменений одного переноса журнала баланса в памяти.
+     */
+    BATCH,
+
+    /**
+     * Плата за овердрафт при закрытии дня.
+     */
+    OVERDRAFT_FEE,
+
+    /**
+     * Проценты на остаток при закрытии дня.
+     */
+    INTEREST
+}
@@ -19,6 +19,7 @@ public interface AccountDetailsMapper {
      * @return {@link AccountDetailsEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     AccountDetailsEntity toEntity(AccountDetailsDto accountDetails);
 
     /**
@@ -39,6 +40,7 @@ public interface AccountDetailsMapper {
      * @return {@link AccountDetailsEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     AccountDetailsEntity mergeToEntity(@MappingTarget AccountDetailsEntity accountDetails,
                                        AccountDetailsDto accountDetailsDto);
 }
@@ -0,0 +1,140 @@
+package com.bank.account.repository;
+
+import com.bank.account.dto.AccountBalanceDto;
+import com.bank.account.entity.LedgerOperation;
+import com.bank.common.balance.AccountBalanceSql;
+import com.bank.common.concurrent.BalanceLedgerLock;
+import com.bank.common.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Репозиторий балансов (колонка money таблицы account_details) и контрольных точек журнала баланса.
+ * Балансы меняются запросами {@link AccountBalanceSql}, общими с сервисом transfer;
+ * каждое изменение записывается в account.ledger_entry.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountBalanceRepository {
+
+    // баланс горячего счёта - money счёта плюс сумма его слотов
+    private static final String FIND_BALANCE = "SELECT d.id, d.money + COALESCE((SELECT sum(s.money) "
+            + "FROM account.account_balance_slot s WHERE s.account_details_id = d.id), 0) AS money, "
+            + "d.negative_balance FROM account.account_details d WHERE d.id = ?";
+
+    private static final String ADD = AccountBalanceSql.CHANGE_DETAILS
+            + "SET money = money + ?, version = version + 1 WHERE id = ? RETURNING id) "
+            + AccountBalanceSql.INSERT_ENTRY
+            + "SELECT id, ?, ? FROM changed";
+
+    private static final String FIND_CHECKPOINT =
+            "SELECT last_sequence FROM account.ledger_checkpoint WHERE ledger_id = ?";
+
+    private static final String SAVE_CHECKPOINT = "INSERT INTO account.ledger_checkpoint (ledger_id, last_sequence) "
+            + "VALUES (?, ?) ON CONFLICT (ledger_id) DO UPDATE SET last_sequence = EXCLUDED.last_sequence";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @return {@link AccountBalanceDto}
+     */
+    public Optional<AccountBalanceDto> findBalance(Long accountDetailsId) {
+        return jdbcTemplate.query(FIND_BALANCE, (resultSet, rowNum) -> new AccountBalanceDto(
+                        resultSet.getLong("id"),
+                        Money.of(resultSet.getBigDecimal("money")),
+                        resultSet.getBoolean("negative_balance")), accountDetailsId)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Списывает сумму, если на счёте достаточно денег или разрешён отрицательный баланс.
+     * Списание с горячего счёта блокирует его строку до конца транзакции, поэтому вызывается в транзакции.
+     *
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @param amount           сумма списания
+     * @return false, если счёт не найден или на нём недостаточно средств
+     */
+    public boolean debit(Long accountDetailsId, Money amount) {
+        final BigDecimal value = amount.toBigDecimal();
+
+        return jdbcTemplate.update(AccountBalanceSql.DEBIT, value, accountDetailsId, value, value.negate()) == 1
+                || debitHot(accountDetailsId, value);
+    }
+
+    /**
+     * Зачисляет сумму; на горячий счёт - в случайный слот, без блокировки строки счёта.
+     *
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @param amount           сумма зачисления
+     * @return false, если счёт не найден
+     */
+    public boolean credit(Long accountDetailsId, Money amount) {
+        final BigDecimal value = amount.toBigDecimal();
+
+        return jdbcTemplate.update(AccountBalanceSql.CREDIT, value, accountDetailsId, value) == 1
+                || jdbcTemplate.update(AccountBalanceSql.CREDIT_SLOT, accountDetailsId, value, value) == 1;
+    }
+
+    /**
+     * Разделяемо берёт {@link BalanceLedgerLock} до конца текущей транзакции; вызывается в транзакции
+     * перед изменением баланса в обход журнала.
+     *
+     * @throws IllegalStateException если работает журнал баланса в памяти
+     */
+    public void lockDirectChange() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(BalanceLedgerLock.TRY_LOCK_SHARED, Boolean.class,
+                BalanceLedgerLock.KEY))) {
+            throw new IllegalStateException(BalanceLedgerLock.LEDGER_ACTIVE_MESSAGE);
+        }
+    }
+
+    /**
+     * Прибавляет к балансам накопленные изменения одним JDBC-батчем.
+     *
+     * @param deltas изменение баланса по id счёта, в порядке возрастания id
+     */
+    public void addAll(Map<Long, Money> deltas) {
+        final List<Object[]> parameters = deltas.entrySet().stream()
+                .map(delta -> {
+                    final BigDecimal value = delta.getValue().toBigDecimal();
+                    return new Object[]{value, delta.getKey(), value, LedgerOperation.BATCH.name()};
+                })
+                .toList();
+
+        jdbcTemplate.batchUpdate(ADD, parameters);
+    }
+
+    /**
+     * @param ledgerId идентификатор журнала
+     * @return номер последней записи журнала, уже перенесённой в account_details
+     */
+    public Optional<Long> findCheckpoint(String ledgerId) {
+        return jdbcTemplate.queryForList(FIND_CHECKPOINT, Long.class, ledgerId).stream().findFirst();
+    }
+
+    /**
+     * @param ledgerId     идентификатор журнала
+     * @param lastSequence номер последней записи журнала, перенесённой в account_details
+     */
+    public void saveCheckpoint(String ledgerId, long lastSequence) {
+        jdbcTemplate.update(SAVE_CHECKPOINT, ledgerId, lastSequence);
+    }
+
+    // вызывается после неудачного обычного списания: счёт горячий, не найден или на нём недостаточно средств
+    private boolean debitHot(Long accountDetailsId, BigDecimal value) {
+        if (jdbcTemplate.queryForList(AccountBalanceSql.LOCK_HOT, Long.class, accountDetailsId).isEmpty()) {
+            return false;
+        }
+
+        return jdbcTemplate.update(AccountBalanceSql.DEBIT_HOT,
+                value, accountDetailsId, accountDetailsId, value, value.negate()) == 1;
+    }
+}
@@ -2,9 +2,39 @@ package com.bank.account.repository;
 
 import com.bank.account.entity.AccountDetailsEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Репозиторий для {@link AccountDetailsEntity}
  */
 public interface AccountDetailsRepository extends JpaRepository<AccountDetailsEntity, Long> {
+
+    /**
+     * @param accountNumber номер счёта, уникальный индекс account_details_account_number_key
+     * @return {@link AccountDetailsEntity}
+     */
+    Optional<AccountDetailsEntity> findByAccountNumber(Long accountNumber);
+
+    /**
+     * @param accountNumber номер счёта
+     * @return технический идентификатор {@link AccountDetailsEntity}, без загрузки сущности
+     */
+    @Query("select a.id from AccountDetailsEntity a where a.accountNumber = :accountNumber")
+    Optional<Long> findIdByAccountNumber(@Param("accountNumber") Long accountNumber);
+
+    /**
+     * @param profileId технический идентификатор профиля
+     * @return лист {@link AccountDetailsEntity} в порядке id
+     */
+    List<AccountDetailsEntity> findAllByProfileIdOrderById(Long profileId);
+
+    /**
+     * @param passportId технический идентификатор паспорта
+     * @return лист {@link AccountDetailsEntity} в порядке id
+     */
+    List<AccountDetailsEntity> findAllByPassportIdOrderById(Long passportId);
 }
@@ -0,0 +1,88 @@
+package com.bank.account.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Репозиторий слотов баланса горячих счетов (таблица account_balance_slot).
+ * Все методы блокируют строку счёта и вызываются в транзакции.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BalanceSlotRepository {
+
+    // читается по частичному индексу account_details_hot_idx, без просмотра всех счетов
+    private static final String FIND_HOT_IDS =
+            "SELECT id FROM account.account_details WHERE balance_slots > 0 ORDER BY id";
+
+    // строка счёта блокируется первой, как при списании с горячего счёта
+    private static final String LOCK_ACCOUNT = "SELECT id FROM account.account_details WHERE id = ? FOR UPDATE";
+
+    // FOR UPDATE возвращает последние закоммиченные значения слотов и не даёт зачислить в них до конца переноса
+    private static final String LOCK_SLOTS = "SELECT COALESCE(sum(money), 0) FROM (SELECT money "
+            + "FROM account.account_balance_slot WHERE account_details_id = ? FOR UPDATE) slots";
+
+    private static final String CLEAR_SLOTS =
+            "UPDATE account.account_balance_slot SET money = 0 WHERE account_details_id = ? AND money <> 0";
+
+    private static final String FOLD = "UPDATE account.account_details SET money = money + ?, version = version + 1 "
+            + "WHERE id = ?";
+
+    private static final String DELETE_SLOTS = "DELETE FROM account.account_balance_slot WHERE account_details_id = ?";
+
+    private static final String CREATE_SLOTS = "INSERT INTO account.account_balance_slot (account_details_id, slot) "
+            + "SELECT ?, generate_series(0, ? - 1)";
+
+    private static final String SET_SLOTS = "UPDATE account.account_details SET balance_slots = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return технические идентификаторы горячих счетов
+     */
+    public List<Long> findHotAccountIds() {
+        return jdbcTemplate.queryForList(FIND_HOT_IDS, Long.class);
+    }
+
+    /**
+     * Переносит сумму слотов в money счёта. Баланс счёта не меняется, поэтому запись в журнал не добавляется.
+     *
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @return перенесённая сумма
+     */
+    public BigDecimal compact(Long accountDetailsId) {
+        jdbcTemplate.queryForList(LOCK_ACCOUNT, Long.class, accountDetailsId);
+
+        final BigDecimal folded = jdbcTemplate.queryForObject(LOCK_SLOTS, BigDecimal.class, accountDetailsId);
+
+        if (folded != null && folded.signum() != 0) {
+            jdbcTemplate.update(CLEAR_SLOTS, accountDetailsId);
+            jdbcTemplate.update(FOLD, folded, accountDetailsId);
+        }
+        return folded;
+    }
+
+    /**
+     * Переносит слоты в money счёта и пересоздаёт их в новом количестве.
+     *
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @param slots            количество слотов, 0 - обычный счёт
+     * @return false, если счёт не найден
+     */
+    public boolean configure(Long accountDetailsId, int slots) {
+        if (jdbcTemplate.queryForList(LOCK_ACCOUNT, Long.class, accountDetailsId).isEmpty()) {
+            return false;
+        }
+
+        compact(accountDetailsId);
+        jdbcTemplate.update(DELETE_SLOTS, accountDetailsId);
+        if (slots > 0) {
+            jdbcTemplate.update(CREATE_SLOTS, accountDetailsId, slots);
+        }
+        return jdbcTemplate.update(SET_SLOTS, slots, accountDetailsId) == 1;
+    }
+}
@@ -0,0 +1,152 @@
+package com.bank.account.repository;
+
+import com.bank.account.dto.EndOfDayRunDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Репозиторий закрытия дня: запуски account.eod_run, обработанные диапазоны account.eod_chunk
+ * и начисления по диапазону id счетов одним запросом на операцию.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EndOfDayRepository {
+
+    private static final String START_RUN = "INSERT INTO account.eod_run (business_date, chunk_size, max_account_id) "
+            + "SELECT ?, ?, COALESCE(max(id), 0) FROM account.account_details ON CONFLICT DO NOTHING";
+
+    private static final String FIND_RUN =
+            "SELECT chunk_size, max_account_id FROM account.eod_run WHERE business_date = ?";
+
+    private static final String FIND_UNFINISHED =
+            "SELECT business_date FROM account.eod_run WHERE finished_at IS NULL ORDER BY business_date";
+
+    private static final String FINISH_RUN = "UPDATE account.eod_run SET finished_at = now() WHERE business_date = ?";
+
+    private static final String FIND_MIN_ACCOUNT_ID = "SELECT COALESCE(min(id), 0) FROM account.account_details";
+
+    private static final String FIND_PROCESSED =
+            "SELECT chunk_start FROM account.eod_chunk WHERE business_date = ?";
+
+    // параллельный экземпляр сервиса ждёт коммита вставившей транзакции и получает 0 строк
+    private static final String CLAIM_CHUNK = "INSERT INTO account.eod_chunk (business_date, chunk_start) "
+            + "VALUES (?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String CHANGE_DETAILS = "WITH changed AS (UPDATE account.account_details d ";
+
+    // баланс горячего счёта - money счёта плюс сумма его слотов
+    private static final String LOCK_BALANCES = "FROM (SELECT a.id, a.money + COALESCE((SELECT sum(s.money) "
+            + "FROM account.account_balance_slot s WHERE s.account_details_id = a.id), 0) AS balance "
+            + "FROM account.account_details a WHERE a.id >= ? AND a.id < ? ";
+
+    // строки блокируются по возрастанию id, как при переводах, чтобы не получить deadlock
+    private static final String APPLY = "ORDER BY a.id FOR UPDATE OF a) b) c "
+            + "WHERE d.id = c.id AND c.amount > 0 RETURNING d.id, c.amount) "
+            + "INSERT INTO account.ledger_entry (account_details_id, amount, operation) ";
+
+    private static final String CHARGE_OVERDRAFT = CHANGE_DETAILS
+            + "SET money = d.money - c.amount, version = d.version + 1 "
+            + "FROM (SELECT b.id, round(-b.balance * ?, 2) AS amount " + LOCK_BALANCES
+            + "AND a.negative_balance AND a.money < 0 " + APPLY
+            + "SELECT id, -amount, 'OVERDRAFT_FEE' FROM changed RETURNING account_details_id";
+
+    private static final String ACCRUE_INTEREST = CHANGE_DETAILS
+            + "SET money = d.money + c.amount, version = d.version + 1 "
+            + "FROM (SELECT b.id, round(b.balance * ?, 2) AS amount " + LOCK_BALANCES
+            + "AND (a.money > 0 OR a.balance_slots > 0) " + APPLY
+            + "SELECT id, amount, 'INTEREST' FROM changed RETURNING account_details_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Создаёт запуск, если его ещё нет; у существующего запуска сохраняются прежние границы.
+     *
+     * @param businessDate операционный день
+     * @param chunkSize    размер диапазона id счетов
+     * @return {@link EndOfDayRunDto}
+     */
+    public EndOfDayRunDto startRun(LocalDate businessDate, int chunkSize) {
+        final Date date = Date.valueOf(businessDate);
+
+        jdbcTemplate.update(START_RUN, date, chunkSize);
+        return jdbcTemplate.queryForObject(FIND_RUN,
+                (resultSet, rowNum) -> new EndOfDayRunDto(
+                        resultSet.getInt("chunk_size"),
+                        resultSet.getLong("max_account_id")), date);
+    }
+
+    /**
+     * @return операционные дни, закрытие которых начато, но не закончено
+     */
+    public List<LocalDate> findUnfinishedRuns() {
+        return jdbcTemplate.queryForList(FIND_UNFINISHED, Date.class).stream()
+                .map(Date::toLocalDate)
+                .toList();
+    }
+
+    /**
+     * @param businessDate операционный день
+     */
+    public void finishRun(LocalDate businessDate) {
+        jdbcTemplate.update(FINISH_RUN, Date.valueOf(businessDate));
+    }
+
+    /**
+     * @return наименьший id счёта или 0, если счетов нет
+     */
+    public long findMinAccountId() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(FIND_MIN_ACCOUNT_ID, Long.class)).orElse(0L);
+    }
+
+    /**
+     * @param businessDate операционный день
+     * @return начала уже обработанных диапазонов
+     */
+    public Set<Long> findProcessedChunks(LocalDate businessDate) {
+        return new HashSet<>(jdbcTemplate.queryForList(FIND_PROCESSED, Long.class, Date.valueOf(businessDate)));
+    }
+
+    /**
+     * Отмечает диапазон обработанным; вызывается в транзакции начислений по диапазону.
+     *
+     * @param businessDate операционный день
+     * @param chunkStart   первый id диапазона
+     * @return false, если диапазон уже обработан или обрабатывается другим экземпляром
+     */
+    public boolean claimChunk(LocalDate businessDate, long chunkStart) {
+        return jdbcTemplate.update(CLAIM_CHUNK, Date.valueOf(businessDate), chunkStart) == 1;
+    }
+
+    /**
+     * Списывает плату за овердрафт со счетов диапазона с разрешённым отрицательным балансом.
+     *
+     * @param from первый id диапазона
+     * @param to   id после последнего в диапазоне
+     * @param rate доля отрицательного баланса
+     * @return id счетов, с которых списана плата
+     */
+    public List<Long> chargeOverdraft(long from, long to, BigDecimal rate) {
+        return jdbcTemplate.queryForList(CHARGE_OVERDRAFT, Long.class, rate, from, to);
+    }
+
+    /**
+     * Начисляет проценты на положительный остаток счетов диапазона.
+     *
+     * @param from первый id диапазона
+     * @param to   id после последнего в диапазоне
+     * @param rate дневная ставка
+     * @return id счетов, на которые начислены проценты
+     */
+    public List<Long> accrueInterest(long from, long to, BigDecimal rate) {
+        return jdbcTemplate.queryForList(ACCRUE_INTEREST, Long.class, rate, from, to);
+    }
+}
@@ -0,0 +1,112 @@
+package com.bank.account.repository;
+
+import com.bank.account.entity.LedgerOperation;
+import com.bank.common.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Репозиторий журнала изменений баланса account.ledger_entry и снимков балансов account.balance_snapshot.
+ * Баланс на момент T - последний снимок, все записи которого сделаны не позже T, плюс записи после снимка
+ * до T. Снимок делается каждые min-entries записей счёта, поэтому хвост ограничен независимо от длины журнала.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LedgerEntryRepository {
+
+    private static final String APPEND =
+            "INSERT INTO account.ledger_entry (account_details_id, amount, operation) VALUES (?, ?, ?)";
+
+    private static final String FIND_SNAPSHOT =
+            "WITH snapshot AS (SELECT entry_id, balance FROM account.balance_snapshot WHERE account_details_id = ? ";
+
+    private static final String SUM_TAIL = "SELECT COALESCE((SELECT balance FROM snapshot), 0) "
+            + "+ COALESCE((SELECT sum(amount) FROM account.ledger_entry WHERE account_details_id = ? "
+            + "AND id > COALESCE((SELECT entry_id FROM snapshot), 0)";
+
+    private static final String BALANCE = FIND_SNAPSHOT + "ORDER BY entry_id DESC LIMIT 1) "
+            + SUM_TAIL + "), 0)";
+
+    private static final String BALANCE_AT = FIND_SNAPSHOT
+            + "AND last_entry_at <= ? ORDER BY last_entry_at DESC, entry_id DESC LIMIT 1) "
+            + SUM_TAIL + " AND created_at <= ?), 0)";
+
+    // запись с меньшим id могла быть вставлена раньше, но ещё не закоммичена; старше lag таких не бывает
+    private static final String SETTLED_ENTRY_ID = "SELECT COALESCE(max(id), 0) FROM (SELECT id "
+            + "FROM account.ledger_entry WHERE id > ? "
+            + "AND created_at < clock_timestamp() - make_interval(secs => ? / 1000.0) ORDER BY id LIMIT ?) settled";
+
+    private static final String SNAPSHOT = "INSERT INTO account.balance_snapshot "
+            + "(account_details_id, entry_id, balance, last_entry_at) "
+            + "SELECT accounts.account_details_id, tail.max_id, COALESCE(last.balance, 0) + tail.delta, "
+            + "GREATEST(last.last_entry_at, tail.max_at) "
+            + "FROM (SELECT DISTINCT account_details_id FROM account.ledger_entry WHERE id > ? AND id <= ?) accounts "
+            + "LEFT JOIN LATERAL (SELECT entry_id, balance, last_entry_at FROM account.balance_snapshot s "
+            + "WHERE s.account_details_id = accounts.account_details_id ORDER BY entry_id DESC LIMIT 1) last ON TRUE "
+            + "CROSS JOIN LATERAL (SELECT max(e.id) AS max_id, sum(e.amount) AS delta, "
+            + "max(e.created_at) AS max_at, count(*) AS entries FROM account.ledger_entry e "
+            + "WHERE e.account_details_id = accounts.account_details_id "
+            + "AND e.id > COALESCE(last.entry_id, 0) AND e.id <= ?) tail "
+            + "WHERE tail.entries >= ? ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @param amount           изменение баланса со знаком
+     * @param operation        {@link LedgerOperation}
+     */
+    public void append(Long accountDetailsId, Money amount, LedgerOperation operation) {
+        jdbcTemplate.update(APPEND, accountDetailsId, amount.toBigDecimal(), operation.name());
+    }
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @return баланс по журналу: последний снимок и записи после него
+     */
+    public Money findBalance(Long accountDetailsId) {
+        return Money.of(jdbcTemplate.queryForObject(BALANCE, BigDecimal.class, accountDetailsId, accountDetailsId));
+    }
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @param at               момент времени
+     * @return баланс по журналу на момент at
+     */
+    public Money findBalanceAt(Long accountDetailsId, LocalDateTime at) {
+        final Timestamp timestamp = Timestamp.valueOf(at);
+
+        return Money.of(jdbcTemplate.queryForObject(BALANCE_AT, BigDecimal.class,
+                accountDetailsId, timestamp, accountDetailsId, timestamp));
+    }
+
+    /**
+     * @param afterEntryId последняя уже обработанная запись
+     * @param limit        максимальное количество записей
+     * @param lagMillis    время, за которое транзакция, вставившая запись, гарантированно завершена
+     * @return id последней из не более чем limit следующих записей, до которой в журнале
+     * не появятся новые записи, или 0, если таких записей нет
+     */
+    public long findSettledEntryId(long afterEntryId, int limit, long lagMillis) {
+        final Long settled = jdbcTemplate.queryForObject(SETTLED_ENTRY_ID, Long.class, afterEntryId, lagMillis, limit);
+        return settled == null ? 0 : settled;
+    }
+
+    /**
+     * Делает снимки счетов, у которых в (fromEntryId, toEntryId] есть записи, а с прошлого снимка
+     * накопилось не меньше minEntries записей.
+     *
+     * @param fromEntryId последняя запись, обработанная предыдущим запуском
+     * @param toEntryId   последняя запись, учитываемая в снимках
+     * @param minEntries  минимальное количество записей после прошлого снимка
+     * @return количество новых снимков
+     */
+    public int snapshot(long fromEntryId, long toEntryId, int minEntries) {
+        return jdbcTemplate.update(SNAPSHOT, fromEntryId, toEntryId, toEntryId, minEntries);
+    }
+}
@@ -0,0 +1,45 @@
+package com.bank.account.service;
+
+import com.bank.account.entity.AccountDetailsEntity;
+import com.bank.common.money.Money;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сервис баланса {@link AccountDetailsEntity}
+ */
+public interface AccountBalanceService {
+
+    /**
+     * @param id технический идентификатор {@link AccountDetailsEntity}
+     * @return баланс счёта
+     */
+    Money findBalance(Long id);
+
+    /**
+     * @param id технический идентификатор {@link AccountDetailsEntity}
+     * @param at момент времени, null - текущий баланс
+     * @return баланс по журналу изменений: последний снимок и записи после него
+     */
+    Money findLedgerBalance(Long id, LocalDateTime at);
+
+    /**
+     * @param id     технический идентификатор {@link AccountDetailsEntity}
+     * @param amount сумма списания
+     */
+    void debit(Long id, Money amount);
+
+    /**
+     * @param id     технический идентификатор {@link AccountDetailsEntity}
+     * @param amount сумма зачисления
+     */
+    void credit(Long id, Money amount);
+
+    /**
+     * Делает счёт горячим: зачисления распределяются по slots строкам, чтобы не ждать блокировку строки счёта.
+     *
+     * @param id    технический идентификатор {@link AccountDetailsEntity}
+     * @param slots количество слотов баланса, 0 - обычный счёт
+     */
+    void configureSlots(Long id, int slots);
+}
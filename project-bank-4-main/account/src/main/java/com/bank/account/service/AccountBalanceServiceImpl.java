@@ -0,0 +1,140 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.AccountBalanceDto;
+import com.bank.account.entity.AccountDetailsEntity;
+import com.bank.account.repository.AccountBalanceRepository;
+import com.bank.account.repository.BalanceSlotRepository;
+import com.bank.account.repository.LedgerEntryRepository;
+import com.bank.account.service.common.ExceptionReturner;
+import com.bank.account.service.ledger.BalanceLedger;
+import com.bank.common.exception.ValidationException;
+import com.bank.common.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+
+/**
+ * Реализация {@link AccountBalanceService}.
+ * При включённом {@link BalanceLedger} (bank.account.ledger.enabled) баланс читается и меняется в памяти,
+ * иначе - условным UPDATE в account_details, если журнал не работает на другом экземпляре;
+ * зачисления на горячий счёт попадают в один из его слотов.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountBalanceServiceImpl implements AccountBalanceService {
+
+    private static final String MESSAGE_PREFIX = "Не существующий id = ";
+
+    private static final String DEBIT_FAILED_MESSAGE = "Недостаточно средств или не найден банковский счёт с ID ";
+
+    private static final int MAX_SLOTS = 256;
+
+    private final AccountBalanceRepository repository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceSlotRepository slotRepository;
+    private final ObjectProvider<BalanceLedger> ledger;
+    private final ExceptionReturner exceptionReturner;
+
+    /**
+     * @param id технический идентификатор {@link AccountDetailsEntity}
+     * @return баланс счёта
+     */
+    @Override
+    public Money findBalance(Long id) {
+        final BalanceLedger balanceLedger = ledger.getIfAvailable();
+
+        if (balanceLedger != null) {
+            return Money.ofMinor(balanceLedger.balance(id)
+                    .orElseThrow(() -> exceptionReturner.getEntityNotFoundException(MESSAGE_PREFIX + id)));
+        }
+
+        return repository.findBalance(id)
+                .map(AccountBalanceDto::getMoney)
+                .orElseThrow(() -> exceptionReturner.getEntityNotFoundException(MESSAGE_PREFIX + id));
+    }
+
+    /**
+     * @param id технический идентификатор {@link AccountDetailsEntity}
+     * @param at момент времени, null - текущий баланс
+     * @return баланс по журналу изменений
+     */
+    @Override
+    public Money findLedgerBalance(Long id, LocalDateTime at) {
+        return at == null ? ledgerEntryRepository.findBalance(id) : ledgerEntryRepository.findBalanceAt(id, at);
+    }
+
+    /**
+     * @param id     технический идентификатор {@link AccountDetailsEntity}
+     * @param amount сумма списания
+     */
+    @Override
+    @Transactional
+    public void debit(Long id, Money amount) {
+        validate(amount);
+        final BalanceLedger balanceLedger = ledger.getIfAvailable();
+
+        final boolean debited = balanceLedger != null
+                ? balanceLedger.debit(id, amount.toMinor())
+                : debitDirectly(id, amount);
+
+        if (!debited) {
+            throw new ValidationException(DEBIT_FAILED_MESSAGE + id);
+        }
+    }
+
+    /**
+     * @param id     технический идентификатор {@link AccountDetailsEntity}
+     * @param amount сумма зачисления
+     */
+    @Override
+    @Transactional
+    public void credit(Long id, Money amount) {
+        validate(amount);
+        final BalanceLedger balanceLedger = ledger.getIfAvailable();
+
+        final boolean credited = balanceLedger != null
+                ? balanceLedger.credit(id, amount.toMinor())
+                : creditDirectly(id, amount);
+
+        if (!credited) {
+            throw exceptionReturner.getEntityNotFoundException(MESSAGE_PREFIX + id);
+        }
+    }
+
+    /**
+     * @param id    технический идентификатор {@link AccountDetailsEntity}
+     * @param slots количество слотов баланса, 0 - обычный счёт
+     */
+    @Override
+    @Transactional
+    public void configureSlots(Long id, int slots) {
+        if (slots < 0 || slots > MAX_SLOTS) {
+            throw new ValidationException("Количество слотов должно быть от 0 до " + MAX_SLOTS);
+        }
+        if (ledger.getIfAvailable() != null) {
+            throw new IllegalStateException("Слоты баланса недоступны при включённом bank.account.ledger");
+        }
+        if (!slotRepository.configure(id, slots)) {
+            throw exceptionReturner.getEntityNotFoundException(MESSAGE_PREFIX + id);
+        }
+    }
+
+    private boolean debitDirectly(Long id, Money amount) {
+        repository.lockDirectChange();
+        return repository.debit(id, amount);
+    }
+
+    private boolean creditDirectly(Long id, Money amount) {
+        repository.lockDirectChange();
+        return repository.credit(id, amount);
+    }
+
+    private void validate(Money amount) {
+        if (amount == null || !amount.isPositive()) {
+            throw new ValidationException("Сумма должна быть больше нуля");
+        }
+    }
+}
@@ -22,6 +22,30 @@ public interface AccountDetailsService {
      */
     List<AccountDetailsDto> findAllById(List<Long> ids);
 
+    /**
+     * @param accountNumber номер счёта
+     * @return {@link AccountDetailsDto}
+     */
+    AccountDetailsDto findByAccountNumber(Long accountNumber);
+
+    /**
+     * @param accountNumber номер счёта
+     * @return технический идентификатор {@link AccountDetailsEntity}
+     */
+    Long findIdByAccountNumber(Long accountNumber);
+
+    /**
+     * @param profileId технический идентификатор профиля
+     * @return {@link List<AccountDetailsDto>}
+     */
+    List<AccountDetailsDto> findAllByProfileId(Long profileId);
+
+    /**
+     * @param passportId технический идентификатор паспорта
+     * @return {@link List<AccountDetailsDto>}
+     */
+    List<AccountDetailsDto> findAllByPassportId(Long passportId);
+
     /**
      * @param accountDetails {@link AccountDetailsDto}
      * @return {@link AccountDetailsDto}
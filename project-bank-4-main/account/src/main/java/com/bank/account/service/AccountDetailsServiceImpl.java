@@ -3,13 +3,23 @@ package com.bank.account.service;
 import com.bank.account.dto.AccountDetailsDto;
 import com.bank.account.entity.AccountDetailsEntity;
 import com.bank.account.mapper.AccountDetailsMapper;
+import com.bank.account.entity.LedgerOperation;
+import com.bank.account.repository.AccountBalanceRepository;
 import com.bank.account.repository.AccountDetailsRepository;
+import com.bank.account.repository.LedgerEntryRepository;
+import com.bank.account.service.common.AccountNumberCache;
 import com.bank.account.service.common.ExceptionReturner;
+import com.bank.account.service.ledger.BalanceLedger;
+import com.bank.common.money.Money;
+import com.bank.common.reader.BulkReader;
+import com.bank.common.retry.OptimisticRetry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Реализация {@link AccountDetailsService}
@@ -19,10 +29,16 @@ import java.util.List;
 public class AccountDetailsServiceImpl implements AccountDetailsService {
 
     private static final String MESSAGE_PREFIX = "Не существующий id = ";
+    private static final String NUMBER_MESSAGE_PREFIX = "Не существующий номер счёта = ";
     private final AccountDetailsMapper mapper;
     private final AccountDetailsRepository repository;
 
     private final ExceptionReturner exceptionReturner;
+    private final BulkReader bulkReader;
+    private final AccountNumberCache accountNumberCache;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final AccountBalanceRepository balanceRepository;
+    private final ObjectProvider<BalanceLedger> ledger;
 
     /**
      * @param id технический идентификатор {@link AccountDetailsEntity}
@@ -42,13 +58,61 @@ public class AccountDetailsServiceImpl implements AccountDetailsService {
     @Override
     public List<AccountDetailsDto> findAllById(List<Long> ids) {
 
-        final List<AccountDetailsEntity> accountDetailsList = ids.stream()
-                .map(id -> repository.findById(id)
-                        .orElseThrow(() -> exceptionReturner.getEntityNotFoundException(MESSAGE_PREFIX + id)))
-                .toList();
+        final List<AccountDetailsEntity> accountDetailsList = bulkReader.findAllById(
+                AccountDetailsEntity.class, AccountDetailsEntity::getId, ids, MESSAGE_PREFIX);
         return mapper.toDtoList(accountDetailsList);
     }
 
+    /**
+     * @param accountNumber номер счёта
+     * @return {@link AccountDetailsDto}
+     */
+    @Override
+    public AccountDetailsDto findByAccountNumber(Long accountNumber) {
+        final AccountDetailsEntity accountDetails = repository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> exceptionReturner.getEntityNotFoundException(NUMBER_MESSAGE_PREFIX + accountNumber));
+
+        accountNumberCache.put(accountNumber, accountDetails.getId());
+        return mapper.toDto(accountDetails);
+    }
+
+    /**
+     * @param accountNumber номер счёта
+     * @return технический идентификатор {@link AccountDetailsEntity}
+     */
+    @Override
+    public Long findIdByAccountNumber(Long accountNumber) {
+        final Long cached = accountNumberCache.get(accountNumber);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        final Long id = repository.findIdByAccountNumber(accountNumber)
+                .orElseThrow(() -> exceptionReturner.getEntityNotFoundException(NUMBER_MESSAGE_PREFIX + accountNumber));
+
+        accountNumberCache.put(accountNumber, id);
+        return id;
+    }
+
+    /**
+     * @param profileId технический идентификатор профиля
+     * @return {@link List<AccountDetailsDto>}
+     */
+    @Override
+    public List<AccountDetailsDto> findAllByProfileId(Long profileId) {
+        return mapper.toDtoList(repository.findAllByProfileIdOrderById(profileId));
+    }
+
+    /**
+     * @param passportId технический идентификатор паспорта
+     * @return {@link List<AccountDetailsDto>}
+     */
+    @Override
+    public List<AccountDetailsDto> findAllByPassportId(Long passportId) {
+        return mapper.toDtoList(repository.findAllByPassportIdOrderById(passportId));
+    }
+
     /**
      * @param accountDetailsDto {@link AccountDetailsDto}
      * @return {@link AccountDetailsDto}
@@ -60,6 +124,7 @@ public class AccountDetailsServiceImpl implements AccountDetailsService {
         final AccountDetailsEntity accountDetails = repository.save(
                 mapper.toEntity(accountDetailsDto)
         );
+        ledgerEntryRepository.append(accountDetails.getId(), accountDetails.getMoney(), LedgerOperation.OPENING);
 
         return mapper.toDto(accountDetails);
     }
@@ -70,15 +135,39 @@ public class AccountDetailsServiceImpl implements AccountDetailsService {
      * @return {@link AccountDetailsDto}
      */
     @Override
+    @OptimisticRetry
     @Transactional
     public AccountDetailsDto update(Long id, AccountDetailsDto accountDetailsDto) {
+        final BalanceLedger balanceLedger = ledger.getIfAvailable();
+
+        // новый баланс задан по балансу журнала: money в БД должен включать изменения, ещё не перенесённые журналом,
+        // иначе перенос добавит их к новому балансу второй раз
+        if (balanceLedger != null && accountDetailsDto.getMoney() != null) {
+            balanceLedger.flush();
+        }
 
         final AccountDetailsEntity accountDetails = repository.findById(id)
                 .orElseThrow(() -> exceptionReturner.getEntityNotFoundException(MESSAGE_PREFIX + id));
+        // номер и баланс до слияния: mergeToEntity может их заменить
+        accountNumberCache.invalidateAfterCommit(accountDetails.getAccountNumber());
+        final Money previousMoney = accountDetails.getMoney();
+        final Boolean previousNegativeBalance = accountDetails.getNegativeBalance();
 
         final AccountDetailsEntity updateAccountDetails = repository.save(
                 mapper.mergeToEntity(accountDetails, accountDetailsDto)
         );
+        final Money adjustment = updateAccountDetails.getMoney().minus(previousMoney);
+
+        if (adjustment.signum() != 0) {
+            ledgerEntryRepository.append(id, adjustment, LedgerOperation.ADJUSTMENT);
+        }
+        // money и negative_balance могли измениться в обход журнала баланса
+        if (balanceLedger != null) {
+            balanceLedger.evictAfterCommit(id);
+        } else if (adjustment.signum() != 0
+                || !Objects.equals(previousNegativeBalance, updateAccountDetails.getNegativeBalance())) {
+            balanceRepository.lockDirectChange();
+        }
 
         return mapper.toDto(updateAccountDetails);
     }
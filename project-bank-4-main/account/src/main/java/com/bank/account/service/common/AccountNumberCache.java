@@ -0,0 +1,58 @@
+package com.bank.account.service.common;
+
+import com.bank.common.cache.TtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Ближний кэш соответствия номера счёта его техническому идентификатору.
+ * Запись сбрасывается после коммита изменения счёта; чтение, начатое до коммита, может вернуть
+ * в кэш старое соответствие, поэтому оно дополнительно ограничено временем жизни ttl-ms.
+ */
+@Component
+public class AccountNumberCache {
+
+    private final TtlCache<Long, Long> accountIds;
+
+    public AccountNumberCache(@Value("${bank.account.lookup.cache-size:100000}") int cacheSize,
+                              @Value("${bank.account.lookup.ttl-ms:600000}") long ttlMillis) {
+        this.accountIds = new TtlCache<>(cacheSize, ttlMillis);
+    }
+
+    /**
+     * @param accountNumber номер счёта
+     * @return технический идентификатор счёта или null, если его нет в кэше
+     */
+    public Long get(Long accountNumber) {
+        return accountIds.get(accountNumber);
+    }
+
+    /**
+     * @param accountNumber номер счёта
+     * @param id            технический идентификатор счёта
+     */
+    public void put(Long accountNumber, Long id) {
+        accountIds.put(accountNumber, id);
+    }
+
+    /**
+     * Сбрасывает запись после коммита текущей транзакции или сразу, если транзакции нет.
+     *
+     * @param accountNumber номер счёта
+     */
+    public void invalidateAfterCommit(Long accountNumber) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accountIds.invalidate(accountNumber);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accountIds.invalidate(accountNumber);
+            }
+        });
+    }
+}
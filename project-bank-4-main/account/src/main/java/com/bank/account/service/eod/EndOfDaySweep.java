@@ -0,0 +1,216 @@
+package com.bank.account.service.eod;
+
+import com.bank.account.dto.EndOfDayRunDto;
+import com.bank.account.repository.AccountBalanceRepository;
+import com.bank.account.repository.EndOfDayRepository;
+import com.bank.account.service.ledger.BalanceLedger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Закрытие дня по всем счетам: плата за овердрафт с отрицательного баланса и проценты на положительный остаток.
+ * Счета обрабатываются диапазонами id по chunk-size, каждый диапазон - отдельной транзакцией, параллельно
+ * в parallelism потоков; одновременно занято не больше parallelism соединений с БД.
+ * Диапазон отмечается в account.eod_chunk той же транзакцией, что и начисления, поэтому повторный запуск
+ * после падения и параллельный запуск на другом экземпляре не начисляют дважды.
+ * Начисления меняют money в обход журнала баланса: при журнале на этом экземпляре балансы счетов диапазона
+ * убираются из памяти, при журнале на другом экземпляре диапазон не обрабатывается и день остаётся незакрытым.
+ */
+@Slf4j
+@Component
+public class EndOfDaySweep {
+
+    private static final int RATE_SCALE = 12;
+
+    private final EndOfDayRepository repository;
+    private final AccountBalanceRepository balanceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<BalanceLedger> ledger;
+    private final int chunkSize;
+    private final int parallelism;
+    private final BigDecimal overdraftRate;
+    private final BigDecimal dailyInterestRate;
+    private final AtomicLong totalChunks = new AtomicLong();
+    private final AtomicLong doneChunks = new AtomicLong();
+    private final Counter processed;
+    private final Counter failed;
+    private final Counter overdraftCharged;
+    private final Counter interestAccrued;
+
+    public EndOfDaySweep(EndOfDayRepository repository,
+                         AccountBalanceRepository balanceRepository,
+                         TransactionTemplate transactionTemplate,
+                         ObjectProvider<BalanceLedger> ledger,
+                         MeterRegistry meterRegistry,
+                         @Value("${bank.account.eod.chunk-size:10000}") int chunkSize,
+                         @Value("${bank.account.eod.parallelism:4}") int parallelism,
+                         @Value("${bank.account.eod.overdraft-rate:0}") BigDecimal overdraftRate,
+                         @Value("${bank.account.eod.interest-rate:0}") BigDecimal interestRate,
+                         @Value("${bank.account.eod.days-in-year:365}") int daysInYear) {
+        this.repository = repository;
+        this.balanceRepository = balanceRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ledger = ledger;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.overdraftRate = overdraftRate;
+        this.dailyInterestRate = interestRate.divide(BigDecimal.valueOf(daysInYear), RATE_SCALE,
+                RoundingMode.HALF_EVEN);
+        this.processed = meterRegistry.counter("account.eod.chunks.processed");
+        this.failed = meterRegistry.counter("account.eod.chunks.failed");
+        this.overdraftCharged = meterRegistry.counter("account.eod.overdraft.charged");
+        this.interestAccrued = meterRegistry.counter("account.eod.interest.accrued");
+        Gauge.builder("account.eod.progress", this, EndOfDaySweep::progress)
+                .description("доля обработанных диапазонов текущего закрытия дня")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Закрывает вчерашний день, предварительно дозакрывая незаконченные дни.
+     */
+    @Scheduled(cron = "${bank.account.eod.cron:-}")
+    public void run() {
+        final LocalDate businessDate = LocalDate.now().minusDays(1);
+
+        try {
+            for (LocalDate unfinished : repository.findUnfinishedRuns()) {
+                if (!unfinished.equals(businessDate)) {
+                    sweep(unfinished);
+                }
+            }
+            sweep(businessDate);
+        } catch (RuntimeException e) {
+            log.error("Не удалось закрыть день {}: {}", businessDate, e.getMessage());
+        }
+    }
+
+    /**
+     * Обрабатывает ещё не обработанные диапазоны дня.
+     *
+     * @param businessDate операционный день
+     * @return true, если обработаны все диапазоны и день закрыт
+     */
+    public synchronized boolean sweep(LocalDate businessDate) {
+        final EndOfDayRunDto run = repository.startRun(businessDate, chunkSize);
+        final int size = run.getChunkSize();
+        final Set<Long> done = repository.findProcessedChunks(businessDate);
+        final List<Long> pending = new ArrayList<>();
+
+        // начала диапазонов кратны размеру, чтобы не зависеть от счетов, удалённых после первого запуска
+        for (long start = repository.findMinAccountId() / size * size; start <= run.getMaxAccountId(); start += size) {
+            if (!done.contains(start)) {
+                pending.add(start);
+            }
+        }
+
+        totalChunks.set(done.size() + pending.size());
+        doneChunks.set(done.size());
+        log.info("Закрытие дня {}: диапазонов {}, уже обработано {}", businessDate, totalChunks.get(), done.size());
+
+        final long started = System.nanoTime();
+        final long failedChunks = execute(businessDate, size, pending);
+
+        log.info("Закрытие дня {}: обработано {} диапазонов за {} с, с ошибкой {}", businessDate,
+                pending.size() - failedChunks, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started),
+                failedChunks);
+
+        if (failedChunks > 0) {
+            return false;
+        }
+        repository.finishRun(businessDate);
+        return true;
+    }
+
+    private long execute(LocalDate businessDate, int size, List<Long> pending) {
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+
+        try {
+            final List<Callable<Boolean>> tasks = pending.stream()
+                    .<Callable<Boolean>>map(start -> () -> processChunk(businessDate, start, start + size))
+                    .toList();
+
+            long failedChunks = 0;
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                if (!result.get()) {
+                    failedChunks++;
+                }
+            }
+            return failedChunks;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Закрытие дня " + businessDate + " прервано", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean processChunk(LocalDate businessDate, long from, long to) {
+        try {
+            final int[] changed = transactionTemplate.execute(status -> {
+                if (ledger.getIfAvailable() == null) {
+                    balanceRepository.lockDirectChange();
+                }
+                if (!repository.claimChunk(businessDate, from)) {
+                    return new int[]{0, 0};
+                }
+
+                final List<Long> charged = overdraftRate.signum() > 0
+                        ? repository.chargeOverdraft(from, to, overdraftRate) : List.of();
+                final List<Long> accrued = dailyInterestRate.signum() > 0
+                        ? repository.accrueInterest(from, to, dailyInterestRate) : List.of();
+
+                evictAfterCommit(charged);
+                evictAfterCommit(accrued);
+                return new int[]{charged.size(), accrued.size()};
+            });
+
+            overdraftCharged.increment(changed[0]);
+            interestAccrued.increment(changed[1]);
+            processed.increment();
+            doneChunks.incrementAndGet();
+            return true;
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.error("Закрытие дня {}: не удалось обработать счета с {} по {}: {}",
+                    businessDate, from, to - 1, e.getMessage());
+            return false;
+        }
+    }
+
+    // балансы в памяти загружаются заново с учётом начислений
+    private void evictAfterCommit(List<Long> accountIds) {
+        final BalanceLedger balanceLedger = ledger.getIfAvailable();
+
+        if (balanceLedger != null) {
+            accountIds.forEach(balanceLedger::evictAfterCommit);
+        }
+    }
+
+    private double progress() {
+        final long total = totalChunks.get();
+        return total == 0 ? 1 : (double) doneChunks.get() / total;
+    }
+}
@@ -0,0 +1,337 @@
+package com.bank.account.service.ledger;
+
+import com.bank.account.dto.AccountBalanceDto;
+import com.bank.account.repository.AccountBalanceRepository;
+import com.bank.common.concurrent.StripedLock;
+import com.bank.common.money.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Балансы горячих счетов в памяти в копейках (long) с отложенной записью в account_details.
+ * Изменение сначала дописывается в {@link WriteAheadLog}, затем применяется в памяти; раз в flush-interval-ms
+ * накопленные изменения переносятся в БД одним батчем вместе с номером последней перенесённой записи.
+ * При старте записи журнала после этого номера применяются заново, поэтому падение процесса не теряет и не
+ * удваивает изменения. Баланс в памяти верен, только пока account_details.money меняет лишь этот журнал,
+ * поэтому журнал работает под эксклюзивной {@link LedgerLock}: прямые изменения баланса (перевод в transfer,
+ * закрытие дня, перенос слотов и изменение счёта на экземплярах без журнала) берут её разделяемо и получают отказ.
+ * Изменения того же экземпляра в обход журнала (закрытие дня, перенос слотов, изменение счёта) убирают баланс
+ * из памяти.
+ * Контрольная точка хранится по bank.account.ledger.id, поэтому id задаётся явно и свой у каждого файла журнала.
+ * В памяти держится не больше max-accounts балансов; при заполнении вытесняются давнее всех использованные.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "bank.account.ledger", name = "enabled", havingValue = "true")
+public class BalanceLedger {
+
+    // при заполнении вытесняется десятая часть балансов: проход по всем балансам - раз на max-accounts / 10 загрузок
+    private static final int EVICT_FRACTION = 10;
+
+    private final AccountBalanceRepository repository;
+    private final LedgerLock lock;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteAheadLog wal;
+    private final String ledgerId;
+    private final int batchSize;
+    private final int maxAccounts;
+    private final long lockTimeout;
+    private final StripedLock accountLocks;
+
+    private final Map<Long, Balance> balances = new ConcurrentHashMap<>();
+
+    // изменения, записанные в журнал, но ещё не перенесённые в account_details
+    private final Map<Long, Long> unflushed = new ConcurrentHashMap<>();
+
+    // загрузка баланса (money из БД + unflushed) не должна видеть перенос, закоммиченный наполовину
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    private long flushedPosition;
+
+    public BalanceLedger(AccountBalanceRepository repository,
+                         LedgerLock lock,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${bank.account.ledger.wal-path:ledger/account-ledger.wal}") String walPath,
+                         @Value("${bank.account.ledger.id}") String ledgerId,
+                         @Value("${bank.account.ledger.sync:true}") boolean sync,
+                         @Value("${bank.account.ledger.batch-size:10000}") int batchSize,
+                         @Value("${bank.account.ledger.max-accounts:1000000}") int maxAccounts,
+                         @Value("${bank.account.ledger.lock-stripes:1024}") int lockStripes,
+                         @Value("${bank.account.ledger.lock-timeout-ms:500}") long lockTimeout) {
+        if (ledgerId.isBlank()) {
+            throw new IllegalStateException("Не задан bank.account.ledger.id журнала баланса");
+        }
+        this.repository = repository;
+        this.lock = lock;
+        // перенос коммитится сам, даже если flush вызван из транзакции, например изменения счёта
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.wal = new WriteAheadLog(Path.of(walPath), sync);
+        this.ledgerId = ledgerId;
+        this.batchSize = batchSize;
+        this.maxAccounts = maxAccounts;
+        this.lockTimeout = lockTimeout;
+        this.accountLocks = new StripedLock(lockStripes);
+    }
+
+    /**
+     * Применяет записи журнала, не перенесённые в БД до остановки процесса, и переносит их.
+     */
+    @PostConstruct
+    public void recover() {
+        lock.acquire();
+
+        final long checkpoint = repository.findCheckpoint(ledgerId).orElse(0L);
+        long position = 0;
+        int replayed = 0;
+
+        wal.startSequence(checkpoint);
+
+        for (List<WriteAheadLog.Record> records = wal.read(position, batchSize); !records.isEmpty();
+             records = wal.read(position, batchSize)) {
+            for (WriteAheadLog.Record record : records) {
+                position += WriteAheadLog.RECORD_SIZE;
+
+                // записи до контрольной точки уже в БД: перенос остановился между коммитом и очисткой журнала
+                if (record.getSequence() <= checkpoint) {
+                    flushedPosition = position;
+                } else {
+                    unflushed.merge(record.getAccountId(), record.getDelta(), BalanceLedger::sumOrRemove);
+                    replayed++;
+                }
+            }
+        }
+
+        log.info("Журнал баланса {}: перенесено до записи {}, к повтору {} записей", ledgerId, checkpoint, replayed);
+        flush();
+    }
+
+    /**
+     * @param accountId технический идентификатор банковского счета
+     * @return баланс в копейках или пустой результат, если счёт не найден
+     */
+    public OptionalLong balance(long accountId) {
+        final Balance balance = balances.get(accountId);
+
+        if (balance != null) {
+            balance.lastUsed = System.nanoTime();
+            return OptionalLong.of(balance.minor);
+        }
+
+        return accountLocks.executeLocked(new long[]{accountId}, lockTimeout, () -> {
+            final Balance loaded = getOrLoad(accountId);
+            return loaded == null ? OptionalLong.empty() : OptionalLong.of(loaded.minor);
+        });
+    }
+
+    /**
+     * @param accountId технический идентификатор банковского счета
+     * @param amount    сумма списания в копейках
+     * @return false, если счёт не найден или на нём недостаточно средств
+     */
+    public boolean debit(long accountId, long amount) {
+        return accountLocks.executeLocked(new long[]{accountId}, lockTimeout, () -> {
+            final Balance balance = getOrLoad(accountId);
+
+            if (balance == null || !balance.negativeAllowed && balance.minor < amount) {
+                return false;
+            }
+
+            apply(accountId, balance, -amount);
+            return true;
+        });
+    }
+
+    /**
+     * @param accountId технический идентификатор банковского счета
+     * @param amount    сумма зачисления в копейках
+     * @return false, если счёт не найден
+     */
+    public boolean credit(long accountId, long amount) {
+        return accountLocks.executeLocked(new long[]{accountId}, lockTimeout, () -> {
+            final Balance balance = getOrLoad(accountId);
+
+            if (balance == null) {
+                return false;
+            }
+
+            apply(accountId, balance, amount);
+            return true;
+        });
+    }
+
+    /**
+     * Убирает баланс счёта из памяти после коммита текущей транзакции, изменившей счёт в обход журнала.
+     *
+     * @param accountId технический идентификатор банковского счета
+     */
+    public void evictAfterCommit(long accountId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            balances.remove(accountId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                balances.remove(accountId);
+            }
+        });
+    }
+
+    /**
+     * Переносит записи журнала в account_details батчами по batch-size записей, каждый батч - отдельной
+     * транзакцией. Вызывается и перед изменением счёта в обход журнала, чтобы оно видело все изменения баланса.
+     */
+    @Scheduled(fixedDelayString = "${bank.account.ledger.flush-interval-ms:100}")
+    public synchronized void flush() {
+        // обрыв соединения снял блокировку: балансы в памяти могли устареть
+        if (!lock.isHeld()) {
+            log.warn("Журнал баланса {}: блокировка потеряна, балансы будут загружены заново", ledgerId);
+            balances.clear();
+            lock.acquire();
+        }
+
+        for (List<WriteAheadLog.Record> records = wal.read(flushedPosition, batchSize); !records.isEmpty();
+             records = wal.read(flushedPosition, batchSize)) {
+            flushBatch(records);
+        }
+
+        if (wal.truncateIfFlushed(flushedPosition)) {
+            flushedPosition = 0;
+        }
+    }
+
+    /**
+     * Переносит оставшиеся записи и закрывает журнал.
+     *
+     * @throws IOException если журнал не удалось закрыть
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            try {
+                wal.close();
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private void flushBatch(List<WriteAheadLog.Record> records) {
+        final Map<Long, Long> deltas = new TreeMap<>();
+        final long lastSequence = records.get(records.size() - 1).getSequence();
+
+        records.forEach(record -> deltas.merge(record.getAccountId(), record.getDelta(), Long::sum));
+
+        final Map<Long, Money> amounts = new TreeMap<>();
+        deltas.forEach((accountId, delta) -> {
+            if (delta != 0) {
+                amounts.put(accountId, Money.ofMinor(delta));
+            }
+        });
+
+        flushLock.writeLock().lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.addAll(amounts);
+                repository.saveCheckpoint(ledgerId, lastSequence);
+            });
+            deltas.forEach((accountId, delta) -> unflushed.merge(accountId, -delta, BalanceLedger::sumOrRemove));
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+
+        flushedPosition += (long) records.size() * WriteAheadLog.RECORD_SIZE;
+    }
+
+    // вызывается под блокировкой счёта
+    private void apply(long accountId, Balance balance, long delta) {
+        final long updated = Math.addExact(balance.minor, delta);
+
+        wal.append(accountId, delta);
+        unflushed.merge(accountId, delta, BalanceLedger::sumOrRemove);
+        balance.minor = updated;
+    }
+
+    // вызывается под блокировкой счёта
+    private Balance getOrLoad(long accountId) {
+        final Balance cached = balances.get(accountId);
+
+        if (cached != null) {
+            cached.lastUsed = System.nanoTime();
+            return cached;
+        }
+
+        flushLock.readLock().lock();
+        try {
+            final AccountBalanceDto stored = repository.findBalance(accountId).orElse(null);
+
+            if (stored == null) {
+                return null;
+            }
+
+            final Balance loaded = new Balance(stored.getMoney().toMinor() + unflushed.getOrDefault(accountId, 0L),
+                    stored.getNegativeBalance());
+            evictIfFull();
+            balances.put(accountId, loaded);
+            return loaded;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    // вытесненный баланс заново загружается из БД с учётом unflushed, поэтому блокировка вытесняемого счёта не нужна
+    private void evictIfFull() {
+        if (balances.size() < maxAccounts) {
+            return;
+        }
+
+        final long[] used = balances.values().stream().mapToLong(balance -> balance.lastUsed).sorted().toArray();
+        if (used.length > 0) {
+            final long threshold = used[used.length / EVICT_FRACTION];
+            balances.values().removeIf(balance -> balance.lastUsed <= threshold);
+        }
+    }
+
+    private static Long sumOrRemove(Long current, Long delta) {
+        final long sum = current + delta;
+        return sum == 0 ? null : sum;
+    }
+
+    /**
+     * Баланс счёта в копейках. Меняется только под блокировкой счёта, читается без блокировки.
+     * lastUsed - System.nanoTime() последнего обращения, для вытеснения давно не использованных балансов.
+     */
+    private static class Balance {
+        private final boolean negativeAllowed;
+        private volatile long minor;
+        private volatile long lastUsed;
+
+        Balance(long minor, boolean negativeAllowed) {
+            this.minor = minor;
+            this.negativeAllowed = negativeAllowed;
+            this.lastUsed = System.nanoTime();
+        }
+    }
+}
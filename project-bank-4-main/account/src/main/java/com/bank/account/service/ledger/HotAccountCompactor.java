@@ -0,0 +1,54 @@
+package com.bank.account.service.ledger;
+
+import com.bank.account.repository.AccountBalanceRepository;
+import com.bank.account.repository.BalanceSlotRepository;
+import com.bank.common.concurrent.BalanceLedgerLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Периодически переносит суммы слотов горячих счетов в money счёта, каждый счёт - отдельной транзакцией.
+ * Перенос меняет account_details.money в обход журнала баланса, поэтому, как и прямые изменения баланса,
+ * без журнала на этом экземпляре разделяемо берёт {@link BalanceLedgerLock} и пропускается, пока журнал
+ * работает на другом экземпляре; при журнале на этом экземпляре баланс счёта убирается из памяти.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotAccountCompactor {
+
+    private final BalanceSlotRepository slotRepository;
+    private final AccountBalanceRepository balanceRepository;
+    private final ObjectProvider<BalanceLedger> ledger;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Переносит слоты всех горячих счетов.
+     */
+    @Scheduled(fixedDelayString = "${bank.account.hot.compact-interval-ms:1000}")
+    public void compact() {
+        final BalanceLedger balanceLedger = ledger.getIfAvailable();
+
+        for (Long accountDetailsId : slotRepository.findHotAccountIds()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (balanceLedger == null) {
+                        balanceRepository.lockDirectChange();
+                    } else {
+                        balanceLedger.evictAfterCommit(accountDetailsId);
+                    }
+                    slotRepository.compact(accountDetailsId);
+                });
+            } catch (IllegalStateException e) {
+                log.debug("Перенос слотов пропущен: {}", e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                log.error("Не удалось перенести слоты счёта {}: {}", accountDetailsId, e.getMessage());
+            }
+        }
+    }
+}
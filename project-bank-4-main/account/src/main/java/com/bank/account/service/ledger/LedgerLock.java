@@ -0,0 +1,99 @@
+package com.bank.account.service.ledger;
+
+import com.bank.common.concurrent.BalanceLedgerLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Эксклюзивная {@link BalanceLedgerLock} журнала баланса. Блокировка сессионная, поэтому держится на отдельном
+ * соединении пула, пока журнал работает; при обрыве соединения её снимает БД.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "bank.account.ledger", name = "enabled", havingValue = "true")
+public class LedgerLock {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+
+    private final DataSource dataSource;
+
+    private Connection connection;
+
+    public LedgerLock(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @throws IllegalStateException если работает другой журнал или не закоммичено прямое изменение баланса
+     */
+    public synchronized void acquire() {
+        if (isHeld()) {
+            return;
+        }
+
+        final Connection acquired = connect();
+        final boolean locked = Boolean.TRUE.equals(session(acquired)
+                .queryForObject("SELECT pg_try_advisory_lock(?)", Boolean.class, BalanceLedgerLock.KEY));
+
+        if (!locked) {
+            closeQuietly(acquired);
+            throw new IllegalStateException("Журнал баланса не запущен: работает журнал другого экземпляра "
+                    + "или баланс меняется в обход журнала");
+        }
+        connection = acquired;
+    }
+
+    /**
+     * @return true, если соединение с блокировкой живо
+     */
+    public synchronized boolean isHeld() {
+        try {
+            return connection != null && connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Снимает блокировку и возвращает соединение в пул.
+     */
+    public synchronized void release() {
+        if (connection == null) {
+            return;
+        }
+
+        try {
+            session(connection).queryForObject("SELECT pg_advisory_unlock(?)", Boolean.class, BalanceLedgerLock.KEY);
+        } finally {
+            closeQuietly(connection);
+            connection = null;
+        }
+    }
+
+    private Connection connect() {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Нет соединения для блокировки журнала баланса", e);
+        }
+    }
+
+    private static JdbcTemplate session(Connection target) {
+        return new JdbcTemplate(new SingleConnectionDataSource(target, true));
+    }
+
+    private static void closeQuietly(Connection target) {
+        try {
+            target.close();
+        } catch (SQLException e) {
+            log.warn("Не удалось закрыть соединение блокировки журнала баланса: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.bank.account.service.ledger;
+
+import com.bank.account.repository.AccountBalanceRepository;
+import com.bank.account.repository.LedgerEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Периодически делает снимки балансов по журналу account.ledger_entry.
+ * Записи обрабатываются по возрастанию id от курсора в ledger_checkpoint, не дальше записей старше lag-ms:
+ * запись с меньшим id может закоммититься позже записи с большим, и снимок не должен её пропустить.
+ */
+@Slf4j
+@Component
+public class LedgerSnapshotter {
+
+    private static final String CURSOR_ID = "balance-snapshot";
+
+    private final LedgerEntryRepository entryRepository;
+    private final AccountBalanceRepository balanceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int minEntries;
+    private final int batchSize;
+    private final long lagMillis;
+
+    public LedgerSnapshotter(LedgerEntryRepository entryRepository,
+                             AccountBalanceRepository balanceRepository,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${bank.account.ledger.snapshot.min-entries:1000}") int minEntries,
+                             @Value("${bank.account.ledger.snapshot.batch-size:100000}") int batchSize,
+                             @Value("${bank.account.ledger.snapshot.lag-ms:60000}") long lagMillis) {
+        this.entryRepository = entryRepository;
+        this.balanceRepository = balanceRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.minEntries = minEntries;
+        this.batchSize = batchSize;
+        this.lagMillis = lagMillis;
+    }
+
+    /**
+     * Делает снимки по очередной пачке записей журнала.
+     */
+    @Scheduled(fixedDelayString = "${bank.account.ledger.snapshot.interval-ms:60000}")
+    public void snapshot() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                final long from = balanceRepository.findCheckpoint(CURSOR_ID).orElse(0L);
+                final long to = entryRepository.findSettledEntryId(from, batchSize, lagMillis);
+
+                if (to <= from) {
+                    return;
+                }
+
+                final int created = entryRepository.snapshot(from, to, minEntries);
+                balanceRepository.saveCheckpoint(CURSOR_ID, to);
+
+                if (created > 0) {
+                    log.info("Сделано {} снимков балансов по записям журнала до {}", created, to);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Не удалось сделать снимки балансов: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.bank.account.service.ledger;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Локальный журнал изменений баланса фиксированного размера записи: номер, id счёта, изменение в копейках, CRC32.
+ * При открытии журнал читается до первой повреждённой записи, недописанный при падении хвост отрезается.
+ */
+public class WriteAheadLog implements AutoCloseable {
+
+    /**
+     * Размер записи в байтах.
+     */
+    public static final int RECORD_SIZE = Long.BYTES * 3 + Integer.BYTES;
+
+    private static final int PAYLOAD_SIZE = Long.BYTES * 3;
+
+    private final FileChannel channel;
+
+    private final boolean sync;
+
+    private final ByteBuffer appendBuffer = ByteBuffer.allocate(RECORD_SIZE);
+
+    @Getter
+    private long lastSequence;
+
+    /**
+     * @param path путь к файлу журнала
+     * @param sync сбрасывать ли каждую запись на диск до возврата из {@link #append}
+     */
+    public WriteAheadLog(Path path, boolean sync) {
+        this.sync = sync;
+
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.channel.truncate(recoverValidLength());
+            this.channel.position(channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Дописывает запись в конец журнала.
+     *
+     * @param accountId технический идентификатор банковского счета
+     * @param delta     изменение баланса в копейках
+     * @return номер записи
+     */
+    public synchronized long append(long accountId, long delta) {
+        final long sequence = lastSequence + 1;
+
+        appendBuffer.clear();
+        appendBuffer.putLong(sequence).putLong(accountId).putLong(delta);
+        appendBuffer.putInt(checksum(appendBuffer.array(), 0));
+        appendBuffer.flip();
+
+        try {
+            while (appendBuffer.hasRemaining()) {
+                channel.write(appendBuffer);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Продолжает нумерацию записей не ниже заданного номера, например после очистки журнала.
+     *
+     * @param sequence номер последней уже перенесённой в БД записи
+     */
+    public synchronized void startSequence(long sequence) {
+        lastSequence = Math.max(lastSequence, sequence);
+    }
+
+    /**
+     * @return размер журнала в байтах
+     */
+    public synchronized long size() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param position   смещение в байтах, кратное {@link #RECORD_SIZE}
+     * @param maxRecords максимальное количество записей
+     * @return записи журнала начиная с position, без дописываемой в этот момент записи
+     */
+    public List<Record> read(long position, int maxRecords) {
+        final ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * maxRecords);
+
+        try {
+            readFully(buffer, position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        buffer.flip();
+        final List<Record> records = new ArrayList<>(buffer.limit() / RECORD_SIZE);
+
+        for (int offset = 0; offset + RECORD_SIZE <= buffer.limit(); offset += RECORD_SIZE) {
+            if (buffer.getInt(offset + PAYLOAD_SIZE) != checksum(buffer.array(), offset)) {
+                break;
+            }
+            records.add(new Record(buffer.getLong(offset), buffer.getLong(offset + Long.BYTES),
+                    buffer.getLong(offset + Long.BYTES * 2)));
+        }
+        return records;
+    }
+
+    /**
+     * Очищает журнал, если после position в него ничего не дописано.
+     *
+     * @param position смещение в байтах, до которого записи перенесены в БД
+     * @return true, если журнал очищен
+     */
+    public synchronized boolean truncateIfFlushed(long position) {
+        try {
+            if (channel.size() != position) {
+                return false;
+            }
+            channel.truncate(0);
+            channel.position(0);
+            if (sync) {
+                channel.force(true);
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.force(true);
+        channel.close();
+    }
+
+    private long recoverValidLength() throws IOException {
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        long position = 0;
+
+        while (true) {
+            record.clear();
+            readFully(record, position);
+            if (record.hasRemaining()
+                    || record.getInt(PAYLOAD_SIZE) != checksum(record.array(), 0)
+                    || record.getLong(0) <= lastSequence) {
+                return position;
+            }
+            lastSequence = record.getLong(0);
+            position += RECORD_SIZE;
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        int read = 0;
+
+        while (buffer.hasRemaining() && read >= 0) {
+            read = channel.read(buffer, position + buffer.position());
+        }
+    }
+
+    private static int checksum(byte[] records, int offset) {
+        final CRC32 crc = new CRC32();
+        crc.update(records, offset, PAYLOAD_SIZE);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Запись журнала.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Record {
+        private final long sequence;
+        private final long accountId;
+        private final long delta;
+    }
+}
@@ -0,0 +1,149 @@
+package com.bank.account.service;
+
+import com.bank.account.dto.AccountBalanceDto;
+import com.bank.account.repository.AccountBalanceRepository;
+import com.bank.account.service.ledger.BalanceLedger;
+import com.bank.account.service.ledger.LedgerLock;
+import com.bank.account.service.ledger.WriteAheadLog;
+import com.bank.common.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BalanceLedgerTest {
+    private static final String LEDGER_ID = "account-1";
+
+    private final AccountBalanceRepository repository = mock(AccountBalanceRepository.class);
+    private final LedgerLock lock = mock(LedgerLock.class);
+
+    @BeforeEach
+    void setUp() {
+        when(lock.isHeld()).thenReturn(true);
+        when(repository.findBalance(1L))
+                .thenReturn(Optional.of(new AccountBalanceDto(1L, Money.of("100.00"), false)));
+    }
+
+    @DisplayName("Изменения, не перенесённые в БД до падения, переносятся при старте")
+    @Test
+    void replayAfterCrashTest(@TempDir Path directory) {
+        final Path wal = directory.resolve("ledger.wal");
+        when(repository.findCheckpoint(LEDGER_ID)).thenReturn(Optional.empty());
+
+        final BalanceLedger crashed = getLedger(wal, LEDGER_ID);
+        crashed.recover();
+        assertTrue(crashed.debit(1L, 3000L));
+        assertTrue(crashed.credit(1L, 500L));
+        assertFalse(crashed.debit(1L, 100_000L));
+        assertEquals(7500L, crashed.balance(1L).orElseThrow());
+        verify(repository, never()).addAll(anyMap());
+
+        getLedger(wal, LEDGER_ID).recover();
+
+        verify(repository).addAll(Map.of(1L, Money.ofMinor(-2500L)));
+        verify(repository).saveCheckpoint(LEDGER_ID, 2L);
+    }
+
+    @DisplayName("Записи до контрольной точки уже в БД и не переносятся повторно")
+    @Test
+    void replayAfterCheckpointTest(@TempDir Path directory) {
+        final Path wal = directory.resolve("ledger.wal");
+        when(repository.findCheckpoint(LEDGER_ID)).thenReturn(Optional.empty(), Optional.of(1L));
+
+        final BalanceLedger crashed = getLedger(wal, LEDGER_ID);
+        crashed.recover();
+        crashed.debit(1L, 3000L);
+        crashed.credit(1L, 500L);
+
+        getLedger(wal, LEDGER_ID).recover();
+
+        verify(repository).addAll(Map.of(1L, Money.ofMinor(500L)));
+        verify(repository).saveCheckpoint(LEDGER_ID, 2L);
+    }
+
+    @DisplayName("Недописанная при падении запись отбрасывается, целые записи переносятся")
+    @Test
+    void replayTornTailTest(@TempDir Path directory) throws IOException {
+        final Path wal = directory.resolve("ledger.wal");
+        when(repository.findCheckpoint(LEDGER_ID)).thenReturn(Optional.empty());
+
+        final BalanceLedger crashed = getLedger(wal, LEDGER_ID);
+        crashed.recover();
+        crashed.debit(1L, 3000L);
+        Files.write(wal, new byte[WriteAheadLog.RECORD_SIZE - 1], StandardOpenOption.APPEND);
+
+        getLedger(wal, LEDGER_ID).recover();
+
+        verify(repository).addAll(Map.of(1L, Money.ofMinor(-3000L)));
+        verify(repository).saveCheckpoint(LEDGER_ID, 1L);
+    }
+
+    @DisplayName("Журнал не запускается, пока баланс меняется в обход него")
+    @Test
+    void recoverLockedTest(@TempDir Path directory) {
+        doThrow(new IllegalStateException("занято")).when(lock).acquire();
+
+        final BalanceLedger ledger = getLedger(directory.resolve("ledger.wal"), LEDGER_ID);
+
+        assertThrows(IllegalStateException.class, ledger::recover);
+        verify(repository, never()).findCheckpoint(LEDGER_ID);
+    }
+
+    @DisplayName("При заполнении вытесняется давнее всех использованный баланс, остальные остаются в памяти")
+    @Test
+    void evictLeastRecentlyUsedTest(@TempDir Path directory) {
+        when(repository.findCheckpoint(LEDGER_ID)).thenReturn(Optional.empty());
+        when(repository.findBalance(2L))
+                .thenReturn(Optional.of(new AccountBalanceDto(2L, Money.of("200.00"), false)));
+        when(repository.findBalance(3L))
+                .thenReturn(Optional.of(new AccountBalanceDto(3L, Money.of("300.00"), false)));
+
+        final BalanceLedger ledger = getLedger(directory.resolve("ledger.wal"), LEDGER_ID, 2);
+        ledger.recover();
+        assertTrue(ledger.debit(1L, 1000L));
+        assertTrue(ledger.credit(2L, 1000L));
+        assertTrue(ledger.debit(1L, 1000L));
+        assertEquals(30_000L, ledger.balance(3L).orElseThrow());
+
+        assertEquals(8000L, ledger.balance(1L).orElseThrow());
+        assertEquals(21_000L, ledger.balance(2L).orElseThrow());
+        verify(repository).findBalance(1L);
+        verify(repository, times(2)).findBalance(2L);
+    }
+
+    @DisplayName("Журнал без явного id не создаётся")
+    @Test
+    void blankLedgerIdTest(@TempDir Path directory) {
+        final Path wal = directory.resolve("ledger.wal");
+
+        assertThrows(IllegalStateException.class, () -> getLedger(wal, " "));
+    }
+
+    private BalanceLedger getLedger(Path wal, String ledgerId) {
+        return getLedger(wal, ledgerId, 1000);
+    }
+
+    private BalanceLedger getLedger(Path wal, String ledgerId, int maxAccounts) {
+        return new BalanceLedger(repository, lock, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                wal.toString(), ledgerId, true, 100, maxAccounts, 16, 500L);
+    }
+}
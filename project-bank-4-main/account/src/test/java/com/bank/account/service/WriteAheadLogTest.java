@@ -0,0 +1,89 @@
+package com.bank.account.service;
+
+import com.bank.account.service.ledger.WriteAheadLog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WriteAheadLogTest {
+
+    @DisplayName("Записи журнала читаются после повторного открытия, нумерация продолжается")
+    @Test
+    void reopenTest(@TempDir Path directory) throws IOException {
+        final Path path = directory.resolve("ledger.wal");
+        writeRecords(path, 2);
+
+        try (WriteAheadLog wal = new WriteAheadLog(path, true)) {
+            assertEquals(2L, wal.getLastSequence());
+            assertEquals(3L, wal.append(1L, -300L));
+
+            final List<WriteAheadLog.Record> records = wal.read(0, 10);
+            assertEquals(3, records.size());
+            assertEquals(1L, records.get(0).getAccountId());
+            assertEquals(100L, records.get(0).getDelta());
+            assertEquals(-300L, records.get(2).getDelta());
+        }
+    }
+
+    @DisplayName("Недописанный при падении хвост отрезается при открытии")
+    @Test
+    void tornTailTest(@TempDir Path directory) throws IOException {
+        final Path path = directory.resolve("ledger.wal");
+        writeRecords(path, 2);
+        Files.write(path, new byte[WriteAheadLog.RECORD_SIZE / 2], StandardOpenOption.APPEND);
+
+        try (WriteAheadLog wal = new WriteAheadLog(path, true)) {
+            assertEquals(2L * WriteAheadLog.RECORD_SIZE, wal.size());
+            assertEquals(2L, wal.getLastSequence());
+            assertEquals(3L, wal.append(1L, 300L));
+            assertEquals(3, wal.read(0, 10).size());
+        }
+    }
+
+    @DisplayName("Журнал отрезается с первой записи с неверной контрольной суммой")
+    @Test
+    void corruptRecordTest(@TempDir Path directory) throws IOException {
+        final Path path = directory.resolve("ledger.wal");
+        writeRecords(path, 3);
+
+        final byte[] content = Files.readAllBytes(path);
+        content[WriteAheadLog.RECORD_SIZE + Long.BYTES * 2] ^= 1;
+        Files.write(path, content);
+
+        try (WriteAheadLog wal = new WriteAheadLog(path, true)) {
+            assertEquals(WriteAheadLog.RECORD_SIZE, wal.size());
+            assertEquals(1L, wal.getLastSequence());
+            assertEquals(1, wal.read(0, 10).size());
+        }
+    }
+
+    @DisplayName("Журнал очищается, только если после перенесённых записей ничего не дописано")
+    @Test
+    void truncateIfFlushedTest(@TempDir Path directory) throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(directory.resolve("ledger.wal"), false)) {
+            wal.append(1L, 100L);
+            wal.append(1L, 200L);
+
+            assertFalse(wal.truncateIfFlushed(WriteAheadLog.RECORD_SIZE));
+            assertTrue(wal.truncateIfFlushed(2L * WriteAheadLog.RECORD_SIZE));
+            assertEquals(0L, wal.size());
+            assertEquals(3L, wal.append(1L, 300L));
+        }
+    }
+
+    private void writeRecords(Path path, int count) throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(path, true)) {
+            for (int i = 1; i <= count; i++) {
+                wal.append(1L, i * 100L);
+            }
+        }
+    }
+}
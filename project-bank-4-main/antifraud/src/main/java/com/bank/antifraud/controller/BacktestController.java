@@ -0,0 +1,30 @@
+package com.bank.antifraud.controller;
+
+import com.bank.antifraud.dto.BacktestRequestDto;
+import com.bank.antifraud.dto.BacktestResultDto;
+import com.bank.antifraud.service.backtest.BacktestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Контроллер для {@link BacktestResultDto}: прогон правил-кандидатов по истории переводов
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/backtest")
+public class BacktestController {
+    private final BacktestService backtestService;
+
+    /**
+     * @param request {@link BacktestRequestDto}
+     * @return {@link ResponseEntity} c {@link BacktestResultDto}
+     */
+    @PostMapping
+    public ResponseEntity<BacktestResultDto> run(@RequestBody BacktestRequestDto request) {
+        return ResponseEntity.ok(backtestService.run(request));
+    }
+}
@@ -0,0 +1,42 @@
+package com.bank.antifraud.controller;
+
+import com.bank.antifraud.service.blocklist.BlocklistService;
+import com.bank.antifraud.service.blocklist.BlocklistType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Контроллер блок-листов номеров получателей
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/blocklist")
+public class BlocklistController {
+    private final BlocklistService service;
+
+    /**
+     * @param type   {@link BlocklistType}
+     * @param number номер счёта, карты или телефона
+     * @return {@link ResponseEntity} c признаком, что номер в блок-листе
+     */
+    @GetMapping("/{type}/{number}")
+    public ResponseEntity<Boolean> check(@PathVariable("type") BlocklistType type,
+                                         @PathVariable("number") Long number) {
+        return ResponseEntity.ok(service.isBlocked(type, number));
+    }
+
+    /**
+     * @return {@link ResponseEntity} c количеством номеров в перезагруженных блок-листах
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<Map<BlocklistType, Integer>> reload() {
+        return ResponseEntity.ok(service.reload());
+    }
+}
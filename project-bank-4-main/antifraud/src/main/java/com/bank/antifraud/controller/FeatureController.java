@@ -0,0 +1,36 @@
+package com.bank.antifraud.controller;
+
+import com.bank.antifraud.dto.FeatureDto;
+import com.bank.antifraud.service.common.ExceptionReturner;
+import com.bank.antifraud.service.feature.FeatureStore;
+import com.bank.antifraud.service.scoring.VelocityDimension;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Контроллер для {@link FeatureDto}: накопленные признаки счетов, карт и телефонов
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/features")
+public class FeatureController {
+    private final FeatureStore featureStore;
+    private final ExceptionReturner returner;
+
+    /**
+     * @param dimension {@link VelocityDimension}
+     * @param key       id счёта отправителя, номер карты или телефона получателя
+     * @return {@link ResponseEntity} c {@link FeatureDto}
+     */
+    @GetMapping("/{dimension}/{key}")
+    public ResponseEntity<FeatureDto> read(@PathVariable("dimension") VelocityDimension dimension,
+                                           @PathVariable("key") Long key) {
+        return ResponseEntity.ok(featureStore.find(dimension, key)
+                .orElseThrow(() -> returner.getEntityNotFoundException("Признаки " + dimension + " "
+                        + key + " не найдены")));
+    }
+}
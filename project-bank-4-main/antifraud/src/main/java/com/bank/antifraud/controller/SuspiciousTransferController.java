@@ -0,0 +1,85 @@
+package com.bank.antifraud.controller;
+
+import com.bank.antifraud.dto.SuspiciousTransferCursorDto;
+import com.bank.antifraud.dto.SuspiciousTransferDto;
+import com.bank.antifraud.service.SuspiciousTransferService;
+import com.bank.antifraud.service.common.SuspiciousFlag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Контроллер для {@link SuspiciousTransferDto}: очереди аналитиков по решениям всех каналов одним запросом
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/suspicious/transfers")
+public class SuspiciousTransferController {
+
+    private final SuspiciousTransferService service;
+
+    /**
+     * Новые решения первыми. Следующая страница запрашивается с afterCreatedAt, afterChannel и afterId
+     * последнего решения текущей, hasNext в ответе показывает, есть ли она.
+     *
+     * @param flag           {@link SuspiciousFlag}
+     * @param reason         имя кода причины, например card-burst
+     * @param from           начало периода решения включительно, ISO date-time
+     * @param to             конец периода решения не включительно, ISO date-time
+     * @param afterCreatedAt время последнего решения предыдущей страницы, ISO date-time
+     * @param afterChannel   канал последнего решения предыдущей страницы
+     * @param afterId        id последнего решения предыдущей страницы
+     * @param size           размер страницы
+     * @return {@link ResponseEntity} cо страницей {@link SuspiciousTransferDto}
+     */
+    @GetMapping
+    public ResponseEntity<Slice<SuspiciousTransferDto>> readAll(
+            @RequestParam SuspiciousFlag flag,
+            @RequestParam(required = false) String reason,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime afterCreatedAt,
+            @RequestParam(required = false) String afterChannel,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        final SuspiciousTransferCursorDto after = afterCreatedAt == null && afterChannel == null && afterId == null
+                ? null : new SuspiciousTransferCursorDto(afterCreatedAt, afterChannel, afterId);
+
+        return ResponseEntity.ok(service.findAll(flag, reason, from, to, after, size));
+    }
+
+    /**
+     * Число решений очереди отдельным запросом: страницы его не считают.
+     *
+     * @param flag   {@link SuspiciousFlag}
+     * @param reason имя кода причины, например card-burst
+     * @param from   начало периода решения включительно, ISO date-time
+     * @param to     конец периода решения не включительно, ISO date-time
+     * @return {@link ResponseEntity} c числом решений
+     */
+    @GetMapping("/count")
+    public ResponseEntity<Long> count(
+            @RequestParam SuspiciousFlag flag,
+            @RequestParam(required = false) String reason,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(service.count(flag, reason, from, to));
+    }
+
+    /**
+     * @return {@link ResponseEntity} c именами кодов причин
+     */
+    @GetMapping("/reasons")
+    public ResponseEntity<List<String>> readReasonCodes() {
+        return ResponseEntity.ok(service.findReasonCodes());
+    }
+}
@@ -0,0 +1,66 @@
+package com.bank.antifraud.controller;
+
+import com.bank.antifraud.dto.FraudDecisionDto;
+import com.bank.antifraud.dto.TransferEventDto;
+import com.bank.antifraud.service.TransferEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import java.util.List;
+
+/**
+ * Контроллер для {@link TransferEventDto}: приём событий о переводах из outbox сервиса transfer
+ */
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/transfer/events")
+public class TransferEventController {
+    private final TransferEventService service;
+
+    /**
+     * @param events пачка {@link TransferEventDto}
+     * @return {@link ResponseEntity} без тела, событие считается доставленным после ответа 200;
+     * при заполненной очереди оценки или если решения не записаны за accept-timeout-ms - 503, transfer
+     * повторит доставку; некорректное событие - 400
+     */
+    @PostMapping
+    public ResponseEntity<Void> accept(@RequestBody List<@Valid TransferEventDto> events) {
+        service.accept(events);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * @param event    {@link TransferEventDto}
+     * @param budgetMs сколько ждать решения в миллисекундах
+     * @return {@link ResponseEntity} с {@link FraudDecisionDto}; по истечении бюджета - предварительное
+     * решение с причиной deadline exceeded, окончательное - по /decisions/{channel}/{transferId}
+     */
+    @PostMapping("/check")
+    public ResponseEntity<FraudDecisionDto> check(@Valid @RequestBody TransferEventDto event,
+                                                  @RequestParam(required = false) Long budgetMs) {
+        return ResponseEntity.ok(service.check(event, budgetMs));
+    }
+
+    /**
+     * @param channel    канал перевода
+     * @param transferId технический идентификатор перевода
+     * @return {@link ResponseEntity} с {@link FraudDecisionDto}; 202 без тела, пока перевод ожидает оценки
+     */
+    @GetMapping("/decisions/{channel}/{transferId}")
+    public ResponseEntity<FraudDecisionDto> findDecision(@PathVariable String channel,
+                                                         @PathVariable Long transferId) {
+        return service.findDecision(channel, transferId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.accepted().build());
+    }
+}
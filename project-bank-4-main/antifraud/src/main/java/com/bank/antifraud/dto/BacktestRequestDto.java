@@ -0,0 +1,30 @@
+package com.bank.antifraud.dto;
+
+import com.bank.antifraud.service.scoring.VelocityRule;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Dto запуска бэктеста: переводы периода [from, to) прогоняются через набор правил-кандидатов.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BacktestRequestDto implements Serializable {
+
+    LocalDateTime from;
+    LocalDateTime to;
+    List<VelocityRule> rules;
+}
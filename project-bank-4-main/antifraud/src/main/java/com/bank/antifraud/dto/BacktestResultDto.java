@@ -0,0 +1,36 @@
+package com.bank.antifraud.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Dto результата бэктеста. Размеченные переводы - подозрительные по suspicious_*_transfer;
+ * точность и полнота не заданы, если нет помеченных правилами или размеченных переводов.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BacktestResultDto implements Serializable {
+
+    Long transfers;
+    Long flagged;
+    Long labeled;
+    Long truePositives;
+    Long falsePositives;
+    Long falseNegatives;
+    Double precision;
+    Double recall;
+    Map<String, Long> ruleHits;
+    Long durationMillis;
+}
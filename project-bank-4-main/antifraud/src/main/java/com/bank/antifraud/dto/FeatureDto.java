@@ -0,0 +1,34 @@
+package com.bank.antifraud.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Dto накопленных статистик переводов счёта, карты или телефона.
+ * Дисперсия - в рублях в квадрате, количество контрагентов - оценка с ошибкой в несколько процентов.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FeatureDto implements Serializable {
+
+    String dimension;
+    Long key;
+    Long count;
+    BigDecimal sum;
+    BigDecimal mean;
+    BigDecimal variance;
+    BigDecimal maxAmount;
+    Long distinctCounterparties;
+}
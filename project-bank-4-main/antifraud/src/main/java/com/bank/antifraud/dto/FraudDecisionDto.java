@@ -0,0 +1,33 @@
+package com.bank.antifraud.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+
+/**
+ * Dto решения антифрода по переводу из {@link TransferEventDto}.
+ * Заблокированный перевод всегда и подозрительный; причины перечислены через "; ".
+ * isProvisional - решение выдано синхронной проверке по истечении бюджета и заменяется окончательным.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FraudDecisionDto implements Serializable {
+
+    Long transferId;
+    String channel;
+    Boolean isBlocked;
+    Boolean isSuspicious;
+    String blockedReason;
+    String suspiciousReason;
+    Boolean isProvisional;
+}
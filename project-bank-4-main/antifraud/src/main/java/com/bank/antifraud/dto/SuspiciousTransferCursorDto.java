@@ -0,0 +1,29 @@
+package com.bank.antifraud.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Dto позиции в очереди аналитиков: createdAt, channel и id последнего решения прочитанной страницы.
+ * Следующая страница начинается сразу после него.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SuspiciousTransferCursorDto implements Serializable {
+
+    LocalDateTime createdAt;
+    String channel;
+    Long id;
+}
@@ -0,0 +1,36 @@
+package com.bank.antifraud.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Dto решения антифрода любого канала для очередей аналитиков. Коды причин - имена из словаря
+ * anti_fraud.reason_code, причины - полный текст решения.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SuspiciousTransferDto implements Serializable {
+
+    String channel;
+    Long id;
+    Long transferId;
+    Boolean isBlocked;
+    Boolean isSuspicious;
+    String blockedReasonCode;
+    String suspiciousReasonCode;
+    String blockedReason;
+    String suspiciousReason;
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,55 @@
+package com.bank.antifraud.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import javax.validation.constraints.Digits;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Dto события о созданном переводе из outbox сервиса transfer.
+ * channel - ACCOUNT, CARD или PHONE, recipientNumber - номер счёта, карты или телефона получателя.
+ * Сумма - не больше двух знаков после запятой, как у {@link com.bank.common.money.Money}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TransferEventDto implements Serializable {
+
+    @NotNull(message = "eventId должен быть задан")
+    Long eventId;
+
+    @NotNull(message = "channel должен быть задан")
+    @Pattern(regexp = "ACCOUNT|CARD|PHONE", message = "channel должен быть ACCOUNT, CARD или PHONE")
+    String channel;
+
+    @NotNull(message = "transferId должен быть задан")
+    Long transferId;
+
+    Long recipientNumber;
+
+    @NotNull(message = "amount должен быть задан")
+    @Positive(message = "amount должен быть больше нуля")
+    @Digits(integer = 16, fraction = 2, message = "amount - не больше 16 знаков до и 2 после запятой")
+    BigDecimal amount;
+
+    String purpose;
+
+    @NotNull(message = "accountDetailsId должен быть задан")
+    Long accountDetailsId;
+
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,33 @@
+package com.bank.antifraud.dto;
+
+import com.bank.antifraud.service.scoring.VelocityRule;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dto действующего набора правил скорости: версия растёт с каждой перезагрузкой,
+ * срабатывания считаются с запуска сервиса по имени правила.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class VelocityRuleSetDto implements Serializable {
+
+    Long version;
+    LocalDateTime loadedAt;
+    List<VelocityRule> rules;
+    Map<String, Long> hits;
+}
@@ -13,6 +13,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import java.util.Objects;
 
 /**
@@ -47,6 +48,10 @@ public class SuspiciousPhoneTransferEntity {
     @Column(name = "suspicious_reason")
     String suspiciousReason;
 
+    @Version
+    @Column(name = "version")
+    Long version;
+
     @Override
     public boolean equals(Object o) {
 
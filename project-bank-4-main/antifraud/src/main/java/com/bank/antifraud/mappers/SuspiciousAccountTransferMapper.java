@@ -25,6 +25,7 @@ public interface SuspiciousAccountTransferMapper {
      * @return {@link SuspiciousAccountTransferDto}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     SuspiciousAccountTransferEntity toEntity(SuspiciousAccountTransferDto suspiciousTransfer);
 
     /**
@@ -39,6 +40,7 @@ public interface SuspiciousAccountTransferMapper {
      * @return {@link SuspiciousAccountTransferEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     SuspiciousAccountTransferEntity mergeToEntity(SuspiciousAccountTransferDto accountTransfer,
                                                   @MappingTarget SuspiciousAccountTransferEntity suspiciousTransfer
     );
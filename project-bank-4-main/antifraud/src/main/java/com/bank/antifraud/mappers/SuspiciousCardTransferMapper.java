@@ -25,6 +25,7 @@ public interface SuspiciousCardTransferMapper {
      * @return {@link SuspiciousCardTransferEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     SuspiciousCardTransferEntity toEntity(SuspiciousCardTransferDto suspiciousTransfer);
 
     /**
@@ -39,6 +40,7 @@ public interface SuspiciousCardTransferMapper {
      * @return {@link SuspiciousCardTransferEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     SuspiciousCardTransferEntity mergeToEntity(SuspiciousCardTransferDto cardTransfer,
                                                @MappingTarget SuspiciousCardTransferEntity suspiciousTransfer
     );
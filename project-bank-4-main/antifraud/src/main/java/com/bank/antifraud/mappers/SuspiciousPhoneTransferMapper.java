@@ -25,6 +25,7 @@ public interface SuspiciousPhoneTransferMapper {
      * @return {@link SuspiciousPhoneTransferEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     SuspiciousPhoneTransferEntity toEntity(SuspiciousPhoneTransferDto suspiciousTransfer);
 
     /**
@@ -39,6 +40,7 @@ public interface SuspiciousPhoneTransferMapper {
      * @return {@link SuspiciousPhoneTransferEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     SuspiciousPhoneTransferEntity mergeToEntity(SuspiciousPhoneTransferDto phoneTransfer,
                                                 @MappingTarget SuspiciousPhoneTransferEntity suspiciousTransfer
     );
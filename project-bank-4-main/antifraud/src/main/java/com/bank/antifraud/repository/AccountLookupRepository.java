@@ -0,0 +1,37 @@
+package com.bank.antifraud.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Чтение id счетов по номерам из account.account_details той же БД, что у сервиса account.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountLookupRepository {
+
+    private static final String FIND_IDS = "SELECT account_number, id FROM account.account_details "
+            + "WHERE account_number = ANY(CAST(? AS BIGINT[]))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param accountNumbers номера счетов
+     * @return id счетов банка по номеру; номеров других банков в результате нет
+     */
+    public Map<Long, Long> findIdsByAccountNumbers(Collection<Long> accountNumbers) {
+        final Map<Long, Long> ids = new HashMap<>();
+
+        jdbcTemplate.query(FIND_IDS, (RowCallbackHandler) resultSet -> ids.put(resultSet.getLong(1),
+                        resultSet.getLong(2)),
+                accountNumbers.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}")));
+        return ids;
+    }
+}
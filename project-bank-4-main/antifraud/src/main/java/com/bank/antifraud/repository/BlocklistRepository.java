@@ -0,0 +1,38 @@
+package com.bank.antifraud.repository;
+
+import com.bank.antifraud.service.blocklist.BlocklistType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.function.LongConsumer;
+
+/**
+ * Репозиторий блок-листа anti_fraud.blocklist. Номера читаются потоком, без списка {@link Long} в памяти.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BlocklistRepository {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String FIND_NUMBERS = "SELECT number FROM anti_fraud.blocklist WHERE type = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Передаёт номера вида type в consumer; курсор читает пачками по FETCH_SIZE только в транзакции.
+     *
+     * @param type     {@link BlocklistType}
+     * @param consumer получатель номеров
+     */
+    public void forEachNumber(BlocklistType type, LongConsumer consumer) {
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(FIND_NUMBERS);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setString(1, type.name());
+            return statement;
+        }, resultSet -> consumer.accept(resultSet.getLong(1)));
+    }
+}
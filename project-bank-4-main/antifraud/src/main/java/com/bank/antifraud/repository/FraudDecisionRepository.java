@@ -0,0 +1,205 @@
+package com.bank.antifraud.repository;
+
+import com.bank.antifraud.dto.FraudDecisionDto;
+import com.bank.antifraud.service.common.FraudDecisions;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Репозиторий решений антифрода: пишет подозрительные переводы в suspicious_*_transfer по каналу перевода.
+ * Решения одного канала вставляются многострочным INSERT по ROWS_PER_INSERT строк - один запрос и одна
+ * запись в WAL вместо запроса на решение. Решение по уже записанному переводу объединяется с записанным:
+ * флаги по ИЛИ, причины дописываются без повторов. Поэтому порядок записи решений разных источников
+ * по одному переводу не важен, а повторная доставка события безопасна.
+ * Коды причин для очередей аналитиков - id имени первой причины в anti_fraud.reason_code - подставляются
+ * в тот же INSERT: словарь кэшируется в памяти, новые имена добавляются одним запросом на пачку.
+ * Предварительное решение пишется с is_provisional: подозрительное решение по переводу снимает пометку,
+ * решение без нарушений - подозрение вместе с ней; бэктест такие строки меткой не считает.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FraudDecisionRepository {
+
+    // 8 параметров на строку, PostgreSQL принимает не больше 32767 параметров на запрос
+    private static final int ROWS_PER_INSERT = 1000;
+
+    private static final String SCHEMA = "anti_fraud.";
+
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String PARAMETER = "(?)";
+
+    private static final String PARAMETER_SEPARATOR = ", ";
+
+    private static final String ADD_REASON_CODES = "INSERT INTO anti_fraud.reason_code (name) VALUES %s "
+            + "ON CONFLICT (name) DO NOTHING";
+
+    private static final String FIND_REASON_CODES = "SELECT id, name FROM anti_fraud.reason_code WHERE name IN (%s)";
+
+    private static final int FETCH_SIZE = 10_000;
+
+    // поиск идёт по частичному индексу строк с is_provisional: их мало, и чистые решения пачки почти ничего не читают
+    private static final String CLEAR_PROVISIONAL = "UPDATE " + SCHEMA + "%s SET is_suspicious = false, "
+            + "is_provisional = false, version = version + 1 WHERE is_provisional AND %s = ANY(CAST(? AS BIGINT[]))";
+
+    // причина дописывается через "; ", если её ещё нет в записанной
+    private static final String MERGE_REASON = "CASE WHEN EXCLUDED.%1$s IS NULL "
+            + "OR strpos(COALESCE(t.%1$s, ''), EXCLUDED.%1$s) > 0 THEN t.%1$s "
+            + "WHEN t.%1$s IS NULL THEN EXCLUDED.%1$s ELSE t.%1$s || '; ' || EXCLUDED.%1$s END";
+
+    private static final String MERGE = " DO UPDATE SET is_blocked = t.is_blocked OR EXCLUDED.is_blocked, "
+            + "is_suspicious = t.is_suspicious OR EXCLUDED.is_suspicious, "
+            + "blocked_reason = " + String.format(MERGE_REASON, "blocked_reason") + ", "
+            + "suspicious_reason = " + String.format(MERGE_REASON, "suspicious_reason") + ", "
+            + "blocked_reason_code = COALESCE(t.blocked_reason_code, EXCLUDED.blocked_reason_code), "
+            + "suspicious_reason_code = COALESCE(t.suspicious_reason_code, EXCLUDED.suspicious_reason_code), "
+            + "is_provisional = t.is_provisional AND EXCLUDED.is_provisional, "
+            + "version = t.version + 1";
+
+    private static final Map<String, String[]> TARGETS = Map.of(
+            "ACCOUNT", new String[]{"suspicious_account_transfer", "account_transfer_id"},
+            "CARD", new String[]{"suspicious_card_transfer", "card_transfer_id"},
+            "PHONE", new String[]{"suspicious_phone_transfer", "phone_transfer_id"});
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // имя причины -> код; коды из словаря не удаляются, поэтому кэш не устаревает
+    private final Map<String, Integer> reasonCodes = new ConcurrentHashMap<>();
+
+    /**
+     * @param decisions подозрительные или заблокированные переводы
+     */
+    public void saveAll(List<FraudDecisionDto> decisions) {
+        final Map<String, Integer> codes = resolveReasonCodes(decisions);
+
+        decisions.stream()
+                .filter(decision -> TARGETS.containsKey(decision.getChannel()))
+                .collect(Collectors.groupingBy(FraudDecisionDto::getChannel))
+                .forEach((channel, channelDecisions) -> {
+                    for (int from = 0; from < channelDecisions.size(); from += ROWS_PER_INSERT) {
+                        insert(TARGETS.get(channel),
+                                channelDecisions.subList(from, Math.min(from + ROWS_PER_INSERT,
+                                        channelDecisions.size())), codes);
+                    }
+                });
+    }
+
+    /**
+     * Снимает подозрение, записанное предварительным решением, с переводов, окончательная оценка
+     * которых нарушений не нашла.
+     *
+     * @param decisions решения без нарушений
+     */
+    public void clearProvisional(List<FraudDecisionDto> decisions) {
+        decisions.stream()
+                .filter(decision -> TARGETS.containsKey(decision.getChannel()))
+                .collect(Collectors.groupingBy(FraudDecisionDto::getChannel,
+                        Collectors.mapping(decision -> String.valueOf(decision.getTransferId()),
+                                Collectors.joining(",", "{", "}"))))
+                .forEach((channel, transferIds) -> {
+                    final String[] target = TARGETS.get(channel);
+                    jdbcTemplate.update(String.format(CLEAR_PROVISIONAL, target[0], target[1]), transferIds);
+                });
+    }
+
+    /**
+     * Передаёт id подозрительных переводов канала в consumer, кроме ещё не перепроверенных предварительных;
+     * курсор читает пачками только в транзакции.
+     *
+     * @param channel  канал перевода
+     * @param consumer получатель id переводов
+     */
+    public void forEachSuspicious(String channel, LongConsumer consumer) {
+        final String[] target = TARGETS.get(channel);
+
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement("SELECT " + target[1]
+                    + " FROM " + SCHEMA + target[0] + " WHERE is_suspicious AND NOT is_provisional");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, resultSet -> consumer.accept(resultSet.getLong(1)));
+    }
+
+    // коды имён причин пачки: из кэша, остальные добавляются в словарь и читаются из него
+    private Map<String, Integer> resolveReasonCodes(List<FraudDecisionDto> decisions) {
+        final Map<String, Integer> codes = new HashMap<>(reasonCodes);
+        final List<String> missing = decisions.stream()
+                .flatMap(decision -> Stream.of(decision.getBlockedReason(), decision.getSuspiciousReason()))
+                .map(FraudDecisions::reasonName)
+                .filter(name -> name != null && !codes.containsKey(name))
+                .distinct()
+                .toList();
+
+        if (missing.isEmpty()) {
+            return codes;
+        }
+
+        final String names = String.join(PARAMETER_SEPARATOR, Collections.nCopies(missing.size(), PARAMETER));
+        final Map<String, Integer> loaded = new HashMap<>();
+        final RowCallbackHandler collect = resultSet -> loaded.put(resultSet.getString("name"),
+                resultSet.getInt("id"));
+
+        jdbcTemplate.update(String.format(ADD_REASON_CODES, names), missing.toArray());
+        jdbcTemplate.query(String.format(FIND_REASON_CODES, names), collect, missing.toArray());
+        codes.putAll(loaded);
+        cacheAfterCommit(loaded);
+        return codes;
+    }
+
+    // код, добавленный транзакцией, которая затем откатилась, не должен попасть в кэш
+    private void cacheAfterCommit(Map<String, Integer> loaded) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reasonCodes.putAll(loaded);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reasonCodes.putAll(loaded);
+            }
+        });
+    }
+
+    private static Integer reasonCode(Map<String, Integer> codes, String reason) {
+        final String name = FraudDecisions.reasonName(reason);
+        return name == null ? null : codes.get(name);
+    }
+
+    private void insert(String[] target, List<FraudDecisionDto> rows, Map<String, Integer> codes) {
+        final List<Object> parameters = new ArrayList<>(rows.size() * 8);
+
+        for (FraudDecisionDto decision : rows) {
+            parameters.add(decision.getTransferId());
+            parameters.add(decision.getIsBlocked());
+            parameters.add(decision.getIsSuspicious());
+            parameters.add(decision.getBlockedReason());
+            parameters.add(decision.getSuspiciousReason());
+            parameters.add(reasonCode(codes, decision.getBlockedReason()));
+            parameters.add(reasonCode(codes, decision.getSuspiciousReason()));
+            parameters.add(FraudDecisions.isProvisional(decision));
+        }
+
+        jdbcTemplate.update("INSERT INTO " + SCHEMA + target[0] + " AS t (" + target[1]
+                        + ", is_blocked, is_suspicious, blocked_reason, suspicious_reason, "
+                        + "blocked_reason_code, suspicious_reason_code, is_provisional) VALUES "
+                        + String.join(PARAMETER_SEPARATOR, Collections.nCopies(rows.size(), ROW))
+                        + " ON CONFLICT (" + target[1] + ")" + MERGE,
+                parameters.toArray());
+    }
+}
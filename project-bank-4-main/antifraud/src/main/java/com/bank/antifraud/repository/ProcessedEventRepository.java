@@ -0,0 +1,67 @@
+package com.bank.antifraud.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Репозиторий событий, решения по которым записаны (таблица anti_fraud.processed_event).
+ * Общий для всех экземпляров сервиса: повторная доставка события на другой экземпляр или после перезапуска
+ * не оценивает перевод второй раз.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProcessedEventRepository {
+
+    private static final String IDS = "CAST(? AS BIGINT[])";
+
+    private static final String FIND = "SELECT event_id FROM anti_fraud.processed_event WHERE event_id = ANY("
+            + IDS + ")";
+
+    private static final String INSERT = "INSERT INTO anti_fraud.processed_event (event_id) SELECT unnest("
+            + IDS + ") ON CONFLICT (event_id) DO NOTHING";
+
+    private static final String DELETE_EXPIRED = "DELETE FROM anti_fraud.processed_event "
+            + "WHERE processed_at <= now() - ? * INTERVAL '1 millisecond'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param eventIds идентификаторы событий
+     * @return идентификаторы уже обработанных событий из eventIds
+     */
+    public Set<Long> findProcessed(List<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(FIND, Long.class, toArray(eventIds)));
+    }
+
+    /**
+     * @param eventIds идентификаторы событий, решения по которым записаны
+     */
+    public void saveAll(List<Long> eventIds) {
+        if (!eventIds.isEmpty()) {
+            jdbcTemplate.update(INSERT, toArray(eventIds));
+        }
+    }
+
+    /**
+     * @param ttlMillis сколько хранить обработанные события в миллисекундах
+     * @return количество удалённых событий
+     */
+    public int deleteExpired(long ttlMillis) {
+        return jdbcTemplate.update(DELETE_EXPIRED, ttlMillis);
+    }
+
+    private static String toArray(List<Long> eventIds) {
+        return eventIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+}
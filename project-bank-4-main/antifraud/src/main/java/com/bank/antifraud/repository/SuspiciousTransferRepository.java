@@ -0,0 +1,137 @@
+package com.bank.antifraud.repository;
+
+import com.bank.antifraud.dto.SuspiciousTransferCursorDto;
+import com.bank.antifraud.dto.SuspiciousTransferDto;
+import com.bank.antifraud.service.common.SuspiciousFlag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Очереди аналитиков по представлению anti_fraud.suspicious_transfer_view над suspicious_*_transfer.
+ * Флаг подставляется в запрос литералом, а не параметром: только так PostgreSQL доказывает условие
+ * частичного индекса по флагу в каждой таблице представления.
+ * Страницы читаются по ключу (created_at, channel, id) последнего решения предыдущей страницы, а не по OFFSET:
+ * дальние страницы не перечитывают пропущенные строки, а общее число решений считается отдельным запросом.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SuspiciousTransferRepository {
+
+    private static final String VIEW = " FROM anti_fraud.suspicious_transfer_view v WHERE v.";
+
+    private static final String ORDER = " ORDER BY v.created_at DESC, v.channel DESC, v.id DESC";
+
+    // первое условие проходит в индекс по created_at, второе отсекает уже прочитанные решения той же секунды
+    private static final String AFTER = " AND v.created_at <= ? AND (v.created_at < ? OR (v.channel, v.id) < (?, ?))";
+
+    private static final String FIND_PAGE = "SELECT v.channel, v.id, v.transfer_id, v.is_blocked, "
+            + "v.is_suspicious, b.name AS blocked_code, s.name AS suspicious_code, v.blocked_reason, "
+            + "v.suspicious_reason, v.created_at FROM (SELECT v.*%s%s LIMIT ?) v "
+            + "LEFT JOIN anti_fraud.reason_code b ON b.id = v.blocked_reason_code "
+            + "LEFT JOIN anti_fraud.reason_code s ON s.id = v.suspicious_reason_code" + ORDER;
+
+    private static final String FIND_REASONS = "SELECT name FROM anti_fraud.reason_code ORDER BY name";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Новые решения первыми.
+     *
+     * @param flag   {@link SuspiciousFlag}
+     * @param reason имя кода причины по флагу, null - любая причина
+     * @param from   начало периода решения включительно, null - без ограничения
+     * @param to     конец периода решения не включительно, null - без ограничения
+     * @param after  последнее решение предыдущей страницы, null - первая страница
+     * @param size   размер страницы
+     * @return страница {@link SuspiciousTransferDto}
+     */
+    public Slice<SuspiciousTransferDto> findAll(SuspiciousFlag flag, String reason, LocalDateTime from,
+                                                LocalDateTime to, SuspiciousTransferCursorDto after, int size) {
+        final List<Object> parameters = new ArrayList<>();
+        final StringBuilder where = where(flag, reason, from, to, parameters);
+
+        if (after != null) {
+            final Timestamp createdAt = Timestamp.valueOf(after.getCreatedAt());
+            where.append(AFTER);
+            parameters.add(createdAt);
+            parameters.add(createdAt);
+            parameters.add(after.getChannel());
+            parameters.add(after.getId());
+        }
+        // строка сверх страницы только показывает, есть ли следующая
+        parameters.add(size + 1);
+
+        final List<SuspiciousTransferDto> transfers = jdbcTemplate.query(String.format(FIND_PAGE, where, ORDER),
+                (resultSet, rowNum) -> toDto(resultSet), parameters.toArray());
+        final boolean hasNext = transfers.size() > size;
+
+        return new SliceImpl<>(hasNext ? transfers.subList(0, size) : transfers, Pageable.ofSize(size), hasNext);
+    }
+
+    /**
+     * @param flag   {@link SuspiciousFlag}
+     * @param reason имя кода причины по флагу, null - любая причина
+     * @param from   начало периода решения включительно, null - без ограничения
+     * @param to     конец периода решения не включительно, null - без ограничения
+     * @return число решений в очереди
+     */
+    public long count(SuspiciousFlag flag, String reason, LocalDateTime from, LocalDateTime to) {
+        final List<Object> parameters = new ArrayList<>();
+        final StringBuilder where = where(flag, reason, from, to, parameters);
+        final Long total = jdbcTemplate.queryForObject("SELECT count(*)" + where, Long.class, parameters.toArray());
+
+        return total == null ? 0 : total;
+    }
+
+    /**
+     * @return имена кодов причин из словаря
+     */
+    public List<String> findReasonCodes() {
+        return jdbcTemplate.queryForList(FIND_REASONS, String.class);
+    }
+
+    private static StringBuilder where(SuspiciousFlag flag, String reason, LocalDateTime from, LocalDateTime to,
+                                       List<Object> parameters) {
+        final StringBuilder where = new StringBuilder(VIEW).append(flag.getColumn());
+
+        if (reason != null) {
+            where.append(" AND v.").append(flag.getReasonCodeColumn())
+                    .append(" = (SELECT id FROM anti_fraud.reason_code WHERE name = ?)");
+            parameters.add(reason);
+        }
+        if (from != null) {
+            where.append(" AND v.created_at >= ?");
+            parameters.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            where.append(" AND v.created_at < ?");
+            parameters.add(Timestamp.valueOf(to));
+        }
+
+        return where;
+    }
+
+    private static SuspiciousTransferDto toDto(ResultSet resultSet) throws SQLException {
+        return new SuspiciousTransferDto(resultSet.getString("channel"),
+                resultSet.getLong("id"),
+                resultSet.getLong("transfer_id"),
+                resultSet.getBoolean("is_blocked"),
+                resultSet.getBoolean("is_suspicious"),
+                resultSet.getString("blocked_code"),
+                resultSet.getString("suspicious_code"),
+                resultSet.getString("blocked_reason"),
+                resultSet.getString("suspicious_reason"),
+                resultSet.getTimestamp("created_at").toLocalDateTime());
+    }
+}
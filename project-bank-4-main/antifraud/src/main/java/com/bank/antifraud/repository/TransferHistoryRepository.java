@@ -0,0 +1,47 @@
+package com.bank.antifraud.repository;
+
+import com.bank.antifraud.service.backtest.ReplayLog;
+import com.bank.common.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Чтение истории переводов всех каналов из представления transfer.transfer_view той же БД, что у сервиса
+ * transfer. Условие по created_at отсекает лишние месячные секции таблиц переводов.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransferHistoryRepository {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String FIND_TRANSFERS = "SELECT channel, id, recipient_number, account_details_id, "
+            + "amount, created_at FROM transfer.transfer_view WHERE created_at >= ? AND created_at < ? "
+            + "ORDER BY created_at, channel, id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Дописывает переводы периода в порядке времени; курсор читает пачками по FETCH_SIZE только в транзакции.
+     *
+     * @param from   начало периода включительно
+     * @param to     конец периода не включительно
+     * @param replay {@link ReplayLog}
+     */
+    public void forEachTransfer(LocalDateTime from, LocalDateTime to, ReplayLog replay) {
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(FIND_TRANSFERS);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setTimestamp(2, Timestamp.valueOf(to));
+            return statement;
+        }, resultSet -> replay.add(resultSet.getString(1), resultSet.getLong(2), resultSet.getLong(3),
+                resultSet.getLong(4), Money.of(resultSet.getBigDecimal(5)).toMinor(),
+                resultSet.getTimestamp(6).getTime()));
+    }
+}
@@ -0,0 +1,43 @@
+package com.bank.antifraud.repository;
+
+import com.bank.antifraud.service.scoring.VelocityAction;
+import com.bank.antifraud.service.scoring.VelocityDimension;
+import com.bank.antifraud.service.scoring.VelocityRule;
+import com.bank.antifraud.service.scoring.VelocityWindow;
+import com.bank.common.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Репозиторий определений правил скорости anti_fraud.velocity_rule
+ */
+@Repository
+@RequiredArgsConstructor
+public class VelocityRuleRepository {
+
+    private static final String FIND_ENABLED = "SELECT name, dimension, time_window, max_count, max_amount, action, "
+            + "max_deviation FROM anti_fraud.velocity_rule WHERE enabled ORDER BY name";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return включённые правила по имени
+     */
+    public List<VelocityRule> findEnabled() {
+        return jdbcTemplate.query(FIND_ENABLED, (resultSet, rowNum) -> {
+            final BigDecimal maxAmount = resultSet.getBigDecimal("max_amount");
+
+            return new VelocityRule(resultSet.getString("name"),
+                    VelocityDimension.valueOf(resultSet.getString("dimension")),
+                    VelocityWindow.valueOf(resultSet.getString("time_window")),
+                    resultSet.getObject("max_count", Long.class),
+                    maxAmount == null ? null : Money.of(maxAmount),
+                    VelocityAction.valueOf(resultSet.getString("action")),
+                    resultSet.getObject("max_deviation", Double.class));
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package com.bank.antifraud.service;
+
+import com.bank.antifraud.dto.SuspiciousTransferCursorDto;
+import com.bank.antifraud.dto.SuspiciousTransferDto;
+import com.bank.antifraud.service.common.SuspiciousFlag;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Сервис очередей аналитиков по {@link SuspiciousTransferDto} всех каналов
+ */
+public interface SuspiciousTransferService {
+
+    /**
+     * @param flag   {@link SuspiciousFlag}
+     * @param reason имя кода причины, null - любая причина
+     * @param from   начало периода решения включительно
+     * @param to     конец периода решения не включительно
+     * @param after  последнее решение предыдущей страницы, null - первая страница
+     * @param size   размер страницы
+     * @return страница {@link SuspiciousTransferDto}
+     */
+    Slice<SuspiciousTransferDto> findAll(SuspiciousFlag flag, String reason, LocalDateTime from, LocalDateTime to,
+                                         SuspiciousTransferCursorDto after, int size);
+
+    /**
+     * @param flag   {@link SuspiciousFlag}
+     * @param reason имя кода причины, null - любая причина
+     * @param from   начало периода решения включительно
+     * @param to     конец периода решения не включительно
+     * @return число решений в очереди
+     */
+    long count(SuspiciousFlag flag, String reason, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * @return имена кодов причин
+     */
+    List<String> findReasonCodes();
+}
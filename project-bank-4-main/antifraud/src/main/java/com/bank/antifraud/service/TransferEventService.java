@@ -0,0 +1,34 @@
+package com.bank.antifraud.service;
+
+import com.bank.antifraud.dto.FraudDecisionDto;
+import com.bank.antifraud.dto.TransferEventDto;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Сервис приёма событий о переводах из сервиса transfer
+ */
+public interface TransferEventService {
+
+    /**
+     * @param events пачка {@link TransferEventDto}, может повторяться при повторной доставке
+     * @return количество новых, ранее не принятых событий
+     */
+    int accept(List<TransferEventDto> events);
+
+    /**
+     * @param event        {@link TransferEventDto}
+     * @param budgetMillis сколько ждать решения, null - бюджет по умолчанию
+     * @return {@link FraudDecisionDto}; если решение не принято в пределах бюджета - предварительное:
+     * перевод разрешён и помечен подозрительным, окончательное решение доступно позже
+     */
+    FraudDecisionDto check(TransferEventDto event, Long budgetMillis);
+
+    /**
+     * @param channel    канал перевода
+     * @param transferId технический идентификатор перевода
+     * @return {@link FraudDecisionDto}; пустой результат, если перевод ещё ожидает оценки
+     */
+    Optional<FraudDecisionDto> findDecision(String channel, Long transferId);
+}
@@ -0,0 +1,266 @@
+package com.bank.antifraud.service.backtest;
+
+import com.bank.antifraud.dto.BacktestRequestDto;
+import com.bank.antifraud.dto.BacktestResultDto;
+import com.bank.antifraud.repository.FraudDecisionRepository;
+import com.bank.antifraud.repository.TransferHistoryRepository;
+import com.bank.antifraud.service.blocklist.LongHashSet;
+import com.bank.antifraud.service.common.LongList;
+import com.bank.antifraud.service.scoring.CompiledRule;
+import com.bank.antifraud.service.scoring.RuleSet;
+import com.bank.antifraud.service.scoring.VelocityCounter;
+import com.bank.antifraud.service.scoring.VelocityDimension;
+import com.bank.antifraud.service.scoring.VelocityWindow;
+import com.bank.common.exception.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Бэктест правил скорости: переводы периода из transfer.transfer_view прогоняются через правила-кандидаты
+ * в порядке времени, помеченные переводы сравниваются с разметкой suspicious_*_transfer.
+ * Правило зависит только от истории ключа своего измерения, поэтому переводы каждого измерения делятся
+ * на секции по хэшу ключа и повторяются в {@link ForkJoinPool} независимо, с тем же результатом,
+ * что и последовательный повтор. Правила компилируются {@link RuleSet#compile(List)}, как у живого потока;
+ * порог отклонения maxDeviation зависит от признаков всей истории ключа и в бэктесте не проверяется.
+ * Чтение идёт в read-only транзакции, в БД ничего не пишется.
+ * Переводы за самое длинное окно до начала периода загружаются для разогрева: они наполняют окна,
+ * но не оцениваются и не входят в результат, поэтому начало периода оценивается с той же историей, что и живой поток.
+ */
+@Slf4j
+@Component
+public class BacktestService {
+
+    private static final int PARTITIONS_PER_THREAD = 4;
+
+    private static final int EVICT_EVERY = 100_000;
+
+    private static final Duration WARM_UP = Arrays.stream(VelocityWindow.values())
+            .map(VelocityWindow::getDuration)
+            .max(Comparator.naturalOrder())
+            .orElseThrow();
+
+    private final TransferHistoryRepository historyRepository;
+    private final FraudDecisionRepository decisionRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int parallelism;
+
+    public BacktestService(TransferHistoryRepository historyRepository,
+                           FraudDecisionRepository decisionRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${bank.anti-fraud.backtest.parallelism:0}") int parallelism) {
+        this.historyRepository = historyRepository;
+        this.decisionRepository = decisionRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Одновременно выполняется один бэктест, чтобы журналы переводов не делили кучу.
+     *
+     * @param request {@link BacktestRequestDto}
+     * @return {@link BacktestResultDto}
+     */
+    public synchronized BacktestResultDto run(BacktestRequestDto request) {
+        validate(request);
+        final RuleSet rules = RuleSet.compile(request.getRules());
+
+        final long started = System.nanoTime();
+        final ReplayLog replay = new ReplayLog();
+        final Map<String, LongHashSet> labels = new HashMap<>();
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            historyRepository.forEachTransfer(request.getFrom().minus(WARM_UP), request.getTo(), replay);
+            for (String channel : ReplayLog.CHANNELS) {
+                final LongList transferIds = new LongList();
+                decisionRepository.forEachSuspicious(channel, transferIds);
+                labels.put(channel, new LongHashSet(transferIds.values(), transferIds.size()));
+            }
+        });
+        final int firstScored = firstAt(replay, Timestamp.valueOf(request.getFrom()).getTime());
+        log.info("Бэктест {} - {}: загружено {} переводов, из них {} для разогрева окон, за {} мс",
+                request.getFrom(), request.getTo(), replay.size(), firstScored,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        final boolean[] flagged = new boolean[replay.size()];
+        final Map<String, LongAdder> ruleHits = replay(replay, firstScored, rules, flagged);
+
+        final BacktestResultDto result = score(replay, firstScored, labels, flagged);
+        result.setRuleHits(ruleHits.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum())));
+        result.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        log.info("Бэктест {} - {}: помечено {}, точность {}, полнота {}, {} мс", request.getFrom(),
+                request.getTo(), result.getFlagged(), result.getPrecision(), result.getRecall(),
+                result.getDurationMillis());
+        return result;
+    }
+
+    private Map<String, LongAdder> replay(ReplayLog replay, int firstScored, RuleSet rules, boolean[] flagged) {
+        final Map<String, LongAdder> ruleHits = new ConcurrentHashMap<>();
+        final List<Callable<Void>> tasks = new ArrayList<>();
+
+        for (VelocityDimension dimension : rules.dimensions()) {
+            final CompiledRule[] dimensionRules = rules.rules(dimension);
+            for (CompiledRule rule : dimensionRules) {
+                ruleHits.put(rule.source().getName(), new LongAdder());
+            }
+            for (int[] events : partition(replay, dimension, parallelism * PARTITIONS_PER_THREAD)) {
+                tasks.add(() -> {
+                    replayPartition(replay, firstScored, dimension, dimensionRules, events, flagged, ruleHits);
+                    return null;
+                });
+            }
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (Future<Void> task : pool.invokeAll(tasks)) {
+                task.get();
+            }
+            return ruleHits;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Бэктест прерван", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // секции сохраняют порядок переводов, все переводы одного ключа попадают в одну секцию
+    private static int[][] partition(ReplayLog replay, VelocityDimension dimension, int partitions) {
+        final int[] owners = new int[replay.size()];
+        final int[] sizes = new int[partitions];
+
+        for (int event = 0; event < replay.size(); event++) {
+            final Long key = keyOf(replay, dimension, event);
+            owners[event] = key == null ? -1 : (int) Long.remainderUnsigned(LongHashSet.mix(key), partitions);
+            if (key != null) {
+                sizes[owners[event]]++;
+            }
+        }
+
+        final int[][] events = new int[partitions][];
+        for (int partition = 0; partition < partitions; partition++) {
+            events[partition] = new int[sizes[partition]];
+            sizes[partition] = 0;
+        }
+        for (int event = 0; event < replay.size(); event++) {
+            if (owners[event] >= 0) {
+                events[owners[event]][sizes[owners[event]]++] = event;
+            }
+        }
+        return events;
+    }
+
+    // переводы до firstScored только наполняют окна
+    private static void replayPartition(ReplayLog replay, int firstScored, VelocityDimension dimension,
+                                        CompiledRule[] rules, int[] events, boolean[] flagged,
+                                        Map<String, LongAdder> ruleHits) {
+        final Map<Long, VelocityCounter> counters = new HashMap<>();
+        final long[] hits = new long[rules.length];
+
+        for (int i = 0; i < events.length; i++) {
+            final int event = events[i];
+            final long time = replay.timeMillis(event);
+            final long[] totals = counters.computeIfAbsent(keyOf(replay, dimension, event),
+                    key -> new VelocityCounter()).record(time, replay.amountMinor(event));
+
+            // перевод оценивается правилами нескольких измерений, поэтому флаг только устанавливается
+            if (event >= firstScored && evaluate(rules, totals, hits)) {
+                flagged[event] = true;
+            }
+            // счётчики ключей без переводов за самое длинное окно больше не влияют на результат
+            if (i % EVICT_EVERY == EVICT_EVERY - 1) {
+                counters.values().removeIf(counter -> counter.isIdle(time));
+            }
+        }
+
+        for (int rule = 0; rule < rules.length; rule++) {
+            ruleHits.get(rules[rule].source().getName()).add(hits[rule]);
+        }
+    }
+
+    private static boolean evaluate(CompiledRule[] rules, long[] totals, long[] hits) {
+        boolean exceeded = false;
+
+        for (int rule = 0; rule < rules.length; rule++) {
+            if (rules[rule].test(totals)) {
+                exceeded = true;
+                hits[rule]++;
+            }
+        }
+        return exceeded;
+    }
+
+    private static BacktestResultDto score(ReplayLog replay, int firstScored, Map<String, LongHashSet> labels,
+                                           boolean[] flagged) {
+        long flaggedCount = 0;
+        long labeled = 0;
+        long truePositives = 0;
+
+        for (int event = firstScored; event < replay.size(); event++) {
+            final boolean suspicious = labels.get(replay.channel(event)).contains(replay.transferId(event));
+            if (flagged[event]) {
+                flaggedCount++;
+            }
+            if (suspicious) {
+                labeled++;
+            }
+            if (flagged[event] && suspicious) {
+                truePositives++;
+            }
+        }
+
+        return new BacktestResultDto((long) replay.size() - firstScored, flaggedCount, labeled, truePositives,
+                flaggedCount - truePositives, labeled - truePositives,
+                flaggedCount == 0 ? null : (double) truePositives / flaggedCount,
+                labeled == 0 ? null : (double) truePositives / labeled,
+                null, null);
+    }
+
+    // журнал упорядочен по времени
+    private static int firstAt(ReplayLog replay, long timeMillis) {
+        int event = 0;
+
+        while (event < replay.size() && replay.timeMillis(event) < timeMillis) {
+            event++;
+        }
+        return event;
+    }
+
+    private static Long keyOf(ReplayLog replay, VelocityDimension dimension, int event) {
+        return dimension.keyOf(replay.channel(event), replay.recipientNumber(event),
+                replay.accountDetailsId(event));
+    }
+
+    private static void validate(BacktestRequestDto request) {
+        if (request.getFrom() == null || request.getTo() == null || !request.getFrom().isBefore(request.getTo())) {
+            throw new ValidationException("Период бэктеста должен быть задан и начинаться раньше, чем кончается");
+        }
+        if (request.getRules() == null || request.getRules().isEmpty()) {
+            throw new ValidationException("Нужно хотя бы одно правило");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.bank.antifraud.service.backtest;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Переводы для повтора в порядке времени, по столбцам примитивных массивов: 41 байт на перевод,
+ * месяц в несколько десятков миллионов переводов помещается в куче одного экземпляра.
+ * Не потокобезопасен на запись; после заполнения читается из нескольких потоков.
+ */
+public final class ReplayLog {
+
+    /**
+     * Каналы переводов; номер канала в журнале - индекс в этом списке.
+     */
+    public static final List<String> CHANNELS = List.of("ACCOUNT", "CARD", "PHONE");
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private byte[] channels = new byte[INITIAL_CAPACITY];
+    private long[] transferIds = new long[INITIAL_CAPACITY];
+    private long[] recipients = new long[INITIAL_CAPACITY];
+    private long[] senders = new long[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private long[] times = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @param channel          канал перевода из {@link #CHANNELS}
+     * @param transferId       технический идентификатор перевода
+     * @param recipientNumber  номер счёта, карты или телефона получателя
+     * @param accountDetailsId id счёта списания
+     * @param amountMinor      сумма в копейках
+     * @param timeMillis       время перевода
+     */
+    public void add(String channel, long transferId, long recipientNumber, long accountDetailsId,
+                    long amountMinor, long timeMillis) {
+        final int index = CHANNELS.indexOf(channel);
+
+        if (index < 0) {
+            throw new IllegalArgumentException("Неизвестный канал перевода " + channel);
+        }
+        if (size == transferIds.length) {
+            grow(size * 2);
+        }
+
+        channels[size] = (byte) index;
+        transferIds[size] = transferId;
+        recipients[size] = recipientNumber;
+        senders[size] = accountDetailsId;
+        amounts[size] = amountMinor;
+        times[size] = timeMillis;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String channel(int event) {
+        return CHANNELS.get(channels[event]);
+    }
+
+    public long transferId(int event) {
+        return transferIds[event];
+    }
+
+    public long recipientNumber(int event) {
+        return recipients[event];
+    }
+
+    public long accountDetailsId(int event) {
+        return senders[event];
+    }
+
+    public long amountMinor(int event) {
+        return amounts[event];
+    }
+
+    public long timeMillis(int event) {
+        return times[event];
+    }
+
+    private void grow(int capacity) {
+        channels = Arrays.copyOf(channels, capacity);
+        transferIds = Arrays.copyOf(transferIds, capacity);
+        recipients = Arrays.copyOf(recipients, capacity);
+        senders = Arrays.copyOf(senders, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        times = Arrays.copyOf(times, capacity);
+    }
+}
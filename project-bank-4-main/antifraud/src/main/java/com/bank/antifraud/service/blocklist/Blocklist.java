@@ -0,0 +1,40 @@
+package com.bank.antifraud.service.blocklist;
+
+/**
+ * Неизменяемый снимок блок-листа одного вида номеров: {@link BloomFilter} перед точным {@link LongHashSet}.
+ * При перезагрузке строится новый снимок и подменяется целиком, поэтому проверки не блокируются.
+ */
+public final class Blocklist {
+
+    private final BloomFilter filter;
+    private final LongHashSet numbers;
+
+    /**
+     * @param values номера
+     * @param count  количество номеров в начале values
+     * @param fpp    доля ложных срабатываний фильтра Блума
+     */
+    public Blocklist(long[] values, int count, double fpp) {
+        this.filter = new BloomFilter(count, fpp);
+        this.numbers = new LongHashSet(values, count);
+
+        for (int i = 0; i < count; i++) {
+            filter.put(values[i]);
+        }
+    }
+
+    /**
+     * @param number номер
+     * @return true, если номер в блок-листе
+     */
+    public boolean contains(long number) {
+        return filter.mightContain(number) && numbers.contains(number);
+    }
+
+    /**
+     * @return количество различных номеров
+     */
+    public int size() {
+        return numbers.size();
+    }
+}
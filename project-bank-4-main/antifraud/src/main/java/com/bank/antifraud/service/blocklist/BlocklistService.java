@@ -0,0 +1,156 @@
+package com.bank.antifraud.service.blocklist;
+
+import com.bank.antifraud.dto.TransferEventDto;
+import com.bank.antifraud.repository.BlocklistRepository;
+import com.bank.antifraud.service.common.LongList;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongConsumer;
+
+/**
+ * Блок-листы номеров счетов, карт и телефонов получателей в памяти.
+ * Источник - таблица anti_fraud.blocklist или, если задан bank.anti-fraud.blocklist.dir, файлы
+ * account.txt, card.txt и phone.txt в нём (номер на строку, # - комментарий). Перезагрузка строит
+ * новые снимки {@link Blocklist} и подменяет их одной записью volatile-поля: проверка видит либо старые,
+ * либо новые блок-листы целиком.
+ */
+@Slf4j
+@Component
+public class BlocklistService {
+
+    private final BlocklistRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final String dir;
+    private final double fpp;
+
+    private volatile Map<BlocklistType, Blocklist> blocklists = Collections.emptyMap();
+
+    public BlocklistService(BlocklistRepository repository,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${bank.anti-fraud.blocklist.dir:}") String dir,
+                            @Value("${bank.anti-fraud.blocklist.fpp:0.01}") double fpp) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.dir = dir;
+        this.fpp = fpp;
+
+        for (BlocklistType type : BlocklistType.values()) {
+            Gauge.builder("antifraud.blocklist.size", this, service -> service.size(type))
+                    .tag("type", type.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Загружает блок-листы при старте и раз в reload-interval-ms; до первой успешной загрузки
+     * проверка ничего не находит, при ошибке остаются прежние блок-листы.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${bank.anti-fraud.blocklist.reload-interval-ms:300000}",
+            initialDelayString = "${bank.anti-fraud.blocklist.reload-interval-ms:300000}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("Не удалось загрузить блок-листы: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Перезагружает все блок-листы из источника.
+     *
+     * @return количество номеров по видам
+     */
+    public synchronized Map<BlocklistType, Integer> reload() {
+        final Map<BlocklistType, Blocklist> loaded = new EnumMap<>(BlocklistType.class);
+        final Map<BlocklistType, Integer> sizes = new EnumMap<>(BlocklistType.class);
+
+        for (BlocklistType type : BlocklistType.values()) {
+            final Blocklist blocklist = load(type);
+            loaded.put(type, blocklist);
+            sizes.put(type, blocklist.size());
+        }
+
+        blocklists = loaded;
+        log.info("Блок-листы перезагружены: {}", sizes);
+        return sizes;
+    }
+
+    /**
+     * @param type   {@link BlocklistType}
+     * @param number номер
+     * @return true, если номер в блок-листе
+     */
+    public boolean isBlocked(BlocklistType type, long number) {
+        final Blocklist blocklist = blocklists.get(type);
+        return blocklist != null && blocklist.contains(number);
+    }
+
+    /**
+     * @param event {@link TransferEventDto}
+     * @return причина блокировки, если получатель перевода в блок-листе
+     */
+    public Optional<String> findBlockedReason(TransferEventDto event) {
+        final BlocklistType type = Arrays.stream(BlocklistType.values())
+                .filter(candidate -> candidate.name().equals(event.getChannel()))
+                .findFirst()
+                .orElse(null);
+
+        if (type == null || event.getRecipientNumber() == null || !isBlocked(type, event.getRecipientNumber())) {
+            return Optional.empty();
+        }
+        return Optional.of("blocklist: " + type + " " + event.getRecipientNumber());
+    }
+
+    private Blocklist load(BlocklistType type) {
+        final LongList numbers = new LongList();
+
+        if (dir.isBlank()) {
+            transactionTemplate.executeWithoutResult(status -> repository.forEachNumber(type, numbers));
+        } else {
+            readFile(Path.of(dir, type.name().toLowerCase(Locale.ROOT) + ".txt"), numbers);
+        }
+        return new Blocklist(numbers.values(), numbers.size(), fpp);
+    }
+
+    private static void readFile(Path file, LongConsumer consumer) {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                final String number = line.strip();
+                if (!number.isEmpty() && !number.startsWith("#")) {
+                    consumer.accept(Long.parseLong(number));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int size(BlocklistType type) {
+        final Blocklist blocklist = blocklists.get(type);
+        return blocklist == null ? 0 : blocklist.size();
+    }
+}
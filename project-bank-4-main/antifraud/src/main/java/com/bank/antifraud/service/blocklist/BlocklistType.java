@@ -0,0 +1,22 @@
+package com.bank.antifraud.service.blocklist;
+
+/**
+ * Вид номера в блок-листе, совпадает с каналом перевода из {@link com.bank.antifraud.dto.TransferEventDto}
+ */
+public enum BlocklistType {
+
+    /**
+     * Номер счёта получателя.
+     */
+    ACCOUNT,
+
+    /**
+     * Номер карты получателя.
+     */
+    CARD,
+
+    /**
+     * Номер телефона получателя.
+     */
+    PHONE
+}
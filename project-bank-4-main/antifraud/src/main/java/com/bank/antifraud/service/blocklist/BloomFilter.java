@@ -0,0 +1,61 @@
+package com.bank.antifraud.service.blocklist;
+
+/**
+ * Фильтр Блума для long: отвечает "точно нет" или "возможно есть" с долей ложных срабатываний fpp.
+ * Около 10 бит на элемент при fpp 1%, поэтому для отсутствующих номеров - а это почти все переводы -
+ * проверка не доходит до {@link LongHashSet}, в восемь раз большего и плохо помещающегося в кэш процессора.
+ */
+public final class BloomFilter {
+
+    private static final int MAX_HASHES = 16;
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashes;
+
+    /**
+     * @param expected ожидаемое количество элементов
+     * @param fpp      допустимая доля ложных срабатываний, от 0 до 1
+     */
+    public BloomFilter(int expected, double fpp) {
+        final double ln2 = Math.log(2);
+        final long optimalBits = (long) Math.ceil(-Math.max(expected, 1) * Math.log(fpp) / (ln2 * ln2));
+
+        this.bits = new long[(int) Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE)];
+        this.bitCount = (long) bits.length * Long.SIZE;
+        this.hashes = (int) Math.min(MAX_HASHES,
+                Math.max(1, Math.round((double) bitCount / Math.max(expected, 1) * ln2)));
+    }
+
+    /**
+     * @param value значение
+     */
+    public void put(long value) {
+        final long hash = LongHashSet.mix(value);
+        final long first = hash & 0xffffffffL;
+        final long second = hash >>> 32;
+
+        for (int i = 1; i <= hashes; i++) {
+            final long bit = Math.floorMod(first + i * second, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * @param value значение
+     * @return false, если значения точно нет
+     */
+    public boolean mightContain(long value) {
+        final long hash = LongHashSet.mix(value);
+        final long first = hash & 0xffffffffL;
+        final long second = hash >>> 32;
+
+        for (int i = 1; i <= hashes; i++) {
+            final long bit = Math.floorMod(first + i * second, bitCount);
+            if ((bits[(int) (bit >>> 6)] & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
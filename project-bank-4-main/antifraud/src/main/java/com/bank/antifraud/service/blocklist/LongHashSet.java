@@ -0,0 +1,104 @@
+package com.bank.antifraud.service.blocklist;
+
+/**
+ * Неизменяемое множество long на открытой адресации с линейным пробированием: 16 байт на элемент
+ * при заполнении не больше половины, без упаковки в {@link Long}.
+ * 0 служит признаком пустой ячейки и хранится отдельным флагом.
+ */
+public final class LongHashSet {
+
+    private static final long EMPTY = 0L;
+
+    private final long[] table;
+    private final int mask;
+    private final boolean containsEmpty;
+    private final int size;
+
+    /**
+     * @param values элементы, повторы допускаются
+     * @param count  количество элементов в начале values
+     */
+    public LongHashSet(long[] values, int count) {
+        this.table = new long[capacityFor(count)];
+        this.mask = table.length - 1;
+
+        boolean empty = false;
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (values[i] == EMPTY) {
+                if (!empty) {
+                    empty = true;
+                    distinct++;
+                }
+            } else if (insert(values[i])) {
+                distinct++;
+            }
+        }
+        this.containsEmpty = empty;
+        this.size = distinct;
+    }
+
+    /**
+     * @param value значение
+     * @return true, если значение есть в множестве
+     */
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+
+        for (int slot = (int) mix(value) & mask; ; slot = (slot + 1) & mask) {
+            final long current = table[slot];
+            if (current == value) {
+                return true;
+            }
+            if (current == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return количество различных элементов
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Перемешивание битов (финализатор MurmurHash3), чтобы последовательные номера не шли в соседние ячейки.
+     *
+     * @param value значение
+     * @return хэш
+     */
+    public static long mix(long value) {
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private boolean insert(long value) {
+        for (int slot = (int) mix(value) & mask; ; slot = (slot + 1) & mask) {
+            final long current = table[slot];
+            if (current == value) {
+                return false;
+            }
+            if (current == EMPTY) {
+                table[slot] = value;
+                return true;
+            }
+        }
+    }
+
+    private static int capacityFor(int count) {
+        final int capacity = Integer.highestOneBit(Math.max(count, 1) * 2 - 1) << 1;
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Слишком много элементов: " + count);
+        }
+        return Math.max(capacity, 2);
+    }
+}
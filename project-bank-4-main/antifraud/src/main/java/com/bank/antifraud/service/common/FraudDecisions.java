@@ -0,0 +1,86 @@
+package com.bank.antifraud.service.common;
+
+import com.bank.antifraud.dto.FraudDecisionDto;
+
+/**
+ * Операции над решениями антифрода из разных источников: блок-листов, правил скорости, графа переводов.
+ */
+public final class FraudDecisions {
+
+    private static final String REASON_SEPARATOR = "; ";
+
+    private static final int MAX_REASON_NAME_LENGTH = 64;
+
+    private FraudDecisions() {
+    }
+
+    /**
+     * @param channel    канал перевода
+     * @param transferId технический идентификатор перевода
+     * @return ключ решения, уникальный среди всех каналов
+     */
+    public static String key(String channel, Long transferId) {
+        return channel + ":" + transferId;
+    }
+
+    /**
+     * Объединяет два решения по одному переводу: перевод заблокирован или подозрителен,
+     * если так решил хотя бы один источник, причины объединяются без повторов.
+     * Предварительное решение с окончательным без нарушений даёт окончательное: перепроверка снимает подозрение.
+     *
+     * @param decision {@link FraudDecisionDto}
+     * @param other    {@link FraudDecisionDto} по тому же переводу
+     * @return {@link FraudDecisionDto}
+     */
+    public static FraudDecisionDto merge(FraudDecisionDto decision, FraudDecisionDto other) {
+        final boolean provisional = isProvisional(decision);
+
+        if (provisional != isProvisional(other)) {
+            final FraudDecisionDto rescored = provisional ? other : decision;
+            if (!rescored.getIsSuspicious()) {
+                return rescored;
+            }
+        }
+
+        return new FraudDecisionDto(decision.getTransferId(), decision.getChannel(),
+                decision.getIsBlocked() || other.getIsBlocked(),
+                decision.getIsSuspicious() || other.getIsSuspicious(),
+                join(decision.getBlockedReason(), other.getBlockedReason()),
+                join(decision.getSuspiciousReason(), other.getSuspiciousReason()),
+                provisional && isProvisional(other));
+    }
+
+    /**
+     * @param decision {@link FraudDecisionDto}
+     * @return true, если решение предварительное и ещё не заменено окончательным
+     */
+    public static boolean isProvisional(FraudDecisionDto decision) {
+        return Boolean.TRUE.equals(decision.getIsProvisional());
+    }
+
+    /**
+     * @param reason текст причин решения
+     * @return имя первой причины до двоеточия - имя кода причины в anti_fraud.reason_code, null - без причины
+     */
+    public static String reasonName(String reason) {
+        if (reason == null) {
+            return null;
+        }
+
+        final String first = reason.split(";", 2)[0].split(":", 2)[0].strip();
+        if (first.isEmpty()) {
+            return null;
+        }
+        return first.length() > MAX_REASON_NAME_LENGTH ? first.substring(0, MAX_REASON_NAME_LENGTH) : first;
+    }
+
+    private static String join(String reason, String other) {
+        if (reason == null) {
+            return other;
+        }
+        if (other == null || reason.contains(other)) {
+            return reason;
+        }
+        return reason + REASON_SEPARATOR + other;
+    }
+}
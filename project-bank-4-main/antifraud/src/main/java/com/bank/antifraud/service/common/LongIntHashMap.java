@@ -0,0 +1,89 @@
+package com.bank.antifraud.service.common;
+
+import com.bank.antifraud.service.blocklist.LongHashSet;
+
+import java.util.Arrays;
+
+/**
+ * Отображение long в неотрицательный int на открытой адресации без упаковки; растёт удвоением
+ * при заполнении больше половины. Используется как индекс записей в параллельных примитивных массивах.
+ * Не потокобезопасно.
+ */
+public final class LongIntHashMap {
+
+    /**
+     * Значение отсутствующего ключа.
+     */
+    public static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * @param expected ожидаемое количество ключей
+     */
+    public LongIntHashMap(int expected) {
+        final int capacity = Integer.highestOneBit(Math.max(expected, 1) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(values, MISSING);
+    }
+
+    /**
+     * @param key ключ
+     * @return значение или {@link #MISSING}
+     */
+    public int get(long key) {
+        for (int slot = (int) LongHashSet.mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (values[slot] == MISSING || keys[slot] == key) {
+                return values[slot];
+            }
+        }
+    }
+
+    /**
+     * @param key   ключ
+     * @param value неотрицательное значение
+     */
+    public void put(long key, int value) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        if (insert(keys, values, mask, key, value)) {
+            size++;
+        }
+    }
+
+    private void grow() {
+        final long[] grownKeys = new long[keys.length * 2];
+        final int[] grownValues = new int[values.length * 2];
+        final int grownMask = grownKeys.length - 1;
+        Arrays.fill(grownValues, MISSING);
+
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (values[slot] != MISSING) {
+                insert(grownKeys, grownValues, grownMask, keys[slot], values[slot]);
+            }
+        }
+        keys = grownKeys;
+        values = grownValues;
+        mask = grownMask;
+    }
+
+    private static boolean insert(long[] keys, int[] values, int mask, long key, int value) {
+        for (int slot = (int) LongHashSet.mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (values[slot] == MISSING) {
+                keys[slot] = key;
+                values[slot] = value;
+                return true;
+            }
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.bank.antifraud.service.common;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Растущий массив long без упаковки в {@link Long}. Не потокобезопасен.
+ */
+public final class LongList implements LongConsumer {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] values = new long[INITIAL_CAPACITY];
+    private int size;
+
+    @Override
+    public void accept(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * @return массив, в начале которого {@link #size()} значений
+     */
+    public long[] values() {
+        return values;
+    }
+
+    /**
+     * @return количество значений
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,22 @@
+package com.bank.antifraud.service.common;
+
+import lombok.Getter;
+
+/**
+ * Флаг решения антифрода, по которому строится очередь аналитика
+ */
+@Getter
+public enum SuspiciousFlag {
+
+    BLOCKED("is_blocked", "blocked_reason_code"),
+
+    SUSPICIOUS("is_suspicious", "suspicious_reason_code");
+
+    private final String column;
+    private final String reasonCodeColumn;
+
+    SuspiciousFlag(String column, String reasonCodeColumn) {
+        this.column = column;
+        this.reasonCodeColumn = reasonCodeColumn;
+    }
+}
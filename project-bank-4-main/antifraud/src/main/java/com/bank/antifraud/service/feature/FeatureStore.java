@@ -0,0 +1,266 @@
+package com.bank.antifraud.service.feature;
+
+import com.bank.antifraud.dto.FeatureDto;
+import com.bank.antifraud.dto.TransferEventDto;
+import com.bank.antifraud.service.blocklist.LongHashSet;
+import com.bank.antifraud.service.common.LongIntHashMap;
+import com.bank.antifraud.service.scoring.VelocityDimension;
+import com.bank.common.money.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Хранилище признаков по счетам, картам и телефонам: количество, сумма, среднее, дисперсия, максимум
+ * сумм переводов и количество различных контрагентов. Каждый перевод обновляет признаки своих ключей
+ * за O(1), чтение признака тоже O(1) - правила с порогом отклонения ({@link #deviation}) и REST
+ * не обращаются к таблицам переводов.
+ * Если задан bank.anti-fraud.features.snapshot-file, признаки сохраняются в него раз
+ * в snapshot-interval-ms и при остановке и загружаются при старте.
+ * Раз в evict-interval-ms удаляются ключи без переводов дольше idle-ttl-ms, а сверх max-keys ключей измерения -
+ * самые давние: при precision 8 ключ занимает около 320 байт, и память ограничена max-keys на измерение.
+ */
+@Slf4j
+@Component
+public class FeatureStore {
+
+    private static final int SNAPSHOT_FORMAT = 2;
+
+    private static final BigDecimal MINOR_PER_MAJOR = BigDecimal.valueOf(100);
+
+    private static final BigDecimal MINOR_SQUARED_PER_MAJOR = BigDecimal.valueOf(10_000);
+
+    private final int precision;
+    private final String snapshotFile;
+    private final long idleTtl;
+    private final int maxKeys;
+    private final long minCount;
+    private final Counter evicted;
+
+    private Map<VelocityDimension, FeatureTable> tables;
+
+    public FeatureStore(MeterRegistry meterRegistry,
+                        @Value("${bank.anti-fraud.features.hll-precision:8}") int precision,
+                        @Value("${bank.anti-fraud.features.snapshot-file:}") String snapshotFile,
+                        @Value("${bank.anti-fraud.features.idle-ttl-ms:2592000000}") long idleTtl,
+                        @Value("${bank.anti-fraud.features.max-keys:1000000}") int maxKeys,
+                        @Value("${bank.anti-fraud.features.min-count:10}") long minCount) {
+        if (precision < HyperLogLog.MIN_PRECISION || precision > HyperLogLog.MAX_PRECISION) {
+            throw new IllegalArgumentException("hll-precision должен быть от " + HyperLogLog.MIN_PRECISION
+                    + " до " + HyperLogLog.MAX_PRECISION);
+        }
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("max-keys должен быть больше нуля");
+        }
+
+        this.precision = precision;
+        this.snapshotFile = snapshotFile;
+        this.idleTtl = idleTtl;
+        this.maxKeys = maxKeys;
+        this.minCount = minCount;
+        this.tables = emptyTables();
+        this.evicted = meterRegistry.counter("antifraud.features.evicted");
+
+        for (VelocityDimension dimension : VelocityDimension.values()) {
+            Gauge.builder("antifraud.features.keys", this, store -> store.size(dimension))
+                    .tag("dimension", dimension.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Обновляет признаки отправителя и получателя перевода.
+     *
+     * @param event {@link TransferEventDto}
+     */
+    public synchronized void record(TransferEventDto event) {
+        final long amount = Money.of(event.getAmount()).toMinor();
+        final long time = event.getCreatedAt() == null ? System.currentTimeMillis()
+                : event.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        for (VelocityDimension dimension : VelocityDimension.values()) {
+            final Long key = dimension.keyOf(event);
+            if (key != null) {
+                tables.get(dimension).add(key, amount, counterparty(dimension, event), time);
+            }
+        }
+    }
+
+    /**
+     * @param dimension {@link VelocityDimension}
+     * @param key       id счёта отправителя, номер карты или телефона получателя
+     * @return {@link FeatureDto}, если по ключу были переводы
+     */
+    public synchronized Optional<FeatureDto> find(VelocityDimension dimension, long key) {
+        final FeatureTable table = tables.get(dimension);
+        final int slot = table.slot(key);
+
+        if (slot == LongIntHashMap.MISSING) {
+            return Optional.empty();
+        }
+        return Optional.of(new FeatureDto(dimension.name(), key, table.count(slot),
+                Money.ofMinor(table.sum(slot)).toBigDecimal(),
+                BigDecimal.valueOf(table.mean(slot)).divide(MINOR_PER_MAJOR, Money.SCALE, RoundingMode.HALF_EVEN),
+                BigDecimal.valueOf(table.variance(slot))
+                        .divide(MINOR_SQUARED_PER_MAJOR, Money.SCALE, RoundingMode.HALF_EVEN),
+                Money.ofMinor(table.max(slot)).toBigDecimal(),
+                table.distinctCounterparties(slot)));
+    }
+
+    /**
+     * Отклонение суммы от средней суммы переводов ключа для правил с порогом отклонения. Вызывается при оценке
+     * перевода, если у его измерения есть такие правила, поэтому не создаёт объектов и держит блокировку
+     * хранилища только на чтение нескольких элементов массивов.
+     *
+     * @param dimension   {@link VelocityDimension}
+     * @param key         id счёта отправителя, номер карты или телефона получателя
+     * @param amountMinor сумма перевода в копейках
+     * @return отклонение в стандартных отклонениях, 0 - если по ключу меньше min-count переводов
+     * или суммы не различались
+     */
+    public synchronized double deviation(VelocityDimension dimension, long key, long amountMinor) {
+        final FeatureTable table = tables.get(dimension);
+        final int slot = table.slot(key);
+
+        if (slot == LongIntHashMap.MISSING || table.count(slot) < minCount) {
+            return 0;
+        }
+
+        final double variance = table.variance(slot);
+        return variance > 0 ? (amountMinor - table.mean(slot)) / Math.sqrt(variance) : 0;
+    }
+
+    /**
+     * Удаляет давние ключи и ключи сверх max-keys; выполняется под блокировкой хранилища за один проход
+     * по записям измерения.
+     */
+    @Scheduled(fixedDelayString = "${bank.anti-fraud.features.evict-interval-ms:60000}")
+    public synchronized void evictIdle() {
+        final long before = System.currentTimeMillis() - idleTtl;
+        int removed = 0;
+
+        for (FeatureTable table : tables.values()) {
+            removed += table.evict(before, maxKeys);
+        }
+        if (removed > 0) {
+            evicted.increment(removed);
+            log.debug("Удалено ключей признаков: {}", removed);
+        }
+    }
+
+    /**
+     * Загружает признаки из снимка; без снимка или при ошибке чтения признаки копятся заново.
+     */
+    @PostConstruct
+    public void restore() {
+        if (snapshotFile.isBlank() || !Files.exists(Path.of(snapshotFile))) {
+            return;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(Path.of(snapshotFile))))) {
+            if (input.readInt() != SNAPSHOT_FORMAT || input.readInt() != precision) {
+                log.warn("Снимок признаков {} другого формата, признаки копятся заново", snapshotFile);
+                return;
+            }
+
+            final Map<VelocityDimension, FeatureTable> restored = new EnumMap<>(VelocityDimension.class);
+            for (VelocityDimension dimension : VelocityDimension.values()) {
+                restored.put(dimension, FeatureTable.read(input, precision));
+            }
+            synchronized (this) {
+                tables = restored;
+            }
+            log.info("Признаки загружены из {}: {} ключей", snapshotFile, size());
+        } catch (IOException e) {
+            log.error("Не удалось загрузить признаки из {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Сохраняет снимок признаков: копия берётся под блокировкой, запись на диск идёт без неё.
+     * Файл подменяется целиком, поэтому падение во время записи не портит прежний снимок.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${bank.anti-fraud.features.snapshot-interval-ms:300000}",
+            initialDelayString = "${bank.anti-fraud.features.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        if (snapshotFile.isBlank()) {
+            return;
+        }
+
+        final Map<VelocityDimension, FeatureTable> copy = new EnumMap<>(VelocityDimension.class);
+        synchronized (this) {
+            tables.forEach((dimension, table) -> copy.put(dimension, table.copy()));
+        }
+
+        final Path target = Path.of(snapshotFile);
+        final Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporary)))) {
+            output.writeInt(SNAPSHOT_FORMAT);
+            output.writeInt(precision);
+            for (VelocityDimension dimension : VelocityDimension.values()) {
+                copy.get(dimension).write(output);
+            }
+        } catch (IOException e) {
+            log.error("Не удалось сохранить признаки в {}: {}", temporary, e.getMessage());
+            return;
+        }
+
+        try {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Не удалось подменить снимок признаков {}: {}", target, e.getMessage());
+        }
+    }
+
+    // контрагент счёта - получатель в своём канале, контрагент карты и телефона - счёт отправителя
+    private static Long counterparty(VelocityDimension dimension, TransferEventDto event) {
+        if (dimension != VelocityDimension.ACCOUNT) {
+            return event.getAccountDetailsId() == null ? null : LongHashSet.mix(event.getAccountDetailsId());
+        }
+        if (event.getRecipientNumber() == null) {
+            return null;
+        }
+        return LongHashSet.mix(event.getRecipientNumber() ^ LongHashSet.mix(event.getChannel().hashCode()));
+    }
+
+    private synchronized int size() {
+        return tables.values().stream().mapToInt(FeatureTable::size).sum();
+    }
+
+    private synchronized int size(VelocityDimension dimension) {
+        return tables.get(dimension).size();
+    }
+
+    private Map<VelocityDimension, FeatureTable> emptyTables() {
+        final Map<VelocityDimension, FeatureTable> empty = new EnumMap<>(VelocityDimension.class);
+
+        for (VelocityDimension dimension : VelocityDimension.values()) {
+            empty.put(dimension, new FeatureTable(precision));
+        }
+        return empty;
+    }
+}
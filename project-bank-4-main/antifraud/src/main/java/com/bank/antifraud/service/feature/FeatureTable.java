@@ -0,0 +1,249 @@
+package com.bank.antifraud.service.feature;
+
+import com.bank.antifraud.service.common.LongIntHashMap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Статистики сумм переводов по ключам одного измерения в параллельных примитивных массивах:
+ * запись ключа - индекс в {@link LongIntHashMap}, обновление и чтение за O(1) без объектов на ключ.
+ * Среднее и дисперсия считаются по Уэлфорду без хранения сумм квадратов, различные контрагенты -
+ * {@link HyperLogLog}. Суммы - в копейках. Ключи без переводов дольше заданного срока удаляются
+ * {@link #evict(long, int)} со сдвигом записей к началу массивов. Не потокобезопасна.
+ */
+final class FeatureTable {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int precision;
+    private final int registerCount;
+
+    private LongIntHashMap index = new LongIntHashMap(INITIAL_CAPACITY);
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] counts = new long[INITIAL_CAPACITY];
+    private long[] sums = new long[INITIAL_CAPACITY];
+    private long[] maxima = new long[INITIAL_CAPACITY];
+    private double[] means = new double[INITIAL_CAPACITY];
+    private double[] squares = new double[INITIAL_CAPACITY];
+    private long[] lastSeen = new long[INITIAL_CAPACITY];
+    private byte[] registers;
+    private int size;
+
+    FeatureTable(int precision) {
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.registers = new byte[INITIAL_CAPACITY * registerCount];
+    }
+
+    /**
+     * @param key          ключ
+     * @param amountMinor  сумма перевода в копейках
+     * @param counterparty хэш контрагента или null, если контрагент неизвестен
+     * @param timeMillis   время перевода
+     */
+    void add(long key, long amountMinor, Long counterparty, long timeMillis) {
+        int slot = index.get(key);
+
+        if (slot == LongIntHashMap.MISSING) {
+            slot = append(key);
+        }
+
+        final long count = ++counts[slot];
+        final double delta = amountMinor - means[slot];
+        means[slot] += delta / count;
+        squares[slot] += delta * (amountMinor - means[slot]);
+        sums[slot] += amountMinor;
+        maxima[slot] = Math.max(maxima[slot], amountMinor);
+        lastSeen[slot] = Math.max(lastSeen[slot], timeMillis);
+
+        if (counterparty != null) {
+            HyperLogLog.add(registers, slot * registerCount, precision, counterparty);
+        }
+    }
+
+    /**
+     * @param key ключ
+     * @return запись ключа или {@link LongIntHashMap#MISSING}
+     */
+    int slot(long key) {
+        return index.get(key);
+    }
+
+    long count(int slot) {
+        return counts[slot];
+    }
+
+    long sum(int slot) {
+        return sums[slot];
+    }
+
+    long max(int slot) {
+        return maxima[slot];
+    }
+
+    double mean(int slot) {
+        return means[slot];
+    }
+
+    /**
+     * @param slot запись ключа
+     * @return несмещённая дисперсия сумм в копейках в квадрате, 0 для одного перевода
+     */
+    double variance(int slot) {
+        return counts[slot] > 1 ? squares[slot] / (counts[slot] - 1) : 0;
+    }
+
+    long distinctCounterparties(int slot) {
+        return HyperLogLog.estimate(registers, slot * registerCount, precision);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Удаляет ключи без переводов с момента before, а если ключей больше maxKeys - ещё и самые давние сверх него.
+     * Оставшиеся записи сдвигаются к началу массивов, индекс строится заново, массивы, занятые меньше чем
+     * на четверть, ужимаются.
+     *
+     * @param before  время, до которого последний перевод ключа считается давним
+     * @param maxKeys наибольшее количество ключей
+     * @return количество удалённых ключей
+     */
+    int evict(long before, int maxKeys) {
+        final long threshold = Math.max(before, oldestKept(maxKeys));
+        int kept = 0;
+
+        for (int slot = 0; slot < size; slot++) {
+            if (lastSeen[slot] >= threshold) {
+                move(slot, kept++);
+            }
+        }
+
+        final int removed = size - kept;
+        if (removed == 0) {
+            return 0;
+        }
+
+        clear(kept, size);
+        size = kept;
+        index = new LongIntHashMap(Math.max(size, INITIAL_CAPACITY));
+        for (int slot = 0; slot < size; slot++) {
+            index.put(keys[slot], slot);
+        }
+        if (keys.length > INITIAL_CAPACITY && size * 4 < keys.length) {
+            resize(Math.max(INITIAL_CAPACITY, size * 2));
+        }
+        return removed;
+    }
+
+    /**
+     * @return независимая копия для записи снимка без блокировки оригинала
+     */
+    FeatureTable copy() {
+        final FeatureTable copy = new FeatureTable(precision);
+        copy.keys = Arrays.copyOf(keys, size);
+        copy.counts = Arrays.copyOf(counts, size);
+        copy.sums = Arrays.copyOf(sums, size);
+        copy.maxima = Arrays.copyOf(maxima, size);
+        copy.means = Arrays.copyOf(means, size);
+        copy.squares = Arrays.copyOf(squares, size);
+        copy.lastSeen = Arrays.copyOf(lastSeen, size);
+        copy.registers = Arrays.copyOf(registers, size * registerCount);
+        copy.size = size;
+        return copy;
+    }
+
+    void write(DataOutput output) throws IOException {
+        output.writeInt(size);
+        for (int slot = 0; slot < size; slot++) {
+            output.writeLong(keys[slot]);
+            output.writeLong(counts[slot]);
+            output.writeLong(sums[slot]);
+            output.writeLong(maxima[slot]);
+            output.writeDouble(means[slot]);
+            output.writeDouble(squares[slot]);
+            output.writeLong(lastSeen[slot]);
+        }
+        output.write(registers, 0, size * registerCount);
+    }
+
+    static FeatureTable read(DataInput input, int precision) throws IOException {
+        final FeatureTable table = new FeatureTable(precision);
+        final int size = input.readInt();
+
+        for (int i = 0; i < size; i++) {
+            final int slot = table.append(input.readLong());
+            table.counts[slot] = input.readLong();
+            table.sums[slot] = input.readLong();
+            table.maxima[slot] = input.readLong();
+            table.means[slot] = input.readDouble();
+            table.squares[slot] = input.readDouble();
+            table.lastSeen[slot] = input.readLong();
+        }
+        input.readFully(table.registers, 0, size * table.registerCount);
+        return table;
+    }
+
+    private int append(long key) {
+        if (size == keys.length) {
+            resize(size * 2);
+        }
+
+        final int slot = size++;
+        keys[slot] = key;
+        index.put(key, slot);
+        return slot;
+    }
+
+    // время последнего перевода, с которого сохраняется не больше maxKeys ключей
+    private long oldestKept(int maxKeys) {
+        if (size <= maxKeys) {
+            return Long.MIN_VALUE;
+        }
+
+        final long[] times = Arrays.copyOf(lastSeen, size);
+        Arrays.sort(times);
+        return times[size - maxKeys];
+    }
+
+    private void move(int from, int to) {
+        if (from == to) {
+            return;
+        }
+
+        keys[to] = keys[from];
+        counts[to] = counts[from];
+        sums[to] = sums[from];
+        maxima[to] = maxima[from];
+        means[to] = means[from];
+        squares[to] = squares[from];
+        lastSeen[to] = lastSeen[from];
+        System.arraycopy(registers, from * registerCount, registers, to * registerCount, registerCount);
+    }
+
+    // освобождённые записи обнуляются: append переиспользует их для новых ключей
+    private void clear(int from, int to) {
+        Arrays.fill(counts, from, to, 0);
+        Arrays.fill(sums, from, to, 0);
+        Arrays.fill(maxima, from, to, 0);
+        Arrays.fill(means, from, to, 0);
+        Arrays.fill(squares, from, to, 0);
+        Arrays.fill(lastSeen, from, to, 0);
+        Arrays.fill(registers, from * registerCount, to * registerCount, (byte) 0);
+    }
+
+    private void resize(int capacity) {
+        keys = Arrays.copyOf(keys, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        sums = Arrays.copyOf(sums, capacity);
+        maxima = Arrays.copyOf(maxima, capacity);
+        means = Arrays.copyOf(means, capacity);
+        squares = Arrays.copyOf(squares, capacity);
+        lastSeen = Arrays.copyOf(lastSeen, capacity);
+        registers = Arrays.copyOf(registers, capacity * registerCount);
+    }
+}
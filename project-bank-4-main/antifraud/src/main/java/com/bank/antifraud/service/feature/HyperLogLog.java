@@ -0,0 +1,70 @@
+package com.bank.antifraud.service.feature;
+
+/**
+ * HyperLogLog над участком массива регистров: 2^precision байт на множество, относительная ошибка
+ * оценки около 1,04 / sqrt(2^precision) - 6,5% при precision 8. Малые множества оцениваются
+ * линейным подсчётом пустых регистров и почти точны.
+ */
+final class HyperLogLog {
+
+    static final int MIN_PRECISION = 4;
+
+    static final int MAX_PRECISION = 16;
+
+    private HyperLogLog() {
+    }
+
+    /**
+     * @param registers массив регистров
+     * @param offset    начало регистров множества
+     * @param precision количество бит хэша на номер регистра
+     * @param hash      64-битный хэш элемента
+     */
+    static void add(byte[] registers, int offset, int precision, long hash) {
+        final int index = offset + (int) (hash >>> (Long.SIZE - precision));
+        final int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * @param registers массив регистров
+     * @param offset    начало регистров множества
+     * @param precision количество бит хэша на номер регистра
+     * @return оценка количества различных элементов
+     */
+    static long estimate(byte[] registers, int offset, int precision) {
+        final int size = 1 << precision;
+        double sum = 0;
+        int zeros = 0;
+
+        for (int i = offset; i < offset + size; i++) {
+            sum += Math.scalb(1.0, -registers[i]);
+            if (registers[i] == 0) {
+                zeros++;
+            }
+        }
+
+        final double estimate = alpha(size) * size * size / sum;
+        if (estimate <= 2.5 * size && zeros > 0) {
+            return Math.round(size * Math.log((double) size / zeros));
+        }
+        return Math.round(estimate);
+    }
+
+    // поправочный коэффициент из статьи Flajolet et al.
+    private static double alpha(int size) {
+        if (size == 16) {
+            return 0.673;
+        }
+        if (size == 32) {
+            return 0.697;
+        }
+        if (size == 64) {
+            return 0.709;
+        }
+        return 0.7213 / (1 + 1.079 / size);
+    }
+}
@@ -0,0 +1,41 @@
+package com.bank.antifraud.service.graph;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки графа переводов из bank.anti-fraud.graph
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bank.anti-fraud.graph")
+public class GraphProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Рёбра в памяти, 29 байт на ребро: 50 млн рёбер - около 1,5 ГБ кучи.
+     */
+    private int maxEdges = 1_000_000;
+
+    private long windowMs = 86_400_000;
+
+    private int fanOutThreshold = 10;
+
+    private int fanInThreshold = 10;
+
+    /**
+     * Самый длинный цикл в переводах, который ищется от нового перевода.
+     */
+    private int cycleMaxLength = 4;
+
+    /**
+     * Предел рёбер, просматриваемых одной проверкой, чтобы перевод крупного получателя не замедлял очередь.
+     */
+    private int maxScan = 10_000;
+
+    private int accountCacheSize = 100_000;
+
+    private long accountCacheTtlMs = 3_600_000;
+}
@@ -0,0 +1,275 @@
+package com.bank.antifraud.service.graph;
+
+import com.bank.antifraud.dto.FraudDecisionDto;
+import com.bank.antifraud.dto.TransferEventDto;
+import com.bank.antifraud.repository.AccountLookupRepository;
+import com.bank.antifraud.service.common.FraudDecisions;
+import com.bank.common.cache.TtlCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск сетей дропов по графу переводов {@link TransferGraph}: веерная рассылка со счёта многим получателям,
+ * сбор на одного получателя от многих счетов и циклы переводов между счетами банка за window-ms.
+ * Каждый перевод проверяется сразу после добавления в граф, только по рёбрам его отправителя и получателя.
+ * Найденная схема помечает подозрительными все её переводы, каждый в suspicious_*_transfer своего канала.
+ * Граф общий для всех потоков очереди, поэтому проверка выполняется под блокировкой детектора.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(GraphProperties.class)
+public class MuleGraphDetector {
+
+    private static final String ACCOUNT_CHANNEL = "ACCOUNT";
+
+    private static final Long EXTERNAL_ACCOUNT = -1L;
+
+    private final GraphProperties properties;
+    private final AccountLookupRepository accountLookup;
+    private final TtlCache<Long, Long> accountIds;
+    private final Duration window;
+    private final int[] scanned;
+    private final int[] path;
+    private final Counter flagged;
+
+    private final TransferGraph graph;
+
+    private int budget;
+
+    public MuleGraphDetector(GraphProperties properties,
+                             AccountLookupRepository accountLookup,
+                             MeterRegistry meterRegistry) {
+        if (properties.getCycleMaxLength() < 2 || properties.getCycleMaxLength() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("cycle-max-length должен быть от 2 до " + Byte.MAX_VALUE);
+        }
+        this.properties = properties;
+        this.accountLookup = accountLookup;
+        this.accountIds = new TtlCache<>(properties.getAccountCacheSize(), properties.getAccountCacheTtlMs());
+        this.window = Duration.ofMillis(properties.getWindowMs());
+        this.scanned = new int[properties.getMaxScan()];
+        this.path = new int[properties.getCycleMaxLength()];
+        this.graph = properties.isEnabled()
+                ? new TransferGraph(properties.getMaxEdges(), System.currentTimeMillis()) : null;
+        this.flagged = meterRegistry.counter("antifraud.graph.flagged");
+
+        Gauge.builder("antifraud.graph.edges", this, detector -> detector.size(true))
+                .register(meterRegistry);
+        Gauge.builder("antifraud.graph.vertices", this, detector -> detector.size(false))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Добавляет переводы в граф и проверяет схемы с их участием.
+     *
+     * @param events пачка {@link TransferEventDto}
+     * @return {@link FraudDecisionDto} по переводам найденных схем, в том числе более ранним
+     */
+    public synchronized List<FraudDecisionDto> detect(List<TransferEventDto> events) {
+        if (graph == null) {
+            return List.of();
+        }
+
+        final Map<Long, Long> resolved = resolveAccounts(events);
+        final Map<String, FraudDecisionDto> result = new LinkedHashMap<>();
+
+        for (TransferEventDto event : events) {
+            if (event.getAccountDetailsId() != null && event.getRecipientNumber() != null
+                    && event.getTransferId() != null) {
+                record(event, resolved, result);
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    /**
+     * Уплотняет граф на месте: удаляет вершины без рёбер в окне. Блокировка детектора держится
+     * на время двух проходов по массивам графа, без выделения второго графа.
+     */
+    @Scheduled(fixedDelayString = "${bank.anti-fraud.graph.compact-interval-ms:3600000}",
+            initialDelayString = "${bank.anti-fraud.graph.compact-interval-ms:3600000}")
+    public synchronized void compact() {
+        if (graph == null) {
+            return;
+        }
+
+        final long started = System.nanoTime();
+        final int vertices = graph.vertexCount();
+        graph.compact(graph.toSeconds(System.currentTimeMillis() - properties.getWindowMs()));
+        log.info("Граф переводов уплотнён за {} мс: вершин {} -> {}, рёбер {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), vertices, graph.vertexCount(),
+                graph.edgeCount());
+    }
+
+    private void record(TransferEventDto event, Map<Long, Long> resolved, Map<String, FraudDecisionDto> result) {
+        final int target = recipient(event, resolved);
+
+        if (target == TransferGraph.NONE) {
+            return;
+        }
+
+        final long time = event.getCreatedAt() == null ? System.currentTimeMillis()
+                : event.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        final int source = graph.vertex(NodeKind.ACCOUNT, event.getAccountDetailsId());
+        final int edge = graph.addEdge(source, target, time, event.getTransferId());
+        final int since = graph.toSeconds(time - properties.getWindowMs());
+
+        detectFan(edge, true, properties.getFanOutThreshold(), since, result);
+        detectFan(edge, false, properties.getFanInThreshold(), since, result);
+        detectCycle(edge, since, result);
+    }
+
+    private int recipient(TransferEventDto event, Map<Long, Long> resolved) {
+        final long number = event.getRecipientNumber();
+
+        if (ACCOUNT_CHANNEL.equals(event.getChannel())) {
+            final Long accountId = resolved.getOrDefault(number, EXTERNAL_ACCOUNT);
+            return EXTERNAL_ACCOUNT.equals(accountId) ? graph.vertex(NodeKind.ACCOUNT_NUMBER, number)
+                    : graph.vertex(NodeKind.ACCOUNT, accountId);
+        }
+        for (NodeKind kind : NodeKind.values()) {
+            if (kind.name().equals(event.getChannel())) {
+                return graph.vertex(kind, number);
+            }
+        }
+        return TransferGraph.NONE;
+    }
+
+    // веер считается по разным получателям (отправителям): повторные переводы тому же адресату не в счёт
+    private void detectFan(int edge, boolean outgoing, int threshold, int since,
+                           Map<String, FraudDecisionDto> result) {
+        final int vertex = outgoing ? graph.from(edge) : graph.to(edge);
+        int count = 0;
+        int steps = 0;
+
+        graph.clearMarks();
+        for (int e = graph.first(vertex, outgoing, since); e != TransferGraph.NONE && steps++ < scanned.length;
+             e = graph.next(e, outgoing, since)) {
+            if (graph.mark(outgoing ? graph.to(e) : graph.from(e))) {
+                scanned[count++] = e;
+            }
+        }
+
+        if (count < threshold) {
+            return;
+        }
+
+        final String reason = reason(outgoing ? "fan-out на " + count + " получателей"
+                : "fan-in от " + count + " отправителей");
+        // при достижении порога помечается вся схема, дальше - только новые переводы
+        for (int i = 0; i < (count == threshold ? count : 1); i++) {
+            flag(scanned[i], reason, result);
+        }
+    }
+
+    private void detectCycle(int edge, int since, Map<String, FraudDecisionDto> result) {
+        final int source = graph.from(edge);
+        final int target = graph.to(edge);
+
+        if (source == target || graph.kind(target) != NodeKind.ACCOUNT) {
+            return;
+        }
+
+        graph.clearMarks();
+        budget = scanned.length;
+        final int length = search(target, source, since, 0);
+
+        if (length > 0) {
+            final String reason = reason("цикл из " + (length + 1) + " переводов");
+            flag(edge, reason, result);
+            for (int i = 0; i < length; i++) {
+                flag(path[i], reason, result);
+            }
+        }
+    }
+
+    // поиск в глубину пути от vertex до goal не длиннее cycle-max-length - 1 рёбер; рёбра пути - в path.
+    // Вершина, уже пройденная глубже, проходится снова: с меньшей глубины путь от неё может уложиться в длину,
+    // поэтому в пределах max-scan рёбер цикл не длиннее cycle-max-length находится всегда
+    private int search(int vertex, int goal, int since, int depth) {
+        if (depth == path.length - 1 || !graph.mark(vertex, depth)) {
+            return 0;
+        }
+
+        for (int e = graph.first(vertex, true, since); e != TransferGraph.NONE && budget-- > 0;
+             e = graph.next(e, true, since)) {
+            path[depth] = e;
+            if (graph.to(e) == goal) {
+                return depth + 1;
+            }
+            final int length = search(graph.to(e), goal, since, depth + 1);
+            if (length > 0) {
+                return length;
+            }
+        }
+        return 0;
+    }
+
+    private void flag(int edge, String reason, Map<String, FraudDecisionDto> result) {
+        final String channel = graph.kind(graph.to(edge)).getChannel();
+        final FraudDecisionDto decision = new FraudDecisionDto(graph.transferId(edge), channel,
+                false, true, null, reason, false);
+
+        flagged.increment();
+        result.merge(FraudDecisions.key(channel, decision.getTransferId()), decision, FraudDecisions::merge);
+    }
+
+    private String reason(String pattern) {
+        return "graph: " + pattern + " за " + window;
+    }
+
+    // номера счетов переводов ACCOUNT переводятся в id, чтобы входящие и исходящие переводы счёта сошлись
+    private Map<Long, Long> resolveAccounts(List<TransferEventDto> events) {
+        final Map<Long, Long> resolved = new LinkedHashMap<>();
+        final List<Long> missing = new ArrayList<>();
+
+        events.stream()
+                .filter(event -> ACCOUNT_CHANNEL.equals(event.getChannel()) && event.getRecipientNumber() != null)
+                .map(TransferEventDto::getRecipientNumber)
+                .distinct()
+                .forEach(number -> {
+                    final Long cached = accountIds.get(number);
+                    if (cached == null) {
+                        missing.add(number);
+                    } else {
+                        resolved.put(number, cached);
+                    }
+                });
+
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+
+        try {
+            final Map<Long, Long> found = accountLookup.findIdsByAccountNumbers(missing);
+            for (Long number : missing) {
+                final Long accountId = found.getOrDefault(number, EXTERNAL_ACCOUNT);
+                accountIds.put(number, accountId);
+                resolved.put(number, accountId);
+            }
+        } catch (RuntimeException e) {
+            // без id счета получатель попадёт в граф номером, цикл через него не найдётся
+            log.warn("Не удалось получить id счетов получателей: {}", e.getMessage());
+        }
+        return resolved;
+    }
+
+    private synchronized int size(boolean edges) {
+        if (graph == null) {
+            return 0;
+        }
+        return edges ? graph.edgeCount() : graph.vertexCount();
+    }
+}
@@ -0,0 +1,30 @@
+package com.bank.antifraud.service.graph;
+
+/**
+ * Вид вершины графа переводов. Счета банка - вершины ACCOUNT по account_details_id, поэтому исходящие
+ * и входящие переводы счёта сходятся в одной вершине; получатели вне банка и карты с телефонами
+ * представлены своими номерами.
+ */
+public enum NodeKind {
+
+    ACCOUNT("ACCOUNT"),
+
+    ACCOUNT_NUMBER("ACCOUNT"),
+
+    CARD("CARD"),
+
+    PHONE("PHONE");
+
+    private final String channel;
+
+    NodeKind(String channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * @return канал перевода, получатель которого - вершина этого вида
+     */
+    public String getChannel() {
+        return channel;
+    }
+}
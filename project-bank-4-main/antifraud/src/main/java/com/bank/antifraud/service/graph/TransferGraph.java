@@ -0,0 +1,324 @@
+package com.bank.antifraud.service.graph;
+
+import com.bank.antifraud.service.common.LongIntHashMap;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ориентированный граф переводов на примитивных массивах: 29 байт на ребро и около 50 байт на вершину,
+ * без объектов на ребро. Рёбра лежат в кольцевом буфере на capacity рёбер в порядке поступления,
+ * новое ребро вытесняет самое старое. Исходящие и входящие рёбра вершины связаны списками
+ * от нового к старому через nextOut и nextIn, поэтому обход окна останавливается на первом ребре
+ * старше его начала. Ссылка на вытесненное ребро распознаётся по позиции в кольце: следующее ребро
+ * списка всегда старше текущего. Вершины без рёбер в окне удаляются {@link #compact(int)} на месте,
+ * без второй копии рёбер.
+ * Не потокобезопасен.
+ */
+public final class TransferGraph {
+
+    /**
+     * Нет ребра или вершины.
+     */
+    public static final int NONE = -1;
+
+    private static final int INITIAL_VERTICES = 1024;
+
+    private final int capacity;
+    private final long baseMillis;
+    private final int[] from;
+    private final int[] to;
+    private final int[] time;
+    private final int[] nextOut;
+    private final int[] nextIn;
+    private final long[] transferIds;
+    private final Map<NodeKind, LongIntHashMap> index = new EnumMap<>(NodeKind.class);
+
+    private long[] vertexKeys = new long[INITIAL_VERTICES];
+    private byte[] vertexKinds = new byte[INITIAL_VERTICES];
+    private int[] outHead = new int[INITIAL_VERTICES];
+    private int[] inHead = new int[INITIAL_VERTICES];
+    private int[] marks = new int[INITIAL_VERTICES];
+    private byte[] markDepths = new byte[INITIAL_VERTICES];
+    private int vertexCount;
+    private int markEpoch;
+    private int head;
+    private long appended;
+
+    /**
+     * @param capacity   максимум рёбер в памяти
+     * @param baseMillis начало отсчёта времени рёбер; время хранится в секундах от него
+     */
+    public TransferGraph(int capacity, long baseMillis) {
+        this.capacity = capacity;
+        this.baseMillis = baseMillis;
+        this.from = new int[capacity];
+        this.to = new int[capacity];
+        this.time = new int[capacity];
+        this.nextOut = new int[capacity];
+        this.nextIn = new int[capacity];
+        this.transferIds = new long[capacity];
+
+        for (NodeKind kind : NodeKind.values()) {
+            index.put(kind, new LongIntHashMap(INITIAL_VERTICES));
+        }
+    }
+
+    /**
+     * @param kind {@link NodeKind}
+     * @param key  идентификатор или номер
+     * @return вершина, созданная при первом обращении
+     */
+    public int vertex(NodeKind kind, long key) {
+        final LongIntHashMap vertices = index.get(kind);
+        final int existing = vertices.get(key);
+
+        if (existing != LongIntHashMap.MISSING) {
+            return existing;
+        }
+        if (vertexCount == vertexKeys.length) {
+            growVertices();
+        }
+
+        final int vertex = vertexCount++;
+        vertexKeys[vertex] = key;
+        vertexKinds[vertex] = (byte) kind.ordinal();
+        outHead[vertex] = NONE;
+        inHead[vertex] = NONE;
+        vertices.put(key, vertex);
+        return vertex;
+    }
+
+    /**
+     * @param source     вершина отправителя
+     * @param target     вершина получателя
+     * @param timeMillis время перевода
+     * @param transferId технический идентификатор перевода
+     * @return ребро
+     */
+    public int addEdge(int source, int target, long timeMillis, long transferId) {
+        return append(source, target, toSeconds(timeMillis), transferId);
+    }
+
+    /**
+     * @param vertex   вершина
+     * @param outgoing true - исходящие рёбра, false - входящие
+     * @param since    начало окна, {@link #toSeconds(long)}
+     * @return самое новое ребро вершины в окне или {@link #NONE}
+     */
+    public int first(int vertex, boolean outgoing, int since) {
+        final int edge = outgoing ? outHead[vertex] : inHead[vertex];
+
+        if (edge == NONE || (outgoing ? from[edge] : to[edge]) != vertex || time[edge] < since) {
+            return NONE;
+        }
+        return edge;
+    }
+
+    /**
+     * @param edge     ребро из {@link #first(int, boolean, int)} или этого метода
+     * @param outgoing направление, с которым получено ребро
+     * @param since    начало окна, {@link #toSeconds(long)}
+     * @return следующее по старшинству ребро вершины в окне или {@link #NONE}
+     */
+    public int next(int edge, boolean outgoing, int since) {
+        final int following = outgoing ? nextOut[edge] : nextIn[edge];
+
+        if (following == NONE || age(following) <= age(edge) || time[following] < since) {
+            return NONE;
+        }
+        return following;
+    }
+
+    /**
+     * @param edge ребро
+     * @return вершина отправителя
+     */
+    public int from(int edge) {
+        return from[edge];
+    }
+
+    /**
+     * @param edge ребро
+     * @return вершина получателя
+     */
+    public int to(int edge) {
+        return to[edge];
+    }
+
+    /**
+     * @param edge ребро
+     * @return технический идентификатор перевода
+     */
+    public long transferId(int edge) {
+        return transferIds[edge];
+    }
+
+    /**
+     * @param vertex вершина
+     * @return {@link NodeKind}
+     */
+    public NodeKind kind(int vertex) {
+        return NodeKind.values()[vertexKinds[vertex]];
+    }
+
+    /**
+     * @param vertex вершина
+     * @return идентификатор или номер вершины
+     */
+    public long key(int vertex) {
+        return vertexKeys[vertex];
+    }
+
+    /**
+     * Начинает новую разметку вершин для обхода: все вершины снова не отмечены.
+     */
+    public void clearMarks() {
+        if (++markEpoch == Integer.MAX_VALUE) {
+            Arrays.fill(marks, 0);
+            markEpoch = 1;
+        }
+    }
+
+    /**
+     * @param vertex вершина
+     * @return true, если вершина отмечена впервые с последнего {@link #clearMarks()}
+     */
+    public boolean mark(int vertex) {
+        return mark(vertex, 0);
+    }
+
+    /**
+     * Отметка для обхода с ограничением глубины: вершина, уже пройденная глубже, проходится снова,
+     * потому что с меньшей глубины от неё можно пройти дальше.
+     *
+     * @param vertex вершина
+     * @param depth  глубина, на которой обход дошёл до вершины, меньше 128
+     * @return true, если с последнего {@link #clearMarks()} вершина не отмечена или отмечена на большей глубине
+     */
+    public boolean mark(int vertex, int depth) {
+        if (marks[vertex] == markEpoch && markDepths[vertex] <= depth) {
+            return false;
+        }
+        marks[vertex] = markEpoch;
+        markDepths[vertex] = (byte) depth;
+        return true;
+    }
+
+    /**
+     * @param timeMillis время
+     * @return время в секундах от начала отсчёта графа
+     */
+    public int toSeconds(long timeMillis) {
+        return (int) TimeUnit.MILLISECONDS.toSeconds(timeMillis - baseMillis);
+    }
+
+    /**
+     * @return количество вершин
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * @return количество рёбер в памяти
+     */
+    public int edgeCount() {
+        return (int) Math.min(appended, capacity);
+    }
+
+    /**
+     * Вершины не удаляются при вытеснении рёбер, поэтому граф периодически уплотняется на месте:
+     * рёбра старше since больше не проходят ни одно окно, вершины без других рёбер удаляются, остальные
+     * сдвигаются к началу массивов, номера вершин в рёбрах заменяются. Рёбра не копируются, новая память -
+     * только индекс оставшихся вершин; время - два прохода по кольцу и по вершинам. Разметка обхода сбрасывается.
+     *
+     * @param since начало окна, {@link #toSeconds(long)}
+     */
+    public void compact(int since) {
+        // marks на время уплотнения - новые номера вершин
+        final int[] renumbered = marks;
+        Arrays.fill(renumbered, 0, vertexCount, NONE);
+
+        for (int edge = 0; edge < edgeCount(); edge++) {
+            if (time[edge] >= since) {
+                renumbered[from[edge]] = 0;
+                renumbered[to[edge]] = 0;
+            } else {
+                time[edge] = Integer.MIN_VALUE;
+            }
+        }
+
+        final int live = renumberVertices(renumbered);
+        for (int edge = 0; edge < edgeCount(); edge++) {
+            if (time[edge] != Integer.MIN_VALUE) {
+                from[edge] = renumbered[from[edge]];
+                to[edge] = renumbered[to[edge]];
+            }
+        }
+
+        vertexCount = live;
+        if (vertexKeys.length > INITIAL_VERTICES && live * 4 < vertexKeys.length) {
+            resizeVertices(Math.max(INITIAL_VERTICES, live * 2));
+        }
+        Arrays.fill(marks, 0);
+        markEpoch = 0;
+    }
+
+    // вершины, отмеченные в renumbered нулём, сдвигаются к началу; renumbered[старый номер] - новый номер
+    private int renumberVertices(int[] renumbered) {
+        int live = 0;
+
+        for (NodeKind kind : NodeKind.values()) {
+            index.put(kind, new LongIntHashMap(INITIAL_VERTICES));
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            if (renumbered[vertex] != NONE) {
+                vertexKeys[live] = vertexKeys[vertex];
+                vertexKinds[live] = vertexKinds[vertex];
+                outHead[live] = outHead[vertex];
+                inHead[live] = inHead[vertex];
+                index.get(kind(live)).put(vertexKeys[live], live);
+                renumbered[vertex] = live++;
+            }
+        }
+        return live;
+    }
+
+    private int append(int source, int target, int seconds, long transferId) {
+        final int edge = head;
+
+        from[edge] = source;
+        to[edge] = target;
+        time[edge] = seconds;
+        transferIds[edge] = transferId;
+        nextOut[edge] = outHead[source];
+        outHead[source] = edge;
+        nextIn[edge] = inHead[target];
+        inHead[target] = edge;
+
+        head = (head + 1) % capacity;
+        appended++;
+        return edge;
+    }
+
+    // 0 - самое новое ребро
+    private int age(int edge) {
+        return (head - 1 - edge + capacity) % capacity;
+    }
+
+    private void growVertices() {
+        resizeVertices(vertexKeys.length * 2);
+    }
+
+    private void resizeVertices(int grown) {
+        vertexKeys = Arrays.copyOf(vertexKeys, grown);
+        vertexKinds = Arrays.copyOf(vertexKinds, grown);
+        outHead = Arrays.copyOf(outHead, grown);
+        inHead = Arrays.copyOf(inHead, grown);
+        marks = Arrays.copyOf(marks, grown);
+        markDepths = Arrays.copyOf(markDepths, grown);
+    }
+}
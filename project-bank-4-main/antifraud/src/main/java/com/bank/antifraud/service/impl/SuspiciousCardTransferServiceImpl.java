@@ -6,6 +6,8 @@ import com.bank.antifraud.mappers.SuspiciousCardTransferMapper;
 import com.bank.antifraud.service.SuspiciousCardTransferService;
 import com.bank.antifraud.service.common.ExceptionReturner;
 import com.bank.antifraud.repository.SuspiciousCardTransferRepository;
+import com.bank.common.reader.BulkReader;
+import com.bank.common.retry.OptimisticRetry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,10 +22,12 @@ import java.util.List;
 public class SuspiciousCardTransferServiceImpl implements SuspiciousCardTransferService {
 
     private static final String MESSAGE = "SuspiciousCardTransfer по данному id не существует";
+    private static final String MISSING_IDS_MESSAGE = "SuspiciousCardTransfer не существует для id ";
 
     private final SuspiciousCardTransferRepository repository;
     private final SuspiciousCardTransferMapper mapper;
     private final ExceptionReturner returner;
+    private final BulkReader bulkReader;
 
     /**
      * @param cardTransfer {@link SuspiciousCardTransferDto}
@@ -58,6 +62,7 @@ public class SuspiciousCardTransferServiceImpl implements SuspiciousCardTransfer
      * @return {@link SuspiciousCardTransferDto}
      */
     @Override
+    @OptimisticRetry
     @Transactional
     public SuspiciousCardTransferDto update(Long id, SuspiciousCardTransferDto cardTransfer) {
 
@@ -76,10 +81,9 @@ public class SuspiciousCardTransferServiceImpl implements SuspiciousCardTransfer
     @Override
     public List<SuspiciousCardTransferDto> findAllById(List<Long> ids) {
 
-        final List<SuspiciousCardTransferEntity> suspiciousCardTransfers = ids.stream()
-                .map(id -> repository.findById(id)
-                        .orElseThrow(() -> returner.getEntityNotFoundException(MESSAGE)))
-                .toList();
+        final List<SuspiciousCardTransferEntity> suspiciousCardTransfers = bulkReader.findAllById(
+                SuspiciousCardTransferEntity.class, SuspiciousCardTransferEntity::getId,
+                ids, MISSING_IDS_MESSAGE);
 
         return mapper.toListDto(suspiciousCardTransfers);
     }
@@ -8,6 +8,8 @@ import com.bank.antifraud.mappers.SuspiciousPhoneTransferMapper;
 import com.bank.antifraud.service.common.ExceptionReturner;
 import com.bank.antifraud.service.SuspiciousPhoneTransferService;
 import com.bank.antifraud.repository.SuspiciousPhoneTransferRepository;
+import com.bank.common.reader.BulkReader;
+import com.bank.common.retry.OptimisticRetry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,10 +24,12 @@ import java.util.List;
 public class SuspiciousPhoneTransferServiceImpl implements SuspiciousPhoneTransferService {
 
     private static final String MESSAGE = "SuspiciousPhoneTransfer по данному id не существует";
+    private static final String MISSING_IDS_MESSAGE = "SuspiciousPhoneTransfer не существует для id ";
 
     private final SuspiciousPhoneTransferRepository repository;
     private final SuspiciousPhoneTransferMapper mapper;
     private final ExceptionReturner returner;
+    private final BulkReader bulkReader;
 
     /**
      * @param phoneTransfer {@link SuspiciousPhoneTransferDto}
@@ -61,6 +65,7 @@ public class SuspiciousPhoneTransferServiceImpl implements SuspiciousPhoneTransf
      * @return {@link SuspiciousPhoneTransferDto}
      */
     @Override
+    @OptimisticRetry
     @Transactional
     public SuspiciousPhoneTransferDto update(Long id, SuspiciousPhoneTransferDto phoneTransfer) {
 
@@ -79,10 +84,9 @@ public class SuspiciousPhoneTransferServiceImpl implements SuspiciousPhoneTransf
     @Override
     public List<SuspiciousPhoneTransferDto> findAllById(List<Long> ids) {
 
-        final List<SuspiciousPhoneTransferEntity> suspiciousPhoneTransfers = ids.stream()
-                .map(id -> repository.findById(id)
-                        .orElseThrow(() -> returner.getEntityNotFoundException(MESSAGE)))
-                .toList();
+        final List<SuspiciousPhoneTransferEntity> suspiciousPhoneTransfers = bulkReader.findAllById(
+                SuspiciousPhoneTransferEntity.class, SuspiciousPhoneTransferEntity::getId,
+                ids, MISSING_IDS_MESSAGE);
 
         return mapper.toListDto(suspiciousPhoneTransfers);
     }
@@ -0,0 +1,79 @@
+package com.bank.antifraud.service.impl;
+
+import com.bank.antifraud.dto.SuspiciousTransferCursorDto;
+import com.bank.antifraud.dto.SuspiciousTransferDto;
+import com.bank.antifraud.repository.SuspiciousTransferRepository;
+import com.bank.antifraud.service.SuspiciousTransferService;
+import com.bank.antifraud.service.common.SuspiciousFlag;
+import com.bank.common.exception.ValidationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Реализация {@link SuspiciousTransferService}
+ */
+@Service
+@RequiredArgsConstructor
+public class SuspiciousTransferServiceImpl implements SuspiciousTransferService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final SuspiciousTransferRepository repository;
+
+    /**
+     * @param flag   {@link SuspiciousFlag}
+     * @param reason имя кода причины, null - любая причина
+     * @param from   начало периода решения включительно
+     * @param to     конец периода решения не включительно
+     * @param after  последнее решение предыдущей страницы, null - первая страница
+     * @param size   размер страницы
+     * @return страница {@link SuspiciousTransferDto}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<SuspiciousTransferDto> findAll(SuspiciousFlag flag, String reason, LocalDateTime from,
+                                                LocalDateTime to, SuspiciousTransferCursorDto after, int size) {
+        validatePeriod(from, to);
+
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+        if (after != null && (after.getCreatedAt() == null || after.getChannel() == null || after.getId() == null)) {
+            throw new ValidationException("Позиция страницы задаётся вместе: время, канал и id решения");
+        }
+        return repository.findAll(flag, reason, from, to, after, size);
+    }
+
+    /**
+     * @param flag   {@link SuspiciousFlag}
+     * @param reason имя кода причины, null - любая причина
+     * @param from   начало периода решения включительно
+     * @param to     конец периода решения не включительно
+     * @return число решений в очереди
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long count(SuspiciousFlag flag, String reason, LocalDateTime from, LocalDateTime to) {
+        validatePeriod(from, to);
+        return repository.count(flag, reason, from, to);
+    }
+
+    /**
+     * @return имена кодов причин
+     */
+    @Override
+    public List<String> findReasonCodes() {
+        return repository.findReasonCodes();
+    }
+
+    private static void validatePeriod(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше конца");
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.bank.antifraud.service.impl;
+
+import com.bank.antifraud.dto.FraudDecisionDto;
+import com.bank.antifraud.dto.TransferEventDto;
+import com.bank.antifraud.repository.ProcessedEventRepository;
+import com.bank.antifraud.service.TransferEventService;
+import com.bank.antifraud.service.common.ExceptionReturner;
+import com.bank.antifraud.service.queue.DecisionQueue;
+import com.bank.common.cache.TtlCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Реализация {@link TransferEventService}.
+ * transfer доставляет события не реже одного раза, повторы отбрасываются по eventId в пределах окна
+ * дедупликации: сначала по кэшу экземпляра, затем по общей таблице {@link ProcessedEventRepository}.
+ * Новые события ставятся в {@link DecisionQueue}, и доставка подтверждается только после записи решений
+ * по ним: если это не успело случиться за accept-timeout-ms, запрос отклоняется, и transfer доставит
+ * пачку повторно, а события, ещё ожидающие оценки, второй раз в очередь не попадут.
+ * Синхронная проверка ждёт решения не дольше бюджета: при промахе перевод разрешается предварительно
+ * с пометкой deadline exceeded, а очередь доводит оценку до конца и при необходимости блокирует перевод.
+ * Предварительное решение записывается с пометкой isProvisional до окончательного: перепроверка без нарушений
+ * снимает подозрение. При заполненной очереди оно не записывается: событие не принято и будет оценено
+ * после доставки из outbox.
+ */
+@Slf4j
+@Service
+public class TransferEventServiceImpl implements TransferEventService {
+
+    private static final String DEADLINE_EXCEEDED = "deadline exceeded: ";
+
+    private static final String BUDGET_OUTCOMES = "antifraud.check.budget";
+
+    private static final String OUTCOME = "outcome";
+
+    private final TtlCache<Long, Boolean> acceptedEvents;
+    private final DecisionQueue decisionQueue;
+    private final ProcessedEventRepository processedEvents;
+    private final ExceptionReturner returner;
+    private final long dedupTtl;
+    private final long acceptTimeout;
+    private final long budget;
+    private final long maxBudget;
+    private final Timer checkLatency;
+    private final Counter inBudget;
+    private final Counter budgetExceeded;
+    private final Counter queueRejected;
+
+    public TransferEventServiceImpl(DecisionQueue decisionQueue,
+                                    ProcessedEventRepository processedEvents,
+                                    ExceptionReturner returner,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${bank.anti-fraud.events.dedup-size:100000}") int dedupSize,
+                                    @Value("${bank.anti-fraud.events.dedup-ttl-ms:3600000}") long dedupTtl,
+                                    @Value("${bank.anti-fraud.events.accept-timeout-ms:3000}") long acceptTimeout,
+                                    @Value("${bank.anti-fraud.check.budget-ms:50}") long budget,
+                                    @Value("${bank.anti-fraud.check.max-budget-ms:500}") long maxBudget) {
+        this.decisionQueue = decisionQueue;
+        this.processedEvents = processedEvents;
+        this.returner = returner;
+        this.acceptedEvents = new TtlCache<>(dedupSize, dedupTtl);
+        this.dedupTtl = dedupTtl;
+        this.acceptTimeout = acceptTimeout;
+        this.budget = budget;
+        this.maxBudget = maxBudget;
+        this.checkLatency = Timer.builder("antifraud.check.latency")
+                .description("время синхронной проверки перевода, не больше бюджета")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.inBudget = meterRegistry.counter(BUDGET_OUTCOMES, OUTCOME, "in_budget");
+        this.budgetExceeded = meterRegistry.counter(BUDGET_OUTCOMES, OUTCOME, "deadline_exceeded");
+        this.queueRejected = meterRegistry.counter(BUDGET_OUTCOMES, OUTCOME, "rejected");
+    }
+
+    /**
+     * @param events пачка {@link TransferEventDto}, может повторяться при повторной доставке
+     * @return количество новых, ранее не принятых событий
+     * @throws RejectedExecutionException если очередь оценки заполнена или решения не записаны
+     *                                    за accept-timeout-ms; transfer доставит пачку повторно
+     */
+    @Override
+    public int accept(List<TransferEventDto> events) {
+        final List<TransferEventDto> fresh = unprocessed(events);
+        final List<CompletableFuture<Void>> submitted = decisionQueue.submit(fresh);
+
+        // при заполненной очереди пачка всё равно будет доставлена повторно, ждать её записи незачем
+        if (submitted.size() == fresh.size()) {
+            awaitAll(submitted);
+        }
+
+        int stored = 0;
+        for (int i = 0; i < submitted.size(); i++) {
+            final CompletableFuture<Void> event = submitted.get(i);
+            if (event.isDone() && !event.isCompletedExceptionally()) {
+                acceptedEvents.put(fresh.get(i).getEventId(), Boolean.TRUE);
+                stored++;
+            }
+        }
+        log.debug("Принято {} новых событий о переводах из {}", stored, events.size());
+
+        if (submitted.size() < fresh.size()) {
+            throw new RejectedExecutionException("Очередь оценки переводов заполнена, не принято "
+                    + (fresh.size() - submitted.size()) + " событий");
+        }
+        if (stored < fresh.size()) {
+            throw new RejectedExecutionException("Решения по " + (fresh.size() - stored)
+                    + " событиям не записаны за " + acceptTimeout + " мс");
+        }
+        return stored;
+    }
+
+    /**
+     * Удаляет из общей таблицы события старше окна дедупликации.
+     */
+    @Scheduled(fixedDelayString = "${bank.anti-fraud.events.cleanup-interval-ms:600000}")
+    public void deleteExpired() {
+        final int deleted = processedEvents.deleteExpired(dedupTtl);
+
+        if (deleted > 0) {
+            log.debug("Удалено {} обработанных событий старше окна дедупликации", deleted);
+        }
+    }
+
+    /**
+     * Событие ставится в ту же очередь, что и из outbox: доставка из outbox дождётся записи решения по нему
+     * и не оценит его второй раз. При заполненной очереди событие не принимается и будет оценено после
+     * доставки из outbox.
+     *
+     * @param event        {@link TransferEventDto}
+     * @param budgetMillis сколько ждать решения, не больше max-budget-ms; null - budget-ms
+     * @return {@link FraudDecisionDto}, окончательный или предварительный
+     */
+    @Override
+    public FraudDecisionDto check(TransferEventDto event, Long budgetMillis) {
+        final long started = System.nanoTime();
+        final long deadline = budgetMillis == null ? budget : Math.min(Math.max(budgetMillis, 0L), maxBudget);
+
+        try {
+            if (acceptedEvents.get(event.getEventId()) != null
+                    || decisionQueue.isPending(event.getChannel(), event.getTransferId())) {
+                return decisionQueue.findDecision(event.getChannel(), event.getTransferId())
+                        .orElseGet(() -> provisional(event, "оценка ещё не завершена", budgetExceeded, true));
+            }
+
+            final Optional<CompletableFuture<FraudDecisionDto>> decision = decisionQueue.submitForDecision(event);
+            if (decision.isEmpty()) {
+                return provisional(event, "очередь оценки заполнена", queueRejected, false);
+            }
+            return await(event, decision.get(), deadline);
+        } finally {
+            checkLatency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @param channel    канал перевода
+     * @param transferId технический идентификатор перевода
+     * @return {@link FraudDecisionDto}; пустой результат, если перевод ещё ожидает оценки
+     */
+    @Override
+    public Optional<FraudDecisionDto> findDecision(String channel, Long transferId) {
+        final Optional<FraudDecisionDto> decision = decisionQueue.findDecision(channel, transferId);
+
+        if (decision.isEmpty() && !decisionQueue.isPending(channel, transferId)) {
+            throw returner.getEntityNotFoundException("Решение по переводу " + channel + " "
+                    + transferId + " не найдено");
+        }
+        return decision;
+    }
+
+    private List<TransferEventDto> unprocessed(List<TransferEventDto> events) {
+        final List<TransferEventDto> uncached = events.stream()
+                .filter(event -> acceptedEvents.get(event.getEventId()) == null)
+                .toList();
+        final Set<Long> processed = processedEvents.findProcessed(uncached.stream()
+                .map(TransferEventDto::getEventId)
+                .toList());
+        final List<TransferEventDto> fresh = new ArrayList<>(uncached.size());
+
+        for (TransferEventDto event : uncached) {
+            if (processed.contains(event.getEventId())) {
+                acceptedEvents.put(event.getEventId(), Boolean.TRUE);
+            } else {
+                fresh.add(event);
+            }
+        }
+        return fresh;
+    }
+
+    // время ожидания ограничено, недописанные события проверяются по состоянию каждого
+    private void awaitAll(List<CompletableFuture<Void>> submitted) {
+        try {
+            CompletableFuture.allOf(submitted.toArray(CompletableFuture[]::new))
+                    .get(acceptTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("Не все принятые события оценены за {} мс: {}", acceptTimeout, e.getMessage());
+        }
+    }
+
+    private FraudDecisionDto await(TransferEventDto event, CompletableFuture<FraudDecisionDto> decision,
+                                   long deadline) {
+        try {
+            final FraudDecisionDto result = decision.get(deadline, TimeUnit.MILLISECONDS);
+            inBudget.increment();
+            return result;
+        } catch (TimeoutException e) {
+            return provisional(event, "оценка не уложилась в " + deadline + " мс", budgetExceeded, true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return provisional(event, "ожидание оценки прервано", budgetExceeded, true);
+        } catch (ExecutionException e) {
+            return provisional(event, "оценка не выполнена", budgetExceeded, true);
+        }
+    }
+
+    /**
+     * @param persist записать предварительное решение: перевод остаётся подозрительным в suspicious_*_transfer,
+     *                пока окончательное решение его не заменит
+     */
+    private FraudDecisionDto provisional(TransferEventDto event, String cause, Counter outcome, boolean persist) {
+        final FraudDecisionDto decision = new FraudDecisionDto(event.getTransferId(), event.getChannel(),
+                false, true, null, DEADLINE_EXCEEDED + cause + ", перевод будет перепроверен", true);
+
+        outcome.increment();
+        if (persist) {
+            decisionQueue.recordProvisional(decision);
+        }
+        return decision;
+    }
+}
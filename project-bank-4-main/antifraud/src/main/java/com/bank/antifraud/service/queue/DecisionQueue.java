@@ -0,0 +1,395 @@
+package com.bank.antifraud.service.queue;
+
+import com.bank.antifraud.dto.FraudDecisionDto;
+import com.bank.antifraud.dto.TransferEventDto;
+import com.bank.antifraud.repository.FraudDecisionRepository;
+import com.bank.antifraud.repository.ProcessedEventRepository;
+import com.bank.antifraud.service.blocklist.BlocklistService;
+import com.bank.antifraud.service.common.FraudDecisions;
+import com.bank.antifraud.service.feature.FeatureStore;
+import com.bank.antifraud.service.graph.MuleGraphDetector;
+import com.bank.antifraud.service.scoring.VelocityScoringEngine;
+import com.bank.common.cache.TtlCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Очередь оценки переводов: приём события ставит его в ограниченную очередь, решения принимают
+ * и пишут в БД пачками до batch-size фоновые потоки. Если очередь заполнена дольше offer-timeout-ms,
+ * событие не принимается - отправитель повторяет доставку позже. По каждому принятому событию возвращается
+ * признак завершения после записи решений пачки и отметки события в {@link ProcessedEventRepository}:
+ * подтверждать доставку раньше нельзя, иначе при падении процесса события из очереди пропадут.
+ * Повтор события, ещё ожидающего оценки, в очередь не ставится и получает тот же признак.
+ * Решение объединяет блок-лист, правила скорости и граф переводов {@link MuleGraphDetector};
+ * схема в графе может пометить и более ранние переводы. Затем перевод учитывается в {@link FeatureStore}.
+ * Событие, которое не удалось оценить, отбрасывается с записью в лог и метрику antifraud.queue.failed;
+ * если не удалось обработать всю пачку, её события завершаются с ошибкой и будут доставлены повторно.
+ * Решения доступны по каналу и id перевода в течение decision-ttl-ms; ожидающий решения синхронно
+ * получает его сразу после оценки пачки, до записи в БД.
+ * Предварительное решение синхронной проверки пишется с пометкой is_provisional и снимается окончательным:
+ * решение без нарушений сбрасывает подозрение, подозрительное - пометку, а уже известное окончательное
+ * решение делает предварительное ненужным.
+ */
+@Slf4j
+@Component
+public class DecisionQueue {
+
+    private static final long POLL_MILLIS = 100;
+
+    private static final long RETRY_MILLIS = 1000;
+
+    private final BlocklistService blocklists;
+    private final VelocityScoringEngine scoringEngine;
+    private final MuleGraphDetector graphDetector;
+    private final FeatureStore featureStore;
+    private final FraudDecisionRepository decisionRepository;
+    private final ProcessedEventRepository processedEvents;
+    private final BlockingQueue<TransferEventDto> queue;
+    private final long offerTimeout;
+    private final int batchSize;
+    private final int workerCount;
+    private final TtlCache<String, FraudDecisionDto> decisions;
+    private final Map<String, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<FraudDecisionDto>> waiting = new ConcurrentHashMap<>();
+    private final Queue<FraudDecisionDto> provisional = new ConcurrentLinkedQueue<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final Counter rejected;
+    private final Counter failed;
+    private final Timer batchWrite;
+
+    private volatile boolean running;
+
+    public DecisionQueue(BlocklistService blocklists,
+                         VelocityScoringEngine scoringEngine,
+                         MuleGraphDetector graphDetector,
+                         FeatureStore featureStore,
+                         FraudDecisionRepository decisionRepository,
+                         ProcessedEventRepository processedEvents,
+                         MeterRegistry meterRegistry,
+                         @Value("${bank.anti-fraud.queue.capacity:10000}") int capacity,
+                         @Value("${bank.anti-fraud.queue.offer-timeout-ms:50}") long offerTimeout,
+                         @Value("${bank.anti-fraud.queue.batch-size:500}") int batchSize,
+                         @Value("${bank.anti-fraud.queue.workers:2}") int workerCount,
+                         @Value("${bank.anti-fraud.queue.decision-size:100000}") int decisionSize,
+                         @Value("${bank.anti-fraud.queue.decision-ttl-ms:600000}") long decisionTtl) {
+        this.blocklists = blocklists;
+        this.scoringEngine = scoringEngine;
+        this.graphDetector = graphDetector;
+        this.featureStore = featureStore;
+        this.decisionRepository = decisionRepository;
+        this.processedEvents = processedEvents;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.offerTimeout = offerTimeout;
+        this.batchSize = batchSize;
+        this.workerCount = workerCount;
+        this.decisions = new TtlCache<>(decisionSize, decisionTtl);
+        this.rejected = meterRegistry.counter("antifraud.queue.rejected");
+        this.failed = meterRegistry.counter("antifraud.queue.failed");
+        this.batchWrite = meterRegistry.timer("antifraud.queue.batch.write");
+        Gauge.builder("antifraud.queue.size", queue, BlockingQueue::size)
+                .description("события, ожидающие оценки")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Запускает фоновые потоки оценки.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            final Thread worker = new Thread(this::work, "antifraud-decision-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Перестаёт принимать события и дожидается оценки уже принятых.
+     *
+     * @throws InterruptedException если ожидание прервано
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    /**
+     * Ставит события в очередь по порядку, пока в ней есть место.
+     *
+     * @param events {@link TransferEventDto}
+     * @return по одному на принятое событие из начала списка: завершается, когда решение записано или событие
+     * отброшено как не поддающееся оценке; с ошибкой - если пачку с событием не удалось обработать
+     */
+    public List<CompletableFuture<Void>> submit(List<TransferEventDto> events) {
+        final List<CompletableFuture<Void>> submitted = new ArrayList<>(events.size());
+
+        for (TransferEventDto event : events) {
+            final String key = FraudDecisions.key(event.getChannel(), event.getTransferId());
+            final CompletableFuture<Void> stored = new CompletableFuture<>();
+            final CompletableFuture<Void> inFlight = pending.putIfAbsent(key, stored);
+
+            if (inFlight != null) {
+                submitted.add(inFlight);
+            } else if (offer(event)) {
+                submitted.add(stored);
+            } else {
+                pending.remove(key, stored);
+                rejected.increment(events.size() - submitted.size());
+                break;
+            }
+        }
+        return submitted;
+    }
+
+    /**
+     * Ставит событие в очередь с ожиданием решения по нему.
+     *
+     * @param event {@link TransferEventDto}
+     * @return решение, завершается после оценки пачки с событием; пустой результат, если очередь заполнена
+     */
+    public Optional<CompletableFuture<FraudDecisionDto>> submitForDecision(TransferEventDto event) {
+        final String key = FraudDecisions.key(event.getChannel(), event.getTransferId());
+        final CompletableFuture<FraudDecisionDto> decision = new CompletableFuture<>();
+
+        waiting.put(key, decision);
+        if (submit(List.of(event)).isEmpty()) {
+            waiting.remove(key, decision);
+            return Optional.empty();
+        }
+        return Optional.of(decision);
+    }
+
+    /**
+     * Записывает предварительное решение, выданное синхронной проверке по истечении бюджета, с ближайшей пачкой.
+     * Если окончательное решение по переводу уже принято, предварительное не записывается.
+     *
+     * @param decision {@link FraudDecisionDto}
+     */
+    public void recordProvisional(FraudDecisionDto decision) {
+        provisional.add(decision);
+    }
+
+    /**
+     * @param channel    канал перевода
+     * @param transferId технический идентификатор перевода
+     * @return {@link FraudDecisionDto}, если решение принято не раньше decision-ttl-ms назад
+     */
+    public Optional<FraudDecisionDto> findDecision(String channel, Long transferId) {
+        return Optional.ofNullable(decisions.get(FraudDecisions.key(channel, transferId)));
+    }
+
+    /**
+     * @param channel    канал перевода
+     * @param transferId технический идентификатор перевода
+     * @return true, если перевод принят и ещё ожидает оценки
+     */
+    public boolean isPending(String channel, Long transferId) {
+        return pending.containsKey(FraudDecisions.key(channel, transferId));
+    }
+
+    private boolean offer(TransferEventDto event) {
+        try {
+            return running && queue.offer(event, offerTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void work() {
+        final List<TransferEventDto> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                final TransferEventDto first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    process(batch);
+                } else if (!provisional.isEmpty()) {
+                    process(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // поток оценки не должен завершаться: иначе очередь перестаёт разбираться
+                log.error("Не удалось оценить пачку из {} событий, пачка будет доставлена повторно", batch.size(), e);
+                batch.forEach(event -> fail(event, e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<TransferEventDto> batch) throws InterruptedException {
+        final Map<String, FraudDecisionDto> decided = new LinkedHashMap<>();
+        final List<TransferEventDto> scored = decideAll(batch, decided);
+
+        detectGraph(scored, decided);
+        // признаки обновляются после решения, чтобы правила сравнивали перевод с историей без него
+        recordFeatures(scored);
+        decided.forEach((key, decision) -> {
+            final CompletableFuture<FraudDecisionDto> waiter = waiting.remove(key);
+            if (waiter != null) {
+                waiter.complete(decision);
+            }
+        });
+        drainProvisional(decided);
+        final Map<Boolean, List<FraudDecisionDto>> bySuspicion = decided.values().stream()
+                .collect(Collectors.partitioningBy(FraudDecisionDto::getIsSuspicious));
+        final List<Long> eventIds = scored.stream().map(TransferEventDto::getEventId).toList();
+
+        // решения нельзя потерять: пока БД недоступна, очередь заполняется и приём событий отклоняется
+        while (true) {
+            try {
+                batchWrite.record(() -> {
+                    decisionRepository.saveAll(bySuspicion.get(true));
+                    decisionRepository.clearProvisional(bySuspicion.get(false));
+                    processedEvents.saveAll(eventIds);
+                });
+                break;
+            } catch (RuntimeException e) {
+                log.error("Не удалось записать {} решений антифрода, повтор: {}", decided.size(), e.getMessage());
+                Thread.sleep(RETRY_MILLIS);
+            }
+        }
+
+        decided.forEach((key, decision) -> {
+            final FraudDecisionDto previous = decisions.get(key);
+            decisions.put(key, previous == null ? decision : FraudDecisions.merge(previous, decision));
+            complete(key);
+        });
+    }
+
+    /**
+     * Событие, которое не удалось оценить, отбрасывается и не мешает остальным событиям пачки.
+     *
+     * @return оценённые события
+     */
+    private List<TransferEventDto> decideAll(List<TransferEventDto> batch, Map<String, FraudDecisionDto> decided) {
+        final List<TransferEventDto> scored = new ArrayList<>(batch.size());
+
+        for (TransferEventDto event : batch) {
+            try {
+                collect(decided, decide(event));
+                scored.add(event);
+            } catch (RuntimeException e) {
+                log.error("Не удалось оценить перевод {} {}, событие отброшено: {}", event.getChannel(),
+                        event.getTransferId(), e.getMessage());
+                release(event, e);
+            }
+        }
+        return scored;
+    }
+
+    private void drainProvisional(Map<String, FraudDecisionDto> decided) {
+        while (!provisional.isEmpty()) {
+            final FraudDecisionDto decision = provisional.poll();
+            // окончательное решение уже записано: предварительное ему ничего не добавит
+            if (decision != null && !isDecided(decision)) {
+                collect(decided, decision);
+            }
+        }
+    }
+
+    private boolean isDecided(FraudDecisionDto decision) {
+        final FraudDecisionDto known = decisions.get(FraudDecisions.key(decision.getChannel(),
+                decision.getTransferId()));
+        return known != null && !FraudDecisions.isProvisional(known);
+    }
+
+    private void detectGraph(List<TransferEventDto> scored, Map<String, FraudDecisionDto> decided) {
+        try {
+            graphDetector.detect(scored).forEach(decision -> collect(decided, decision));
+        } catch (RuntimeException e) {
+            log.error("Не удалось проверить граф переводов для {} событий: {}", scored.size(), e.getMessage());
+        }
+    }
+
+    private void recordFeatures(List<TransferEventDto> scored) {
+        for (TransferEventDto event : scored) {
+            try {
+                featureStore.record(event);
+            } catch (RuntimeException e) {
+                log.error("Не удалось учесть признаки перевода {} {}: {}", event.getChannel(),
+                        event.getTransferId(), e.getMessage());
+            }
+        }
+    }
+
+    // событие не поддаётся оценке и отброшено окончательно, повторная доставка его не исправит
+    private void release(TransferEventDto event, RuntimeException cause) {
+        final String key = FraudDecisions.key(event.getChannel(), event.getTransferId());
+
+        failed.increment();
+        completeWaiter(key, cause);
+        complete(key);
+    }
+
+    // пачка не обработана по причине, не связанной с событием: событие будет доставлено повторно
+    private void fail(TransferEventDto event, RuntimeException cause) {
+        final String key = FraudDecisions.key(event.getChannel(), event.getTransferId());
+        final CompletableFuture<Void> stored = pending.remove(key);
+
+        failed.increment();
+        completeWaiter(key, cause);
+        if (stored != null) {
+            stored.completeExceptionally(cause);
+        }
+    }
+
+    private void completeWaiter(String key, RuntimeException cause) {
+        final CompletableFuture<FraudDecisionDto> waiter = waiting.remove(key);
+
+        if (waiter != null) {
+            waiter.completeExceptionally(cause);
+        }
+    }
+
+    private void complete(String key) {
+        final CompletableFuture<Void> stored = pending.remove(key);
+
+        if (stored != null) {
+            stored.complete(null);
+        }
+    }
+
+    private static void collect(Map<String, FraudDecisionDto> decided, FraudDecisionDto decision) {
+        decided.merge(FraudDecisions.key(decision.getChannel(), decision.getTransferId()), decision,
+                FraudDecisions::merge);
+    }
+
+    private FraudDecisionDto decide(TransferEventDto event) {
+        return blocklists.findBlockedReason(event)
+                .map(reason -> new FraudDecisionDto(event.getTransferId(), event.getChannel(),
+                        true, true, reason, reason, false))
+                .orElseGet(() -> scoringEngine.score(event));
+    }
+}
@@ -0,0 +1,91 @@
+package com.bank.antifraud.service.scoring;
+
+import com.bank.common.money.Money;
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Правило скорости, скомпилированное при загрузке: пороги - примитивы, незаданный порог - {@link Long#MAX_VALUE}
+ * или {@link Double#POSITIVE_INFINITY}, поэтому проверка - три сравнения без упаковки и выделения памяти.
+ * Неизменяемое.
+ */
+public final class CompiledRule {
+
+    private static final int WINDOWS = VelocityWindow.values().length;
+
+    private final VelocityRule source;
+    private final int countIndex;
+    private final int amountIndex;
+    private final long maxCount;
+    private final long maxAmountMinor;
+    private final double maxDeviation;
+    private final boolean block;
+    private final Counter hits;
+
+    CompiledRule(VelocityRule source, Counter hits) {
+        this.source = source;
+        this.countIndex = source.getWindow().ordinal();
+        this.amountIndex = WINDOWS + countIndex;
+        this.maxCount = source.getMaxCount() == null ? Long.MAX_VALUE : source.getMaxCount();
+        this.maxAmountMinor = source.getMaxAmount() == null ? Long.MAX_VALUE : source.getMaxAmount().toMinor();
+        this.maxDeviation = source.getMaxDeviation() == null ? Double.POSITIVE_INFINITY : source.getMaxDeviation();
+        this.block = source.getAction() == VelocityAction.BLOCK;
+        this.hits = hits;
+    }
+
+    /**
+     * Проверяет пороги окна; порог отклонения не проверяется, например в бэктесте без истории признаков.
+     *
+     * @param totals количество и сумма по окнам из {@link VelocityCounter#record(long, long)}
+     * @return true, если превышен порог количества или суммы
+     */
+    public boolean test(long[] totals) {
+        return totals[countIndex] > maxCount || totals[amountIndex] > maxAmountMinor;
+    }
+
+    /**
+     * @param totals    количество и сумма по окнам из {@link VelocityCounter#record(long, long)}
+     * @param deviation отклонение суммы перевода от средней суммы ключа в стандартных отклонениях
+     * @return true, если превышен хотя бы один порог
+     */
+    public boolean test(long[] totals, double deviation) {
+        return test(totals) || deviation > maxDeviation;
+    }
+
+    /**
+     * @return true, если у правила задан порог отклонения и ему нужны признаки ключа
+     */
+    public boolean readsFeatures() {
+        return maxDeviation != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Учитывает срабатывание в счётчике правила.
+     *
+     * @param totals    количество и сумма по окнам
+     * @param deviation отклонение суммы перевода от средней суммы ключа в стандартных отклонениях
+     * @return причина срабатывания
+     */
+    String hit(long[] totals, double deviation) {
+        hits.increment();
+        if (!test(totals)) {
+            return source.getName() + ": сумма больше средней на " + Math.round(deviation) + " станд. откл.";
+        }
+        return source.getName() + ": " + totals[countIndex] + " переводов на " + Money.ofMinor(totals[amountIndex])
+                + " за " + source.getWindow().getDuration();
+    }
+
+    /**
+     * @return исходное правило
+     */
+    public VelocityRule source() {
+        return source;
+    }
+
+    boolean isBlock() {
+        return block;
+    }
+
+    Counter hits() {
+        return hits;
+    }
+}
@@ -0,0 +1,144 @@
+package com.bank.antifraud.service.scoring;
+
+import com.bank.common.exception.ValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.noop.NoopCounter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Неизменяемый набор {@link CompiledRule}, сгруппированный по измерениям. Движок держит его в volatile-поле
+ * и при перезагрузке подменяет целиком: оценка перевода читает поле один раз и видит либо старый,
+ * либо новый набор, без блокировок. Бэктест компилирует правила-кандидаты тем же {@link #compile(List)},
+ * поэтому проверка правил и условие срабатывания у него те же, что у живого потока.
+ */
+public final class RuleSet {
+
+    private static final VelocityDimension[] DIMENSIONS = VelocityDimension.values();
+
+    private static final Counter NOT_COUNTED = new NoopCounter(
+            new Meter.Id("antifraud.rule.hits.not-counted", Tags.empty(), null, null, Meter.Type.COUNTER));
+
+    private final CompiledRule[][] rules;
+    private final VelocityDimension[] dimensions;
+    private final boolean[] readsFeatures;
+    private final long version;
+    private final LocalDateTime loadedAt;
+
+    private RuleSet(CompiledRule[][] rules, VelocityDimension[] dimensions, long version) {
+        this.rules = rules;
+        this.dimensions = dimensions;
+        this.readsFeatures = new boolean[DIMENSIONS.length];
+        for (int i = 0; i < DIMENSIONS.length; i++) {
+            readsFeatures[i] = Arrays.stream(rules[i]).anyMatch(CompiledRule::readsFeatures);
+        }
+        this.version = version;
+        this.loadedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Компилирует правила без счётчиков срабатываний, например правила-кандидаты бэктеста.
+     *
+     * @param source правила
+     * @return {@link RuleSet}
+     * @throws ValidationException если правило неполное или имена повторяются
+     */
+    public static RuleSet compile(List<VelocityRule> source) {
+        return compile(source, rule -> NOT_COUNTED, 0);
+    }
+
+    /**
+     * @param source  правила
+     * @param hits    счётчик срабатываний по правилу
+     * @param version номер набора
+     * @return {@link RuleSet}
+     * @throws ValidationException если правило неполное или имена повторяются
+     */
+    static RuleSet compile(List<VelocityRule> source, Function<VelocityRule, Counter> hits, long version) {
+        final List<List<CompiledRule>> byDimension = new ArrayList<>();
+        final Set<String> names = new HashSet<>();
+
+        for (int i = 0; i < DIMENSIONS.length; i++) {
+            byDimension.add(new ArrayList<>());
+        }
+        for (VelocityRule rule : source) {
+            validate(rule);
+            if (!names.add(rule.getName())) {
+                throw new ValidationException("Правило скорости " + rule.getName() + " задано дважды");
+            }
+            byDimension.get(rule.getDimension().ordinal()).add(new CompiledRule(rule, hits.apply(rule)));
+        }
+
+        final CompiledRule[][] rules = new CompiledRule[DIMENSIONS.length][];
+        for (int i = 0; i < DIMENSIONS.length; i++) {
+            rules[i] = byDimension.get(i).toArray(new CompiledRule[0]);
+        }
+        return new RuleSet(rules, Arrays.stream(DIMENSIONS)
+                .filter(dimension -> rules[dimension.ordinal()].length > 0)
+                .toArray(VelocityDimension[]::new), version);
+    }
+
+    /**
+     * @return измерения, по которым есть хотя бы одно правило
+     */
+    public VelocityDimension[] dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * @param dimension измерение
+     * @return true, если хотя бы одному правилу измерения нужны признаки ключа
+     */
+    public boolean readsFeatures(VelocityDimension dimension) {
+        return readsFeatures[dimension.ordinal()];
+    }
+
+    /**
+     * @param dimension измерение
+     * @return правила измерения
+     */
+    public CompiledRule[] rules(VelocityDimension dimension) {
+        return rules[dimension.ordinal()];
+    }
+
+    /**
+     * @return все правила набора по порядку измерений
+     */
+    List<CompiledRule> all() {
+        final List<CompiledRule> all = new ArrayList<>();
+        for (CompiledRule[] dimensionRules : rules) {
+            all.addAll(Arrays.asList(dimensionRules));
+        }
+        return all;
+    }
+
+    long version() {
+        return version;
+    }
+
+    LocalDateTime loadedAt() {
+        return loadedAt;
+    }
+
+    private static void validate(VelocityRule rule) {
+        if (rule.getName() == null || rule.getDimension() == null || rule.getWindow() == null
+                || rule.getAction() == null) {
+            throw new ValidationException("У правила скорости должны быть заданы name, dimension, window и action");
+        }
+        if (rule.getMaxCount() == null && rule.getMaxAmount() == null && rule.getMaxDeviation() == null) {
+            throw new ValidationException("У правила скорости " + rule.getName() + " не задан ни один порог");
+        }
+        if (rule.getMaxDeviation() != null && !(rule.getMaxDeviation() > 0)) {
+            throw new ValidationException("Порог отклонения правила скорости " + rule.getName()
+                    + " должен быть больше нуля");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bank.antifraud.service.scoring;
+
+/**
+ * Количество и сумма переводов за скользящее окно в кольцевом буфере корзин фиксированной длительности.
+ * Итоги поддерживаются при добавлении и сдвиге окна, поэтому чтение не проходит по корзинам.
+ * Не потокобезопасен, используется под блокировкой {@link VelocityCounter}.
+ */
+public class SlidingWindow {
+
+    private final long bucketMillis;
+    private final long[] counts;
+    private final long[] sums;
+    private long latest = Long.MIN_VALUE;
+    private long count;
+    private long sum;
+
+    /**
+     * @param window {@link VelocityWindow}
+     */
+    public SlidingWindow(VelocityWindow window) {
+        this.bucketMillis = window.bucketMillis();
+        this.counts = new long[window.getBuckets()];
+        this.sums = new long[window.getBuckets()];
+    }
+
+    /**
+     * Добавляет перевод; перевод старше окна относительно самого нового не учитывается.
+     *
+     * @param time   время перевода в миллисекундах
+     * @param amount сумма в копейках
+     */
+    public void add(long time, long amount) {
+        final long bucket = Math.floorDiv(time, bucketMillis);
+
+        if (latest != Long.MIN_VALUE && bucket <= latest - counts.length) {
+            return;
+        }
+        advance(bucket);
+
+        final int slot = (int) Math.floorMod(bucket, (long) counts.length);
+        counts[slot]++;
+        sums[slot] += amount;
+        count++;
+        sum += amount;
+    }
+
+    /**
+     * @return количество переводов в окне
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @return сумма переводов в окне в копейках
+     */
+    public long sum() {
+        return sum;
+    }
+
+    /**
+     * @return время конца самой новой корзины в миллисекундах
+     */
+    public long latestMillis() {
+        return latest == Long.MIN_VALUE ? Long.MIN_VALUE : (latest + 1) * bucketMillis;
+    }
+
+    // корзины между прежней и новой последней вышли из окна: их слоты занимают новые корзины
+    private void advance(long bucket) {
+        if (latest == Long.MIN_VALUE) {
+            latest = bucket;
+            return;
+        }
+
+        final long expired = Math.min(bucket - latest, counts.length);
+        for (long expiredBucket = latest + 1; expiredBucket <= latest + expired; expiredBucket++) {
+            final int slot = (int) Math.floorMod(expiredBucket, (long) counts.length);
+            count -= counts[slot];
+            sum -= sums[slot];
+            counts[slot] = 0;
+            sums[slot] = 0;
+        }
+        latest = Math.max(latest, bucket);
+    }
+}
@@ -0,0 +1,17 @@
+package com.bank.antifraud.service.scoring;
+
+/**
+ * Решение при срабатывании правила скорости
+ */
+public enum VelocityAction {
+
+    /**
+     * Перевод помечается подозрительным.
+     */
+    SUSPICIOUS,
+
+    /**
+     * Перевод помечается подозрительным и заблокированным.
+     */
+    BLOCK
+}
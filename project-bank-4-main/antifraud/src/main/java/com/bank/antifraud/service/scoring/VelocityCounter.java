@@ -0,0 +1,44 @@
+package com.bank.antifraud.service.scoring;
+
+/**
+ * Скользящие окна {@link VelocityWindow} одного ключа.
+ */
+public class VelocityCounter {
+
+    private static final VelocityWindow[] WINDOWS = VelocityWindow.values();
+
+    private final SlidingWindow[] windows = new SlidingWindow[WINDOWS.length];
+
+    public VelocityCounter() {
+        for (VelocityWindow window : WINDOWS) {
+            windows[window.ordinal()] = new SlidingWindow(window);
+        }
+    }
+
+    /**
+     * Добавляет перевод во все окна.
+     *
+     * @param time   время перевода в миллисекундах
+     * @param amount сумма в копейках
+     * @return количество и сумма по окнам: [ordinal] - количество, [WINDOWS + ordinal] - сумма
+     */
+    public synchronized long[] record(long time, long amount) {
+        final long[] totals = new long[WINDOWS.length * 2];
+
+        for (int i = 0; i < WINDOWS.length; i++) {
+            windows[i].add(time, amount);
+            totals[i] = windows[i].count();
+            totals[WINDOWS.length + i] = windows[i].sum();
+        }
+        return totals;
+    }
+
+    /**
+     * @param now текущее время в миллисекундах
+     * @return true, если в самом длинном окне не осталось переводов
+     */
+    public synchronized boolean isIdle(long now) {
+        final long dayMillis = VelocityWindow.DAY.getDuration().toMillis();
+        return windows[VelocityWindow.DAY.ordinal()].latestMillis() + dayMillis <= now;
+    }
+}
@@ -0,0 +1,43 @@
+package com.bank.antifraud.service.scoring;
+
+import com.bank.antifraud.dto.TransferEventDto;
+
+/**
+ * Ключ, по которому считаются переводы в окне: счёт списания, карта или телефон получателя.
+ */
+public enum VelocityDimension {
+
+    ACCOUNT(null),
+
+    CARD("CARD"),
+
+    PHONE("PHONE");
+
+    // канал, в котором ключ - номер получателя; null - ключ счёт списания в любом канале
+    private final String recipientChannel;
+
+    VelocityDimension(String recipientChannel) {
+        this.recipientChannel = recipientChannel;
+    }
+
+    /**
+     * @param event {@link TransferEventDto}
+     * @return ключ перевода или null, если перевод не относится к этому измерению
+     */
+    public Long keyOf(TransferEventDto event) {
+        return keyOf(event.getChannel(), event.getRecipientNumber(), event.getAccountDetailsId());
+    }
+
+    /**
+     * @param channel          канал перевода
+     * @param recipientNumber  номер счёта, карты или телефона получателя
+     * @param accountDetailsId id счёта списания
+     * @return ключ перевода или null, если перевод не относится к этому измерению
+     */
+    public Long keyOf(String channel, Long recipientNumber, Long accountDetailsId) {
+        if (recipientChannel == null) {
+            return accountDetailsId;
+        }
+        return recipientChannel.equals(channel) ? recipientNumber : null;
+    }
+}
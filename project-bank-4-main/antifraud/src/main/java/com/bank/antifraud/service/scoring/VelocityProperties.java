@@ -0,0 +1,32 @@
+package com.bank.antifraud.service.scoring;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Правила скорости: из bank.anti-fraud.velocity.rules или, если source = TABLE, из таблицы
+ * anti_fraud.velocity_rule с перезагрузкой раз в reload-interval-ms
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bank.anti-fraud.velocity")
+public class VelocityProperties {
+
+    private List<VelocityRule> rules = new ArrayList<>();
+
+    private RuleSource source = RuleSource.CONFIG;
+
+    /**
+     * Источник правил скорости
+     */
+    public enum RuleSource {
+
+        CONFIG,
+
+        TABLE
+    }
+}
@@ -0,0 +1,31 @@
+package com.bank.antifraud.service.scoring;
+
+import com.bank.common.money.Money;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Правило скорости: срабатывает, если по ключу dimension за окно window переводов больше maxCount
+ * или их сумма больше maxAmount, либо если сумма перевода больше средней суммы переводов ключа
+ * в {@link com.bank.antifraud.service.feature.FeatureStore} на maxDeviation стандартных отклонений.
+ * Незаданный порог не проверяется. Проверяется скомпилированным {@link CompiledRule}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class VelocityRule {
+
+    String name;
+    VelocityDimension dimension;
+    VelocityWindow window;
+    Long maxCount;
+    Money maxAmount;
+    VelocityAction action;
+    Double maxDeviation;
+}
@@ -0,0 +1,65 @@
+package com.bank.antifraud.service.scoring;
+
+import com.bank.antifraud.repository.VelocityRuleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Загрузка правил скорости в {@link VelocityScoringEngine} без перезапуска сервиса: при source = TABLE
+ * правила перечитываются из anti_fraud.velocity_rule при старте, раз в reload-interval-ms и по запросу
+ * через actuator-эндпоинт {@link VelocityRulesEndpoint}.
+ */
+@Slf4j
+@Component
+public class VelocityRuleLoader {
+
+    private final VelocityProperties properties;
+    private final VelocityRuleRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final VelocityScoringEngine engine;
+
+    public VelocityRuleLoader(VelocityProperties properties,
+                              VelocityRuleRepository repository,
+                              TransactionTemplate transactionTemplate,
+                              VelocityScoringEngine engine) {
+        this.properties = properties;
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.engine = engine;
+    }
+
+    /**
+     * Перечитывает правила при старте и раз в reload-interval-ms; при ошибке остаются прежние правила.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${bank.anti-fraud.velocity.reload-interval-ms:60000}",
+            initialDelayString = "${bank.anti-fraud.velocity.reload-interval-ms:60000}")
+    public void refresh() {
+        if (properties.getSource() != VelocityProperties.RuleSource.TABLE) {
+            return;
+        }
+
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("Не удалось загрузить правила скорости: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Загружает правила из источника и подменяет ими текущие.
+     *
+     * @return номер нового набора правил
+     */
+    public synchronized long reload() {
+        final List<VelocityRule> rules = properties.getSource() == VelocityProperties.RuleSource.TABLE
+                ? transactionTemplate.execute(status -> repository.findEnabled())
+                : properties.getRules();
+        return engine.apply(rules);
+    }
+}
@@ -0,0 +1,47 @@
+package com.bank.antifraud.service.scoring;
+
+import com.bank.antifraud.dto.VelocityRuleSetDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator-эндпоинт /actuator/velocityrules: действующие правила скорости с количеством срабатываний
+ * и перезагрузка правил. Время проверки правил по измерениям - метрика antifraud.rule.evaluation.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "velocityrules")
+public class VelocityRulesEndpoint {
+    private final VelocityScoringEngine engine;
+    private final VelocityRuleLoader loader;
+
+    /**
+     * @return {@link VelocityRuleSetDto}
+     */
+    @ReadOperation
+    public VelocityRuleSetDto rules() {
+        final RuleSet ruleSet = engine.ruleSet();
+        final List<CompiledRule> rules = ruleSet.all();
+        final Map<String, Long> hits = new LinkedHashMap<>();
+
+        rules.forEach(rule -> hits.put(rule.source().getName(), (long) rule.hits().count()));
+        return new VelocityRuleSetDto(ruleSet.version(), ruleSet.loadedAt(),
+                rules.stream().map(CompiledRule::source).toList(), hits);
+    }
+
+    /**
+     * @return {@link VelocityRuleSetDto} после перезагрузки
+     */
+    @WriteOperation
+    public VelocityRuleSetDto reload() {
+        loader.reload();
+        return rules();
+    }
+}
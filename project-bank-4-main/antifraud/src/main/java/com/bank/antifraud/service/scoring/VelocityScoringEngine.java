@@ -0,0 +1,162 @@
+package com.bank.antifraud.service.scoring;
+
+import com.bank.antifraud.dto.FraudDecisionDto;
+import com.bank.antifraud.dto.TransferEventDto;
+import com.bank.antifraud.service.feature.FeatureStore;
+import com.bank.common.money.Money;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Оценка переводов по правилам скорости {@link VelocityRule}.
+ * Окна хранятся в памяти экземпляра: по ключу каждого измерения - {@link VelocityCounter} с кольцевыми буферами,
+ * поэтому решение не обращается к БД. Счётчики без переводов за сутки удаляются раз в evict-interval-ms.
+ * Правила компилируются в {@link RuleSet} и подменяются на лету через {@link #apply(List)}; окна ключей
+ * при этом сохраняются, так что новое правило сразу видит накопленную историю. Для этого переводы учитываются
+ * в окнах всех измерений, в том числе тех, по которым сейчас нет правил.
+ * Правила с порогом отклонения дополнительно читают признаки ключа из {@link FeatureStore}; признаки
+ * обновляются после решения, поэтому сумма перевода сравнивается с историей без него.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(VelocityProperties.class)
+public class VelocityScoringEngine {
+
+    private static final String REASON_SEPARATOR = "; ";
+
+    private static final String RULE_HITS = "antifraud.rule.hits";
+
+    private static final VelocityDimension[] DIMENSIONS = VelocityDimension.values();
+
+    private final Map<VelocityDimension, Map<Long, VelocityCounter>> counters = new EnumMap<>(VelocityDimension.class);
+    private final Map<VelocityDimension, Timer> evaluation = new EnumMap<>(VelocityDimension.class);
+    private final FeatureStore featureStore;
+    private final MeterRegistry meterRegistry;
+    private final Timer latency;
+
+    private volatile RuleSet ruleSet;
+
+    public VelocityScoringEngine(VelocityProperties properties, FeatureStore featureStore,
+                                 MeterRegistry meterRegistry) {
+        this.featureStore = featureStore;
+        this.meterRegistry = meterRegistry;
+        for (VelocityDimension dimension : DIMENSIONS) {
+            counters.put(dimension, new ConcurrentHashMap<>());
+            evaluation.put(dimension, Timer.builder("antifraud.rule.evaluation")
+                    .description("время учёта перевода в окнах ключа и проверки правил измерения")
+                    .tag("dimension", dimension.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+
+        this.latency = Timer.builder("antifraud.decision.latency")
+                .description("время оценки перевода правилами скорости")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        apply(properties.getRules());
+    }
+
+    /**
+     * Компилирует правила и атомарно подменяет ими текущие; при ошибке остаются прежние правила.
+     *
+     * @param rules {@link VelocityRule}
+     * @return номер нового набора правил
+     */
+    public synchronized long apply(List<VelocityRule> rules) {
+        final RuleSet previous = ruleSet;
+        final RuleSet compiled = RuleSet.compile(rules,
+                rule -> meterRegistry.counter(RULE_HITS, "rule", rule.getName()),
+                previous == null ? 1 : previous.version() + 1);
+
+        ruleSet = compiled;
+
+        if (previous != null) {
+            final Set<String> names = rules.stream().map(VelocityRule::getName).collect(Collectors.toSet());
+            previous.all().stream()
+                    .filter(rule -> !names.contains(rule.source().getName()))
+                    .map(CompiledRule::hits)
+                    .forEach(meterRegistry::remove);
+        }
+        log.info("Загружено правил скорости: {}, версия {}", rules.size(), compiled.version());
+        return compiled.version();
+    }
+
+    /**
+     * Учитывает перевод в окнах его ключей и проверяет правила.
+     *
+     * @param event {@link TransferEventDto}
+     * @return {@link FraudDecisionDto}
+     */
+    public FraudDecisionDto score(TransferEventDto event) {
+        final long started = System.nanoTime();
+        final RuleSet current = ruleSet;
+        final long time = event.getCreatedAt() == null ? System.currentTimeMillis()
+                : event.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        final long amount = Money.of(event.getAmount()).toMinor();
+        final StringJoiner suspicious = new StringJoiner(REASON_SEPARATOR);
+        final StringJoiner blocked = new StringJoiner(REASON_SEPARATOR);
+
+        for (VelocityDimension dimension : DIMENSIONS) {
+            final Long key = dimension.keyOf(event);
+
+            if (key != null) {
+                final long dimensionStarted = System.nanoTime();
+                final long[] totals = counters.get(dimension)
+                        .computeIfAbsent(key, k -> new VelocityCounter())
+                        .record(time, amount);
+                final double deviation = current.readsFeatures(dimension)
+                        ? featureStore.deviation(dimension, key, amount) : 0;
+                evaluate(current.rules(dimension), totals, deviation, suspicious, blocked);
+                evaluation.get(dimension).record(System.nanoTime() - dimensionStarted, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        latency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        return new FraudDecisionDto(event.getTransferId(), event.getChannel(),
+                blocked.length() > 0, suspicious.length() > 0,
+                blocked.length() > 0 ? blocked.toString() : null,
+                suspicious.length() > 0 ? suspicious.toString() : null, false);
+    }
+
+    /**
+     * Удаляет счётчики ключей без переводов за самое длинное окно.
+     */
+    @Scheduled(fixedDelayString = "${bank.anti-fraud.velocity.evict-interval-ms:60000}")
+    public void evictIdle() {
+        final long now = System.currentTimeMillis();
+
+        counters.values().forEach(byKey -> byKey.values().removeIf(counter -> counter.isIdle(now)));
+    }
+
+    RuleSet ruleSet() {
+        return ruleSet;
+    }
+
+    private static void evaluate(CompiledRule[] dimensionRules, long[] totals, double deviation,
+                                 StringJoiner suspicious, StringJoiner blocked) {
+        for (CompiledRule rule : dimensionRules) {
+            if (rule.test(totals, deviation)) {
+                final String reason = rule.hit(totals, deviation);
+                suspicious.add(reason);
+                if (rule.isBlock()) {
+                    blocked.add(reason);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.bank.antifraud.service.scoring;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Окно правил скорости: длительность и количество корзин кольцевого буфера {@link SlidingWindow}.
+ * Окно сдвигается на одну корзину, поэтому переводы на границе окна учитываются с точностью до корзины.
+ */
+@Getter
+public enum VelocityWindow {
+
+    MINUTE(Duration.ofMinutes(1), 12),
+
+    HOUR(Duration.ofHours(1), 12),
+
+    DAY(Duration.ofDays(1), 24);
+
+    private final Duration duration;
+    private final int buckets;
+
+    VelocityWindow(Duration duration, int buckets) {
+        this.duration = duration;
+        this.buckets = buckets;
+    }
+
+    /**
+     * @return длительность корзины в миллисекундах
+     */
+    public long bucketMillis() {
+        return duration.toMillis() / buckets;
+    }
+}
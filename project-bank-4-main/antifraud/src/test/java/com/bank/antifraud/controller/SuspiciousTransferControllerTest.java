@@ -0,0 +1,94 @@
+package com.bank.antifraud.controller;
+
+import com.bank.antifraud.dto.SuspiciousTransferCursorDto;
+import com.bank.antifraud.dto.SuspiciousTransferDto;
+import com.bank.antifraud.service.SuspiciousTransferService;
+import com.bank.antifraud.service.common.SuspiciousFlag;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(SuspiciousTransferController.class)
+public class SuspiciousTransferControllerTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private SuspiciousTransferService service;
+
+    @DisplayName("очередь заблокированных переводов по причине и периоду, позитивный сценарий")
+    @Test
+    void readAllTest() throws Exception {
+        final SuspiciousTransferDto transfer = new SuspiciousTransferDto("CARD", 1L, 10L, true, true,
+                "card-burst", "card-burst", "card-burst: 4", "card-burst: 4", FROM.plusHours(1));
+        when(service.findAll(eq(SuspiciousFlag.BLOCKED), eq("card-burst"), eq(FROM), isNull(), isNull(), eq(50)))
+                .thenReturn(new SliceImpl<>(List.of(transfer), Pageable.ofSize(50), false));
+
+        mockMvc.perform(get("/suspicious/transfers")
+                        .param("flag", "BLOCKED")
+                        .param("reason", "card-burst")
+                        .param("from", "2023-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.last").value(true))
+                .andExpect(jsonPath("$.content[0].channel").value("CARD"))
+                .andExpect(jsonPath("$.content[0].blockedReasonCode").value("card-burst"));
+    }
+
+    @DisplayName("следующая страница очереди после последнего решения предыдущей")
+    @Test
+    void readAllAfterTest() throws Exception {
+        final SuspiciousTransferCursorDto after = new SuspiciousTransferCursorDto(FROM, "CARD", 1L);
+        when(service.findAll(eq(SuspiciousFlag.SUSPICIOUS), isNull(), isNull(), isNull(), eq(after), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(), Pageable.ofSize(10), false));
+
+        mockMvc.perform(get("/suspicious/transfers")
+                        .param("flag", "SUSPICIOUS")
+                        .param("afterCreatedAt", "2023-01-01T00:00:00")
+                        .param("afterChannel", "CARD")
+                        .param("afterId", "1")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty());
+    }
+
+    @DisplayName("число решений очереди")
+    @Test
+    void countTest() throws Exception {
+        when(service.count(SuspiciousFlag.BLOCKED, null, null, null)).thenReturn(3L);
+
+        mockMvc.perform(get("/suspicious/transfers/count").param("flag", "BLOCKED"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("3"));
+    }
+
+    @DisplayName("очередь по неизвестному флагу, негативный сценарий")
+    @Test
+    void readAllUnknownFlagTest() throws Exception {
+        mockMvc.perform(get("/suspicious/transfers").param("flag", "UNKNOWN"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("словарь кодов причин")
+    @Test
+    void readReasonCodesTest() throws Exception {
+        when(service.findReasonCodes()).thenReturn(List.of("blocklist", "card-burst"));
+        mockMvc.perform(get("/suspicious/transfers/reasons"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1]").value("card-burst"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.bank.antifraud.controller;
+
+import com.bank.antifraud.dto.FraudDecisionDto;
+import com.bank.antifraud.dto.TransferEventDto;
+import com.bank.antifraud.service.TransferEventService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TransferEventController.class)
+public class TransferEventControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private TransferEventService transferEventService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DisplayName("приём пачки событий, позитивный сценарий")
+    @Test
+    void acceptTest() throws Exception {
+        List<TransferEventDto> events = List.of(getEvent(1L), getEvent(2L));
+        when(transferEventService.accept(events)).thenReturn(2);
+        mockMvc.perform(post("/transfer/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(events)))
+                .andExpect(status().isOk());
+        verify(transferEventService).accept(events);
+    }
+
+    @DisplayName("приём пачки событий, негативный сценарий")
+    @Test
+    void acceptThrowsExceptionTest() throws Exception {
+        when(transferEventService.accept(anyList())).thenThrow(new RuntimeException());
+        mockMvc.perform(post("/transfer/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(getEvent(1L)))))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @DisplayName("решение по переводу, позитивный сценарий")
+    @Test
+    void findDecisionTest() throws Exception {
+        when(transferEventService.findDecision("CARD", 1L)).thenReturn(Optional.of(
+                new FraudDecisionDto(1L, "CARD", false, true, null, "card-burst", false)));
+        mockMvc.perform(get("/transfer/events/decisions/CARD/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isSuspicious").value(true))
+                .andExpect(jsonPath("$.suspiciousReason").value("card-burst"));
+    }
+
+    @DisplayName("решение по переводу, перевод ещё ожидает оценки")
+    @Test
+    void findDecisionPendingTest() throws Exception {
+        when(transferEventService.findDecision("CARD", 1L)).thenReturn(Optional.empty());
+        mockMvc.perform(get("/transfer/events/decisions/CARD/1"))
+                .andExpect(status().isAccepted());
+    }
+
+    @DisplayName("проверка перевода с бюджетом, предварительное решение")
+    @Test
+    void checkTest() throws Exception {
+        final TransferEventDto event = getEvent(1L);
+        when(transferEventService.check(event, 20L)).thenReturn(
+                new FraudDecisionDto(1L, "CARD", false, true, null, "deadline exceeded: оценка не уложилась",
+                        true));
+        mockMvc.perform(post("/transfer/events/check")
+                        .param("budgetMs", "20")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(event)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isBlocked").value(false))
+                .andExpect(jsonPath("$.isSuspicious").value(true))
+                .andExpect(jsonPath("$.isProvisional").value(true));
+    }
+
+    @DisplayName("проверка перевода с суммой в долях копейки, негативный сценарий")
+    @Test
+    void checkInvalidEventTest() throws Exception {
+        final TransferEventDto event = getEvent(1L);
+        event.setAmount(new BigDecimal("100.001"));
+        mockMvc.perform(post("/transfer/events/check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(event)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private TransferEventDto getEvent(Long eventId) {
+        return new TransferEventDto(eventId, "CARD", eventId, 4276000000000000L,
+                new BigDecimal("100.00"), "перевод", 1L, LocalDateTime.of(2023, 1, 1, 12, 0));
+    }
+}
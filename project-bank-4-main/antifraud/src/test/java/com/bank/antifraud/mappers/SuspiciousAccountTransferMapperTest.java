@@ -96,7 +96,8 @@ public class SuspiciousAccountTransferMapperTest {
                 true,
                 true,
                 "because",
-                "because"
+                "because",
+                null
         );
     }
 }
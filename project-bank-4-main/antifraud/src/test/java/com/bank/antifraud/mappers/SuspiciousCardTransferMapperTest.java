@@ -93,7 +93,8 @@ public class SuspiciousCardTransferMapperTest {
                 true,
                 true,
                 "because",
-                "because"
+                "because",
+                null
         );
     }
 }
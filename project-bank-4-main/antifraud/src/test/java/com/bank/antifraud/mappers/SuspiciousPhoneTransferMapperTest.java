@@ -95,7 +95,8 @@ public class SuspiciousPhoneTransferMapperTest {
                 true,
                 true,
                 "because",
-                "because"
+                "because",
+                null
         );
     }
 }
@@ -0,0 +1,129 @@
+package com.bank.antifraud.service;
+
+import com.bank.antifraud.dto.BacktestRequestDto;
+import com.bank.antifraud.dto.BacktestResultDto;
+import com.bank.antifraud.repository.FraudDecisionRepository;
+import com.bank.antifraud.repository.TransferHistoryRepository;
+import com.bank.antifraud.service.backtest.BacktestService;
+import com.bank.antifraud.service.backtest.ReplayLog;
+import com.bank.antifraud.service.scoring.VelocityAction;
+import com.bank.antifraud.service.scoring.VelocityDimension;
+import com.bank.antifraud.service.scoring.VelocityRule;
+import com.bank.antifraud.service.scoring.VelocityWindow;
+import com.bank.common.exception.ValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.LongConsumer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class BacktestServiceTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+    private static final long NOW = 1_672_574_400_000L;
+
+    private final TransferHistoryRepository historyRepository = mock(TransferHistoryRepository.class);
+    private final FraudDecisionRepository decisionRepository = mock(FraudDecisionRepository.class);
+    private final BacktestService backtestService = new BacktestService(historyRepository, decisionRepository,
+            mock(PlatformTransactionManager.class), 2);
+
+    @DisplayName("Правило помечает третий перевод на карту за минуту, точность и полнота по разметке")
+    @Test
+    void runTest() {
+        doAnswer(invocation -> {
+            final ReplayLog replay = invocation.getArgument(2);
+            replay.add("CARD", 1L, 11L, 1L, 1000L, NOW);
+            replay.add("CARD", 2L, 11L, 2L, 1000L, NOW + 1000);
+            replay.add("PHONE", 1L, 555L, 1L, 1000L, NOW + 2000);
+            replay.add("CARD", 3L, 11L, 3L, 1000L, NOW + 3000);
+            replay.add("CARD", 4L, 12L, 1L, 1000L, NOW + 4000);
+            return null;
+        }).when(historyRepository).forEachTransfer(any(), any(), any());
+        doAnswer(invocation -> {
+            final LongConsumer transferIds = invocation.getArgument(1);
+            transferIds.accept(3L);
+            transferIds.accept(4L);
+            return null;
+        }).when(decisionRepository).forEachSuspicious(eq("CARD"), any());
+
+        final List<VelocityRule> rules = List.of(getRule("card-burst", VelocityDimension.CARD),
+                getRule("phone-burst", VelocityDimension.PHONE));
+        final BacktestResultDto result = backtestService.run(new BacktestRequestDto(FROM, FROM.plusDays(1), rules));
+
+        assertEquals(5L, result.getTransfers());
+        assertEquals(1L, result.getFlagged());
+        assertEquals(2L, result.getLabeled());
+        assertEquals(1L, result.getTruePositives());
+        assertEquals(0L, result.getFalsePositives());
+        assertEquals(1L, result.getFalseNegatives());
+        assertEquals(1.0, result.getPrecision());
+        assertEquals(0.5, result.getRecall());
+        assertEquals(1L, result.getRuleHits().get("card-burst"));
+        assertEquals(0L, result.getRuleHits().get("phone-burst"));
+    }
+
+    @DisplayName("Переводы до начала периода наполняют окна, но не оцениваются и не входят в результат")
+    @Test
+    void runWarmUpTest() {
+        final long from = Timestamp.valueOf(FROM).getTime();
+        doAnswer(invocation -> {
+            final ReplayLog replay = invocation.getArgument(2);
+            replay.add("CARD", 1L, 11L, 1L, 1000L, from - 2000);
+            replay.add("CARD", 2L, 11L, 2L, 1000L, from - 1000);
+            replay.add("CARD", 3L, 11L, 3L, 1000L, from);
+            return null;
+        }).when(historyRepository).forEachTransfer(eq(FROM.minusDays(1)), eq(FROM.plusDays(1)), any());
+
+        final BacktestResultDto result = backtestService.run(new BacktestRequestDto(FROM, FROM.plusDays(1),
+                List.of(getRule("card-burst", VelocityDimension.CARD))));
+
+        assertEquals(1L, result.getTransfers());
+        assertEquals(1L, result.getFlagged());
+        assertEquals(1L, result.getRuleHits().get("card-burst"));
+    }
+
+    @DisplayName("Без помеченных переводов точность не определена")
+    @Test
+    void runEmptyTest() {
+        final BacktestResultDto result = backtestService.run(new BacktestRequestDto(FROM, FROM.plusDays(1),
+                List.of(getRule("card-burst", VelocityDimension.CARD))));
+
+        assertEquals(0L, result.getTransfers());
+        assertNull(result.getPrecision());
+        assertNull(result.getRecall());
+    }
+
+    @DisplayName("Период, который кончается раньше начала, не принимается")
+    @Test
+    void runInvalidPeriodTest() {
+        assertThrows(ValidationException.class, () -> backtestService.run(new BacktestRequestDto(FROM,
+                FROM.minusDays(1), List.of(getRule("card-burst", VelocityDimension.CARD)))));
+    }
+
+    @DisplayName("Правила-кандидаты проверяются как правила живого потока: повтор имени и правило без порога")
+    @Test
+    void runInvalidRulesTest() {
+        final List<VelocityRule> duplicated = List.of(getRule("card-burst", VelocityDimension.CARD),
+                getRule("card-burst", VelocityDimension.PHONE));
+        final List<VelocityRule> unbounded = List.of(new VelocityRule("card-any", VelocityDimension.CARD,
+                VelocityWindow.MINUTE, null, null, VelocityAction.BLOCK, null));
+
+        assertThrows(ValidationException.class, () -> backtestService.run(new BacktestRequestDto(FROM,
+                FROM.plusDays(1), duplicated)));
+        assertThrows(ValidationException.class, () -> backtestService.run(new BacktestRequestDto(FROM,
+                FROM.plusDays(1), unbounded)));
+    }
+
+    private VelocityRule getRule(String name, VelocityDimension dimension) {
+        return new VelocityRule(name, dimension, VelocityWindow.MINUTE, 2L, null, VelocityAction.BLOCK, null);
+    }
+}
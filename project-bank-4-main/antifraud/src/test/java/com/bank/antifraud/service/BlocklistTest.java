@@ -0,0 +1,50 @@
+package com.bank.antifraud.service;
+
+import com.bank.antifraud.service.blocklist.Blocklist;
+import com.bank.antifraud.service.blocklist.BloomFilter;
+import com.bank.antifraud.service.blocklist.LongHashSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.stream.LongStream;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BlocklistTest {
+    private static final int COUNT = 100_000;
+
+    @DisplayName("Множество содержит все добавленные номера, включая 0, и не содержит других")
+    @Test
+    void longHashSetTest() {
+        final long[] values = {79001234567L, 0L, 4276123412341234L, 79001234567L, -5L};
+        final LongHashSet set = new LongHashSet(values, values.length);
+
+        assertEquals(4, set.size());
+        assertTrue(set.contains(79001234567L));
+        assertTrue(set.contains(0L));
+        assertTrue(set.contains(-5L));
+        assertFalse(set.contains(79001234568L));
+    }
+
+    @DisplayName("Фильтр Блума не даёт ложноотрицательных ответов, ложноположительных - около fpp")
+    @Test
+    void bloomFilterTest() {
+        final BloomFilter filter = new BloomFilter(COUNT, 0.01);
+        LongStream.range(0, COUNT).forEach(filter::put);
+
+        assertTrue(LongStream.range(0, COUNT).allMatch(filter::mightContain));
+        final long falsePositives = LongStream.range(COUNT, COUNT * 2L).filter(filter::mightContain).count();
+        assertTrue(falsePositives < COUNT * 0.02, "ложных срабатываний: " + falsePositives);
+    }
+
+    @DisplayName("Блок-лист находит только свои номера")
+    @Test
+    void blocklistTest() {
+        final long[] values = LongStream.range(0, COUNT).map(i -> 79_000_000_000L + i * 7).toArray();
+        final Blocklist blocklist = new Blocklist(values, values.length, 0.01);
+
+        assertEquals(COUNT, blocklist.size());
+        assertTrue(LongStream.of(values).allMatch(blocklist::contains));
+        assertFalse(blocklist.contains(79_000_000_001L));
+    }
+}
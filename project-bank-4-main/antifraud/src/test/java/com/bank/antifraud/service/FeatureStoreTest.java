@@ -0,0 +1,132 @@
+package com.bank.antifraud.service;
+
+import com.bank.antifraud.dto.FeatureDto;
+import com.bank.antifraud.dto.TransferEventDto;
+import com.bank.antifraud.service.feature.FeatureStore;
+import com.bank.antifraud.service.scoring.VelocityDimension;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FeatureStoreTest {
+    private final FeatureStore featureStore = new FeatureStore(new SimpleMeterRegistry(), 8, "", 60_000L, 1000, 2);
+
+    @DisplayName("Статистики сумм переводов со счёта")
+    @Test
+    void recordAccountTest() {
+        featureStore.record(getEvent(1L, "CARD", 11L, "10.00"));
+        featureStore.record(getEvent(2L, "CARD", 12L, "20.00"));
+        featureStore.record(getEvent(3L, "PHONE", 11L, "30.00"));
+
+        final FeatureDto features = featureStore.find(VelocityDimension.ACCOUNT, 1L).orElseThrow();
+        assertEquals(3L, features.getCount());
+        assertEquals(new BigDecimal("60.00"), features.getSum());
+        assertEquals(new BigDecimal("20.00"), features.getMean());
+        assertEquals(new BigDecimal("100.00"), features.getVariance());
+        assertEquals(new BigDecimal("30.00"), features.getMaxAmount());
+        assertEquals(3L, features.getDistinctCounterparties());
+    }
+
+    @DisplayName("Количество различных отправителей на карту оценивается с ошибкой в несколько процентов")
+    @Test
+    void distinctCounterpartiesTest() {
+        for (long account = 1; account <= 10_000; account++) {
+            featureStore.record(getEvent(account, "CARD", 11L, "10.00"));
+            featureStore.record(getEvent(account, "CARD", 11L, "10.00"));
+        }
+
+        final FeatureDto features = featureStore.find(VelocityDimension.CARD, 11L).orElseThrow();
+        assertEquals(20_000L, features.getCount());
+        assertTrue(Math.abs(features.getDistinctCounterparties() - 10_000) < 10_000 * 0.2);
+    }
+
+    @DisplayName("Признаки неизвестного ключа не найдены")
+    @Test
+    void findMissingTest() {
+        assertTrue(featureStore.find(VelocityDimension.PHONE, 79990000000L).isEmpty());
+    }
+
+    @DisplayName("Отклонение суммы считается в стандартных отклонениях, пока переводов меньше min-count - 0")
+    @Test
+    void deviationTest() {
+        featureStore.record(getEvent(1L, "CARD", 11L, "10.00"));
+        assertEquals(0.0, featureStore.deviation(VelocityDimension.CARD, 11L, 5_000L));
+
+        featureStore.record(getEvent(1L, "CARD", 11L, "12.00"));
+        featureStore.record(getEvent(1L, "CARD", 11L, "11.00"));
+        assertEquals(2.5, featureStore.deviation(VelocityDimension.CARD, 11L, 1_350L), 1e-9);
+        assertEquals(0.0, featureStore.deviation(VelocityDimension.CARD, 12L, 1_350L));
+    }
+
+    @DisplayName("Признаки сохраняются в снимок и загружаются при старте")
+    @Test
+    void snapshotRestoreTest(@TempDir Path directory) {
+        final String file = directory.resolve("features.bin").toString();
+        final FeatureStore saved = new FeatureStore(new SimpleMeterRegistry(), 8, file, 60_000L, 1000, 2);
+        saved.record(getEvent(1L, "PHONE", 79990000000L, "15.50"));
+        saved.snapshot();
+
+        final FeatureStore restored = new FeatureStore(new SimpleMeterRegistry(), 8, file, 60_000L, 1000, 2);
+        restored.restore();
+        final FeatureDto features = restored.find(VelocityDimension.PHONE, 79990000000L).orElseThrow();
+        assertEquals(1L, features.getCount());
+        assertEquals(new BigDecimal("15.50"), features.getSum());
+        assertEquals(1L, features.getDistinctCounterparties());
+        assertTrue(restored.find(VelocityDimension.ACCOUNT, 1L).isPresent());
+    }
+
+    @DisplayName("Ключи без переводов дольше idle-ttl-ms удаляются, остальные сохраняют признаки")
+    @Test
+    void evictIdleTest() {
+        final LocalDateTime now = LocalDateTime.now();
+        featureStore.record(getEvent(1L, "CARD", 11L, "10.00", now.minusMinutes(2)));
+        featureStore.record(getEvent(2L, "CARD", 12L, "20.00", now));
+        featureStore.record(getEvent(2L, "PHONE", 79990000000L, "30.00", now));
+
+        featureStore.evictIdle();
+
+        assertTrue(featureStore.find(VelocityDimension.ACCOUNT, 1L).isEmpty());
+        assertTrue(featureStore.find(VelocityDimension.CARD, 11L).isEmpty());
+        final FeatureDto features = featureStore.find(VelocityDimension.ACCOUNT, 2L).orElseThrow();
+        assertEquals(2L, features.getCount());
+        assertEquals(new BigDecimal("50.00"), features.getSum());
+        assertEquals(2L, features.getDistinctCounterparties());
+    }
+
+    @DisplayName("Сверх max-keys удаляются самые давние ключи, запись удалённого ключа переиспользуется с нуля")
+    @Test
+    void evictOverLimitTest() {
+        final FeatureStore limited = new FeatureStore(new SimpleMeterRegistry(), 8, "", Long.MAX_VALUE / 2, 2, 2);
+        final LocalDateTime now = LocalDateTime.now();
+        limited.record(getEvent(1L, "CARD", 11L, "10.00", now.minusSeconds(2)));
+        limited.record(getEvent(2L, "CARD", 12L, "20.00", now.minusSeconds(1)));
+        limited.record(getEvent(3L, "CARD", 13L, "30.00", now));
+
+        limited.evictIdle();
+        limited.record(getEvent(4L, "CARD", 14L, "40.00", now));
+
+        assertTrue(limited.find(VelocityDimension.ACCOUNT, 1L).isEmpty());
+        assertEquals(new BigDecimal("20.00"), limited.find(VelocityDimension.ACCOUNT, 2L).orElseThrow().getSum());
+        assertEquals(new BigDecimal("30.00"), limited.find(VelocityDimension.ACCOUNT, 3L).orElseThrow().getSum());
+        final FeatureDto features = limited.find(VelocityDimension.ACCOUNT, 4L).orElseThrow();
+        assertEquals(1L, features.getCount());
+        assertEquals(new BigDecimal("40.00"), features.getMaxAmount());
+        assertEquals(1L, features.getDistinctCounterparties());
+    }
+
+    private TransferEventDto getEvent(Long accountDetailsId, String channel, Long recipientNumber, String amount) {
+        return getEvent(accountDetailsId, channel, recipientNumber, amount, LocalDateTime.of(2023, 1, 1, 12, 0));
+    }
+
+    private TransferEventDto getEvent(Long accountDetailsId, String channel, Long recipientNumber, String amount,
+                                      LocalDateTime createdAt) {
+        return new TransferEventDto(1L, channel, 1L, recipientNumber,
+                new BigDecimal(amount), "перевод", accountDetailsId, createdAt);
+    }
+}
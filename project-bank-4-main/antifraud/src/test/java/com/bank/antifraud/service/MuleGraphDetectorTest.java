@@ -0,0 +1,170 @@
+package com.bank.antifraud.service;
+
+import com.bank.antifraud.dto.FraudDecisionDto;
+import com.bank.antifraud.dto.TransferEventDto;
+import com.bank.antifraud.repository.AccountLookupRepository;
+import com.bank.antifraud.service.graph.GraphProperties;
+import com.bank.antifraud.service.graph.MuleGraphDetector;
+import com.bank.antifraud.service.graph.NodeKind;
+import com.bank.antifraud.service.graph.TransferGraph;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MuleGraphDetectorTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 1, 1, 12, 0);
+
+    private static final long ACCOUNT_NUMBER_OFFSET = 1000L;
+
+    private final MuleGraphDetector detector = new MuleGraphDetector(getProperties(), getAccountLookup(),
+            new SimpleMeterRegistry());
+
+    @DisplayName("Переводы без схемы не помечаются")
+    @Test
+    void detectCleanTest() {
+        assertTrue(detector.detect(List.of(getEvent(1L, "CARD", 11L, 1L, NOW),
+                getEvent(2L, "CARD", 11L, 2L, NOW))).isEmpty());
+    }
+
+    @DisplayName("Переводы со счёта трём разным получателям, помечается вся схема, затем только новые переводы")
+    @Test
+    void detectFanOutTest() {
+        assertTrue(detector.detect(List.of(getEvent(1L, "CARD", 11L, 1L, NOW),
+                getEvent(2L, "CARD", 11L, 1L, NOW), getEvent(3L, "CARD", 12L, 1L, NOW))).isEmpty());
+
+        final List<FraudDecisionDto> decisions = detector.detect(List.of(getEvent(4L, "CARD", 13L, 1L, NOW)));
+        assertEquals(List.of(4L, 3L, 2L), transferIds(decisions));
+        assertTrue(decisions.get(0).getSuspiciousReason().startsWith("graph: fan-out на 3 получателей"));
+
+        assertEquals(List.of(5L), transferIds(detector.detect(List.of(getEvent(5L, "CARD", 14L, 1L, NOW)))));
+    }
+
+    @DisplayName("Переводы на телефон с трёх счетов, помечается вся схема")
+    @Test
+    void detectFanInTest() {
+        final List<FraudDecisionDto> decisions = detector.detect(List.of(getEvent(1L, "PHONE", 555L, 1L, NOW),
+                getEvent(2L, "PHONE", 555L, 2L, NOW), getEvent(3L, "PHONE", 555L, 3L, NOW)));
+        assertEquals(List.of(3L, 2L, 1L), transferIds(decisions));
+        assertTrue(decisions.get(0).getSuspiciousReason().startsWith("graph: fan-in от 3 отправителей"));
+        assertEquals("PHONE", decisions.get(0).getChannel());
+    }
+
+    @DisplayName("Цикл переводов между счетами банка, помечаются все переводы цикла")
+    @Test
+    void detectCycleTest() {
+        final List<FraudDecisionDto> decisions = detector.detect(List.of(
+                getEvent(1L, "ACCOUNT", ACCOUNT_NUMBER_OFFSET + 2, 1L, NOW),
+                getEvent(2L, "ACCOUNT", ACCOUNT_NUMBER_OFFSET + 3, 2L, NOW),
+                getEvent(3L, "ACCOUNT", ACCOUNT_NUMBER_OFFSET + 1, 3L, NOW)));
+        assertEquals(List.of(1L, 2L, 3L), transferIds(decisions).stream().sorted().toList());
+        assertTrue(decisions.get(0).getSuspiciousReason().startsWith("graph: цикл из 3 переводов"));
+    }
+
+    @DisplayName("Переводы за пределами окна не участвуют в схеме")
+    @Test
+    void detectOutsideWindowTest() {
+        detector.detect(List.of(getEvent(1L, "CARD", 11L, 1L, NOW.minusDays(2)),
+                getEvent(2L, "CARD", 12L, 1L, NOW.minusDays(2))));
+        assertTrue(detector.detect(List.of(getEvent(3L, "CARD", 13L, 1L, NOW))).isEmpty());
+    }
+
+    @DisplayName("Новое ребро вытесняет самое старое при заполнении графа")
+    @Test
+    void graphEvictionTest() {
+        final TransferGraph graph = new TransferGraph(2, 0L);
+        final int source = graph.vertex(NodeKind.ACCOUNT, 1L);
+        graph.addEdge(source, graph.vertex(NodeKind.CARD, 11L), 1000L, 1L);
+        graph.addEdge(source, graph.vertex(NodeKind.CARD, 12L), 2000L, 2L);
+        graph.addEdge(source, graph.vertex(NodeKind.CARD, 13L), 3000L, 3L);
+
+        final int newest = graph.first(source, true, 0);
+        final int older = graph.next(newest, true, 0);
+        assertEquals(3L, graph.transferId(newest));
+        assertEquals(2L, graph.transferId(older));
+        assertEquals(TransferGraph.NONE, graph.next(older, true, 0));
+
+        graph.compact(0);
+        assertEquals(2, graph.edgeCount());
+        assertEquals(3, graph.vertexCount());
+        assertEquals(3L, graph.transferId(graph.first(graph.vertex(NodeKind.ACCOUNT, 1L), true, 0)));
+    }
+
+    @DisplayName("Цикл находится, даже если его вершина раньше пройдена глубже по другому пути")
+    @Test
+    void detectCycleRevisitedTest() {
+        final List<FraudDecisionDto> decisions = detector.detect(List.of(
+                getEvent(1L, "ACCOUNT", ACCOUNT_NUMBER_OFFSET + 5, 4L, NOW),
+                getEvent(2L, "ACCOUNT", ACCOUNT_NUMBER_OFFSET + 1, 5L, NOW),
+                getEvent(3L, "ACCOUNT", ACCOUNT_NUMBER_OFFSET + 4, 2L, NOW),
+                getEvent(4L, "ACCOUNT", ACCOUNT_NUMBER_OFFSET + 3, 2L, NOW),
+                getEvent(5L, "ACCOUNT", ACCOUNT_NUMBER_OFFSET + 4, 3L, NOW),
+                getEvent(6L, "ACCOUNT", ACCOUNT_NUMBER_OFFSET + 2, 1L, NOW)));
+        assertEquals(List.of(1L, 2L, 3L, 6L), transferIds(decisions).stream().sorted().toList());
+        assertTrue(decisions.get(0).getSuspiciousReason().startsWith("graph: цикл из 4 переводов"));
+    }
+
+    @DisplayName("Уплотнение удаляет вершины без рёбер в окне, оставшиеся вершины и рёбра обходятся как прежде")
+    @Test
+    void graphCompactTest() {
+        final TransferGraph graph = new TransferGraph(10, 0L);
+        final int first = graph.vertex(NodeKind.ACCOUNT, 1L);
+        graph.addEdge(first, graph.vertex(NodeKind.CARD, 11L), 1000L, 1L);
+        graph.addEdge(graph.vertex(NodeKind.ACCOUNT, 2L), graph.vertex(NodeKind.CARD, 12L), 100_000L, 2L);
+        graph.addEdge(first, graph.vertex(NodeKind.CARD, 13L), 100_000L, 3L);
+
+        graph.compact(graph.toSeconds(50_000L));
+
+        assertEquals(4, graph.vertexCount());
+        assertEquals(3, graph.edgeCount());
+        final int source = graph.vertex(NodeKind.ACCOUNT, 1L);
+        final int edge = graph.first(source, true, 0);
+        assertEquals(3L, graph.transferId(edge));
+        assertEquals(13L, graph.key(graph.to(edge)));
+        assertEquals(TransferGraph.NONE, graph.next(edge, true, 0));
+        assertEquals(2L, graph.transferId(graph.first(graph.vertex(NodeKind.CARD, 12L), false, 0)));
+        assertEquals(4, graph.vertexCount());
+        graph.vertex(NodeKind.CARD, 11L);
+        assertEquals(5, graph.vertexCount());
+    }
+
+    private List<Long> transferIds(List<FraudDecisionDto> decisions) {
+        return decisions.stream().map(FraudDecisionDto::getTransferId).toList();
+    }
+
+    private GraphProperties getProperties() {
+        final GraphProperties properties = new GraphProperties();
+        properties.setMaxEdges(1000);
+        properties.setFanOutThreshold(3);
+        properties.setFanInThreshold(3);
+        return properties;
+    }
+
+    // счёт банка с id N имеет номер ACCOUNT_NUMBER_OFFSET + N
+    private AccountLookupRepository getAccountLookup() {
+        final AccountLookupRepository accountLookup = mock(AccountLookupRepository.class);
+        when(accountLookup.findIdsByAccountNumbers(anyCollection())).thenAnswer(invocation -> {
+            final Collection<Long> numbers = invocation.getArgument(0);
+            return numbers.stream().collect(Collectors.toMap(Function.identity(),
+                    number -> number - ACCOUNT_NUMBER_OFFSET));
+        });
+        return accountLookup;
+    }
+
+    private TransferEventDto getEvent(Long transferId, String channel, Long recipientNumber,
+                                      Long accountDetailsId, LocalDateTime createdAt) {
+        return new TransferEventDto(transferId, channel, transferId, recipientNumber,
+                new BigDecimal("10.00"), "перевод", accountDetailsId, createdAt);
+    }
+}
@@ -5,6 +5,7 @@ import com.bank.antifraud.entity.SuspiciousAccountTransferEntity;
 import com.bank.antifraud.mappers.SuspiciousAccountTransferMapper;
 import com.bank.antifraud.repository.SuspiciousAccountTransferRepository;
 import com.bank.antifraud.service.impl.SuspiciousAccountTransferServiceImpl;
+import com.bank.common.reader.BulkReader;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +19,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.isNull;
 import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anyLong;
 
@@ -28,6 +33,8 @@ public class SuspiciousAccountTransferServiceTest {
     private SuspiciousAccountTransferRepository suspiciousAccountTransferRepository;
     @Mock
     private SuspiciousAccountTransferMapper suspiciousAccountTransferMapper;
+    @Mock
+    private BulkReader bulkReader;
     @InjectMocks
     private SuspiciousAccountTransferServiceImpl suspiciousAccountTransferService;
 
@@ -82,8 +89,8 @@ public class SuspiciousAccountTransferServiceTest {
     @Test
     void findAllByIdTest () {
         List<Long> ids = Arrays.asList(1L, 2L);
-        when(suspiciousAccountTransferRepository.findById(ids.get(0))).thenReturn(Optional.of(getEntity()));
-        when(suspiciousAccountTransferRepository.findById(ids.get(1))).thenReturn(Optional.of(getEntity()));
+        when(bulkReader.findAllById(eq(SuspiciousAccountTransferEntity.class), any(), eq(ids), anyString()))
+                .thenReturn(Arrays.asList(getEntity(), getEntity()));
         when(suspiciousAccountTransferMapper.toListDto(anyList())).thenReturn(Arrays.asList(getDto(),getDto()));
         List<SuspiciousAccountTransferDto> actualDtos = suspiciousAccountTransferService.findAllById(ids);
         assertEquals(2, actualDtos.size());
@@ -94,6 +101,8 @@ public class SuspiciousAccountTransferServiceTest {
     @DisplayName("Поиск всех пользователей по Id, негативный сценарий")
     @Test
     void findAllThrowsNullException () {
+        when(bulkReader.findAllById(eq(SuspiciousAccountTransferEntity.class), any(), isNull(), anyString()))
+                .thenThrow(NullPointerException.class);
         assertThrows(NullPointerException.class,()->suspiciousAccountTransferService.findAllById(null));
     }
 
@@ -115,7 +124,8 @@ public class SuspiciousAccountTransferServiceTest {
                 true,
                 true,
                 "because",
-                "because"
+                "because",
+                null
         );
     }
 }
@@ -5,6 +5,7 @@ import com.bank.antifraud.entity.SuspiciousCardTransferEntity;
 import com.bank.antifraud.mappers.SuspiciousCardTransferMapper;
 import com.bank.antifraud.repository.SuspiciousCardTransferRepository;
 import com.bank.antifraud.service.impl.SuspiciousCardTransferServiceImpl;
+import com.bank.common.reader.BulkReader;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +19,10 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.isNull;
 import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anyLong;
 
@@ -27,6 +32,8 @@ public class SuspiciousCardTransferServiceTest {
     private SuspiciousCardTransferRepository suspiciousCardTransferRepository;
     @Mock
     private SuspiciousCardTransferMapper suspiciousCardTransferMapper;
+    @Mock
+    private BulkReader bulkReader;
     @InjectMocks
     private SuspiciousCardTransferServiceImpl suspiciousCardTransferService;
 
@@ -82,8 +89,8 @@ public class SuspiciousCardTransferServiceTest {
     @Test
     void findAllByIdTest () {
         List<Long> ids = Arrays.asList(1L, 2L);
-        when(suspiciousCardTransferRepository.findById(ids.get(0))).thenReturn(Optional.of(getEntity()));
-        when(suspiciousCardTransferRepository.findById(ids.get(1))).thenReturn(Optional.of(getEntity()));
+        when(bulkReader.findAllById(eq(SuspiciousCardTransferEntity.class), any(), eq(ids), anyString()))
+                .thenReturn(Arrays.asList(getEntity(), getEntity()));
         when(suspiciousCardTransferMapper.toListDto(anyList())).thenReturn(Arrays.asList(getDto(),getDto()));
         List<SuspiciousCardTransferDto> actualDtos = suspiciousCardTransferService.findAllById(ids);
         assertEquals(2, actualDtos.size());
@@ -94,6 +101,8 @@ public class SuspiciousCardTransferServiceTest {
     @DisplayName("Поиск всех пользователей по Id, негативный сценарий")
     @Test
     void findAllThrowsNullException () {
+        when(bulkReader.findAllById(eq(SuspiciousCardTransferEntity.class), any(), isNull(), anyString()))
+                .thenThrow(NullPointerException.class);
         assertThrows(NullPointerException.class,()->suspiciousCardTransferService.findAllById(null));
     }
 
@@ -115,7 +124,8 @@ public class SuspiciousCardTransferServiceTest {
                 true,
                 true,
                 "because",
-                "because"
+                "because",
+                null
         );
     }
 }
@@ -5,6 +5,7 @@ import com.bank.antifraud.entity.SuspiciousPhoneTransferEntity;
 import com.bank.antifraud.mappers.SuspiciousPhoneTransferMapper;
 import com.bank.antifraud.repository.SuspiciousPhoneTransferRepository;
 import com.bank.antifraud.service.impl.SuspiciousPhoneTransferServiceImpl;
+import com.bank.common.reader.BulkReader;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +19,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.isNull;
 import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.anyList;
 
@@ -27,6 +32,8 @@ public class SuspiciousPhoneTransferServiceTest {
     private SuspiciousPhoneTransferRepository suspiciousPhoneTransferRepository;
     @Mock
     private SuspiciousPhoneTransferMapper suspiciousPhoneTransferMapper;
+    @Mock
+    private BulkReader bulkReader;
     @InjectMocks
     private SuspiciousPhoneTransferServiceImpl suspiciousPhoneTransferService;
 
@@ -82,8 +89,8 @@ public class SuspiciousPhoneTransferServiceTest {
     @Test
     void findAllByIdTest () {
         List<Long> ids = Arrays.asList(1L, 2L);
-        when(suspiciousPhoneTransferRepository.findById(ids.get(0))).thenReturn(Optional.of(getEntity()));
-        when(suspiciousPhoneTransferRepository.findById(ids.get(1))).thenReturn(Optional.of(getEntity()));
+        when(bulkReader.findAllById(eq(SuspiciousPhoneTransferEntity.class), any(), eq(ids), anyString()))
+                .thenReturn(Arrays.asList(getEntity(), getEntity()));
         when(suspiciousPhoneTransferMapper.toListDto(anyList())).thenReturn(Arrays.asList(getDto(),getDto()));
         List<SuspiciousPhoneTransferDto> actualDtos = suspiciousPhoneTransferService.findAllById(ids);
         assertEquals(2, actualDtos.size());
@@ -94,6 +101,8 @@ public class SuspiciousPhoneTransferServiceTest {
     @DisplayName("Поиск всех пользователей по Id, негативный сценарий")
     @Test
     void findAllThrowsNullException () {
+        when(bulkReader.findAllById(eq(SuspiciousPhoneTransferEntity.class), any(), isNull(), anyString()))
+                .thenThrow(NullPointerException.class);
         assertThrows(NullPointerException.class,()->suspiciousPhoneTransferService.findAllById(null));
     }
 
@@ -115,7 +124,8 @@ public class SuspiciousPhoneTransferServiceTest {
                 true,
                 true,
                 "because",
-                "because"
+                "because",
+                null
         );
     }
 }
@@ -0,0 +1,197 @@
+package com.bank.antifraud.service;
+
+import com.bank.antifraud.dto.FraudDecisionDto;
+import com.bank.antifraud.dto.TransferEventDto;
+import com.bank.antifraud.repository.AccountLookupRepository;
+import com.bank.antifraud.repository.BlocklistRepository;
+import com.bank.antifraud.repository.FraudDecisionRepository;
+import com.bank.antifraud.repository.ProcessedEventRepository;
+import com.bank.antifraud.service.blocklist.BlocklistService;
+import com.bank.antifraud.service.common.ExceptionReturner;
+import com.bank.antifraud.service.feature.FeatureStore;
+import com.bank.antifraud.service.graph.GraphProperties;
+import com.bank.antifraud.service.graph.MuleGraphDetector;
+import com.bank.antifraud.service.impl.TransferEventServiceImpl;
+import com.bank.antifraud.service.queue.DecisionQueue;
+import com.bank.antifraud.service.scoring.VelocityProperties;
+import com.bank.antifraud.service.scoring.VelocityScoringEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.persistence.EntityNotFoundException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TransferEventServiceTest {
+    private final ProcessedEventRepository processedEvents = mock(ProcessedEventRepository.class);
+    private final FraudDecisionRepository decisionRepository = mock(FraudDecisionRepository.class);
+
+    private DecisionQueue decisionQueue;
+
+    @AfterEach
+    void stopQueue() throws InterruptedException {
+        decisionQueue.stop();
+    }
+
+    @DisplayName("Приём новых событий, позитивный сценарий")
+    @Test
+    void acceptTest() {
+        assertEquals(2, getService(100, 1).accept(List.of(getEvent(1L), getEvent(2L))));
+    }
+
+    @DisplayName("Повторная доставка событий, повторы отбрасываются")
+    @Test
+    void acceptRedeliveredTest() {
+        final TransferEventService transferEventService = getService(100, 1);
+        transferEventService.accept(List.of(getEvent(1L), getEvent(2L)));
+        assertEquals(1, transferEventService.accept(List.of(getEvent(2L), getEvent(3L))));
+    }
+
+    @DisplayName("Приём событий при заполненной очереди, ожидающее оценки событие не ставится в очередь повторно")
+    @Test
+    void acceptQueueFullTest() {
+        final TransferEventService transferEventService = getService(1, 0);
+        assertThrows(RejectedExecutionException.class,
+                () -> transferEventService.accept(List.of(getEvent(1L), getEvent(2L))));
+        assertTrue(decisionQueue.isPending("ACCOUNT", 1L));
+        assertFalse(decisionQueue.isPending("ACCOUNT", 2L));
+        assertThrows(RejectedExecutionException.class,
+                () -> transferEventService.accept(List.of(getEvent(1L), getEvent(2L))));
+        assertThrows(RejectedExecutionException.class, () -> transferEventService.accept(List.of(getEvent(1L))));
+        verify(processedEvents, never()).saveAll(anyList());
+    }
+
+    @DisplayName("Доставка подтверждается только после записи решений, событие отмечается обработанным")
+    @Test
+    void acceptAfterStoredTest() {
+        final TransferEventService transferEventService = getService(100, 1);
+
+        assertEquals(1, transferEventService.accept(List.of(getEvent(1L))));
+        verify(processedEvents).saveAll(List.of(1L));
+        assertFalse(decisionQueue.isPending("ACCOUNT", 1L));
+    }
+
+    @DisplayName("Событие, обработанное другим экземпляром или до перезапуска, не оценивается повторно")
+    @Test
+    void acceptProcessedElsewhereTest() {
+        final TransferEventService transferEventService = getService(100, 0);
+        when(processedEvents.findProcessed(List.of(1L, 2L))).thenReturn(Set.of(1L));
+
+        assertThrows(RejectedExecutionException.class,
+                () -> transferEventService.accept(List.of(getEvent(1L), getEvent(2L))));
+        assertFalse(decisionQueue.isPending("ACCOUNT", 1L));
+        assertTrue(decisionQueue.isPending("ACCOUNT", 2L));
+    }
+
+    @DisplayName("Решение по принятому событию, ожидание оценки и результат")
+    @Test
+    void findDecisionTest() throws InterruptedException {
+        final TransferEventService transferEventService = getService(100, 1);
+        transferEventService.accept(List.of(getEvent(1L)));
+
+        Optional<FraudDecisionDto> decision = transferEventService.findDecision("ACCOUNT", 1L);
+        for (int i = 0; i < 100 && decision.isEmpty(); i++) {
+            Thread.sleep(50);
+            decision = transferEventService.findDecision("ACCOUNT", 1L);
+        }
+        assertTrue(decision.isPresent());
+        assertFalse(decision.get().getIsSuspicious());
+    }
+
+    @DisplayName("Событие, которое не удалось оценить, отбрасывается, очередь продолжает разбираться")
+    @Test
+    void acceptPoisonEventTest() throws InterruptedException {
+        final TransferEventService transferEventService = getService(100, 1);
+        final TransferEventDto poison = getEvent(1L);
+        poison.setAmount(new BigDecimal("10.001"));
+        transferEventService.accept(List.of(poison, getEvent(2L)));
+
+        Optional<FraudDecisionDto> decision = Optional.empty();
+        for (int i = 0; i < 100 && decision.isEmpty(); i++) {
+            Thread.sleep(50);
+            decision = transferEventService.findDecision("ACCOUNT", 2L);
+        }
+        assertTrue(decision.isPresent());
+        assertThrows(EntityNotFoundException.class, () -> transferEventService.findDecision("ACCOUNT", 1L));
+        assertEquals(1, transferEventService.accept(List.of(getEvent(3L))));
+    }
+
+    @DisplayName("Решение по неизвестному переводу, негативный сценарий")
+    @Test
+    void findDecisionNotFoundTest() {
+        final TransferEventService transferEventService = getService(100, 1);
+        assertThrows(EntityNotFoundException.class, () -> transferEventService.findDecision("ACCOUNT", 1L));
+    }
+
+    @DisplayName("Проверка в пределах бюджета, окончательное решение")
+    @Test
+    void checkInBudgetTest() {
+        final FraudDecisionDto decision = getService(100, 1).check(getEvent(1L), 5_000L);
+        assertFalse(decision.getIsSuspicious());
+        assertEquals(1L, decision.getTransferId());
+    }
+
+    @DisplayName("Проверка без обработчиков очереди, предварительное решение, доставка ждёт записи решения")
+    @Test
+    void checkDeadlineExceededTest() {
+        final TransferEventService transferEventService = getService(100, 0);
+        final FraudDecisionDto decision = transferEventService.check(getEvent(1L), 10L);
+
+        assertTrue(decision.getIsSuspicious());
+        assertFalse(decision.getIsBlocked());
+        assertTrue(decision.getSuspiciousReason().startsWith("deadline exceeded"));
+        assertTrue(decision.getIsProvisional());
+        assertThrows(RejectedExecutionException.class, () -> transferEventService.accept(List.of(getEvent(1L))));
+        assertTrue(decisionQueue.isPending("ACCOUNT", 1L));
+    }
+
+    @DisplayName("Предварительное решение снимается перепроверкой без нарушений")
+    @Test
+    void checkProvisionalClearedTest() {
+        final TransferEventService transferEventService = getService(100, 1);
+        transferEventService.check(getEvent(1L), 0L);
+        transferEventService.accept(List.of(getEvent(1L)));
+
+        final FraudDecisionDto decision = transferEventService.findDecision("ACCOUNT", 1L).orElseThrow();
+        assertFalse(decision.getIsSuspicious());
+        assertFalse(decision.getIsProvisional());
+        verify(decisionRepository, never()).saveAll(argThat(decisions -> !decisions.isEmpty()));
+    }
+
+    private TransferEventService getService(int capacity, int workers) {
+        final FeatureStore featureStore = new FeatureStore(new SimpleMeterRegistry(), 8, "", 60_000L, 1000, 10);
+        decisionQueue = new DecisionQueue(
+                new BlocklistService(mock(BlocklistRepository.class), mock(TransactionTemplate.class),
+                        new SimpleMeterRegistry(), "", 0.01),
+                new VelocityScoringEngine(new VelocityProperties(), featureStore, new SimpleMeterRegistry()),
+                new MuleGraphDetector(new GraphProperties(), mock(AccountLookupRepository.class),
+                        new SimpleMeterRegistry()),
+                featureStore,
+                decisionRepository, processedEvents, new SimpleMeterRegistry(),
+                capacity, 1L, 10, workers, 100, 60_000L);
+        decisionQueue.start();
+        return new TransferEventServiceImpl(decisionQueue, processedEvents, new ExceptionReturner(),
+                new SimpleMeterRegistry(), 100, 60_000L, 1_000L, 50L, 10_000L);
+    }
+
+    private TransferEventDto getEvent(Long eventId) {
+        return new TransferEventDto(eventId, "ACCOUNT", eventId, 1234L,
+                new BigDecimal("10.00"), "перевод", 1L, LocalDateTime.of(2023, 1, 1, 12, 0));
+    }
+}
@@ -0,0 +1,161 @@
+package com.bank.antifraud.service;
+
+import com.bank.antifraud.dto.FraudDecisionDto;
+import com.bank.antifraud.dto.TransferEventDto;
+import com.bank.antifraud.service.feature.FeatureStore;
+import com.bank.antifraud.service.scoring.VelocityAction;
+import com.bank.antifraud.service.scoring.VelocityDimension;
+import com.bank.antifraud.service.scoring.VelocityProperties;
+import com.bank.antifraud.service.scoring.VelocityRule;
+import com.bank.antifraud.service.scoring.VelocityScoringEngine;
+import com.bank.antifraud.service.scoring.VelocityWindow;
+import com.bank.common.exception.ValidationException;
+import com.bank.common.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VelocityScoringEngineTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 1, 1, 12, 0);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final FeatureStore featureStore = new FeatureStore(meterRegistry, 8, "", 60_000L, 1000, 2);
+
+    private final VelocityScoringEngine engine =
+            new VelocityScoringEngine(getProperties(), featureStore, meterRegistry);
+
+    @DisplayName("Переводы в пределах порогов не подозрительные")
+    @Test
+    void scoreCleanTest() {
+        final FraudDecisionDto decision = engine.score(getEvent(1L, "CARD", 100L, "10.00", NOW));
+        assertFalse(decision.getIsSuspicious());
+        assertFalse(decision.getIsBlocked());
+        assertNull(decision.getSuspiciousReason());
+    }
+
+    @DisplayName("Превышено количество переводов со счёта за минуту, перевод подозрительный")
+    @Test
+    void scoreAccountCountTest() {
+        engine.score(getEvent(1L, "ACCOUNT", 100L, "10.00", NOW));
+        engine.score(getEvent(2L, "ACCOUNT", 200L, "10.00", NOW.plusSeconds(10)));
+        final FraudDecisionDto decision = engine.score(getEvent(3L, "ACCOUNT", 300L, "10.00", NOW.plusSeconds(20)));
+
+        assertTrue(decision.getIsSuspicious());
+        assertFalse(decision.getIsBlocked());
+        assertEquals(3L, decision.getTransferId());
+        assertTrue(decision.getSuspiciousReason().startsWith("account-burst: 3"));
+    }
+
+    @DisplayName("Переводы старше окна не учитываются")
+    @Test
+    void scoreWindowSlidesTest() {
+        engine.score(getEvent(1L, "ACCOUNT", 100L, "10.00", NOW));
+        engine.score(getEvent(2L, "ACCOUNT", 200L, "10.00", NOW.plusSeconds(10)));
+        final FraudDecisionDto decision = engine.score(getEvent(3L, "ACCOUNT", 300L, "10.00", NOW.plusMinutes(2)));
+
+        assertFalse(decision.getIsSuspicious());
+    }
+
+    @DisplayName("Превышена сумма переводов на карту за сутки, перевод заблокирован")
+    @Test
+    void scoreCardAmountBlockTest() {
+        engine.score(getEvent(1L, "CARD", 4276L, "600.00", NOW));
+        final FraudDecisionDto decision = engine.score(getEvent(2L, "CARD", 4276L, "500.00", NOW.plusHours(3)));
+
+        assertTrue(decision.getIsSuspicious());
+        assertTrue(decision.getIsBlocked());
+        assertEquals(decision.getSuspiciousReason(), decision.getBlockedReason());
+    }
+
+    @DisplayName("Сумма на другую карту считается отдельно")
+    @Test
+    void scoreCardKeysTest() {
+        engine.score(getEvent(1L, "CARD", 4276L, "600.00", NOW));
+        final FraudDecisionDto decision = engine.score(getEvent(2L, "CARD", 5536L, "500.00", NOW));
+
+        assertFalse(decision.getIsBlocked());
+    }
+
+    @DisplayName("Новое правило после перезагрузки видит окна, накопленные до неё")
+    @Test
+    void applyKeepsWindowsTest() {
+        engine.score(getEvent(1L, "CARD", 4276L, "10.00", NOW));
+        engine.score(getEvent(2L, "CARD", 4276L, "10.00", NOW));
+
+        assertEquals(2L, engine.apply(List.of(new VelocityRule("card-burst", VelocityDimension.CARD,
+                VelocityWindow.MINUTE, 2L, null, VelocityAction.BLOCK, null))));
+        final FraudDecisionDto decision = engine.score(getEvent(3L, "CARD", 4276L, "10.00", NOW));
+
+        assertTrue(decision.getIsBlocked());
+        assertTrue(decision.getBlockedReason().startsWith("card-burst: 3"));
+        assertEquals(1.0, meterRegistry.counter("antifraud.rule.hits", "rule", "card-burst").count());
+    }
+
+    @DisplayName("Правило по измерению, у которого до перезагрузки не было правил, видит переводы до неё")
+    @Test
+    void applyNewDimensionTest() {
+        engine.score(getEvent(1L, "PHONE", 79001234567L, "10.00", NOW));
+        engine.score(getEvent(2L, "PHONE", 79001234567L, "10.00", NOW.plusSeconds(10)));
+
+        engine.apply(List.of(new VelocityRule("phone-burst", VelocityDimension.PHONE,
+                VelocityWindow.MINUTE, 2L, null, VelocityAction.SUSPICIOUS, null)));
+        final FraudDecisionDto decision = engine.score(getEvent(3L, "PHONE", 79001234567L, "10.00",
+                NOW.plusSeconds(20)));
+
+        assertTrue(decision.getIsSuspicious());
+        assertTrue(decision.getSuspiciousReason().startsWith("phone-burst: 3"));
+    }
+
+    @DisplayName("Правило с порогом отклонения срабатывает на сумму, нетипичную для карты по её признакам")
+    @Test
+    void scoreDeviationTest() {
+        featureStore.record(getEvent(1L, "CARD", 4276L, "10.00", NOW));
+        featureStore.record(getEvent(2L, "CARD", 4276L, "12.00", NOW));
+        featureStore.record(getEvent(3L, "CARD", 4276L, "11.00", NOW));
+        engine.apply(List.of(new VelocityRule("card-outlier", VelocityDimension.CARD,
+                VelocityWindow.MINUTE, null, null, VelocityAction.SUSPICIOUS, 3.0)));
+
+        assertFalse(engine.score(getEvent(4L, "CARD", 4276L, "11.50", NOW)).getIsSuspicious());
+        assertFalse(engine.score(getEvent(5L, "CARD", 5536L, "100.00", NOW)).getIsSuspicious());
+        final FraudDecisionDto decision = engine.score(getEvent(6L, "CARD", 4276L, "100.00", NOW));
+
+        assertTrue(decision.getIsSuspicious());
+        assertFalse(decision.getIsBlocked());
+        assertEquals("card-outlier: сумма больше средней на 89 станд. откл.", decision.getSuspiciousReason());
+    }
+
+    @DisplayName("Правило без порогов не загружается, действуют прежние правила")
+    @Test
+    void applyInvalidTest() {
+        assertThrows(ValidationException.class, () -> engine.apply(List.of(new VelocityRule("empty",
+                VelocityDimension.CARD, VelocityWindow.MINUTE, null, null, VelocityAction.BLOCK, null))));
+
+        engine.score(getEvent(1L, "CARD", 4276L, "600.00", NOW));
+        assertTrue(engine.score(getEvent(2L, "CARD", 4276L, "500.00", NOW)).getIsBlocked());
+    }
+
+    private VelocityProperties getProperties() {
+        final VelocityProperties properties = new VelocityProperties();
+        properties.setRules(List.of(
+                new VelocityRule("account-burst", VelocityDimension.ACCOUNT, VelocityWindow.MINUTE,
+                        2L, null, VelocityAction.SUSPICIOUS, null),
+                new VelocityRule("card-daily", VelocityDimension.CARD, VelocityWindow.DAY,
+                        null, Money.of("1000.00"), VelocityAction.BLOCK, null)));
+        return properties;
+    }
+
+    private TransferEventDto getEvent(Long transferId, String channel, Long recipientNumber,
+                                      String amount, LocalDateTime createdAt) {
+        return new TransferEventDto(transferId, channel, transferId, recipientNumber,
+                new BigDecimal(amount), "перевод", 1L, createdAt);
+    }
+}
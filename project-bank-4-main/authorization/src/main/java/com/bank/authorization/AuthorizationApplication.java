@@ -5,7 +5,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
 
 @EnableEurekaClient
-@SpringBootApplication(scanBasePackages = { "com.bank.authorization", "com.bank.common.handler" })
+@SpringBootApplication(scanBasePackages = {
+        "com.bank.authorization", "com.bank.common.handler", "com.bank.common.reader", "com.bank.common.retry"
+})
 public class AuthorizationApplication {
     public static void main(String[] args) {
         SpringApplication.run(AuthorizationApplication.class, args);
@@ -13,6 +13,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import java.util.Objects;
 
 /**
@@ -41,6 +42,10 @@ public class UserEntity {
     @Column(name = "password")
     String password;
 
+    @Version
+    @Column(name = "version")
+    Long version;
+
     @Override
     public boolean equals(Object o) {
 
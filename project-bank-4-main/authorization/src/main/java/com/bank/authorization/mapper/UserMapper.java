@@ -25,6 +25,7 @@ public interface UserMapper {
      * @return {@link UserEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     UserEntity toEntity(UserDto user);
 
     /**
@@ -39,5 +40,6 @@ public interface UserMapper {
      * @return {@link UserEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     UserEntity mergeToEntity(UserDto userDto, @MappingTarget UserEntity user);
 }
@@ -4,6 +4,8 @@ import com.bank.authorization.dto.UserDto;
 import com.bank.authorization.entity.UserEntity;
 import com.bank.authorization.mapper.UserMapper;
 import com.bank.authorization.repository.UserRepository;
+import com.bank.common.reader.BulkReader;
+import com.bank.common.retry.OptimisticRetry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,6 +24,7 @@ public class UserServiceImpl implements UserService {
     private final static String ENTITY_CONFLICT_MESSAGE = "Не был найден пользователь с ID ";
     private final UserMapper mapper;
     private final UserRepository repository;
+    private final BulkReader bulkReader;
 
     /**
      * @param id технический идентификатор {@link UserEntity}
@@ -59,6 +62,7 @@ public class UserServiceImpl implements UserService {
      * @return {@link UserDto}
      */
     @Override
+    @OptimisticRetry
     @Transactional
     public UserDto update(Long id, UserDto userDto) {
 
@@ -76,12 +80,8 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public List<UserDto> findAllByIds(List<Long> ids) {
-        final List<UserEntity> users = ids.stream()
-                .map(id -> repository.findById(id)
-                        .orElseThrow(
-                                () -> getEntityException(id))
-                )
-                .toList();
+        final List<UserEntity> users = bulkReader.findAllById(
+                UserEntity.class, UserEntity::getId, ids, ENTITY_CONFLICT_MESSAGE);
 
         return mapper.toDtoList(users);
     }
@@ -21,7 +21,7 @@ public class UserMapperTest {
 
     @BeforeAll
     public static void initData() {
-        userEntity = new UserEntity(id, "Jhon", id, "Doe");
+        userEntity = new UserEntity(id, "Jhon", id, "Doe", null);
         userDto = new UserDto(id, "Jhon", "Doe", id);
     }
 
@@ -66,7 +66,7 @@ public class UserMapperTest {
     void shouldConvertListOfUserEntityToListOfDto() {
         List<UserEntity> userEntityes = List.of(1L, 2L, 3L)
                 .stream().map(
-                        (id) -> new UserEntity(id, userEntity.getRole(), id, userEntity.getPassword()))
+                        (id) -> new UserEntity(id, userEntity.getRole(), id, userEntity.getPassword(), null))
                 .toList();
 
         List<UserDto> currenUserDtos = userMapperForTest.toDtoList(userEntityes);
@@ -1,5 +1,9 @@
 package com.bank.authorization.service;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -23,6 +27,7 @@ import com.bank.authorization.dto.UserDto;
 import com.bank.authorization.entity.UserEntity;
 import com.bank.authorization.mapper.UserMapper;
 import com.bank.authorization.repository.UserRepository;
+import com.bank.common.reader.BulkReader;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("User serive")
@@ -32,6 +37,8 @@ public class UserServiceImplTest {
     private UserMapper mapper;
     @Mock
     private UserRepository repository;
+    @Mock
+    private BulkReader bulkReader;
     @InjectMocks
     private UserServiceImpl userServiceImplForTests;
 
@@ -143,20 +150,17 @@ public class UserServiceImplTest {
     @DisplayName("Получение списка объектов user по id")
     public void shouldReturnTheListOoUsers() {
         List<UserEntity> userEntities = ids.stream().map(
-                (id) -> {
-                    UserEntity currentUserEntity = new UserEntity(id, userEntity.getRole(), id,
-                            userEntity.getPassword());
-                    Optional<UserEntity> optional = Optional.of(currentUserEntity);
-                    when(this.repository.findById(id)).thenReturn(optional);
-                    return currentUserEntity;
-                }).toList();
+                (id) -> new UserEntity(id, userEntity.getRole(), id, userEntity.getPassword(), null)).toList();
+        when(this.bulkReader.findAllById(eq(UserEntity.class), any(), eq(ids), anyString()))
+                .thenReturn(userEntities);
         List<UserDto> userDtos = ids.stream().map(
                 (id) -> new UserDto(id, userDto.getRole(), userEntity.getPassword(), id)).toList();
         when(this.mapper.toDtoList(userEntities)).thenReturn(userDtos);
 
         List<UserDto> currenUserDtos = this.userServiceImplForTests.findAllByIds(ids);
 
-        ids.forEach((id) -> verify(this.repository, times(1)).findById(id));
+        verify(this.bulkReader, times(1))
+                .findAllById(eq(UserEntity.class), any(), eq(ids), eq("Не был найден пользователь с ID "));
         Assertions.assertNotNull(currenUserDtos);
         Assertions.assertIterableEquals(
                 userDtos.stream().map((userDto) -> userDto.getId()).toList(),
@@ -166,6 +170,9 @@ public class UserServiceImplTest {
     @Test
     @DisplayName("Получение списка объектов user по id, негативный сценарий")
     public void theMethodFindAllByIdsShouldReturnException() {
+        when(this.bulkReader.findAllById(eq(UserEntity.class), any(), isNull(), anyString()))
+                .thenThrow(NullPointerException.class);
+
         Exception exception = Assertions.assertThrows(NullPointerException.class, () -> {
             this.userServiceImplForTests.findAllByIds(null);
         });
@@ -176,11 +183,14 @@ public class UserServiceImplTest {
     @Test
     @DisplayName("Получение списка объектов user по id, негативный сценарий")
     public void theMethodFindAllByIdsShouldReturnEntityNotFoundException() {
+        String exceptionMessage = "Не был найден пользователь с ID 1, 2, 3";
+        when(this.bulkReader.findAllById(eq(UserEntity.class), any(), eq(ids), anyString()))
+                .thenThrow(new EntityNotFoundException(exceptionMessage));
+
         Exception exception = Assertions.assertThrows(EntityNotFoundException.class, () -> {
             this.userServiceImplForTests.findAllByIds(ids);
         });
 
-        String exceptionMessage = "Не был найден пользователь с ID " + ids.get(0);
         String currentExceptionMessage = exception.getMessage();
 
         Assertions.assertEquals(exceptionMessage, currentExceptionMessage);
@@ -0,0 +1,39 @@
+package com.bank.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Точка входа benchmarks.jar. Принимает обычные параметры JMH, но по умолчанию пишет результаты
+ * в jmh-result.json, чтобы сравнивать их между релизами. Справка JMH:
+ * java -cp benchmarks.jar org.openjdk.jmh.Main -h
+ */
+public final class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT = "jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * @param args параметры JMH, например "-f 1 -wi 3 -i 5 MapperBenchmark"
+     * @throws CommandLineOptionException некорректные параметры
+     * @throws RunnerException            ошибка запуска бенчмарков
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        final Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(commandLine.getResult().orElse(DEFAULT_RESULT))
+                .build();
+
+        new Runner(options).run();
+    }
+}
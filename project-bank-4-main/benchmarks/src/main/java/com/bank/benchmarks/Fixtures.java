@@ -0,0 +1,112 @@
+package com.bank.benchmarks;
+
+import com.bank.authorization.entity.UserEntity;
+import com.bank.common.money.Money;
+import com.bank.profile.entity.ActualRegistrationEntity;
+import com.bank.profile.entity.PassportEntity;
+import com.bank.profile.entity.ProfileEntity;
+import com.bank.profile.entity.RegistrationEntity;
+import com.bank.transfer.entity.AccountTransferEntity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Заполненные сущности для бенчмарков. Поля зависят от id, чтобы сущности с разными id не совпадали.
+ */
+public final class Fixtures {
+
+    private static final String COUNTRY = "Россия";
+
+    private static final String CITY = "Москва";
+
+    private Fixtures() {
+    }
+
+    /**
+     * @param id технический идентификатор
+     * @return {@link AccountTransferEntity}
+     */
+    public static AccountTransferEntity accountTransfer(long id) {
+        final AccountTransferEntity transfer = new AccountTransferEntity();
+        transfer.setId(id);
+        transfer.setAccountNumber(4081781009991000L + id);
+        transfer.setAmount(Money.ofMinor(150_025 + id));
+        transfer.setPurpose("перевод между своими счетами");
+        transfer.setAccountDetailsId(id % 1000);
+        transfer.setCreatedAt(LocalDateTime.of(2023, 1, 1, 0, 0).plusSeconds(id));
+        transfer.setVersion(0L);
+        return transfer;
+    }
+
+    /**
+     * @param id технический идентификатор
+     * @return {@link ProfileEntity} с паспортом, регистрацией и фактической регистрацией
+     */
+    public static ProfileEntity profile(long id) {
+        final ProfileEntity profile = new ProfileEntity();
+        profile.setId(id);
+        profile.setPhoneNumber(79_000_000_000L + id);
+        profile.setEmail("user" + id + "@bank.com");
+        profile.setNameOnCard("IVAN IVANOV");
+        profile.setInn(7_700_000_000L + id);
+        profile.setSnils(10_000_000_000L + id);
+        profile.setPassport(passport(id));
+        profile.setActualRegistration(actualRegistration(id));
+        profile.setVersion(0L);
+        return profile;
+    }
+
+    /**
+     * @param id технический идентификатор
+     * @return {@link UserEntity}
+     */
+    public static UserEntity user(long id) {
+        return new UserEntity(id, "ROLE_USER", id, "password" + id, 0L);
+    }
+
+    private static PassportEntity passport(long id) {
+        final PassportEntity passport = new PassportEntity();
+        passport.setId(id);
+        passport.setSeries(4510);
+        passport.setNumber(100_000L + id);
+        passport.setLastName("Иванов");
+        passport.setFirstName("Иван");
+        passport.setMiddleName("Иванович");
+        passport.setGender("М");
+        passport.setBirthDate(LocalDate.of(1990, 1, 1));
+        passport.setBirthPlace(CITY);
+        passport.setIssuedBy("ОВД района Арбат");
+        passport.setDateOfIssue(LocalDate.of(2010, 1, 1));
+        passport.setDivisionCode(770_001);
+        passport.setExpirationDate(LocalDate.of(2035, 1, 1));
+        passport.setRegistration(registration(id));
+        return passport;
+    }
+
+    private static RegistrationEntity registration(long id) {
+        final RegistrationEntity registration = new RegistrationEntity();
+        registration.setId(id);
+        registration.setCountry(COUNTRY);
+        registration.setRegion(CITY);
+        registration.setCity(CITY);
+        registration.setStreet("Арбат");
+        registration.setHouseNumber(String.valueOf(id % 100));
+        registration.setFlatNumber(String.valueOf(id));
+        registration.setIndex(119_002L);
+        return registration;
+    }
+
+    private static ActualRegistrationEntity actualRegistration(long id) {
+        final ActualRegistrationEntity registration = new ActualRegistrationEntity();
+        registration.setId(id);
+        registration.setCountry(COUNTRY);
+        registration.setRegion(CITY);
+        registration.setCity(CITY);
+        registration.setStreet("Тверская");
+        registration.setHouseNumber(String.valueOf(id % 100));
+        registration.setFlatNumber(String.valueOf(id));
+        registration.setIndex(125_009L);
+        return registration;
+    }
+}
@@ -0,0 +1,105 @@
+package com.bank.benchmarks.entity;
+
+import com.bank.authorization.entity.UserEntity;
+import com.bank.benchmarks.Fixtures;
+import com.bank.profile.entity.ProfileEntity;
+import com.bank.transfer.entity.AccountTransferEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * equals и hashCode сущностей. Рукописные hashCode считаются через Objects.hash и выделяют массив
+ * аргументов на каждый вызов, ломбоковские у профиля обходят паспорт и регистрации целиком.
+ * Аллокации видны с профилировщиком: -prof gc.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EntityEqualityBenchmark {
+
+    private AccountTransferEntity transfer;
+
+    private AccountTransferEntity transferCopy;
+
+    private ProfileEntity profile;
+
+    private ProfileEntity profileCopy;
+
+    private UserEntity user;
+
+    private UserEntity userCopy;
+
+    /**
+     * Пары равных, но не одинаковых сущностей: equals проходит все поля.
+     */
+    @Setup
+    public void setUp() {
+        transfer = Fixtures.accountTransfer(1L);
+        transferCopy = Fixtures.accountTransfer(1L);
+        profile = Fixtures.profile(1L);
+        profileCopy = Fixtures.profile(1L);
+        user = Fixtures.user(1L);
+        userCopy = Fixtures.user(1L);
+    }
+
+    /**
+     * @return хэш {@link AccountTransferEntity}
+     */
+    @Benchmark
+    public int transferHashCode() {
+        return transfer.hashCode();
+    }
+
+    /**
+     * @return результат equals {@link AccountTransferEntity}
+     */
+    @Benchmark
+    public boolean transferEquals() {
+        return transfer.equals(transferCopy);
+    }
+
+    /**
+     * @return хэш {@link ProfileEntity}
+     */
+    @Benchmark
+    public int profileHashCode() {
+        return profile.hashCode();
+    }
+
+    /**
+     * @return результат equals {@link ProfileEntity}
+     */
+    @Benchmark
+    public boolean profileEquals() {
+        return profile.equals(profileCopy);
+    }
+
+    /**
+     * @return хэш {@link UserEntity}
+     */
+    @Benchmark
+    public int userHashCode() {
+        return user.hashCode();
+    }
+
+    /**
+     * @return результат equals {@link UserEntity}
+     */
+    @Benchmark
+    public boolean userEquals() {
+        return user.equals(userCopy);
+    }
+}
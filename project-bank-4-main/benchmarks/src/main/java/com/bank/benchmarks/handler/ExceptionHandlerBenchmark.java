@@ -0,0 +1,94 @@
+package com.bank.benchmarks.handler;
+
+import com.bank.common.exception.ValidationException;
+import com.bank.common.handler.GlobalRestExceptionHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Обработка исключений {@link GlobalRestExceptionHandler}. Каждый обработчик пишет исключение в лог
+ * со стектрейсом; логи бенчмарков уходят в NOPAppender (logback.xml), поэтому меряется построение
+ * события лога без вывода. Варианты *Thrown дополнительно создают исключение со стектрейсом,
+ * как это происходит в сервисе.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExceptionHandlerBenchmark {
+
+    private static final String NOT_FOUND_MESSAGE = "Не найден перевод по номеру счета с ID 1";
+
+    private final GlobalRestExceptionHandler handler = new GlobalRestExceptionHandler();
+
+    private EntityNotFoundException notFound;
+
+    private ValidationException validation;
+
+    private OptimisticLockingFailureException conflict;
+
+    /**
+     * Заранее созданные исключения.
+     */
+    @Setup
+    public void setUp() {
+        notFound = new EntityNotFoundException(NOT_FOUND_MESSAGE);
+        validation = new ValidationException("Сумма перевода должна быть больше нуля");
+        conflict = new OptimisticLockingFailureException("Row was updated or deleted by another transaction");
+    }
+
+    /**
+     * @return {@link ResponseEntity} 404
+     */
+    @Benchmark
+    public ResponseEntity<String> entityNotFound() {
+        return handler.handleEntityNotFound(notFound);
+    }
+
+    /**
+     * @return {@link ResponseEntity} 404
+     */
+    @Benchmark
+    public ResponseEntity<String> entityNotFoundThrown() {
+        return handler.handleEntityNotFound(new EntityNotFoundException(NOT_FOUND_MESSAGE));
+    }
+
+    /**
+     * @return {@link ResponseEntity} 422
+     */
+    @Benchmark
+    public ResponseEntity<String> validation() {
+        return handler.handleValidation(validation);
+    }
+
+    /**
+     * @return {@link ResponseEntity} 409
+     */
+    @Benchmark
+    public ResponseEntity<String> optimisticLockingFailure() {
+        return handler.handleOptimisticLockingFailure(conflict);
+    }
+
+    /**
+     * @return {@link ResponseEntity} 500
+     */
+    @Benchmark
+    public ResponseEntity<Object> unexpected() {
+        return handler.handleException(conflict);
+    }
+}
@@ -0,0 +1,58 @@
+package com.bank.benchmarks.mapper;
+
+import com.bank.benchmarks.Fixtures;
+import com.bank.profile.dto.ProfileDto;
+import com.bank.profile.entity.ProfileEntity;
+import com.bank.profile.mapper.ProfileMapper;
+import com.bank.profile.mapper.ProfileMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * {@link ProfileMapper#toDtoList} на больших списках профилей с паспортом и регистрациями:
+ * так отвечает чтение профилей списком.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProfileMapperBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    int size;
+
+    private final ProfileMapper mapper = new ProfileMapperImpl();
+
+    private List<ProfileEntity> profiles;
+
+    /**
+     * Список из size профилей.
+     */
+    @Setup
+    public void setUp() {
+        profiles = LongStream.rangeClosed(1, size).mapToObj(Fixtures::profile).toList();
+    }
+
+    /**
+     * @return лист {@link ProfileDto}
+     */
+    @Benchmark
+    public List<ProfileDto> toDtoList() {
+        return mapper.toDtoList(profiles);
+    }
+}
@@ -0,0 +1,74 @@
+package com.bank.benchmarks.mapper;
+
+import com.bank.benchmarks.Fixtures;
+import com.bank.common.money.Money;
+import com.bank.transfer.dto.AccountTransferDto;
+import com.bank.transfer.entity.AccountTransferEntity;
+import com.bank.transfer.mapper.AccountTransferMapper;
+import com.bank.transfer.mapper.AccountTransferMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AccountTransferMapper}: маппинг одного перевода в ДТО и слияние ДТО с загруженной сущностью,
+ * как в create и update сервиса переводов.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransferMapperBenchmark {
+
+    private final AccountTransferMapper mapper = new AccountTransferMapperImpl();
+
+    private AccountTransferEntity entity;
+
+    private AccountTransferDto dto;
+
+    /**
+     * Сущность и ДТО с заполненными полями.
+     */
+    @Setup
+    public void setUp() {
+        entity = Fixtures.accountTransfer(1L);
+
+        dto = mapper.toDto(entity);
+        dto.setAmount(Money.ofMinor(200_000));
+    }
+
+    /**
+     * @return {@link AccountTransferDto}
+     */
+    @Benchmark
+    public AccountTransferDto toDto() {
+        return mapper.toDto(entity);
+    }
+
+    /**
+     * @return {@link AccountTransferEntity}
+     */
+    @Benchmark
+    public AccountTransferEntity toEntity() {
+        return mapper.toEntity(dto);
+    }
+
+    /**
+     * @return {@link AccountTransferEntity}
+     */
+    @Benchmark
+    public AccountTransferEntity mergeToEntity() {
+        return mapper.mergeToEntity(dto, entity);
+    }
+}
@@ -0,0 +1,143 @@
+package com.bank.benchmarks.money;
+
+import com.bank.common.money.Money;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Money} против {@link BigDecimal} на операциях пути перевода: суммирование, проверка
+ * достаточности средств, форматирование и запись в JSON. Суммы - от 0.01 до 99 999.99 с двумя знаками.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoneyBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BigDecimal[] decimals = new BigDecimal[SIZE];
+
+    private final Money[] amounts = new Money[SIZE];
+
+    private BigDecimal decimalBalance;
+
+    private Money balance;
+
+    /**
+     * Одинаковые суммы в обоих представлениях.
+     */
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < SIZE; i++) {
+            final long minor = 1 + (i * 7_919L) % 9_999_999L;
+
+            decimals[i] = BigDecimal.valueOf(minor, Money.SCALE);
+            amounts[i] = Money.ofMinor(minor);
+        }
+        decimalBalance = new BigDecimal("500000.00");
+        balance = Money.of(decimalBalance);
+    }
+
+    /**
+     * @return сумма всех BigDecimal
+     */
+    @Benchmark
+    public BigDecimal sumBigDecimal() {
+        BigDecimal sum = BigDecimal.ZERO;
+
+        for (BigDecimal amount : decimals) {
+            sum = sum.add(amount);
+        }
+        return sum;
+    }
+
+    /**
+     * @return сумма всех {@link Money}
+     */
+    @Benchmark
+    public Money sumMoney() {
+        Money sum = Money.ZERO;
+
+        for (Money amount : amounts) {
+            sum = sum.plus(amount);
+        }
+        return sum;
+    }
+
+    /**
+     * @param blackhole приёмник результатов
+     */
+    @Benchmark
+    public void debitCheckBigDecimal(Blackhole blackhole) {
+        for (BigDecimal amount : decimals) {
+            blackhole.consume(decimalBalance.compareTo(amount) >= 0 ? decimalBalance.subtract(amount) : null);
+        }
+    }
+
+    /**
+     * @param blackhole приёмник результатов
+     */
+    @Benchmark
+    public void debitCheckMoney(Blackhole blackhole) {
+        for (Money amount : amounts) {
+            blackhole.consume(balance.isLessThan(amount) ? null : balance.minus(amount));
+        }
+    }
+
+    /**
+     * @param blackhole приёмник результатов
+     */
+    @Benchmark
+    public void formatBigDecimal(Blackhole blackhole) {
+        for (BigDecimal amount : decimals) {
+            blackhole.consume(amount.toPlainString());
+        }
+    }
+
+    /**
+     * @param blackhole приёмник результатов
+     */
+    @Benchmark
+    public void formatMoney(Blackhole blackhole) {
+        for (Money amount : amounts) {
+            blackhole.consume(amount.toString());
+        }
+    }
+
+    /**
+     * @return JSON-массив сумм
+     * @throws JsonProcessingException если сериализация не удалась
+     */
+    @Benchmark
+    public String jsonBigDecimal() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(decimals);
+    }
+
+    /**
+     * @return JSON-массив сумм
+     * @throws JsonProcessingException если сериализация не удалась
+     */
+    @Benchmark
+    public String jsonMoney() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(amounts);
+    }
+}
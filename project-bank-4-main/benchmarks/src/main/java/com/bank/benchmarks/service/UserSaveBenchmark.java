@@ -0,0 +1,75 @@
+package com.bank.benchmarks.service;
+
+import com.bank.authorization.dto.UserDto;
+import com.bank.authorization.mapper.UserMapperImpl;
+import com.bank.authorization.repository.UserRepository;
+import com.bank.authorization.service.UserServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserServiceImpl#save}: маппинг и BCrypt-хэширование пароля без обращения к БД,
+ * репозиторий возвращает сохраняемую сущность. Для сравнения отдельно меряется хэширование
+ * общим экземпляром {@link BCryptPasswordEncoder}, без создания кодировщика на каждый вызов.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserSaveBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+
+    private UserServiceImpl service;
+
+    private UserDto user;
+
+    /**
+     * Сервис с репозиторием-заглушкой: save возвращает свой аргумент.
+     */
+    @Setup
+    public void setUp() {
+        final UserRepository repository = (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> args[0]);
+
+        service = new UserServiceImpl(new UserMapperImpl(), repository, null);
+        user = new UserDto();
+        user.setRole("ROLE_USER");
+        user.setPassword(PASSWORD);
+        user.setProfileId(1L);
+    }
+
+    /**
+     * @return сохранённый {@link UserDto}
+     */
+    @Benchmark
+    public UserDto save() {
+        return service.save(user);
+    }
+
+    /**
+     * @return BCrypt-хэш пароля
+     */
+    @Benchmark
+    public String encodeWithSharedEncoder() {
+        return encoder.encode(PASSWORD);
+    }
+}
@@ -0,0 +1,76 @@
+package com.bank.common.balance;
+
+/**
+ * Запросы изменения баланса счёта (account.account_details.money) с записью в журнал account.ledger_entry,
+ * общие для сервисов account и transfer. Баланс меняется условным UPDATE на разницу без предварительного чтения,
+ * запись журнала добавляется тем же запросом и только если баланс изменён.
+ * Зачисления на горячий счёт (balance_slots > 0) попадают в случайный слот account.account_balance_slot,
+ * списания с него блокируют строку счёта и учитывают сумму слотов.
+ */
+public final class AccountBalanceSql {
+
+    /**
+     * Начало CTE changed, изменяющего account_details.
+     */
+    public static final String CHANGE_DETAILS = "WITH changed AS (UPDATE account.account_details ";
+
+    /**
+     * Начало вставки записи журнала баланса.
+     */
+    public static final String INSERT_ENTRY =
+            "INSERT INTO account.ledger_entry (account_details_id, amount, operation) ";
+
+    /**
+     * Вставка записи журнала о списании по строке CTE changed; параметр - сумма записи (отрицательная).
+     */
+    public static final String INSERT_DEBIT = INSERT_ENTRY + "SELECT id, ?, 'DEBIT' FROM changed";
+
+    /**
+     * Списание с обычного счёта; параметры - сумма, id счёта, сумма, сумма записи журнала (отрицательная).
+     * version увеличивается, чтобы параллельный update счёта получил конфликт версий.
+     */
+    public static final String DEBIT = CHANGE_DETAILS
+            + "SET money = money - ?, version = version + 1 "
+            + "WHERE id = ? AND balance_slots = 0 AND (negative_balance OR money >= ?) RETURNING id) "
+            + INSERT_DEBIT;
+
+    /**
+     * Зачисление на обычный счёт; параметры - сумма, id счёта, сумма записи журнала.
+     */
+    public static final String CREDIT = CHANGE_DETAILS
+            + "SET money = money + ?, version = version + 1 WHERE id = ? AND balance_slots = 0 RETURNING id) "
+            + INSERT_ENTRY
+            + "SELECT id, ?, 'CREDIT' FROM changed";
+
+    /**
+     * Блокировка строки горячего счёта перед списанием; параметр - id счёта.
+     * Списания сериализуются ей, и следующий запрос видит слоты уже после всех завершённых переносов слотов
+     * в money; зачисления строку счёта не блокируют.
+     */
+    public static final String LOCK_HOT =
+            "SELECT id FROM account.account_details WHERE id = ? AND balance_slots > 0 FOR UPDATE";
+
+    /**
+     * Списание с горячего счёта после {@link #LOCK_HOT}; параметры - сумма, id счёта, id счёта, сумма,
+     * сумма записи журнала (отрицательная).
+     */
+    public static final String DEBIT_HOT = CHANGE_DETAILS
+            + "SET money = money - ?, version = version + 1 WHERE id = ? AND (negative_balance OR money "
+            + "+ (SELECT COALESCE(sum(money), 0) FROM account.account_balance_slot WHERE account_details_id = ?) >= ?) "
+            + "RETURNING id) "
+            + INSERT_DEBIT;
+
+    /**
+     * Зачисление на горячий счёт в случайный слот; параметры - id счёта, сумма, сумма записи журнала.
+     * Слот выбирается один раз в CTE: random() в WHERE вычислялся бы для каждой строки.
+     */
+    public static final String CREDIT_SLOT = "WITH target AS (SELECT id, floor(random() * balance_slots)::INT AS slot "
+            + "FROM account.account_details WHERE id = ? AND balance_slots > 0), "
+            + "changed AS (UPDATE account.account_balance_slot s SET money = s.money + ? FROM target "
+            + "WHERE s.account_details_id = target.id AND s.slot = target.slot RETURNING s.account_details_id) "
+            + INSERT_ENTRY
+            + "SELECT account_details_id, ?, 'CREDIT' FROM changed";
+
+    private AccountBalanceSql() {
+    }
+}
@@ -0,0 +1,99 @@
+package com.bank.common.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограниченный по размеру LRU-кэш со временем жизни записей.
+ * При переполнении вытесняется запись, к которой дольше всего не обращались,
+ * просроченные записи удаляются при чтении.
+ *
+ * @param <K> тип ключа
+ * @param <V> тип значения
+ */
+public class TtlCache<K, V> {
+
+    private final Map<K, Entry<V>> entries;
+
+    private final long ttlMillis;
+
+    private final LongSupplier clock;
+
+    /**
+     * @param maxSize   максимальное количество записей
+     * @param ttlMillis время жизни записи в миллисекундах
+     */
+    public TtlCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxSize   максимальное количество записей
+     * @param ttlMillis время жизни записи в миллисекундах
+     * @param clock     источник текущего времени в миллисекундах
+     */
+    public TtlCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @param key ключ
+     * @return значение или null, если записи нет или она просрочена
+     */
+    public synchronized V get(K key) {
+        final Entry<V> entry = entries.get(key);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.expiresAt <= clock.getAsLong()) {
+            entries.remove(key);
+            return null;
+        }
+
+        return entry.value;
+    }
+
+    /**
+     * @param key   ключ
+     * @param value значение
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.getAsLong() + ttlMillis));
+    }
+
+    /**
+     * @param key ключ
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * @return количество записей, включая ещё не удалённые просроченные
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.bank.common.concurrent;
+
+/**
+ * Advisory-блокировка PostgreSQL, разделяющая журнал баланса в памяти сервиса account и прямые изменения
+ * account.account_details.money. Журнал держит её эксклюзивно всё время работы, прямые изменения берут её
+ * разделяемо на время своей транзакции: пока работает журнал, в обход него баланс не меняется, и журнал
+ * не запускается, пока такое изменение не закоммичено.
+ */
+public final class BalanceLedgerLock {
+
+    /**
+     * Ключ блокировки.
+     */
+    public static final long KEY = 0x6163636f756e74L;
+
+    /**
+     * Разделяемая блокировка до конца транзакции без ожидания, параметр - {@link #KEY}.
+     */
+    public static final String TRY_LOCK_SHARED = "SELECT pg_try_advisory_xact_lock_shared(?)";
+
+    /**
+     * Сообщение об отказе в прямом изменении баланса.
+     */
+    public static final String LEDGER_ACTIVE_MESSAGE =
+            "Балансы счетов ведёт журнал в памяти сервиса account, прямое изменение баланса запрещено";
+
+    private BalanceLedgerLock() {
+    }
+}
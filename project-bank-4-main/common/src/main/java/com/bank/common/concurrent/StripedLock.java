@@ -0,0 +1,79 @@
+package com.bank.common.concurrent;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Набор блокировок, разбитых на полосы по ключу (например, id счёта).
+ * Операции над разными ключами выполняются параллельно, над одним ключом - последовательно.
+ * Несколько полос всегда захватываются в порядке возрастания номера, поэтому взаимных блокировок нет.
+ */
+public class StripedLock {
+
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private static final int HALF_LONG_BITS = 32;
+
+    private final ReentrantLock[] locks;
+
+    private final int mask;
+
+    /**
+     * @param stripes минимальное количество полос, округляется вверх до степени двойки
+     */
+    public StripedLock(int stripes) {
+        final int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+
+        this.locks = new ReentrantLock[size];
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * @param key ключ
+     * @return номер полосы для ключа
+     */
+    public int stripe(long key) {
+        final long hash = key * GOLDEN_RATIO;
+        return (int) (hash ^ (hash >>> HALF_LONG_BITS)) & mask;
+    }
+
+    /**
+     * Выполняет действие под блокировками всех ключей.
+     *
+     * @param keys    ключи, например id счетов участвующих в операции
+     * @param timeout максимальное время ожидания блокировок в миллисекундах
+     * @param action  действие
+     * @return результат действия
+     * @throws IllegalStateException если блокировки не удалось получить за timeout
+     */
+    public <T> T executeLocked(long[] keys, long timeout, Supplier<T> action) {
+        final int[] stripes = Arrays.stream(keys).mapToInt(this::stripe).distinct().sorted().toArray();
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        int acquired = 0;
+
+        try {
+            for (int stripe : stripes) {
+                if (!locks[stripe].tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    throw new IllegalStateException("Не удалось получить блокировку за " + timeout + " мс");
+                }
+                acquired++;
+            }
+
+            return action.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание блокировки прервано", e);
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                locks[stripes[i]].unlock();
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.bank.common.exception.ValidationException;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.TypeMismatchException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -16,9 +17,11 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 import org.webjars.NotFoundException;
 
 import javax.persistence.EntityNotFoundException;
+import javax.validation.ConstraintViolationException;
 import java.nio.file.AccessDeniedException;
 import java.sql.SQLException;
 import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Глобальный обработчик исключений.
@@ -81,6 +84,17 @@ public class GlobalRestExceptionHandler {
         return new ResponseEntity<>(message, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * @param ex {@link ConstraintViolationException}, например для элементов списка в теле запроса.
+     * @return {@link ResponseEntity} с текстом ошибки и HttpStatus.BAD_REQUEST.
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<String> handleConstraintViolation(ConstraintViolationException ex) {
+        final String message = ex.getMessage();
+        log.error(message, ex);
+        return new ResponseEntity<>(message, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * @param ex {@link AccessDeniedException}.
      * @return {@link ResponseEntity} с текстом ошибки и HttpStatus.FORBIDDEN.
@@ -151,6 +165,18 @@ public class GlobalRestExceptionHandler {
         return new ResponseEntity<>(CONFLICT_MESSAGE, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Конфликт версий, не разрешённый повторами {@link com.bank.common.retry.OptimisticRetry}.
+     *
+     * @param ex {@link OptimisticLockingFailureException}.
+     * @return {@link ResponseEntity} с текстом ошибки и HttpStatus.CONFLICT.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        log.error(ex.getMessage(), ex);
+        return new ResponseEntity<>(CONFLICT_MESSAGE, HttpStatus.CONFLICT);
+    }
+
     /**
      * @param ex {@link DataIntegrityViolationException}.
      * @return {@link ResponseEntity} с текстом ошибки и HttpStatus.CONFLICT.
@@ -172,6 +198,19 @@ public class GlobalRestExceptionHandler {
         return new ResponseEntity<>(message, HttpStatus.UNPROCESSABLE_ENTITY);
     }
 
+    /**
+     * Перегрузка: запрос не принят, клиент повторяет его позже.
+     *
+     * @param ex {@link RejectedExecutionException}.
+     * @return {@link ResponseEntity} с текстом ошибки и HttpStatus.SERVICE_UNAVAILABLE.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleRejectedExecution(RejectedExecutionException ex) {
+        final String message = ex.getMessage();
+        log.warn(message);
+        return new ResponseEntity<>(message, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * @param ex {@link SQLException}.
      * @return {@link ResponseEntity} с текстом ошибки и HttpStatus.INTERNAL_SERVER_ERROR.
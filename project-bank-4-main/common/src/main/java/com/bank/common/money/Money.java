@@ -0,0 +1,181 @@
+package com.bank.common.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Денежная сумма с фиксированной точкой: long копеек (два знака после запятой, как numeric(20, 2)).
+ * Сложение, вычитание и сравнение не создают промежуточных BigDecimal; переполнение long
+ * даёт {@link ArithmeticException}, а не молча перепрыгивает через ноль.
+ * Диапазон - ±92 233 720 368 547 758.07, суммы за его пределами из БД и JSON не принимаются.
+ */
+@JsonSerialize(using = MoneyJsonSerializer.class)
+@JsonDeserialize(using = MoneyJsonDeserializer.class)
+public final class Money implements Comparable<Money>, Serializable {
+
+    /**
+     * Количество знаков после запятой.
+     */
+    public static final int SCALE = 2;
+
+    /**
+     * Ноль.
+     */
+    public static final Money ZERO = new Money(0);
+
+    private static final long MINOR_PER_MAJOR = 100;
+
+    private final long minor;
+
+    private Money(long minor) {
+        this.minor = minor;
+    }
+
+    /**
+     * @param minor сумма в копейках
+     * @return {@link Money}
+     */
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor);
+    }
+
+    /**
+     * @param amount сумма
+     * @return {@link Money}
+     * @throws ArithmeticException если у суммы больше двух знаков после запятой или она не помещается в long копеек
+     */
+    public static Money of(BigDecimal amount) {
+        return ofMinor(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Используется Spring для параметров запроса.
+     *
+     * @param amount сумма в виде строки, например "1500.25"
+     * @return {@link Money}
+     * @throws NumberFormatException если строка не является числом
+     * @throws ArithmeticException   если у суммы больше двух знаков после запятой
+     */
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount.trim()));
+    }
+
+    /**
+     * @return сумма в копейках
+     */
+    public long toMinor() {
+        return minor;
+    }
+
+    /**
+     * @return сумма в виде {@link BigDecimal} с двумя знаками после запятой
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    /**
+     * @param other слагаемое
+     * @return сумма
+     * @throws ArithmeticException при переполнении
+     */
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minor, other.minor));
+    }
+
+    /**
+     * @param other вычитаемое
+     * @return разность
+     * @throws ArithmeticException при переполнении
+     */
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minor, other.minor));
+    }
+
+    /**
+     * @param multiplier множитель
+     * @return произведение
+     * @throws ArithmeticException при переполнении
+     */
+    public Money times(long multiplier) {
+        return ofMinor(Math.multiplyExact(minor, multiplier));
+    }
+
+    /**
+     * @return сумма с противоположным знаком
+     * @throws ArithmeticException для минимального значения
+     */
+    public Money negate() {
+        return ofMinor(Math.negateExact(minor));
+    }
+
+    /**
+     * @return -1, 0 или 1 в зависимости от знака суммы
+     */
+    public int signum() {
+        return Long.signum(minor);
+    }
+
+    /**
+     * @return true, если сумма больше нуля
+     */
+    public boolean isPositive() {
+        return minor > 0;
+    }
+
+    /**
+     * @return true, если сумма меньше нуля
+     */
+    public boolean isNegative() {
+        return minor < 0;
+    }
+
+    /**
+     * @param other сумма для сравнения
+     * @return true, если эта сумма меньше other
+     */
+    public boolean isLessThan(Money other) {
+        return minor < other.minor;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        return other instanceof Money && minor == ((Money) other).minor;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minor);
+    }
+
+    /**
+     * @return сумма с двумя знаками после запятой, например "-1500.05"
+     */
+    @Override
+    public String toString() {
+        final long major = Math.abs(minor / MINOR_PER_MAJOR);
+        final long cents = Math.abs(minor % MINOR_PER_MAJOR);
+        final StringBuilder result = new StringBuilder();
+
+        if (minor < 0) {
+            result.append('-');
+        }
+        result.append(major).append('.');
+        if (cents < 10) {
+            result.append('0');
+        }
+        return result.append(cents).toString();
+    }
+}
@@ -0,0 +1,24 @@
+package com.bank.common.money;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.math.BigDecimal;
+
+/**
+ * Хранит {@link Money} в колонке numeric(20, 2).
+ * Подключается на поле через {@code @Convert(converter = MoneyConverter.class)}: пакет common
+ * не входит в сканирование сущностей сервисов, поэтому autoApply здесь не сработал бы.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money attribute) {
+        return attribute == null ? null : attribute.toBigDecimal();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal dbData) {
+        return dbData == null ? null : Money.of(dbData);
+    }
+}
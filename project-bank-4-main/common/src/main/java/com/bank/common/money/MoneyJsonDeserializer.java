@@ -0,0 +1,42 @@
+package com.bank.common.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Читает {@link Money} из JSON-числа или строки. Целые числа читаются без BigDecimal.
+ * Сумма с больше чем двумя знаками после запятой отклоняется, а не округляется.
+ */
+public class MoneyJsonDeserializer extends StdDeserializer<Money> {
+
+    private static final long MINOR_PER_MAJOR = 100;
+
+    public MoneyJsonDeserializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        try {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT
+                    && parser.getNumberType() == JsonParser.NumberType.INT) {
+                return Money.ofMinor(parser.getIntValue() * MINOR_PER_MAJOR);
+            }
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                return Money.of(parser.getText());
+            }
+            if (parser.currentToken().isNumeric()) {
+                return Money.of(parser.getDecimalValue());
+            }
+        } catch (ArithmeticException | NumberFormatException e) {
+            return (Money) context.handleWeirdStringValue(Money.class, parser.getText(),
+                    "сумма должна быть числом с не больше чем двумя знаками после запятой");
+        }
+
+        return (Money) context.handleUnexpectedToken(Money.class, parser);
+    }
+}
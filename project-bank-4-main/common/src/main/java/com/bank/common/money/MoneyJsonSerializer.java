@@ -0,0 +1,22 @@
+package com.bank.common.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Пишет {@link Money} JSON-числом с двумя знаками после запятой, как BigDecimal, но без его создания.
+ */
+public class MoneyJsonSerializer extends StdSerializer<Money> {
+
+    public MoneyJsonSerializer() {
+        super(Money.class);
+    }
+
+    @Override
+    public void serialize(Money value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeNumber(value.toString());
+    }
+}
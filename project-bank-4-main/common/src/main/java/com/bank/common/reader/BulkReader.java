@@ -0,0 +1,95 @@
+package com.bank.common.reader;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.Table;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Пакетное чтение сущностей по списку технических идентификаторов.
+ * Вместо запроса на каждый id выполняет запросы вида WHERE id = ANY(?) порциями по chunk-size идентификаторов.
+ */
+@Component
+public class BulkReader {
+
+    private static final String QUERY = "SELECT * FROM %s WHERE id = ANY(CAST(:ids AS BIGINT[]))";
+
+    private static final String IDS_PARAMETER = "ids";
+
+    private static final String ID_DELIMITER = ", ";
+
+    private final EntityManager entityManager;
+
+    private final int chunkSize;
+
+    public BulkReader(EntityManager entityManager,
+                      @Value("${bank.bulk-read.chunk-size:1000}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param entityClass класс сущности, помеченный {@link Table}
+     * @param idExtractor функция получения технического идентификатора сущности
+     * @param ids         список технических идентификаторов, порядок сохраняется в результате
+     * @param message     начало сообщения {@link EntityNotFoundException}, к нему дописываются все ненайденные id
+     * @return список сущностей в порядке ids
+     */
+    public <T> List<T> findAllById(Class<T> entityClass, Function<T, Long> idExtractor,
+                                   List<Long> ids, String message) {
+
+        final List<Long> distinctIds = ids.stream().distinct().toList();
+        final Map<Long, T> found = new HashMap<>(distinctIds.size() * 2);
+        final String query = String.format(QUERY, tableName(entityClass));
+
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            final List<Long> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+
+            for (Object row : entityManager.createNativeQuery(query, entityClass)
+                    .setParameter(IDS_PARAMETER, toArrayLiteral(chunk))
+                    .getResultList()) {
+                final T entity = entityClass.cast(row);
+                found.put(idExtractor.apply(entity), entity);
+            }
+        }
+
+        final List<Long> missing = distinctIds.stream()
+                .filter(id -> !found.containsKey(id))
+                .toList();
+
+        if (!missing.isEmpty()) {
+            throw new EntityNotFoundException(message + join(missing));
+        }
+
+        return ids.stream().map(found::get).toList();
+    }
+
+    private static String tableName(Class<?> entityClass) {
+        final Table table = entityClass.getAnnotation(Table.class);
+
+        if (table == null) {
+            throw new IllegalArgumentException("Не указана таблица для " + entityClass.getName());
+        }
+
+        return table.schema().isEmpty() ? table.name() : table.schema() + "." + table.name();
+    }
+
+    private static String toArrayLiteral(List<Long> ids) {
+        return ids.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private static String join(List<Long> ids) {
+        return ids.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(ID_DELIMITER));
+    }
+}
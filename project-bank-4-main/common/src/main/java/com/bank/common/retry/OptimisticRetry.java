@@ -0,0 +1,20 @@
+package com.bank.common.retry;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Повторяет метод при {@link OptimisticLockingFailureException} с экспоненциальной паузой.
+ * Каждая попытка выполняется в новой транзакции, поэтому метод не должен вызываться
+ * внутри уже открытой транзакции: её откат повтор не исправит.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OptimisticRetry {
+}
@@ -0,0 +1,73 @@
+package com.bank.common.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Повтор методов с {@link OptimisticRetry}.
+ * Аспект стоит снаружи транзакционного прокси, поэтому каждая попытка заново читает сущность
+ * со свежей версией. После max-attempts конфликт пробрасывается и превращается в HTTP 409.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class OptimisticRetryAspect {
+
+    private final int maxAttempts;
+
+    private final long backoff;
+
+    private final long maxBackoff;
+
+    public OptimisticRetryAspect(@Value("${bank.optimistic-retry.max-attempts:3}") int maxAttempts,
+                                 @Value("${bank.optimistic-retry.backoff-ms:20}") long backoff,
+                                 @Value("${bank.optimistic-retry.max-backoff-ms:200}") long maxBackoff) {
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * @param joinPoint вызов метода с {@link OptimisticRetry}
+     * @return результат метода
+     * @throws Throwable исключение метода или последний конфликт версий
+     */
+    @Around("@annotation(com.bank.common.retry.OptimisticRetry)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+
+                log.debug("Конфликт версий в {}, попытка {} из {}",
+                        joinPoint.getSignature().toShortString(), attempt, maxAttempts);
+                pause(attempt, e);
+            }
+        }
+    }
+
+    private void pause(int attempt, OptimisticLockingFailureException conflict) {
+        // случайная пауза в [delay / 2, delay] разводит одновременно столкнувшиеся запросы
+        final long delay = Math.min(maxBackoff, backoff << Math.min(attempt - 1, Long.SIZE - 2));
+
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(delay / 2, delay + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.bank.common.money;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MoneyTest {
+    private static final Money MAX = Money.ofMinor(Long.MAX_VALUE);
+
+    private static final Money MIN = Money.ofMinor(Long.MIN_VALUE);
+
+    @DisplayName("Сложение, вычитание и умножение без переполнения")
+    @Test
+    void arithmeticTest() {
+        assertEquals(Money.of("15.75"), Money.of("10.50").plus(Money.of("5.25")));
+        assertEquals(Money.of("-0.01"), Money.of("5.24").minus(Money.of("5.25")));
+        assertEquals(Money.of("31.50"), Money.of("10.50").times(3));
+        assertEquals(Money.of("0.05"), Money.of("-0.05").negate());
+        assertSame(Money.ZERO, Money.of("1.00").minus(Money.of("1.00")));
+    }
+
+    @DisplayName("Переполнение long копеек даёт ArithmeticException")
+    @Test
+    void overflowTest() {
+        assertThrows(ArithmeticException.class, () -> MAX.plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> MIN.minus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> MAX.times(2));
+        assertThrows(ArithmeticException.class, () -> MIN.times(-1));
+        assertThrows(ArithmeticException.class, MIN::negate);
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("92233720368547758.08")));
+    }
+
+    @DisplayName("Сумма с больше чем двумя знаками после запятой не принимается")
+    @Test
+    void ofScaleTest() {
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("10.001")));
+        assertThrows(ArithmeticException.class, () -> Money.of("0.005"));
+        assertEquals(1050L, Money.of(new BigDecimal("10.5")).toMinor());
+        assertEquals(10_000L, Money.of(new BigDecimal("1E+2")).toMinor());
+        assertEquals(1000L, Money.of(new BigDecimal("10.000")).toMinor());
+    }
+
+    @DisplayName("Строка и toString переводятся друг в друга без потерь, в том числе отрицательные и меньше единицы")
+    @Test
+    void stringRoundTripTest() {
+        for (String amount : List.of("0.00", "0.05", "0.50", "-0.05", "-0.50", "1.00", "-1500.05",
+                "92233720368547758.07", "-92233720368547758.08")) {
+            assertEquals(amount, Money.of(amount).toString());
+            assertEquals(Money.of(amount), Money.of(Money.of(amount).toString()));
+        }
+        assertEquals("-0.01", Money.ofMinor(-1).toString());
+        assertEquals(Money.of("12.30"), Money.of(" 12.3 "));
+        assertThrows(NumberFormatException.class, () -> Money.of("12,30"));
+    }
+
+    @DisplayName("BigDecimal всегда с двумя знаками после запятой")
+    @Test
+    void toBigDecimalTest() {
+        assertEquals(new BigDecimal("-0.05"), Money.ofMinor(-5).toBigDecimal());
+        assertEquals(new BigDecimal("100.00"), Money.of(new BigDecimal("1E+2")).toBigDecimal());
+        assertTrue(Money.of("-0.01").isNegative());
+        assertTrue(Money.of("0.01").isPositive());
+    }
+}
@@ -0,0 +1,94 @@
+package com.bank.common.reader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.Query;
+import javax.persistence.Table;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BulkReaderTest {
+    private static final String MESSAGE_PREFIX = "Не существующий id = ";
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+
+    private final List<String> chunks = new ArrayList<>();
+
+    @DisplayName("Пустой список id, запросов нет")
+    @Test
+    void findAllByIdEmptyTest() {
+        assertTrue(getReader(2, Set.of()).findAllById(Item.class, Item::id, List.of(), MESSAGE_PREFIX).isEmpty());
+        verify(entityManager, never()).createNativeQuery(anyString(), eq(Item.class));
+    }
+
+    @DisplayName("Список id больше порции читается несколькими запросами в порядке id")
+    @Test
+    void findAllByIdChunksTest() {
+        final List<Item> items = getReader(2, Set.of(1L, 2L, 3L, 4L, 5L))
+                .findAllById(Item.class, Item::id, List.of(5L, 4L, 3L, 2L, 1L), MESSAGE_PREFIX);
+
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), items.stream().map(Item::id).toList());
+        assertEquals(List.of("{5,4}", "{3,2}", "{1}"), chunks);
+    }
+
+    @DisplayName("Повторяющиеся id читаются один раз и повторяются в результате")
+    @Test
+    void findAllByIdDuplicatesTest() {
+        final List<Item> items = getReader(2, Set.of(1L, 3L))
+                .findAllById(Item.class, Item::id, List.of(3L, 1L, 3L, 3L), MESSAGE_PREFIX);
+
+        assertEquals(List.of(3L, 1L, 3L, 3L), items.stream().map(Item::id).toList());
+        assertSame(items.get(0), items.get(2));
+        assertEquals(List.of("{3,1}"), chunks);
+    }
+
+    @DisplayName("Ненайденные id перечисляются в EntityNotFoundException, негативный сценарий")
+    @Test
+    void findAllByIdNotFoundTest() {
+        final BulkReader reader = getReader(2, Set.of(1L));
+        final List<Long> ids = List.of(1L, 2L, 3L);
+
+        final EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> reader.findAllById(Item.class, Item::id, ids, MESSAGE_PREFIX));
+        assertEquals(MESSAGE_PREFIX + "2, 3", exception.getMessage());
+    }
+
+    // каждый запрос возвращает из stored те id, что переданы ему литералом массива
+    private BulkReader getReader(int chunkSize, Set<Long> stored) {
+        when(entityManager.createNativeQuery(anyString(), eq(Item.class))).thenAnswer(invocation -> {
+            final Query query = mock(Query.class);
+            final List<Item> rows = new ArrayList<>();
+
+            when(query.setParameter(eq("ids"), anyString())).thenAnswer(parameter -> {
+                final String literal = parameter.getArgument(1);
+                chunks.add(literal);
+                Arrays.stream(literal.substring(1, literal.length() - 1).split(","))
+                        .map(Long::valueOf)
+                        .filter(stored::contains)
+                        .forEach(id -> rows.add(new Item(id)));
+                return query;
+            });
+            when(query.getResultList()).thenReturn(rows);
+            return query;
+        });
+        return new BulkReader(entityManager, chunkSize);
+    }
+
+    @Table(name = "item", schema = "test")
+    private record Item(Long id) {
+    }
+}
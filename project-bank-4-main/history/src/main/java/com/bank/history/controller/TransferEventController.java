@@ -0,0 +1,33 @@
+package com.bank.history.controller;
+
+import com.bank.history.dto.TransferEventDto;
+import com.bank.history.service.TransferEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller для {@link TransferEventDto}: приём событий о переводах из outbox сервиса transfer.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/transfer/events")
+public class TransferEventController {
+    private final TransferEventService service;
+
+    /**
+     * @param events пачка {@link TransferEventDto}
+     * @return {@link ResponseEntity} c HttpStatus OK, после него событие считается доставленным
+     */
+    @PostMapping
+    public ResponseEntity<Void> accept(@RequestBody List<TransferEventDto> events) {
+        service.accept(events);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+}
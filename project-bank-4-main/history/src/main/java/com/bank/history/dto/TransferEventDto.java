@@ -0,0 +1,32 @@
+package com.bank.history.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Dto события о созданном переводе из outbox сервиса transfer.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TransferEventDto {
+    Long eventId;
+    String channel;
+    Long transferId;
+    Long recipientNumber;
+    BigDecimal amount;
+    String purpose;
+    Long accountDetailsId;
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,35 @@
+package com.bank.history.repository;
+
+import com.bank.history.dto.TransferEventDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Репозиторий событий о переводах (таблица history.transfer_event).
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransferEventRepository {
+
+    // повторно доставленное событие уже сохранено с тем же event_id и пропускается
+    private static final String INSERT = "INSERT INTO history.transfer_event "
+            + "(event_id, channel, transfer_id, recipient_number, amount, purpose, account_details_id, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (event_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param events пачка {@link TransferEventDto}, вставляется одним JDBC-батчем
+     */
+    public void saveAll(List<TransferEventDto> events) {
+        jdbcTemplate.batchUpdate(INSERT, events.stream()
+                .map(event -> new Object[]{event.getEventId(), event.getChannel(), event.getTransferId(),
+                        event.getRecipientNumber(), event.getAmount(), event.getPurpose(),
+                        event.getAccountDetailsId(), Timestamp.valueOf(event.getCreatedAt())})
+                .toList());
+    }
+}
@@ -0,0 +1,16 @@
+package com.bank.history.service;
+
+import com.bank.history.dto.TransferEventDto;
+
+import java.util.List;
+
+/**
+ * Service для {@link TransferEventDto}.
+ */
+public interface TransferEventService {
+
+    /**
+     * @param events пачка {@link TransferEventDto}, может повторяться при повторной доставке
+     */
+    void accept(List<TransferEventDto> events);
+}
@@ -0,0 +1,32 @@
+package com.bank.history.service;
+
+import com.bank.history.dto.TransferEventDto;
+import com.bank.history.repository.TransferEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.util.List;
+
+/**
+ * Реализация {@link TransferEventService}.
+ * События сохраняются до ответа transfer, поэтому удалённое из outbox событие уже есть в history.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransferEventServiceImpl implements TransferEventService {
+
+    private final TransferEventRepository repository;
+
+    /**
+     * @param events пачка {@link TransferEventDto}, может повторяться при повторной доставке
+     */
+    @Override
+    @Transactional
+    public void accept(List<TransferEventDto> events) {
+        repository.saveAll(events);
+        log.debug("Сохранено {} событий о переводах", events.size());
+    }
+}
@@ -14,6 +14,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 /**
  * Entity для таблицы account_details_id
@@ -37,4 +38,9 @@ public class AccountDetailsIdEntity {
 
     @ManyToOne
     private ProfileEntity profile;
+
+    @Version
+    @EqualsAndHashCode.Exclude
+    @Column(name = "version")
+    private Long version;
 }
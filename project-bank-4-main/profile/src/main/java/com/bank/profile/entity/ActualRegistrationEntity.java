@@ -13,6 +13,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 /**
  * Entity для таблицы actual_registration
@@ -60,4 +61,9 @@ public class ActualRegistrationEntity {
 
     @Column(name = "index")
     private Long index;
+
+    @Version
+    @EqualsAndHashCode.Exclude
+    @Column(name = "version")
+    private Long version;
 }
@@ -16,6 +16,7 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import java.time.LocalDate;
 
 /**
@@ -75,4 +76,9 @@ public class PassportEntity {
             cascade = {CascadeType.DETACH, CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH})
     @JoinColumn(name = "registration_id")
     private RegistrationEntity registration;
+
+    @Version
+    @EqualsAndHashCode.Exclude
+    @Column(name = "version")
+    private Long version;
 }
@@ -16,6 +16,7 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 /**
  * Entity для таблицы profile
@@ -57,4 +58,9 @@ public class ProfileEntity {
     @OneToOne(cascade = {CascadeType.DETACH, CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH})
     @JoinColumn(name = "actual_registration_id")
     private ActualRegistrationEntity actualRegistration;
+
+    @Version
+    @EqualsAndHashCode.Exclude
+    @Column(name = "version")
+    private Long version;
 }
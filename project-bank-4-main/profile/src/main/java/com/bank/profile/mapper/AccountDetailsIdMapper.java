@@ -19,6 +19,7 @@ public interface AccountDetailsIdMapper {
      * @return {@link AccountDetailsIdEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     AccountDetailsIdEntity toEntity(AccountDetailsIdDto accountDetailsId);
 
     /**
@@ -33,6 +34,7 @@ public interface AccountDetailsIdMapper {
      * @return {@link AccountDetailsIdEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     AccountDetailsIdEntity mergeToEntity(AccountDetailsIdDto accountDetailsIdDto,
                                          @MappingTarget AccountDetailsIdEntity accountDetailsId);
 
@@ -19,6 +19,7 @@ public interface ActualRegistrationMapper {
      * @return {@link ActualRegistrationEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     ActualRegistrationEntity toEntity(ActualRegistrationDto actualRegistration);
 
     /**
@@ -33,6 +34,7 @@ public interface ActualRegistrationMapper {
      * @return {@link ActualRegistrationEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     ActualRegistrationEntity mergeToEntity(ActualRegistrationDto actualRegistrationDto,
                                            @MappingTarget ActualRegistrationEntity actualRegistration);
 
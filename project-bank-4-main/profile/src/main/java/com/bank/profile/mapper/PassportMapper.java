@@ -19,6 +19,7 @@ public interface PassportMapper {
      * @return {@link PassportEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     PassportEntity toEntity(PassportDto passport);
 
     /**
@@ -33,6 +34,7 @@ public interface PassportMapper {
      * @return {@link PassportEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     PassportEntity mergeToEntity(PassportDto passportDto, @MappingTarget PassportEntity passport);
 
     /**
@@ -19,6 +19,7 @@ public interface ProfileMapper {
      * @return {@link ProfileEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     ProfileEntity toEntity(ProfileDto profile);
 
     /**
@@ -33,6 +34,7 @@ public interface ProfileMapper {
      * @return {@link ProfileEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     ProfileEntity mergeToEntity(ProfileDto profileDto,
                                 @MappingTarget ProfileEntity profile);
 
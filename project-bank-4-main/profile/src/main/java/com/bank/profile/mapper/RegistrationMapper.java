@@ -19,6 +19,7 @@ public interface RegistrationMapper {
      * @return {@link RegistrationEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     RegistrationEntity toEntity(RegistrationDto registration);
 
     /**
@@ -33,6 +34,7 @@ public interface RegistrationMapper {
      * @return {@link RegistrationEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     RegistrationEntity mergeToEntity(RegistrationDto registrationDto,
                                      @MappingTarget RegistrationEntity registration);
 
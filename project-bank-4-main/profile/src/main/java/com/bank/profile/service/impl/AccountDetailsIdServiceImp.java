@@ -1,5 +1,6 @@
 package com.bank.profile.service.impl;
 
+import com.bank.common.retry.OptimisticRetry;
 import com.bank.profile.dto.AccountDetailsIdDto;
 import com.bank.profile.entity.AccountDetailsIdEntity;
 import com.bank.profile.mapper.AccountDetailsIdMapper;
@@ -54,6 +55,7 @@ public class AccountDetailsIdServiceImp implements AccountDetailsIdService {
      * @return {@link AccountDetailsIdDto}.
      */
     @Override
+    @OptimisticRetry
     @Transactional
     public AccountDetailsIdDto update(Long id, AccountDetailsIdDto accountDetailsIdDto) {
         final AccountDetailsIdEntity accountDetailsById = repository.findById(id).orElseThrow(
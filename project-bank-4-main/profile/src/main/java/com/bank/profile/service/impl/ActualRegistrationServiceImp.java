@@ -1,5 +1,6 @@
 package com.bank.profile.service.impl;
 
+import com.bank.common.retry.OptimisticRetry;
 import com.bank.profile.dto.ActualRegistrationDto;
 import com.bank.profile.entity.AccountDetailsIdEntity;
 import com.bank.profile.entity.ActualRegistrationEntity;
@@ -57,6 +58,7 @@ public class ActualRegistrationServiceImp implements ActualRegistrationService {
      * @return {@link ActualRegistrationDto}.
      */
     @Override
+    @OptimisticRetry
     @Transactional
     public ActualRegistrationDto update(Long id, ActualRegistrationDto actualRegistrationDto) {
 
@@ -1,5 +1,6 @@
 package com.bank.profile.service.impl;
 
+import com.bank.common.retry.OptimisticRetry;
 import com.bank.profile.dto.PassportDto;
 import com.bank.profile.entity.PassportEntity;
 import com.bank.profile.mapper.PassportMapper;
@@ -54,6 +55,7 @@ public class PassportServiceImp implements PassportService {
      * @return {@link PassportDto}.
      */
     @Override
+    @OptimisticRetry
     @Transactional
     public PassportDto update(Long id, PassportDto passportDto) {
         final PassportEntity passportEntityById = repository.findById(id).orElseThrow(
@@ -1,5 +1,6 @@
 package com.bank.profile.service.impl;
 
+import com.bank.common.retry.OptimisticRetry;
 import com.bank.profile.dto.ProfileDto;
 import com.bank.profile.entity.ProfileEntity;
 import com.bank.profile.mapper.ProfileMapper;
@@ -54,6 +55,7 @@ public class ProfileServiceImp implements ProfileService {
      * @return {@link ProfileDto}.
      */
     @Override
+    @OptimisticRetry
     @Transactional
     public ProfileDto update(Long id, ProfileDto profileDto) {
         final ProfileEntity profileEntityById = repository.findById(id).orElseThrow(
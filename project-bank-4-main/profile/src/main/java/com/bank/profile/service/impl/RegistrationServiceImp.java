@@ -1,5 +1,6 @@
 package com.bank.profile.service.impl;
 
+import com.bank.common.retry.OptimisticRetry;
 import com.bank.profile.dto.RegistrationDto;
 import com.bank.profile.entity.RegistrationEntity;
 import com.bank.profile.mapper.RegistrationMapper;
@@ -54,6 +55,7 @@ public class RegistrationServiceImp implements RegistrationService {
      * @return {@link RegistrationDto}.
      */
     @Override
+    @OptimisticRetry
     @Transactional
     public RegistrationDto update(Long id, RegistrationDto registrationDto) {
         final RegistrationEntity registrationEntityById = repository.findById(id).orElseThrow(
@@ -304,7 +304,8 @@ class AccountDetailsIdMapperTest {
         return new AccountDetailsIdEntity(
                 1L,
                 1L,
-                getProfileEntity()
+                getProfileEntity(),
+                null
         );
     }
 
@@ -325,7 +326,8 @@ class AccountDetailsIdMapperTest {
                 12345678L,
                 12345678L,
                 getPassportEntity(),
-                getActualRegistrationEntity()
+                getActualRegistrationEntity(),
+                null
         );
     }
 
@@ -357,7 +359,8 @@ class AccountDetailsIdMapperTest {
                 LocalDate.of(20000, 1, 2),
                 123456,
                 LocalDate.of(20000, 1, 3),
-                getRegistrationEntity()
+                getRegistrationEntity(),
+                null
         );
     }
 
@@ -392,7 +395,8 @@ class AccountDetailsIdMapperTest {
                 "HouseNumber1",
                 "HouseBlock1",
                 "FlatNumber1",
-                1L);
+                1L,
+                null);
     }
 
     private static ActualRegistrationDto getActualRegistrationDto() {
@@ -422,7 +426,8 @@ class AccountDetailsIdMapperTest {
                 "HouseNumber1",
                 "HouseBlock1",
                 "FlatNumber1",
-                1L);
+                1L,
+                null);
     }
 
     private static RegistrationDto getRegistrationDto() {
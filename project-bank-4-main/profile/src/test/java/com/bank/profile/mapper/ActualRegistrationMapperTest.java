@@ -93,7 +93,8 @@ class ActualRegistrationMapperTest {
                 "HouseNumber1",
                 "HouseBlock1",
                 "FlatNumber1",
-                1L);
+                1L,
+                null);
     }
 
     private static ActualRegistrationDto getDto() {
@@ -144,7 +144,8 @@ class PassportMapperTest {
                 LocalDate.of(20000, 1, 2),
                 123456,
                 LocalDate.of(20000, 1, 3),
-                getRegistrationEntity()
+                getRegistrationEntity(),
+                null
         );
     }
 
@@ -179,7 +180,8 @@ class PassportMapperTest {
                 "HouseNumber2",
                 "HouseBlock2",
                 "FlatNumber2",
-                1L);
+                1L,
+                null);
     }
 
     private static RegistrationDto getRegistrationDto() {
@@ -206,7 +206,8 @@ class ProfileMapperTest {
                 12345678L,
                 12345678L,
                 getPassportEntity(),
-                getActualRegistrationEntity()
+                getActualRegistrationEntity(),
+                null
         );
     }
 
@@ -238,7 +239,8 @@ class ProfileMapperTest {
                 LocalDate.of(20000, 1, 2),
                 123456,
                 LocalDate.of(20000, 1, 3),
-                getRegistrationEntity()
+                getRegistrationEntity(),
+                null
         );
     }
 
@@ -273,7 +275,8 @@ class ProfileMapperTest {
                 "HouseNumber1",
                 "HouseBlock1",
                 "FlatNumber1",
-                1L);
+                1L,
+                null);
     }
 
     private static ActualRegistrationDto getActualRegistrationDto() {
@@ -303,7 +306,8 @@ class ProfileMapperTest {
                 "HouseNumber1",
                 "HouseBlock1",
                 "FlatNumber1",
-                1L);
+                1L,
+                null);
     }
 
     private static RegistrationDto getRegistrationDto() {
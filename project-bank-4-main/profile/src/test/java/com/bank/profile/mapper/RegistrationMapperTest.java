@@ -93,7 +93,8 @@ class RegistrationMapperTest {
                 "HouseNumber1",
                 "HouseBlock1",
                 "FlatNumber1",
-                1L);
+                1L,
+                null);
     }
 
     private static RegistrationDto getDto() {
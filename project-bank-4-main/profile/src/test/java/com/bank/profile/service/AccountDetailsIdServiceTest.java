@@ -164,7 +164,8 @@ class AccountDetailsIdServiceTest {
         return new AccountDetailsIdEntity(
                 1L,
                 1L,
-                getProfileEntity()
+                getProfileEntity(),
+                null
         );
     }
 
@@ -172,7 +173,8 @@ class AccountDetailsIdServiceTest {
         return new AccountDetailsIdEntity(
                 1L,
                 2L,
-                getProfileEntity()
+                getProfileEntity(),
+                null
         );
     }
 
@@ -185,7 +187,8 @@ class AccountDetailsIdServiceTest {
                 12345678L,
                 12345678L,
                 getPassportEntity(),
-                getActualRegistrationEntity()
+                getActualRegistrationEntity(),
+                null
         );
     }
 
@@ -204,7 +207,8 @@ class AccountDetailsIdServiceTest {
                 LocalDate.of(20000, 1, 3),
                 1234567,
                 LocalDate.of(20000, 1, 4),
-                getRegistrationEntity()
+                getRegistrationEntity(),
+                null
         );
     }
 
@@ -220,7 +224,8 @@ class AccountDetailsIdServiceTest {
                 "HouseNumber2",
                 "HouseBlock2",
                 "FlatNumber2",
-                1L);
+                1L,
+                null);
     }
 
     private static ActualRegistrationEntity getActualRegistrationEntity() {
@@ -235,7 +240,8 @@ class AccountDetailsIdServiceTest {
                 "HouseNumber2",
                 "HouseBlock2",
                 "FlatNumber2",
-                1L);
+                1L,
+                null);
     }
 
 
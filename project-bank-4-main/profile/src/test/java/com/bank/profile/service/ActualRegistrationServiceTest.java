@@ -167,7 +167,8 @@ class ActualRegistrationServiceTest {
                 "HouseNumber1",
                 "HouseBlock1",
                 "FlatNumber1",
-                1L);
+                1L,
+                null);
     }
 
     private static ActualRegistrationEntity getNewEntity() {
@@ -182,7 +183,8 @@ class ActualRegistrationServiceTest {
                 "HouseNumber2",
                 "HouseBlock2",
                 "FlatNumber2",
-                1L);
+                1L,
+                null);
     }
 
 }
\ No newline at end of file
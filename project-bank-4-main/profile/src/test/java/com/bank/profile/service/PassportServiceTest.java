@@ -170,7 +170,8 @@ class PassportServiceTest {
                 LocalDate.of(20000, 1, 2),
                 123456,
                 LocalDate.of(20000, 1, 3),
-                getRegistrationEntity()
+                getRegistrationEntity(),
+                null
         );
     }
 
@@ -189,7 +190,8 @@ class PassportServiceTest {
                 LocalDate.of(20000, 1, 3),
                 1234567,
                 LocalDate.of(20000, 1, 4),
-                getRegistrationEntity()
+                getRegistrationEntity(),
+                null
         );
     }
 
@@ -205,7 +207,8 @@ class PassportServiceTest {
                 "HouseNumber2",
                 "HouseBlock2",
                 "FlatNumber2",
-                1L);
+                1L,
+                null);
     }
 
 }
\ No newline at end of file
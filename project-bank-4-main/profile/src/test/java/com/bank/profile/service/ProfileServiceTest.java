@@ -166,7 +166,8 @@ class ProfileServiceTest {
                 12345678L,
                 12345678L,
                 getPassportEntity(),
-                getActualRegistrationEntity()
+                getActualRegistrationEntity(),
+                null
         );
     }
 
@@ -179,7 +180,8 @@ class ProfileServiceTest {
                 12345678L,
                 12345678L,
                 getPassportEntity(),
-                getActualRegistrationEntity()
+                getActualRegistrationEntity(),
+                null
         );
     }
 
@@ -198,7 +200,8 @@ class ProfileServiceTest {
                 LocalDate.of(20000, 1, 3),
                 1234567,
                 LocalDate.of(20000, 1, 4),
-                getRegistrationEntity()
+                getRegistrationEntity(),
+                null
         );
     }
 
@@ -214,7 +217,8 @@ class ProfileServiceTest {
                 "HouseNumber2",
                 "HouseBlock2",
                 "FlatNumber2",
-                1L);
+                1L,
+                null);
     }
 
     private static ActualRegistrationEntity getActualRegistrationEntity() {
@@ -229,7 +233,8 @@ class ProfileServiceTest {
                 "HouseNumber2",
                 "HouseBlock2",
                 "FlatNumber2",
-                1L);
+                1L,
+                null);
     }
 
 }
\ No newline at end of file
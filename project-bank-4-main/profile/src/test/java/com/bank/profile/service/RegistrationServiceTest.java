@@ -166,7 +166,8 @@ class RegistrationServiceTest {
                 "HouseNumber1",
                 "HouseBlock1",
                 "FlatNumber1",
-                1L);
+                1L,
+                null);
     }
 
     private static RegistrationEntity getNewEntity() {
@@ -181,7 +182,8 @@ class RegistrationServiceTest {
                 "HouseNumber2",
                 "HouseBlock2",
                 "FlatNumber2",
-                1L);
+                1L,
+                null);
     }
 
 }
\ No newline at end of file
@@ -3,9 +3,13 @@ package com.bank.transfer;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
 @EnableEurekaClient
-@SpringBootApplication
+@EnableFeignClients
+@SpringBootApplication(scanBasePackages = {"com.bank.transfer", "com.bank.common"})
 public class TransferApplication {
     public static void main(String[] args) {
         SpringApplication.run(TransferApplication.class, args);
@@ -0,0 +1,21 @@
+package com.bank.transfer.client;
+
+import com.bank.transfer.dto.TransferEventDto;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+
+/**
+ * Клиент anti-fraud сервиса
+ */
+@FeignClient(name = "anti-fraud-app", url = "${bank.transfer.outbox.anti-fraud-url}")
+public interface AntiFraudClient {
+
+    /**
+     * @param events пачка {@link TransferEventDto}
+     */
+    @PostMapping("/transfer/events")
+    void accept(@RequestBody List<TransferEventDto> events);
+}
@@ -0,0 +1,21 @@
+package com.bank.transfer.client;
+
+import com.bank.transfer.dto.TransferEventDto;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+
+/**
+ * Клиент history сервиса
+ */
+@FeignClient(name = "history-app", url = "${bank.transfer.outbox.history-url}")
+public interface HistoryClient {
+
+    /**
+     * @param events пачка {@link TransferEventDto}
+     */
+    @PostMapping("/transfer/events")
+    void accept(@RequestBody List<TransferEventDto> events);
+}
@@ -1,19 +1,31 @@
 package com.bank.transfer.controller;
 
 import com.bank.transfer.dto.CardTransferDto;
+import com.bank.transfer.dto.BatchResultDto;
 import com.bank.transfer.entity.CardTransferEntity;
 import com.bank.transfer.service.CardTransferService;
+import com.bank.transfer.service.common.IdempotencyStore;
+import com.bank.transfer.service.common.TransferPeriod;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -25,6 +37,8 @@ import java.util.List;
 public class CardTransferController {
 
     private final CardTransferService service;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyStore idempotencyStore;
 
     /**
      * @param ids список технических идентификаторов {@link CardTransferEntity}
@@ -45,12 +59,60 @@ public class CardTransferController {
     }
 
     /**
-     * @param cardTransfer {@link CardTransferDto}
+     * Выгрузка переводов счёта в NDJSON, постранично по ключу: следующая страница
+     * запрашивается с afterId, равным id последнего полученного перевода.
+     * Без периода выгружаются переводы за последний месяц.
+     *
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @param from             начало периода создания включительно, ISO date-time
+     * @param to               конец периода создания не включительно, ISO date-time
+     * @param afterId          id последнего перевода предыдущей страницы
+     * @param limit            размер страницы, без параметра - до конца
+     * @return {@link ResponseEntity} с потоком {@link CardTransferDto}
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam Long accountDetailsId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        final TransferPeriod period = TransferPeriod.of(from, to);
+
+        return ResponseEntity.ok(out -> service.exportByAccountDetailsId(accountDetailsId, period, afterId, limit,
+                out));
+    }
+
+    /**
+     * Повторный запрос с тем же Idempotency-Key возвращает ответ на первый, не создавая перевод;
+     * тот же ключ с другим телом запроса отклоняется.
+     *
+     * @param idempotencyKey ключ идемпотентности, необязательный
+     * @param cardTransfer   {@link CardTransferDto}
      * @return {@link ResponseEntity } {@link CardTransferDto}
      */
     @PostMapping("/create")
-    public ResponseEntity<CardTransferDto> create(@RequestBody CardTransferDto cardTransfer) {
-        return ResponseEntity.ok(service.save(cardTransfer));
+    public ResponseEntity<CardTransferDto> create(@RequestHeader(value = IdempotencyStore.HEADER, required = false)
+                                                  String idempotencyKey,
+                                                  @RequestBody CardTransferDto cardTransfer) {
+        return ResponseEntity.ok(idempotencyStore.execute("card-create", idempotencyKey, cardTransfer,
+                CardTransferDto.class, () -> service.save(cardTransfer)));
+    }
+
+    /**
+     * Пакетное создание переводов. Тело - JSON-массив или NDJSON, читается потоково,
+     * сохраняется чанками; некорректные переводы не прерывают пакет, а попадают в ответ с ошибкой.
+     *
+     * @param body поток {@link CardTransferDto}
+     * @return {@link ResponseEntity} {@link BatchResultDto}
+     */
+    @PostMapping(value = "/create/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BatchResultDto> createBatch(InputStream body) throws IOException {
+        try (MappingIterator<CardTransferDto> transfers =
+                     objectMapper.readerFor(CardTransferDto.class).readValues(body)) {
+            return ResponseEntity.ok(service.saveAll(transfers));
+        }
     }
 
     /**
@@ -0,0 +1,49 @@
+package com.bank.transfer.controller;
+
+import com.bank.transfer.dto.TransferDto;
+import com.bank.transfer.service.TransferService;
+import com.bank.transfer.service.common.TransferPeriod;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+/**
+ * Контроллер для {@link TransferDto}: переводы счёта по всем каналам одним запросом
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/transfer")
+public class TransferController {
+
+    private final TransferService service;
+
+    /**
+     * Без периода возвращаются переводы за последний месяц.
+     *
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @param from             начало периода создания включительно, ISO date-time
+     * @param to               конец периода создания не включительно, ISO date-time
+     * @param pageable         page, size и sort, по умолчанию по created_at, новые переводы первыми
+     * @return {@link ResponseEntity} cо страницей {@link TransferDto}
+     */
+    @GetMapping("/read")
+    public ResponseEntity<Page<TransferDto>> readByAccountDetailsId(
+            @RequestParam Long accountDetailsId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @PageableDefault(size = 50, sort = {"createdAt", "channel", "id"}, direction = Sort.Direction.DESC)
+            Pageable pageable) {
+        return ResponseEntity.ok(service.findAllByAccountDetailsId(accountDetailsId, TransferPeriod.of(from, to),
+                pageable));
+    }
+}
@@ -0,0 +1,28 @@
+package com.bank.transfer.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+
+/**
+ * ДТО счёта зачисления, найденного по номеру.
+ * hot - у счёта есть слоты баланса, и зачисление на него не блокирует строку счёта.
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AccountTargetDto implements Serializable {
+
+    Long id;
+
+    boolean hot;
+}
@@ -0,0 +1,31 @@
+package com.bank.transfer.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+
+/**
+ * ДТО результата сохранения одного перевода из пакета.
+ * index - порядковый номер перевода во входном потоке, id заполнен для сохранённых переводов,
+ * error - для отклонённых.
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BatchItemResultDto implements Serializable {
+
+    int index;
+
+    Long id;
+
+    String error;
+}
@@ -0,0 +1,32 @@
+package com.bank.transfer.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * ДТО результата пакетного сохранения переводов
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BatchResultDto implements Serializable {
+
+    int total;
+
+    int created;
+
+    int failed;
+
+    List<BatchItemResultDto> items;
+}
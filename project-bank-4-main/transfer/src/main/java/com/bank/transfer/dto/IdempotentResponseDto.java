@@ -0,0 +1,28 @@
+package com.bank.transfer.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+
+/**
+ * ДТО сохранённого ответа на первый запрос с Idempotency-Key.
+ * requestHash - SHA-256 тела первого запроса, null у ключей, сохранённых до появления проверки тела.
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class IdempotentResponseDto implements Serializable {
+
+    String requestHash;
+
+    String response;
+}
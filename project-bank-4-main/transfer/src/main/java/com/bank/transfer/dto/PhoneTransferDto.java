@@ -1,5 +1,6 @@
 package com.bank.transfer.dto;
 
+import com.bank.common.money.Money;
 import com.bank.transfer.entity.PhoneTransferEntity;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -10,7 +11,7 @@ import lombok.Setter;
 import lombok.experimental.FieldDefaults;
 
 import java.io.Serializable;
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 /**
  * ДТО {@link PhoneTransferEntity}
@@ -26,8 +27,10 @@ public class PhoneTransferDto implements Serializable {
 
     Long phoneNumber;
 
-    BigDecimal amount;
+    Money amount;
 
     String purpose;
     Long accountDetailsId;
+
+    LocalDateTime createdAt;
 }
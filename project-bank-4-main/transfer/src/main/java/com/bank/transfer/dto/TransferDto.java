@@ -0,0 +1,42 @@
+package com.bank.transfer.dto;
+
+import com.bank.common.money.Money;
+import com.bank.transfer.entity.TransferChannel;
+import com.bank.transfer.entity.TransferViewEntity;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * ДТО {@link TransferViewEntity}.
+ * recipientNumber - номер счёта, карты или телефона получателя в зависимости от channel.
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TransferDto implements Serializable {
+
+    TransferChannel channel;
+
+    Long id;
+
+    Long recipientNumber;
+
+    Money amount;
+
+    String purpose;
+
+    Long accountDetailsId;
+
+    LocalDateTime createdAt;
+}
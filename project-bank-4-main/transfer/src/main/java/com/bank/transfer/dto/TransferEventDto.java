@@ -0,0 +1,43 @@
+package com.bank.transfer.dto;
+
+import com.bank.common.money.Money;
+import com.bank.transfer.entity.TransferChannel;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * ДТО события о созданном переводе, отправляется из outbox в anti-fraud и history.
+ * Доставка не реже одного раза: получатель отбрасывает повторы по eventId.
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TransferEventDto implements Serializable {
+
+    Long eventId;
+
+    TransferChannel channel;
+
+    Long transferId;
+
+    Long recipientNumber;
+
+    Money amount;
+
+    String purpose;
+
+    Long accountDetailsId;
+
+    LocalDateTime createdAt;
+}
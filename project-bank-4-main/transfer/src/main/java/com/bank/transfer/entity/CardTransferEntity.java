@@ -1,19 +1,25 @@
 package com.bank.transfer.entity;
 
+import com.bank.common.money.Money;
+import com.bank.common.money.MoneyConverter;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.CreationTimestamp;
 
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
-import java.math.BigDecimal;
+import javax.persistence.Version;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 /**
@@ -29,7 +35,9 @@ import java.util.Objects;
 public class CardTransferEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "card_transfer_seq")
+    @SequenceGenerator(name = "card_transfer_seq", sequenceName = "card_transfer_seq", schema = "transfer",
+            allocationSize = 50)
     @Column(name = "id")
     Long id;
 
@@ -37,7 +45,8 @@ public class CardTransferEntity {
     Long cardNumber;
 
     @Column(name = "amount")
-    BigDecimal amount;
+    @Convert(converter = MoneyConverter.class)
+    Money amount;
 
     @Column(name = "purpose")
     String purpose;
@@ -45,6 +54,14 @@ public class CardTransferEntity {
     @Column(name = "account_details_id")
     Long accountDetailsId;
 
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    LocalDateTime createdAt;
+
+    @Version
+    @Column(name = "version")
+    Long version;
+
     @Override
     public boolean equals(Object o) {
 
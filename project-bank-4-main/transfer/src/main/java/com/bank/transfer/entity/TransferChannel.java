@@ -0,0 +1,18 @@
+package com.bank.transfer.entity;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Канал перевода и таблица, в которой хранятся его переводы
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TransferChannel {
+
+    ACCOUNT("account_transfer"),
+    CARD("card_transfer"),
+    PHONE("phone_transfer");
+
+    private final String table;
+}
@@ -0,0 +1,77 @@
+package com.bank.transfer.entity;
+
+import com.bank.common.money.Money;
+import com.bank.common.money.MoneyConverter;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entity для представления transfer_view: переводы всех каналов только для чтения
+ */
+@Entity
+@Getter
+@Immutable
+@NoArgsConstructor
+@IdClass(TransferViewId.class)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Table(name = "transfer_view", schema = "transfer")
+public class TransferViewEntity {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel")
+    TransferChannel channel;
+
+    @Id
+    @Column(name = "id")
+    Long id;
+
+    @Column(name = "recipient_number")
+    Long recipientNumber;
+
+    @Column(name = "amount")
+    @Convert(converter = MoneyConverter.class)
+    Money amount;
+
+    @Column(name = "purpose")
+    String purpose;
+
+    @Column(name = "account_details_id")
+    Long accountDetailsId;
+
+    @Column(name = "created_at")
+    LocalDateTime createdAt;
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof TransferViewEntity transfer)) {
+            return false;
+        }
+
+        return getChannel() == transfer.getChannel() && Objects.equals(getId(), transfer.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getChannel(), getId());
+    }
+}
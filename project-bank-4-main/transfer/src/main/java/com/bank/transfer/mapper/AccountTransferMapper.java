@@ -1,6 +1,7 @@
 package com.bank.transfer.mapper;
 
 import com.bank.transfer.dto.AccountTransferDto;
+import com.bank.transfer.dto.TransferDto;
 import com.bank.transfer.entity.AccountTransferEntity;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -19,6 +20,8 @@ public interface AccountTransferMapper {
      * @return {@link AccountTransferEntity}
     */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
     AccountTransferEntity toEntity(AccountTransferDto transfer);
 
     /**
@@ -33,6 +36,8 @@ public interface AccountTransferMapper {
      * @return {@link AccountTransferEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
     AccountTransferEntity mergeToEntity (AccountTransferDto transferDto,
                                          @MappingTarget AccountTransferEntity transfer);
 
@@ -41,4 +46,12 @@ public interface AccountTransferMapper {
      * @return {@link List<AccountTransferDto>}
      */
     List<AccountTransferDto> toDtoList(List<AccountTransferEntity> transfers);
+
+    /**
+     * @param transfer {@link AccountTransferEntity}
+     * @return {@link TransferDto} канала ACCOUNT
+     */
+    @Mapping(target = "channel", constant = "ACCOUNT")
+    @Mapping(target = "recipientNumber", source = "accountNumber")
+    TransferDto toTransferDto(AccountTransferEntity transfer);
 }
@@ -1,6 +1,7 @@
 package com.bank.transfer.mapper;
 
 import com.bank.transfer.dto.PhoneTransferDto;
+import com.bank.transfer.dto.TransferDto;
 import com.bank.transfer.entity.PhoneTransferEntity;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -19,6 +20,8 @@ public interface PhoneTransferMapper {
      * @return {@link PhoneTransferEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
     PhoneTransferEntity toEntity(PhoneTransferDto dto);
 
     /**
@@ -33,6 +36,8 @@ public interface PhoneTransferMapper {
      * @return {@link PhoneTransferEntity}
      */
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
     PhoneTransferEntity mergeToEntity (PhoneTransferDto transferDto,
                                       @MappingTarget PhoneTransferEntity transfer);
 
@@ -41,4 +46,12 @@ public interface PhoneTransferMapper {
      * @return {@link List<PhoneTransferDto>}
      */
     List<PhoneTransferDto> toDtoList(List<PhoneTransferEntity> transfers);
+
+    /**
+     * @param transfer {@link PhoneTransferEntity}
+     * @return {@link TransferDto} канала PHONE
+     */
+    @Mapping(target = "channel", constant = "PHONE")
+    @Mapping(target = "recipientNumber", source = "phoneNumber")
+    TransferDto toTransferDto(PhoneTransferEntity transfer);
 }
@@ -0,0 +1,18 @@
+package com.bank.transfer.mapper;
+
+import com.bank.transfer.dto.TransferDto;
+import com.bank.transfer.entity.TransferViewEntity;
+import org.mapstruct.Mapper;
+
+/**
+ * Mapper для {@link TransferViewEntity}, {@link TransferDto}
+ */
+@Mapper(componentModel = "spring")
+public interface TransferMapper {
+
+    /**
+     * @param transfer {@link TransferViewEntity}
+     * @return {@link TransferDto}
+     */
+    TransferDto toDto(TransferViewEntity transfer);
+}
@@ -0,0 +1,88 @@
+package com.bank.transfer.repository;
+
+import com.bank.common.balance.AccountBalanceSql;
+import com.bank.common.concurrent.BalanceLedgerLock;
+import com.bank.common.money.Money;
+import com.bank.transfer.dto.AccountTargetDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Репозиторий балансов банковских счетов (таблица account.account_details).
+ * Изменения баланса выполняются запросами {@link AccountBalanceSql}, общими с сервисом account.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountBalanceRepository {
+
+    private static final String FIND_TARGET_BY_ACCOUNT_NUMBER =
+            "SELECT id, balance_slots > 0 AS hot FROM account.account_details WHERE account_number = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param accountNumber номер счёта
+     * @return {@link AccountTargetDto}
+     */
+    public Optional<AccountTargetDto> findTargetByAccountNumber(Long accountNumber) {
+        return jdbcTemplate.query(FIND_TARGET_BY_ACCOUNT_NUMBER, (resultSet, rowNum) -> new AccountTargetDto(
+                        resultSet.getLong("id"),
+                        resultSet.getBoolean("hot")), accountNumber)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Списывает сумму, если на счёте достаточно денег или разрешён отрицательный баланс.
+     * Списание с горячего счёта блокирует его строку до конца транзакции, поэтому вызывается в транзакции.
+     *
+     * @param accountId технический идентификатор счёта
+     * @param amount    сумма списания
+     * @return true, если списание выполнено
+     */
+    public boolean debit(Long accountId, Money amount) {
+        final BigDecimal value = amount.toBigDecimal();
+
+        return jdbcTemplate.update(AccountBalanceSql.DEBIT, value, accountId, value, value.negate()) == 1
+                || debitHot(accountId, value);
+    }
+
+    /**
+     * @param accountId технический идентификатор счёта
+     * @param amount    сумма зачисления
+     * @return true, если счёт найден и зачисление выполнено
+     */
+    public boolean credit(Long accountId, Money amount) {
+        final BigDecimal value = amount.toBigDecimal();
+
+        return jdbcTemplate.update(AccountBalanceSql.CREDIT, value, accountId, value) == 1
+                || jdbcTemplate.update(AccountBalanceSql.CREDIT_SLOT, accountId, value, value) == 1;
+    }
+
+    /**
+     * Разделяемо берёт {@link BalanceLedgerLock} до конца текущей транзакции; вызывается в транзакции
+     * перед изменением баланса в обход журнала.
+     *
+     * @throws IllegalStateException если работает журнал баланса в памяти
+     */
+    public void lockDirectChange() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(BalanceLedgerLock.TRY_LOCK_SHARED, Boolean.class,
+                BalanceLedgerLock.KEY))) {
+            throw new IllegalStateException(BalanceLedgerLock.LEDGER_ACTIVE_MESSAGE);
+        }
+    }
+
+    // вызывается после неудачного обычного списания: счёт горячий, не найден или на нём недостаточно средств
+    private boolean debitHot(Long accountId, BigDecimal value) {
+        if (jdbcTemplate.queryForList(AccountBalanceSql.LOCK_HOT, Long.class, accountId).isEmpty()) {
+            return false;
+        }
+
+        return jdbcTemplate.update(AccountBalanceSql.DEBIT_HOT,
+                value, accountId, accountId, value, value.negate()) == 1;
+    }
+}
@@ -0,0 +1,81 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.dto.IdempotentResponseDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Репозиторий ключей идемпотентности (таблица transfer.idempotency_key).
+ * Ключ старше ttl считается просроченным и может быть занят заново.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepository {
+
+    private static final String FIND_RESPONSE = "SELECT request_hash, response FROM transfer.idempotency_key "
+            + "WHERE scope = ? AND idempotency_key = ? AND response IS NOT NULL "
+            + "AND created_at > now() - ? * INTERVAL '1 millisecond'";
+
+    // при конкурентной вставке того же ключа PostgreSQL ждёт завершения первой транзакции,
+    // поэтому ключ занимает ровно один запрос
+    private static final String ACQUIRE = "INSERT INTO transfer.idempotency_key "
+            + "(scope, idempotency_key, request_hash, response, created_at) VALUES (?, ?, ?, NULL, now()) "
+            + "ON CONFLICT (scope, idempotency_key) DO UPDATE "
+            + "SET request_hash = excluded.request_hash, response = NULL, created_at = now() "
+            + "WHERE idempotency_key.created_at <= now() - ? * INTERVAL '1 millisecond'";
+
+    private static final String SAVE_RESPONSE =
+            "UPDATE transfer.idempotency_key SET response = ? WHERE scope = ? AND idempotency_key = ?";
+
+    private static final String DELETE_EXPIRED =
+            "DELETE FROM transfer.idempotency_key WHERE created_at <= now() - ? * INTERVAL '1 millisecond'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param scope     операция
+     * @param key       ключ идемпотентности
+     * @param ttlMillis время жизни ключа в миллисекундах
+     * @return сохранённый ответ на первый запрос с этим ключом
+     */
+    public Optional<IdempotentResponseDto> findResponse(String scope, String key, long ttlMillis) {
+        return jdbcTemplate.query(FIND_RESPONSE, (rs, rowNum) ->
+                        new IdempotentResponseDto(rs.getString("request_hash"), rs.getString("response")),
+                        scope, key, ttlMillis)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Занимает ключ. Должен выполняться в одной транзакции с операцией и {@link #saveResponse}.
+     *
+     * @param scope       операция
+     * @param key         ключ идемпотентности
+     * @param requestHash SHA-256 тела запроса
+     * @param ttlMillis   время жизни ключа в миллисекундах
+     * @return true, если ключ свободен или просрочен и теперь занят текущим запросом
+     */
+    public boolean acquire(String scope, String key, String requestHash, long ttlMillis) {
+        return jdbcTemplate.update(ACQUIRE, scope, key, requestHash, ttlMillis) == 1;
+    }
+
+    /**
+     * @param scope    операция
+     * @param key      ключ идемпотентности
+     * @param response ответ в JSON
+     */
+    public void saveResponse(String scope, String key, String response) {
+        jdbcTemplate.update(SAVE_RESPONSE, response, scope, key);
+    }
+
+    /**
+     * @param ttlMillis время жизни ключа в миллисекундах
+     * @return количество удалённых ключей
+     */
+    public int deleteExpired(long ttlMillis) {
+        return jdbcTemplate.update(DELETE_EXPIRED, ttlMillis);
+    }
+}
@@ -0,0 +1,120 @@
+package com.bank.transfer.repository;
+
+import com.bank.common.money.Money;
+import com.bank.transfer.dto.TransferDto;
+import com.bank.transfer.dto.TransferEventDto;
+import com.bank.transfer.entity.TransferChannel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Репозиторий outbox-событий о переводах (таблица transfer.outbox_event).
+ * События добавляются в транзакции сохранения перевода, занимаются на время отправки и удаляются после доставки.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxEventRepository {
+
+    private static final String INSERT = "INSERT INTO transfer.outbox_event "
+            + "(channel, transfer_id, recipient_number, amount, purpose, account_details_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // SKIP LOCKED позволяет нескольким экземплярам сервиса разбирать outbox без ожидания друг друга,
+    // строки заблокированы только на время этого запроса, дальше события защищает claimed_until
+    private static final String CLAIM_BATCH = "UPDATE transfer.outbox_event "
+            + "SET claimed_until = now() + ? * INTERVAL '1 millisecond' "
+            + "WHERE id IN (SELECT id FROM transfer.outbox_event WHERE claimed_until IS NULL OR claimed_until < now() "
+            + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) RETURNING *";
+
+    private static final String IDS = "id = ANY(CAST(? AS BIGINT[]))";
+
+    private static final String DELETE = "DELETE FROM transfer.outbox_event WHERE " + IDS;
+
+    private static final String RELEASE = "UPDATE transfer.outbox_event SET claimed_until = NULL WHERE " + IDS;
+
+    private static final String LAG_MILLIS = "SELECT EXTRACT(EPOCH FROM now() - created_at) * 1000 "
+            + "FROM transfer.outbox_event ORDER BY id LIMIT 1";
+
+    private static final RowMapper<TransferEventDto> EVENT_MAPPER = (resultSet, rowNum) -> new TransferEventDto(
+            resultSet.getLong("id"),
+            TransferChannel.valueOf(resultSet.getString("channel")),
+            resultSet.getLong("transfer_id"),
+            resultSet.getLong("recipient_number"),
+            Money.of(resultSet.getBigDecimal("amount")),
+            resultSet.getString("purpose"),
+            resultSet.getLong("account_details_id"),
+            resultSet.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param transfer сохранённый перевод {@link TransferDto}
+     */
+    public void append(TransferDto transfer) {
+        jdbcTemplate.update(INSERT, parameters(transfer));
+    }
+
+    /**
+     * @param transfers сохранённые переводы {@link TransferDto}, вставляются одним JDBC-батчем
+     */
+    public void appendAll(List<TransferDto> transfers) {
+        jdbcTemplate.batchUpdate(INSERT, transfers.stream().map(this::parameters).toList());
+    }
+
+    /**
+     * Занимает до limit самых старых свободных событий на leaseMillis одним запросом, без открытой транзакции.
+     * Событие, не удалённое и не освобождённое за это время, снова может занять любой экземпляр.
+     *
+     * @param limit       размер пачки
+     * @param leaseMillis на сколько миллисекунд занимаются события
+     * @return лист {@link TransferEventDto} в порядке id
+     */
+    public List<TransferEventDto> claimBatch(int limit, long leaseMillis) {
+        return jdbcTemplate.query(CLAIM_BATCH, EVENT_MAPPER, leaseMillis, limit).stream()
+                .sorted(Comparator.comparing(TransferEventDto::getEventId))
+                .toList();
+    }
+
+    /**
+     * @param eventIds идентификаторы доставленных событий
+     */
+    public void deleteAll(List<Long> eventIds) {
+        jdbcTemplate.update(DELETE, toArray(eventIds));
+    }
+
+    /**
+     * Освобождает занятые события, не дожидаясь конца аренды, чтобы они ушли со следующей пачкой.
+     *
+     * @param eventIds идентификаторы не доставленных событий
+     */
+    public void releaseAll(List<Long> eventIds) {
+        jdbcTemplate.update(RELEASE, toArray(eventIds));
+    }
+
+    /**
+     * @return возраст самого старого неотправленного события в миллисекундах, 0 - outbox пуст
+     */
+    public long lagMillis() {
+        return jdbcTemplate.queryForList(LAG_MILLIS, Double.class).stream()
+                .findFirst()
+                .map(Double::longValue)
+                .orElse(0L);
+    }
+
+    private static String toArray(List<Long> eventIds) {
+        return eventIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private Object[] parameters(TransferDto transfer) {
+        return new Object[]{transfer.getChannel().name(), transfer.getId(), transfer.getRecipientNumber(),
+                transfer.getAmount().toBigDecimal(), transfer.getPurpose(), transfer.getAccountDetailsId()};
+    }
+}
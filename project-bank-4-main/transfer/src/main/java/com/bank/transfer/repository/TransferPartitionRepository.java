@@ -0,0 +1,30 @@
+package com.bank.transfer.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Репозиторий месячных секций таблиц переводов.
+ * Секции создаёт функция transfer.create_monthly_partitions из changelog-009.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransferPartitionRepository {
+
+    private static final String CREATE_MONTHLY_PARTITIONS = "SELECT transfer.create_monthly_partitions(?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param table       секционированная таблица переводов
+     * @param monthsAhead на сколько месяцев после текущего создать секции
+     * @return количество созданных секций
+     */
+    public int createMonthlyPartitions(String table, int monthsAhead) {
+        final Integer created = jdbcTemplate.queryForObject(CREATE_MONTHLY_PARTITIONS, Integer.class,
+                table, monthsAhead);
+
+        return created == null ? 0 : created;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bank.transfer.repository;
+
+import com.bank.transfer.entity.TransferViewEntity;
+import com.bank.transfer.entity.TransferViewId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+/**
+ * Репозиторий для {@link TransferViewEntity}
+ */
+public interface TransferViewRepository extends JpaRepository<TransferViewEntity, TransferViewId> {
+
+    /**
+     * Условие по created_at проходит через представление в каждый канал,
+     * и PostgreSQL читает только секции периода.
+     *
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @param from             начало периода включительно
+     * @param to               конец периода не включительно
+     * @param pageable         страница и сортировка
+     * @return страница {@link TransferViewEntity}
+     */
+    @Query("SELECT t FROM TransferViewEntity t WHERE t.accountDetailsId = :accountDetailsId "
+            + "AND t.createdAt >= :from AND t.createdAt < :to")
+    Page<TransferViewEntity> findAllByAccountDetailsIdInPeriod(@Param("accountDetailsId") Long accountDetailsId,
+                                                               @Param("from") LocalDateTime from,
+                                                               @Param("to") LocalDateTime to,
+                                                               Pageable pageable);
+}
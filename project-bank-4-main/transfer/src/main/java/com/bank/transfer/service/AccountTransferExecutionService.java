@@ -0,0 +1,19 @@
+package com.bank.transfer.service;
+
+import com.bank.transfer.dto.AccountTransferDto;
+
+/**
+ * Сервис проведения переводов по номеру счёта с изменением балансов счетов.
+ */
+public interface AccountTransferExecutionService {
+
+    /**
+     * Списывает amount со счёта accountDetailsId, зачисляет на счёт accountNumber
+     * и сохраняет перевод и ответ для Idempotency-Key в одной транзакции.
+     *
+     * @param idempotencyKey  ключ идемпотентности, null - без проверки повтора
+     * @param accountTransfer {@link AccountTransferDto}
+     * @return {@link AccountTransferDto} или сохранённый ответ на первый запрос с этим ключом
+     */
+    AccountTransferDto execute(String idempotencyKey, AccountTransferDto accountTransfer);
+}
@@ -1,8 +1,12 @@
 package com.bank.transfer.service;
 
+import com.bank.transfer.dto.BatchResultDto;
 import com.bank.transfer.dto.CardTransferDto;
 import com.bank.transfer.entity.CardTransferEntity;
+import com.bank.transfer.service.common.TransferPeriod;
 
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -28,10 +32,28 @@ public interface CardTransferService {
      */
     CardTransferDto save(CardTransferDto cardTransfer);
 
+    /**
+     * @param cardTransfers поток {@link CardTransferDto}, сохраняется чанками
+     * @return {@link BatchResultDto} с результатом по каждому переводу
+     */
+    BatchResultDto saveAll(Iterator<CardTransferDto> cardTransfers);
+
     /**
      * @param cardTransfer {@link CardTransferDto}
      * @param id           технический идентификатор {@link CardTransferEntity}
      * @return {@link CardTransferDto}
      */
     CardTransferDto update(Long id, CardTransferDto cardTransfer);
+
+    /**
+     * Пишет переводы счёта в NDJSON в порядке возрастания id.
+     *
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @param period           период создания переводов
+     * @param afterId          id последнего перевода предыдущей страницы
+     * @param limit            размер страницы, null - до конца
+     * @param out              поток ответа
+     */
+    void exportByAccountDetailsId(Long accountDetailsId, TransferPeriod period, Long afterId, Integer limit,
+                                  OutputStream out);
 }
@@ -0,0 +1,150 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.common.concurrent.StripedLock;
+import com.bank.common.exception.ValidationException;
+import com.bank.common.money.Money;
+import com.bank.transfer.dto.AccountTargetDto;
+import com.bank.transfer.dto.AccountTransferDto;
+import com.bank.transfer.entity.AccountTransferEntity;
+import com.bank.transfer.mapper.AccountTransferMapper;
+import com.bank.transfer.repository.AccountBalanceRepository;
+import com.bank.transfer.repository.AccountTransferRepository;
+import com.bank.transfer.repository.OutboxEventRepository;
+import com.bank.transfer.service.AccountTransferExecutionService;
+import com.bank.transfer.service.common.EntityNotFoundReturner;
+import com.bank.transfer.service.common.IdempotencyStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Реализация {@link AccountTransferExecutionService}.
+ * Переводы сериализуются по счетам через {@link StripedLock}: переводы между несвязанными счетами
+ * идут параллельно, а ожидание блокировки горячего счёта ограничено lock-timeout-ms.
+ * Зачисление на счёт со слотами баланса не блокирует ни строку счёта, ни его полосу {@link StripedLock}.
+ * Баланс меняется напрямую в account_details, поэтому перевод отклоняется, пока работает журнал баланса account.
+ * Ключ идемпотентности занимается в транзакции перевода, и полосы снимаются только после её коммита.
+ */
+@Slf4j
+@Service
+public class AccountTransferExecutionServiceImpl implements AccountTransferExecutionService {
+
+    private static final String IDEMPOTENCY_SCOPE = "account-execute";
+
+    private static final String ACCOUNT_NOT_FOUND_MESSAGE = "Не найден банковский счёт с номером ";
+
+    private static final String DEBIT_FAILED_MESSAGE =
+            "Недостаточно средств или не найден банковский счёт списания с ID ";
+
+    private static final String CREDIT_FAILED_MESSAGE = "Не найден банковский счёт зачисления с ID ";
+
+    private final AccountTransferRepository repository;
+    private final AccountBalanceRepository balanceRepository;
+    private final OutboxEventRepository outboxRepository;
+    private final AccountTransferMapper mapper;
+    private final EntityNotFoundReturner notFoundReturner;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyStore idempotencyStore;
+    private final StripedLock accountLocks;
+    private final long lockTimeout;
+
+    public AccountTransferExecutionServiceImpl(AccountTransferRepository repository,
+                                               AccountBalanceRepository balanceRepository,
+                                               OutboxEventRepository outboxRepository,
+                                               AccountTransferMapper mapper,
+                                               EntityNotFoundReturner notFoundReturner,
+                                               TransactionTemplate transactionTemplate,
+                                               IdempotencyStore idempotencyStore,
+                                               @Value("${bank.transfer.lock-stripes:1024}") int lockStripes,
+                                               @Value("${bank.transfer.lock-timeout-ms:500}") long lockTimeout) {
+        this.repository = repository;
+        this.balanceRepository = balanceRepository;
+        this.outboxRepository = outboxRepository;
+        this.mapper = mapper;
+        this.notFoundReturner = notFoundReturner;
+        this.transactionTemplate = transactionTemplate;
+        this.idempotencyStore = idempotencyStore;
+        this.accountLocks = new StripedLock(lockStripes);
+        this.lockTimeout = lockTimeout;
+    }
+
+    /**
+     * @param idempotencyKey  ключ идемпотентности, null - без проверки повтора
+     * @param accountTransfer {@link AccountTransferDto}
+     * @return {@link AccountTransferDto}
+     */
+    @Override
+    public AccountTransferDto execute(String idempotencyKey, AccountTransferDto accountTransfer) {
+        validate(accountTransfer);
+
+        return idempotencyStore.execute(IDEMPOTENCY_SCOPE, idempotencyKey, accountTransfer, AccountTransferDto.class,
+                guard -> executeLocked(accountTransfer, guard));
+    }
+
+    // полосы берутся до открытия транзакции и снимаются после её коммита: ожидание полосы не держит соединение,
+    // а строки счетов и ключ идемпотентности не остаются заблокированными в БД после снятия полосы
+    private AccountTransferDto executeLocked(AccountTransferDto accountTransfer,
+                                             IdempotencyStore.Guard<AccountTransferDto> guard) {
+        final Long sourceId = accountTransfer.getAccountDetailsId();
+        final AccountTargetDto target = balanceRepository.findTargetByAccountNumber(accountTransfer.getAccountNumber())
+                .orElseThrow(() -> notFoundReturner.getEntityNotFoundException(
+                        accountTransfer.getAccountNumber(), ACCOUNT_NOT_FOUND_MESSAGE));
+        final Long targetId = target.getId();
+
+        if (sourceId.equals(targetId)) {
+            throw new ValidationException("Счёт списания и счёт зачисления совпадают");
+        }
+
+        final long[] lockedIds = target.isHot() ? new long[]{sourceId} : new long[]{sourceId, targetId};
+
+        return accountLocks.executeLocked(lockedIds, lockTimeout,
+                () -> transactionTemplate.execute(status ->
+                        guard.once(() -> transfer(accountTransfer, sourceId, targetId))));
+    }
+
+    private AccountTransferDto transfer(AccountTransferDto accountTransfer, Long sourceId, Long targetId) {
+        balanceRepository.lockDirectChange();
+
+        final Money amount = accountTransfer.getAmount();
+
+        // строки счетов обновляются в порядке возрастания id, чтобы параллельные переводы
+        // между теми же счетами на других экземплярах сервиса не приводили к deadlock в БД
+        if (sourceId < targetId) {
+            debit(sourceId, amount);
+            credit(targetId, amount);
+        } else {
+            credit(targetId, amount);
+            debit(sourceId, amount);
+        }
+
+        log.debug("Переведено {} со счёта {} на счёт {}", amount, sourceId, targetId);
+
+        final AccountTransferEntity transfer = repository.save(mapper.toEntity(accountTransfer));
+        outboxRepository.append(mapper.toTransferDto(transfer));
+
+        return mapper.toDto(transfer);
+    }
+
+    private void debit(Long accountId, Money amount) {
+        if (!balanceRepository.debit(accountId, amount)) {
+            throw new ValidationException(DEBIT_FAILED_MESSAGE + accountId);
+        }
+    }
+
+    private void credit(Long accountId, Money amount) {
+        if (!balanceRepository.credit(accountId, amount)) {
+            throw notFoundReturner.getEntityNotFoundException(accountId, CREDIT_FAILED_MESSAGE);
+        }
+    }
+
+    private void validate(AccountTransferDto accountTransfer) {
+        if (accountTransfer.getAccountDetailsId() == null || accountTransfer.getAccountNumber() == null) {
+            throw new ValidationException("Не указаны счёт списания или номер счёта зачисления");
+        }
+
+        if (accountTransfer.getAmount() == null || accountTransfer.getAmount().signum() <= 0) {
+            throw new ValidationException("Сумма перевода должна быть больше нуля");
+        }
+    }
+}
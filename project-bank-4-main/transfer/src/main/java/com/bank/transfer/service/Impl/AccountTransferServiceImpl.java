@@ -1,17 +1,26 @@
 package com.bank.transfer.service.Impl;
 
+import com.bank.common.reader.BulkReader;
+import com.bank.common.retry.OptimisticRetry;
+import com.bank.transfer.dto.BatchResultDto;
 import com.bank.transfer.dto.AccountTransferDto;
 import com.bank.transfer.entity.AccountTransferEntity;
+import com.bank.transfer.entity.TransferChannel;
 import com.bank.transfer.mapper.AccountTransferMapper;
 import com.bank.transfer.repository.AccountTransferRepository;
+import com.bank.transfer.repository.OutboxEventRepository;
+import com.bank.transfer.service.common.BatchWriter;
 import com.bank.transfer.service.common.EntityNotFoundReturner;
+import com.bank.transfer.service.common.TransferExporter;
+import com.bank.transfer.service.common.TransferPeriod;
 import com.bank.transfer.service.AccountTransferService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -25,8 +34,12 @@ public class AccountTransferServiceImpl implements AccountTransferService {
     private final static String MESSAGE = "Не найден перевод по номеру счета с ID ";
 
     private final AccountTransferRepository repository;
+    private final OutboxEventRepository outboxRepository;
     private final AccountTransferMapper mapper;
     private final EntityNotFoundReturner notFoundReturner;
+    private final BulkReader bulkReader;
+    private final BatchWriter batchWriter;
+    private final TransferExporter exporter;
 
     /**
      * @param ids список технических идентификаторов {@link AccountTransferEntity}
@@ -34,13 +47,10 @@ public class AccountTransferServiceImpl implements AccountTransferService {
      */
     @Override
     public List<AccountTransferDto> findAllById(List<Long> ids) {
-        final List<AccountTransferDto> accountTransferDtoList = new ArrayList<>();
+        final List<AccountTransferEntity> accountTransfers = bulkReader.findAllById(
+                AccountTransferEntity.class, AccountTransferEntity::getId, ids, MESSAGE);
 
-        for (Long id : ids) {
-            accountTransferDtoList.add(findById(id));
-        }
-
-        return accountTransferDtoList;
+        return mapper.toDtoList(accountTransfers);
     }
 
     /**
@@ -64,16 +74,28 @@ public class AccountTransferServiceImpl implements AccountTransferService {
     public AccountTransferDto save(AccountTransferDto accountTransfer) {
         final AccountTransferEntity transfer = repository.save(
                 mapper.toEntity(accountTransfer));
+        outboxRepository.append(mapper.toTransferDto(transfer));
 
         return mapper.toDto(transfer);
     }
 
+    /**
+     * @param accountTransfers поток {@link AccountTransferDto}, сохраняется чанками
+     * @return {@link BatchResultDto} с результатом по каждому переводу
+     */
+    @Override
+    public BatchResultDto saveAll(Iterator<AccountTransferDto> accountTransfers) {
+        return batchWriter.write(accountTransfers, this::validate, mapper::toEntity,
+                repository, AccountTransferEntity::getId, mapper::toTransferDto);
+    }
+
     /**
      * @param accountTransfer {@link AccountTransferDto}
      * @param id              технический идентификатор {@link AccountTransferEntity}
      * @return {@link AccountTransferDto}
      */
     @Override
+    @OptimisticRetry
     @Transactional
     public AccountTransferDto update(Long id, AccountTransferDto accountTransfer) {
         final AccountTransferEntity transfer = repository.findById(id)
@@ -83,4 +105,30 @@ public class AccountTransferServiceImpl implements AccountTransferService {
 
         return mapper.toDto(repository.save(accountTransferEntity));
     }
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @param period           период создания переводов
+     * @param afterId          id последнего перевода предыдущей страницы
+     * @param limit            размер страницы, null - до конца
+     * @param out              поток ответа
+     */
+    @Override
+    public void exportByAccountDetailsId(Long accountDetailsId, TransferPeriod period, Long afterId, Integer limit,
+                                         OutputStream out) {
+        exporter.export(TransferChannel.ACCOUNT, AccountTransferDto.class, accountDetailsId, period,
+                afterId, limit, out);
+    }
+
+    private String validate(AccountTransferDto accountTransfer) {
+        if (accountTransfer.getAccountNumber() == null || accountTransfer.getAccountDetailsId() == null) {
+            return "Не указаны номер счёта зачисления или счёт списания";
+        }
+
+        if (accountTransfer.getAmount() == null || accountTransfer.getAmount().signum() <= 0) {
+            return "Сумма перевода должна быть больше нуля";
+        }
+
+        return null;
+    }
 }
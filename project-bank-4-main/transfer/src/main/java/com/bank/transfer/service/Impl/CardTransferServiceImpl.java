@@ -1,17 +1,26 @@
 package com.bank.transfer.service.Impl;
 
+import com.bank.common.reader.BulkReader;
+import com.bank.common.retry.OptimisticRetry;
+import com.bank.transfer.dto.BatchResultDto;
 import com.bank.transfer.dto.CardTransferDto;
 import com.bank.transfer.entity.CardTransferEntity;
+import com.bank.transfer.entity.TransferChannel;
 import com.bank.transfer.mapper.CardTransferMapper;
 import com.bank.transfer.repository.CardTransferRepository;
+import com.bank.transfer.repository.OutboxEventRepository;
+import com.bank.transfer.service.common.BatchWriter;
 import com.bank.transfer.service.common.EntityNotFoundReturner;
+import com.bank.transfer.service.common.TransferExporter;
+import com.bank.transfer.service.common.TransferPeriod;
 import com.bank.transfer.service.CardTransferService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -25,8 +34,12 @@ public class CardTransferServiceImpl implements CardTransferService {
     private final static String MESSAGE = "Не найден перевод по номеру карты с ID ";
 
     private final CardTransferRepository repository;
+    private final OutboxEventRepository outboxRepository;
     private final CardTransferMapper mapper;
     private final EntityNotFoundReturner notFoundReturner;
+    private final BulkReader bulkReader;
+    private final BatchWriter batchWriter;
+    private final TransferExporter exporter;
 
     /**
      * @param ids список технических идентификаторов {@link CardTransferEntity}
@@ -34,13 +47,10 @@ public class CardTransferServiceImpl implements CardTransferService {
      */
     @Override
     public List<CardTransferDto> findAllById(List<Long> ids) {
-        final List<CardTransferDto> cardTransferDtoList = new ArrayList<>();
+        final List<CardTransferEntity> cardTransfers = bulkReader.findAllById(
+                CardTransferEntity.class, CardTransferEntity::getId, ids, MESSAGE);
 
-        for (Long id : ids) {
-            cardTransferDtoList.add(findById(id));
-        }
-
-        return cardTransferDtoList;
+        return mapper.toDtoList(cardTransfers);
     }
 
     /**
@@ -64,16 +74,28 @@ public class CardTransferServiceImpl implements CardTransferService {
     public CardTransferDto save(CardTransferDto cardTransfer) {
         final CardTransferEntity transfer = repository.save(
                 mapper.toEntity(cardTransfer));
+        outboxRepository.append(mapper.toTransferDto(transfer));
 
         return mapper.toDto(transfer);
     }
 
+    /**
+     * @param cardTransfers поток {@link CardTransferDto}, сохраняется чанками
+     * @return {@link BatchResultDto} с результатом по каждому переводу
+     */
+    @Override
+    public BatchResultDto saveAll(Iterator<CardTransferDto> cardTransfers) {
+        return batchWriter.write(cardTransfers, this::validate, mapper::toEntity,
+                repository, CardTransferEntity::getId, mapper::toTransferDto);
+    }
+
     /**
      * @param cardTransfer {@link CardTransferDto}
      * @param id           технический идентификатор {@link CardTransferEntity}
      * @return {@link CardTransferDto}
      */
     @Override
+    @OptimisticRetry
     @Transactional
     public CardTransferDto update(Long id, CardTransferDto cardTransfer) {
         final CardTransferEntity transfer = repository.findById(id)
@@ -83,4 +105,30 @@ public class CardTransferServiceImpl implements CardTransferService {
 
         return mapper.toDto(repository.save(cardTransferEntity));
     }
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @param period           период создания переводов
+     * @param afterId          id последнего перевода предыдущей страницы
+     * @param limit            размер страницы, null - до конца
+     * @param out              поток ответа
+     */
+    @Override
+    public void exportByAccountDetailsId(Long accountDetailsId, TransferPeriod period, Long afterId, Integer limit,
+                                         OutputStream out) {
+        exporter.export(TransferChannel.CARD, CardTransferDto.class, accountDetailsId, period,
+                afterId, limit, out);
+    }
+
+    private String validate(CardTransferDto cardTransfer) {
+        if (cardTransfer.getCardNumber() == null || cardTransfer.getAccountDetailsId() == null) {
+            return "Не указаны номер карты или счёт списания";
+        }
+
+        if (cardTransfer.getAmount() == null || cardTransfer.getAmount().signum() <= 0) {
+            return "Сумма перевода должна быть больше нуля";
+        }
+
+        return null;
+    }
 }
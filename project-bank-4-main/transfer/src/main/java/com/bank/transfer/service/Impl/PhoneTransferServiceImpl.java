@@ -1,17 +1,26 @@
 package com.bank.transfer.service.Impl;
 
+import com.bank.common.reader.BulkReader;
+import com.bank.common.retry.OptimisticRetry;
+import com.bank.transfer.dto.BatchResultDto;
 import com.bank.transfer.dto.PhoneTransferDto;
 import com.bank.transfer.mapper.PhoneTransferMapper;
 import com.bank.transfer.repository.PhoneTransferRepository;
+import com.bank.transfer.repository.OutboxEventRepository;
 import com.bank.transfer.entity.PhoneTransferEntity;
+import com.bank.transfer.entity.TransferChannel;
 import com.bank.transfer.service.PhoneTransferService;
+import com.bank.transfer.service.common.BatchWriter;
 import com.bank.transfer.service.common.EntityNotFoundReturner;
+import com.bank.transfer.service.common.TransferExporter;
+import com.bank.transfer.service.common.TransferPeriod;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -25,8 +34,12 @@ public class PhoneTransferServiceImpl implements PhoneTransferService {
     private final static String MESSAGE = "Не найден перевод по номеру телефона с ID ";
 
     private final PhoneTransferRepository repository;
+    private final OutboxEventRepository outboxRepository;
     private final PhoneTransferMapper mapper;
     private final EntityNotFoundReturner notFoundReturner;
+    private final BulkReader bulkReader;
+    private final BatchWriter batchWriter;
+    private final TransferExporter exporter;
 
     /**
      * @param ids список технических идентификаторов {@link PhoneTransferEntity}
@@ -34,13 +47,10 @@ public class PhoneTransferServiceImpl implements PhoneTransferService {
      */
     @Override
     public List<PhoneTransferDto> findAllById(List<Long> ids) {
-        final List<PhoneTransferDto> phoneTransferDtoList = new ArrayList<>();
+        final List<PhoneTransferEntity> phoneTransfers = bulkReader.findAllById(
+                PhoneTransferEntity.class, PhoneTransferEntity::getId, ids, MESSAGE);
 
-        for (Long id : ids) {
-            phoneTransferDtoList.add(findById(id));
-        }
-
-        return phoneTransferDtoList;
+        return mapper.toDtoList(phoneTransfers);
     }
 
     /**
@@ -64,16 +74,28 @@ public class PhoneTransferServiceImpl implements PhoneTransferService {
     public PhoneTransferDto save(PhoneTransferDto phoneTransfer) {
         final PhoneTransferEntity transfer = repository.save(
                 mapper.toEntity(phoneTransfer));
+        outboxRepository.append(mapper.toTransferDto(transfer));
 
         return mapper.toDto(transfer);
     }
 
+    /**
+     * @param phoneTransfers поток {@link PhoneTransferDto}, сохраняется чанками
+     * @return {@link BatchResultDto} с результатом по каждому переводу
+     */
+    @Override
+    public BatchResultDto saveAll(Iterator<PhoneTransferDto> phoneTransfers) {
+        return batchWriter.write(phoneTransfers, this::validate, mapper::toEntity,
+                repository, PhoneTransferEntity::getId, mapper::toTransferDto);
+    }
+
     /**
      * @param phoneTransfer {@link PhoneTransferDto}
      * @param id            технический идентификатор {@link PhoneTransferEntity}
      * @return {@link PhoneTransferDto}
      */
     @Override
+    @OptimisticRetry
     @Transactional
     public PhoneTransferDto update(Long id, PhoneTransferDto phoneTransfer) {
         final PhoneTransferEntity transfer = repository.findById(id)
@@ -83,4 +105,30 @@ public class PhoneTransferServiceImpl implements PhoneTransferService {
 
         return mapper.toDto(repository.save(phoneTransferEntity));
     }
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @param period           период создания переводов
+     * @param afterId          id последнего перевода предыдущей страницы
+     * @param limit            размер страницы, null - до конца
+     * @param out              поток ответа
+     */
+    @Override
+    public void exportByAccountDetailsId(Long accountDetailsId, TransferPeriod period, Long afterId, Integer limit,
+                                         OutputStream out) {
+        exporter.export(TransferChannel.PHONE, PhoneTransferDto.class, accountDetailsId, period,
+                afterId, limit, out);
+    }
+
+    private String validate(PhoneTransferDto phoneTransfer) {
+        if (phoneTransfer.getPhoneNumber() == null || phoneTransfer.getAccountDetailsId() == null) {
+            return "Не указаны номер телефона или счёт списания";
+        }
+
+        if (phoneTransfer.getAmount() == null || phoneTransfer.getAmount().signum() <= 0) {
+            return "Сумма перевода должна быть больше нуля";
+        }
+
+        return null;
+    }
 }
@@ -0,0 +1,37 @@
+package com.bank.transfer.service.Impl;
+
+import com.bank.transfer.dto.TransferDto;
+import com.bank.transfer.mapper.TransferMapper;
+import com.bank.transfer.repository.TransferViewRepository;
+import com.bank.transfer.service.TransferService;
+import com.bank.transfer.service.common.TransferPeriod;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Реализация {@link TransferService}
+ */
+@Service
+@RequiredArgsConstructor
+public class TransferServiceImpl implements TransferService {
+
+    private final TransferViewRepository repository;
+    private final TransferMapper mapper;
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @param period           период создания переводов
+     * @param pageable         страница и сортировка
+     * @return страница {@link TransferDto} всех каналов
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TransferDto> findAllByAccountDetailsId(Long accountDetailsId, TransferPeriod period,
+                                                       Pageable pageable) {
+        return repository.findAllByAccountDetailsIdInPeriod(accountDetailsId, period.getFrom(), period.getTo(),
+                pageable).map(mapper::toDto);
+    }
+}
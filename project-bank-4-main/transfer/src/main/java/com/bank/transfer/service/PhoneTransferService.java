@@ -1,8 +1,12 @@
 package com.bank.transfer.service;
 
+import com.bank.transfer.dto.BatchResultDto;
 import com.bank.transfer.dto.PhoneTransferDto;
 import com.bank.transfer.entity.PhoneTransferEntity;
+import com.bank.transfer.service.common.TransferPeriod;
 
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -28,10 +32,28 @@ public interface PhoneTransferService {
      */
     PhoneTransferDto save(PhoneTransferDto phoneTransfer);
 
+    /**
+     * @param phoneTransfers поток {@link PhoneTransferDto}, сохраняется чанками
+     * @return {@link BatchResultDto} с результатом по каждому переводу
+     */
+    BatchResultDto saveAll(Iterator<PhoneTransferDto> phoneTransfers);
+
     /**
      * @param phoneTransfer {@link PhoneTransferDto}
      * @param id            технический идентификатор {@link PhoneTransferEntity}
      * @return {@link PhoneTransferDto}
      */
     PhoneTransferDto update(Long id, PhoneTransferDto phoneTransfer);
+
+    /**
+     * Пишет переводы счёта в NDJSON в порядке возрастания id.
+     *
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @param period           период создания переводов
+     * @param afterId          id последнего перевода предыдущей страницы
+     * @param limit            размер страницы, null - до конца
+     * @param out              поток ответа
+     */
+    void exportByAccountDetailsId(Long accountDetailsId, TransferPeriod period, Long afterId, Integer limit,
+                                  OutputStream out);
 }
@@ -0,0 +1,21 @@
+package com.bank.transfer.service;
+
+import com.bank.transfer.dto.TransferDto;
+import com.bank.transfer.entity.TransferViewEntity;
+import com.bank.transfer.service.common.TransferPeriod;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Сервис для {@link TransferViewEntity} и {@link TransferDto}
+ */
+public interface TransferService {
+
+    /**
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @param period           период создания переводов
+     * @param pageable         страница и сортировка
+     * @return страница {@link TransferDto} всех каналов
+     */
+    Page<TransferDto> findAllByAccountDetailsId(Long accountDetailsId, TransferPeriod period, Pageable pageable);
+}
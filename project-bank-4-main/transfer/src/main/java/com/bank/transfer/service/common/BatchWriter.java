@@ -0,0 +1,161 @@
+package com.bank.transfer.service.common;
+
+import com.bank.transfer.dto.BatchItemResultDto;
+import com.bank.transfer.dto.BatchResultDto;
+import com.bank.transfer.dto.TransferDto;
+import com.bank.transfer.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Пакетно сохраняет переводы чанками по chunk-size штук: один чанк - одна транзакция,
+ * вставки внутри чанка уходят в БД JDBC-батчами (hibernate.jdbc.batch_size).
+ * Если чанк не сохранился целиком, его переводы сохраняются по одному, чтобы найти сломанный.
+ * Outbox-события о сохранённых переводах пишутся в той же транзакции, что и чанк.
+ */
+@Slf4j
+@Component
+public class BatchWriter {
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final OutboxEventRepository outboxRepository;
+    private final int chunkSize;
+
+    public BatchWriter(TransactionTemplate transactionTemplate,
+                       EntityManager entityManager,
+                       OutboxEventRepository outboxRepository,
+                       @Value("${bank.transfer.batch.chunk-size:500}") int chunkSize) {
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.outboxRepository = outboxRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param items       переводы в порядке входного потока
+     * @param validator   возвращает текст ошибки или null для корректного перевода
+     * @param toEntity    маппер ДТО в сущность
+     * @param repository  репозиторий сущности
+     * @param idExtractor возвращает технический идентификатор сохранённой сущности
+     * @param toTransfer  маппер сохранённой сущности в {@link TransferDto} для outbox
+     * @return {@link BatchResultDto}
+     */
+    public <D, E> BatchResultDto write(Iterator<D> items, Function<D, String> validator, Function<D, E> toEntity,
+                                       JpaRepository<E, Long> repository, Function<E, Long> idExtractor,
+                                       Function<E, TransferDto> toTransfer) {
+        final Chunk<D, E> chunk = new Chunk<>(toEntity, repository, idExtractor, toTransfer);
+        final List<BatchItemResultDto> results = new ArrayList<>();
+
+        int index = 0;
+        while (items.hasNext()) {
+            final int current = index++;
+            final D item;
+            try {
+                item = items.next();
+            } catch (RuntimeException e) {
+                results.add(new BatchItemResultDto(current, null, e.getMessage()));
+                continue;
+            }
+
+            final String error = validator.apply(item);
+            if (error != null) {
+                results.add(new BatchItemResultDto(current, null, error));
+                continue;
+            }
+
+            chunk.add(current, item);
+            if (chunk.size() == chunkSize) {
+                results.addAll(chunk.flush());
+            }
+        }
+        results.addAll(chunk.flush());
+        results.sort(Comparator.comparingInt(BatchItemResultDto::getIndex));
+
+        final int created = (int) results.stream().filter(result -> result.getId() != null).count();
+
+        return new BatchResultDto(results.size(), created, results.size() - created, results);
+    }
+
+    /**
+     * Накопленные, но ещё не сохранённые переводы
+     */
+    private final class Chunk<D, E> {
+
+        private final List<Integer> indexes = new ArrayList<>();
+        private final List<D> items = new ArrayList<>();
+        private final Function<D, E> toEntity;
+        private final JpaRepository<E, Long> repository;
+        private final Function<E, Long> idExtractor;
+        private final Function<E, TransferDto> toTransfer;
+
+        private Chunk(Function<D, E> toEntity, JpaRepository<E, Long> repository, Function<E, Long> idExtractor,
+                      Function<E, TransferDto> toTransfer) {
+            this.toEntity = toEntity;
+            this.repository = repository;
+            this.idExtractor = idExtractor;
+            this.toTransfer = toTransfer;
+        }
+
+        private void add(int index, D item) {
+            indexes.add(index);
+            items.add(item);
+        }
+
+        private int size() {
+            return items.size();
+        }
+
+        private List<BatchItemResultDto> flush() {
+            final List<BatchItemResultDto> results = new ArrayList<>(items.size());
+            if (items.isEmpty()) {
+                return results;
+            }
+
+            try {
+                final List<Long> ids = persist(items);
+                for (int i = 0; i < ids.size(); i++) {
+                    results.add(new BatchItemResultDto(indexes.get(i), ids.get(i), null));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Чанк из {} переводов не сохранён, сохраняем по одному: {}", items.size(), e.getMessage());
+                for (int i = 0; i < items.size(); i++) {
+                    results.add(persistOne(indexes.get(i), items.get(i)));
+                }
+            }
+
+            indexes.clear();
+            items.clear();
+            return results;
+        }
+
+        private BatchItemResultDto persistOne(int index, D item) {
+            try {
+                return new BatchItemResultDto(index, persist(List.of(item)).get(0), null);
+            } catch (RuntimeException e) {
+                return new BatchItemResultDto(index, null, e.getMessage());
+            }
+        }
+
+        private List<Long> persist(List<D> chunk) {
+            // сущности создаются заново на каждую попытку: после отката у них уже проставлен id
+            return transactionTemplate.execute(status -> {
+                final List<E> saved = repository.saveAll(chunk.stream().map(toEntity).toList());
+                repository.flush();
+                outboxRepository.appendAll(saved.stream().map(toTransfer).toList());
+                entityManager.clear();
+                return saved.stream().map(idExtractor).toList();
+            });
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.bank.transfer.service.common;
+
+import com.bank.common.cache.TtlCache;
+import com.bank.common.exception.ValidationException;
+import com.bank.transfer.dto.IdempotentResponseDto;
+import com.bank.transfer.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Выполняет создающие операции не более одного раза на Idempotency-Key.
+ * Ответ на первый запрос хранится в ограниченном кэше в памяти и в таблице transfer.idempotency_key,
+ * повтор возвращает сохранённый ответ без записи в БД. Вместе с ответом хранится хэш тела первого запроса:
+ * тот же ключ с другим телом отклоняется, а не получает чужой ответ.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    /**
+     * Заголовок запроса с ключом идемпотентности
+     */
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final TtlCache<String, IdempotentResponseDto> responses;
+    private final long ttlMillis;
+
+    public IdempotencyStore(IdempotencyKeyRepository repository,
+                            TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper,
+                            @Value("${bank.transfer.idempotency.cache-size:10000}") int cacheSize,
+                            @Value("${bank.transfer.idempotency.ttl-ms:86400000}") long ttlMillis) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.responses = new TtlCache<>(cacheSize, ttlMillis);
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Выполняет операцию в транзакции вместе с занятием ключа и сохранением ответа.
+     *
+     * @param scope   операция, в пределах которой уникален ключ
+     * @param key     значение заголовка Idempotency-Key, null - выполнить операцию без проверки
+     * @param request тело запроса
+     * @param type    тип ответа
+     * @param action  операция
+     * @return ответ операции или сохранённый ответ на первый запрос с этим ключом
+     */
+    public <T> T execute(String scope, String key, Object request, Class<T> type, Supplier<T> action) {
+        return execute(scope, key, request, type, guard -> transactionTemplate.execute(status -> guard.once(action)));
+    }
+
+    /**
+     * Выполняет операцию, которая сама открывает транзакцию, например под блокировками, снимаемыми после коммита.
+     * Внутри своей транзакции операция вызывает {@link Guard#once}: ключ занимается и ответ сохраняется
+     * в ней же, поэтому блокировки операции держатся до коммита ключа.
+     *
+     * @param scope     операция, в пределах которой уникален ключ
+     * @param key       значение заголовка Idempotency-Key, null - выполнить операцию без проверки
+     * @param request   тело запроса
+     * @param type      тип ответа
+     * @param operation операция с собственной транзакцией
+     * @return ответ операции или сохранённый ответ на первый запрос с этим ключом
+     * @throws ValidationException если ключ уже использован с другим телом запроса
+     */
+    public <T> T execute(String scope, String key, Object request, Class<T> type,
+                         Function<Guard<T>, T> operation) {
+        if (key == null) {
+            return operation.apply(new Guard<>(scope, null, null, type));
+        }
+
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("Idempotency-Key должен быть непустым и не длиннее "
+                    + MAX_KEY_LENGTH + " символов");
+        }
+
+        final String cacheKey = scope + ':' + key;
+        final String requestHash = hash(request);
+        final Optional<IdempotentResponseDto> stored = Optional.ofNullable(responses.get(cacheKey))
+                .or(() -> repository.findResponse(scope, key, ttlMillis));
+
+        if (stored.isPresent()) {
+            log.debug("Повтор запроса {} с Idempotency-Key {}", scope, key);
+            responses.put(cacheKey, stored.get());
+            return read(stored.get(), requestHash, key, type);
+        }
+
+        final Guard<T> guard = new Guard<>(scope, key, requestHash, type);
+        final T response = operation.apply(guard);
+
+        if (guard.saved != null) {
+            responses.put(cacheKey, guard.saved);
+        }
+
+        return response;
+    }
+
+    /**
+     * Удаляет просроченные ключи из таблицы.
+     */
+    @Scheduled(fixedDelayString = "${bank.transfer.idempotency.cleanup-interval-ms:600000}")
+    public void deleteExpired() {
+        final int deleted = repository.deleteExpired(ttlMillis);
+
+        if (deleted > 0) {
+            log.debug("Удалено {} просроченных ключей идемпотентности", deleted);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Не удалось вычислить хэш запроса для Idempotency-Key", e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сохранить ответ для Idempotency-Key", e);
+        }
+    }
+
+    // у ключей, сохранённых до появления проверки тела, хэша нет, и они отдаются как раньше
+    private <T> T read(IdempotentResponseDto stored, String requestHash, String key, Class<T> type) {
+        if (stored.getRequestHash() != null && !stored.getRequestHash().equals(requestHash)) {
+            throw new ValidationException("Idempotency-Key " + key + " уже использован с другим телом запроса");
+        }
+
+        try {
+            return objectMapper.readValue(stored.getResponse(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать сохранённый ответ для Idempotency-Key", e);
+        }
+    }
+
+    /**
+     * Занятие ключа одним запросом внутри транзакции операции.
+     *
+     * @param <T> тип ответа
+     */
+    public final class Guard<T> {
+
+        private final String scope;
+        private final String key;
+        private final String requestHash;
+        private final Class<T> type;
+
+        private IdempotentResponseDto saved;
+
+        private Guard(String scope, String key, String requestHash, Class<T> type) {
+            this.scope = scope;
+            this.key = key;
+            this.requestHash = requestHash;
+            this.type = type;
+        }
+
+        /**
+         * Занимает ключ, выполняет действие и сохраняет его ответ. Вызывается в транзакции операции.
+         * Если ключ занял параллельный запрос, дожидается его коммита и возвращает его ответ.
+         *
+         * @param action действие
+         * @return ответ действия или сохранённый ответ параллельного запроса с этим ключом
+         */
+        public T once(Supplier<T> action) {
+            if (key == null) {
+                return action.get();
+            }
+
+            if (!repository.acquire(scope, key, requestHash, ttlMillis)) {
+                return read(repository.findResponse(scope, key, ttlMillis)
+                        .orElseThrow(() -> new IllegalStateException("Запрос с Idempotency-Key " + key
+                                + " ещё выполняется")), requestHash, key, type);
+            }
+
+            final T response = action.get();
+            final IdempotentResponseDto stored = new IdempotentResponseDto(requestHash, write(response));
+
+            repository.saveResponse(scope, key, stored.getResponse());
+            saved = stored;
+
+            return response;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.bank.transfer.service.common;
+
+import com.bank.transfer.client.AntiFraudClient;
+import com.bank.transfer.client.HistoryClient;
+import com.bank.transfer.dto.TransferEventDto;
+import com.bank.transfer.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Доставляет outbox-события в anti-fraud и history пачками по batch-size.
+ * Раз в linger-ms забирает накопившиеся события; пока пачки полные, outbox разбирается без пауз.
+ * Пачка занимается на lease-ms коротким запросом и отправляется вне транзакции, так что медленный получатель
+ * не держит соединение и блокировки outbox. События удаляются только после ответа обоих сервисов, поэтому
+ * доставка не реже одного раза: при ошибке пачка освобождается и целиком отправляется повторно, а если экземпляр
+ * упал, её заново займёт другой после lease-ms. Получатели отбрасывают повторы по eventId.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository repository;
+    private final AntiFraudClient antiFraudClient;
+    private final HistoryClient historyClient;
+    private final int batchSize;
+    private final long leaseMillis;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter delivered;
+    private final Counter failed;
+
+    public OutboxRelay(OutboxEventRepository repository,
+                       AntiFraudClient antiFraudClient,
+                       HistoryClient historyClient,
+                       MeterRegistry meterRegistry,
+                       @Value("${bank.transfer.outbox.batch-size:100}") int batchSize,
+                       @Value("${bank.transfer.outbox.lease-ms:30000}") long leaseMillis) {
+        this.repository = repository;
+        this.antiFraudClient = antiFraudClient;
+        this.historyClient = historyClient;
+        this.batchSize = batchSize;
+        this.leaseMillis = leaseMillis;
+        this.delivered = meterRegistry.counter("transfer.outbox.delivered");
+        this.failed = meterRegistry.counter("transfer.outbox.failed");
+        TimeGauge.builder("transfer.outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::doubleValue)
+                .description("возраст самого старого неотправленного события")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Разбирает outbox, пока не останется неполная пачка.
+     */
+    @Scheduled(fixedDelayString = "${bank.transfer.outbox.linger-ms:200}")
+    public void relay() {
+        try {
+            lagMillis.set(repository.lagMillis());
+
+            int sent;
+            do {
+                sent = relayBatch();
+            } while (sent == batchSize);
+
+            lagMillis.set(repository.lagMillis());
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Не удалось доставить outbox-события, повтор через linger-ms: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        final List<TransferEventDto> events = repository.claimBatch(batchSize, leaseMillis);
+
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        final List<Long> eventIds = events.stream().map(TransferEventDto::getEventId).toList();
+
+        try {
+            antiFraudClient.accept(events);
+            historyClient.accept(events);
+        } catch (RuntimeException e) {
+            repository.releaseAll(eventIds);
+            throw e;
+        }
+
+        repository.deleteAll(eventIds);
+        delivered.increment(events.size());
+
+        return events.size();
+    }
+}
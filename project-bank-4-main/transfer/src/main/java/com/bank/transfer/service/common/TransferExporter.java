@@ -0,0 +1,73 @@
+package com.bank.transfer.service.common;
+
+import com.bank.transfer.entity.TransferChannel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Потоковая выгрузка переводов счёта в NDJSON.
+ * Строки читаются курсором порциями по fetch-size и пишутся в ответ по одной, без накопления в памяти.
+ * Пагинация по ключу: следующая страница запрашивается с afterId, равным id последнего полученного перевода.
+ * Условие по created_at ограничивает чтение секциями периода.
+ */
+@Component
+public class TransferExporter {
+
+    private static final String SELECT_BY_ACCOUNT_DETAILS_ID = "SELECT * FROM transfer.%s "
+            + "WHERE account_details_id = ? AND created_at >= ? AND created_at < ? AND id > ? ORDER BY id LIMIT ?";
+
+    private static final int NEW_LINE = '\n';
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter writer;
+
+    public TransferExporter(DataSource dataSource,
+                            PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper,
+                            @Value("${bank.transfer.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // PostgreSQL читает курсором только внутри транзакции, иначе драйвер загрузит всю выборку
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.writer = objectMapper.writer();
+    }
+
+    /**
+     * @param channel          канал перевода
+     * @param type             класс ДТО перевода
+     * @param accountDetailsId технический идентификатор банковского счета
+     * @param period           период создания переводов
+     * @param afterId          id последнего перевода предыдущей страницы
+     * @param limit            размер страницы, null - до конца
+     * @param out              поток ответа
+     */
+    public <T> void export(TransferChannel channel, Class<T> type, Long accountDetailsId, TransferPeriod period,
+                           Long afterId, Integer limit, OutputStream out) {
+        final BeanPropertyRowMapper<T> rowMapper = BeanPropertyRowMapper.newInstance(type);
+        final String sql = String.format(SELECT_BY_ACCOUNT_DETAILS_ID, channel.getTable());
+
+        // LIMIT NULL в PostgreSQL означает выборку без ограничения
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(sql,
+                resultSet -> {
+                    try {
+                        out.write(writer.writeValueAsBytes(rowMapper.mapRow(resultSet, 0)));
+                        out.write(NEW_LINE);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, accountDetailsId, period.getFrom(), period.getTo(), afterId, limit));
+    }
+}
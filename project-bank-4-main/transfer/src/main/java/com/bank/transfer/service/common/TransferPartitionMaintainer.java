@@ -0,0 +1,45 @@
+package com.bank.transfer.service.common;
+
+import com.bank.transfer.entity.TransferChannel;
+import com.bank.transfer.repository.TransferPartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Заранее создаёт месячные секции таблиц переводов на months-ahead месяцев вперёд.
+ * Пока секция месяца не создана, его переводы попадают в секцию DEFAULT, а из непустой DEFAULT
+ * секцию за тот же месяц создать уже нельзя, поэтому задача запускается при старте и затем раз в interval-ms.
+ */
+@Slf4j
+@Component
+public class TransferPartitionMaintainer {
+
+    private final TransferPartitionRepository repository;
+    private final int monthsAhead;
+
+    public TransferPartitionMaintainer(TransferPartitionRepository repository,
+                                       @Value("${bank.transfer.partition.months-ahead:2}") int monthsAhead) {
+        this.repository = repository;
+        this.monthsAhead = monthsAhead;
+    }
+
+    /**
+     * Создаёт недостающие секции всех каналов.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${bank.transfer.partition.interval-ms:3600000}")
+    public void createPartitions() {
+        for (TransferChannel channel : TransferChannel.values()) {
+            try {
+                final int created = repository.createMonthlyPartitions(channel.getTable(), monthsAhead);
+
+                if (created > 0) {
+                    log.info("Создано {} месячных секций таблицы {}", created, channel.getTable());
+                }
+            } catch (RuntimeException e) {
+                log.error("Не удалось создать секции таблицы {}: {}", channel.getTable(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.bank.transfer.service.common;
+
+import com.bank.common.exception.ValidationException;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Полуинтервал [from, to) по created_at. Переводы секционированы по месяцам created_at,
+ * поэтому запрос с периодом читает только секции, которые с ним пересекаются.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TransferPeriod {
+
+    private static final int DEFAULT_MONTHS = 1;
+
+    private final LocalDateTime from;
+
+    private final LocalDateTime to;
+
+    /**
+     * @param from начало периода включительно, null - за месяц до конца периода
+     * @param to   конец периода не включительно, null - текущий момент
+     * @return {@link TransferPeriod}
+     */
+    public static TransferPeriod of(LocalDateTime from, LocalDateTime to) {
+        // конец по умолчанию с запасом в секунду, чтобы попал перевод, созданный в момент запроса
+        final LocalDateTime end = to != null ? to : LocalDateTime.now().plusSeconds(1);
+        final LocalDateTime start = from != null ? from : end.minusMonths(DEFAULT_MONTHS);
+
+        if (!start.isBefore(end)) {
+            throw new ValidationException("Начало периода должно быть раньше конца: " + start + " - " + end);
+        }
+
+        return new TransferPeriod(start, end);
+    }
+}